@@ -2,9 +2,13 @@ package codes.wasabi.r4j;
 
 import codes.wasabi.r4j.enums.Scope;
 import codes.wasabi.r4j.exception.RedditOAuthCodeRedemptionException;
+import codes.wasabi.r4j.exception.RedditHTTPException;
 import codes.wasabi.r4j.exception.RedditOAuthException;
+import codes.wasabi.r4j.http.RedditRequest;
+import codes.wasabi.r4j.http.RedditResponse;
 import codes.wasabi.r4j.oauth.RedditOAuthResponse;
 import codes.wasabi.r4j.oauth.RedditOAuthServer;
+import codes.wasabi.r4j.param.ClientOptions;
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 import org.jetbrains.annotations.Contract;
@@ -12,15 +16,13 @@ import org.jetbrains.annotations.NotNull;
 
 import java.awt.Desktop;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.net.*;
 import java.nio.charset.StandardCharsets;
-import java.util.Base64;
-import java.util.EnumSet;
-import java.util.Objects;
-import java.util.UUID;
+import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.function.Consumer;
 
 /**
@@ -31,26 +33,48 @@ public class RedditApplication {
     private final String clientID;
     private final String clientSecret;
     private final boolean hasClientSecret;
+    private ClientOptions options;
 
     /**
      * Creates a new <a href="https://www.reddit.com/prefs/apps">Reddit Application</a> instance
      * @param clientID The client ID of this application
+     * @param options The options that clients created by this application will use
      */
-    public RedditApplication(@NotNull String clientID) {
+    public RedditApplication(@NotNull String clientID, @NotNull ClientOptions options) {
         this.clientID = clientID;
         this.clientSecret = "";
         hasClientSecret = false;
+        this.options = options;
+    }
+
+    /**
+     * Creates a new <a href="https://www.reddit.com/prefs/apps">Reddit Application</a> instance
+     * @param clientID The client ID of this application
+     */
+    public RedditApplication(@NotNull String clientID) {
+        this(clientID, ClientOptions.builder().build());
     }
 
     /**
      * Creates a new <a href="https://www.reddit.com/prefs/apps">Reddit Application</a> instance
      * @param clientID The client ID of this application
      * @param clientSecret The client secret of this application
+     * @param options The options that clients created by this application will use
      */
-    public RedditApplication(@NotNull String clientID, @NotNull String clientSecret) {
+    public RedditApplication(@NotNull String clientID, @NotNull String clientSecret, @NotNull ClientOptions options) {
         this.clientID = clientID;
         this.clientSecret = clientSecret;
         hasClientSecret = true;
+        this.options = options;
+    }
+
+    /**
+     * Creates a new <a href="https://www.reddit.com/prefs/apps">Reddit Application</a> instance
+     * @param clientID The client ID of this application
+     * @param clientSecret The client secret of this application
+     */
+    public RedditApplication(@NotNull String clientID, @NotNull String clientSecret) {
+        this(clientID, clientSecret, ClientOptions.builder().build());
     }
 
     /**
@@ -77,6 +101,73 @@ public class RedditApplication {
         return hasClientSecret;
     }
 
+    /**
+     * Gets the options that clients created by this application will use
+     * @return The client options
+     */
+    public final @NotNull ClientOptions getClientOptions() {
+        return options;
+    }
+
+    /**
+     * Sets the options that clients created by this application will use. Clients that have already been created are not affected.
+     * @param options The client options
+     */
+    public final void setClientOptions(@NotNull ClientOptions options) {
+        this.options = options;
+    }
+
+    private @NotNull RedditRequest buildTokenRequest(@NotNull ClientOptions options, @NotNull String payload) {
+        String basicAuth = new String(Base64.getEncoder().encode((clientID + ":" + clientSecret).getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
+        URI uri = URI.create(options.tokenURL() + "/api/v1/access_token");
+        return new RedditRequest("POST", uri, Map.of(
+                "Authorization", "Basic " + basicAuth,
+                "Content-Type", "application/x-www-form-urlencoded; charset=utf-8",
+                "Accept", "application/json",
+                "User-Agent", Reddit4J.getUserAgent()
+        ), payload.getBytes(StandardCharsets.UTF_8), options.requestTimeout());
+    }
+
+    private @NotNull JsonObject readTokenResponse(@NotNull RedditRequest request, @NotNull RedditResponse response) throws IOException {
+        try (response) {
+            if (!response.isSuccessful()) {
+                throw new RedditHTTPException(response.getStatus(), "Server returned HTTP response code " + response.getStatus() + " for URL " + request.uri());
+            }
+            try (Reader reader = new InputStreamReader(response.getContent(), StandardCharsets.UTF_8)) {
+                return new Gson().fromJson(reader, JsonObject.class);
+            }
+        }
+    }
+
+    /**
+     * Requests an access token from Reddit using this application's credentials
+     * @param options The options to send the request with
+     * @param payload The URL-encoded form body, e.g. grant_type=refresh_token&amp;refresh_token=...
+     * @return The JSON body of the response
+     * @throws IOException Could not complete this request
+     */
+    final @NotNull JsonObject requestToken(@NotNull ClientOptions options, @NotNull String payload) throws IOException {
+        RedditRequest request = buildTokenRequest(options, payload);
+        return readTokenResponse(request, options.transport().send(request));
+    }
+
+    /**
+     * Requests an access token from Reddit using this application's credentials, without blocking
+     * @param options The options to send the request with
+     * @param payload The URL-encoded form body, e.g. grant_type=refresh_token&amp;refresh_token=...
+     * @return A future that resolves with the JSON body of the response
+     */
+    final @NotNull CompletableFuture<JsonObject> requestTokenAsync(@NotNull ClientOptions options, @NotNull String payload) {
+        RedditRequest request = buildTokenRequest(options, payload);
+        return options.transport().sendAsync(request).thenApplyAsync((RedditResponse response) -> {
+            try {
+                return readTokenResponse(request, response);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, options.executor());
+    }
+
     /**
      * Creates a client from an existing session with the given bearer token
      * @param bearerToken The bearer token
@@ -133,31 +224,11 @@ public class RedditApplication {
                 ret.completeExceptionally(err);
             } else {
                 String code = response.code();
-                OutputStream os = null;
-                InputStream is = null;
                 try {
-                    URL u = new URL("https://www.reddit.com/api/v1/access_token/");
-                    HttpURLConnection conn = (HttpURLConnection) u.openConnection();
-                    conn.setRequestMethod("POST");
-                    conn.setDoInput(true);
-                    conn.setDoOutput(true);
-                    conn.setInstanceFollowRedirects(true);
-                    conn.setRequestProperty("Authorization", "Basic " + new String(Base64.getEncoder().encode((clientID + ":" + clientSecret).getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8));
-                    conn.setRequestProperty("Content-Type", "application/x-www-form-urlencoded; charset=utf-8");
-                    conn.setRequestProperty("Accept", "application/json");
-                    conn.setRequestProperty("User-Agent", Reddit4J.getUserAgent());
-                    conn.connect();
                     String payload = "grant_type=authorization_code&" +
                             "code=" + URLEncoder.encode(code, StandardCharsets.UTF_8) + "&" +
                             "redirect_uri=" + redirectURI;
-                    os = conn.getOutputStream();
-                    os.write(payload.getBytes(StandardCharsets.UTF_8));
-                    os.flush();
-                    is = conn.getInputStream();
-                    byte[] bytes = is.readAllBytes();
-                    String s = new String(bytes, StandardCharsets.UTF_8);
-                    Gson gson = new Gson();
-                    JsonObject ob = gson.fromJson(s, JsonObject.class);
+                    JsonObject ob = requestToken(options, payload);
                     if (ob.has("error")) {
                         ret.completeExceptionally(new RedditOAuthCodeRedemptionException("Endpoint gave error code \"" + ob.get("error").getAsString() + "\""));
                     } else {
@@ -170,11 +241,6 @@ public class RedditApplication {
                     }
                 } catch (Exception e) {
                     ret.completeExceptionally(new RedditOAuthCodeRedemptionException(e));
-                } finally {
-                    try {
-                        if (os != null) os.close();
-                        if (is != null) is.close();
-                    } catch (IOException ignored) { }
                 }
             }
         });
@@ -1,45 +1,98 @@
 package codes.wasabi.r4j;
 
+import codes.wasabi.r4j.concurrent.BatchLoader;
+import codes.wasabi.r4j.concurrent.BulkExecutor;
+import codes.wasabi.r4j.concurrent.CommentExpander;
+import codes.wasabi.r4j.concurrent.DemandPublisher;
+import codes.wasabi.r4j.concurrent.Futures;
+import codes.wasabi.r4j.concurrent.IOFunction;
+import codes.wasabi.r4j.concurrent.IOSupplier;
+import codes.wasabi.r4j.concurrent.MultiListing;
+import codes.wasabi.r4j.concurrent.Paginator;
+import codes.wasabi.r4j.concurrent.SingleFlight;
 import codes.wasabi.r4j.enums.Region;
 import codes.wasabi.r4j.enums.SortType;
 import codes.wasabi.r4j.enums.Theme;
 import codes.wasabi.r4j.enums.TimePeriod;
+import codes.wasabi.r4j.exception.RedditCircuitOpenException;
+import codes.wasabi.r4j.exception.RedditException;
+import codes.wasabi.r4j.exception.RedditHTTPException;
+import codes.wasabi.r4j.http.CircuitBreaker;
+import codes.wasabi.r4j.http.RateLimiter;
+import codes.wasabi.r4j.http.RedditRequest;
+import codes.wasabi.r4j.http.RedditResponse;
+import codes.wasabi.r4j.http.ResponseCache;
+import codes.wasabi.r4j.http.ValidatorStore;
+import codes.wasabi.r4j.param.ClientOptions;
 import codes.wasabi.r4j.param.CommentViewOptions;
+import codes.wasabi.r4j.param.ExpandOptions;
 import codes.wasabi.r4j.param.ListingOptions;
+import codes.wasabi.r4j.param.PaginationOptions;
+import codes.wasabi.r4j.param.RetryPolicy;
 import codes.wasabi.r4j.struct.*;
 import com.google.gson.Gson;
-import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
 import java.lang.ref.WeakReference;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.net.URI;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
-import java.util.Base64;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
 
 public class RedditClient {
 
     private final RedditApplication app;
-    private String bearerToken;
+    private final ClientOptions options;
+    private final RateLimiter rateLimiter;
+    private final CircuitBreaker circuitBreaker;
+    private final SingleFlight<String> singleFlight;
+    private final ResponseCache cache;
+    private final ValidatorStore validators;
+    private final EntityIdentityMap identities;
+    private volatile String bearerToken;
     private final String refreshToken;
     private final boolean hasRefreshToken;
-    private long refreshTime;
+    private volatile long refreshTime;
     protected RedditClient(RedditApplication app, String bearerToken, String refreshToken) {
         this.app = app;
+        this.options = app.getClientOptions();
         this.bearerToken = bearerToken;
         this.refreshToken = refreshToken;
         this.hasRefreshToken = refreshToken != null;
         this.refreshTime = System.currentTimeMillis() + 3300000L;
+        if (!options.rateLimiting()) {
+            this.rateLimiter = null;
+        } else if (options.rateLimiter() != null) {
+            this.rateLimiter = options.rateLimiter();
+        } else {
+            this.rateLimiter = RateLimiter.forToken(hasRefreshToken ? refreshToken : bearerToken);
+        }
+        if (!options.circuitBreaking()) {
+            this.circuitBreaker = null;
+        } else if (options.circuitBreaker() != null) {
+            this.circuitBreaker = options.circuitBreaker();
+        } else {
+            this.circuitBreaker = CircuitBreaker.forHost(URI.create(options.apiURL()).getHost());
+        }
+        this.singleFlight = (options.coalescing() ? new SingleFlight<>() : null);
+        this.cache = (options.cache() == null ? null : new ResponseCache(options.cache()));
+        this.validators = (options.revalidationCapacity() > 0 ? new ValidatorStore(options.revalidationCapacity(), options.revalidationMaxBytes()) : null);
+        this.identities = (options.canonicalEntities() ? new EntityIdentityMap() : null);
     }
 
     protected RedditClient(RedditApplication app, String bearerToken) {
@@ -54,6 +107,76 @@ public class RedditClient {
         return app;
     }
 
+    /**
+     * Gets the options this client was created with
+     * @return The client options
+     */
+    public @NotNull ClientOptions getOptions() {
+        return options;
+    }
+
+    /**
+     * Gets the limiter that paces this client's requests
+     * @return The rate limiter, or null if rate limiting is disabled
+     * @see ClientOptions#rateLimiting()
+     */
+    public @Nullable RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * Gets the counters of identical GET requests that were coalesced into one
+     * @return The coalescing stats, or null if coalescing is disabled
+     * @see ClientOptions#coalescing()
+     */
+    public @Nullable SingleFlight.Stats getCoalescingStats() {
+        return singleFlight == null ? null : singleFlight.getStats();
+    }
+
+    /**
+     * Gets the cache that results of GET requests are served from
+     * @return The response cache, or null if caching is disabled
+     * @see ClientOptions#cache()
+     */
+    public @Nullable ResponseCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Gets the counters of the response cache
+     * @return The cache stats, or null if caching is disabled
+     */
+    public @Nullable ResponseCache.Stats getCacheStats() {
+        return cache == null ? null : cache.getStats();
+    }
+
+    /**
+     * Gets the breaker that guards requests to the API host
+     * @return The circuit breaker, or null if circuit breaking is disabled
+     * @see ClientOptions#circuitBreaker()
+     */
+    public @Nullable CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * Gets the store of response validators that re-fetches are sent as conditional requests with
+     * @return The validator store, or null if conditional requests are disabled
+     * @see ClientOptions#revalidationCapacity()
+     */
+    public @Nullable ValidatorStore getValidatorStore() {
+        return validators;
+    }
+
+    /**
+     * Gets the map that resolves every decoded post and comment to its canonical instance
+     * @return The identity map, or null if entities are not canonicalized
+     * @see ClientOptions#canonicalEntities()
+     */
+    public @Nullable EntityIdentityMap getIdentityMap() {
+        return identities;
+    }
+
     /**
      * Gets the one-time bearer token for this client's session
      * @return The bearer token
@@ -95,13 +218,31 @@ public class RedditClient {
     public Identity getIdentity() throws IOException {
         Identity ret = identityWeakReference.get();
         if (ret == null) {
-            JsonObject ob = requestJSON("GET", "/api/v1/me", JsonObject.class);
-            ret = new Identity(ob);
+            ret = fetch("GET", "/api/v1/me", Collections.emptyMap(), "identity", this::readIdentity);
             identityWeakReference = new WeakReference<>(ret);
         }
         return ret;
     }
 
+    private Identity readIdentity(JsonReader reader) throws IOException {
+        if (options.retainJSON()) return new Identity(JsonParser.parseReader(reader).getAsJsonObject());
+        return new Identity(Identity.Data.ADAPTER.read(reader));
+    }
+
+    /**
+     * Gets the identity of the client without blocking. Requires the identity scope
+     * @return A future that resolves with the identity of the client
+     * @see #getIdentity()
+     */
+    public CompletableFuture<Identity> getIdentityAsync() {
+        Identity cached = identityWeakReference.get();
+        if (cached != null) return CompletableFuture.completedFuture(cached);
+        return fetchAsync("GET", "/api/v1/me", Collections.emptyMap(), "identity", this::readIdentity).thenApply((Identity ret) -> {
+            identityWeakReference = new WeakReference<>(ret);
+            return ret;
+        });
+    }
+
     /**
      * Lists the hot posts for a subreddit
      * @param subreddit Subreddit name
@@ -112,8 +253,21 @@ public class RedditClient {
     public Listing<Post> getHot(String subreddit, Region region, ListingOptions options) throws IOException {
         Map<String, String> params = options.toHashMap();
         params.put("g", region.name());
-        JsonObject ob = requestJSON("GET", "/r/" + subreddit + "/hot", params, JsonObject.class);
-        return new Listing<>(Post.class, ob);
+        return requestListing(Post.class, "/r/" + subreddit + "/hot", params, options.bypassCache(), options.fields());
+    }
+
+    /**
+     * Lists the hot posts for a subreddit without blocking
+     * @param subreddit Subreddit name
+     * @param region The region to search within
+     * @param options The options for this listing
+     * @return A future that resolves with the listing
+     * @see #getHot(String, Region, ListingOptions)
+     */
+    public CompletableFuture<Listing<Post>> getHotAsync(String subreddit, Region region, ListingOptions options) {
+        Map<String, String> params = options.toHashMap();
+        params.put("g", region.name());
+        return requestListingAsync(Post.class, "/r/" + subreddit + "/hot", params, options.bypassCache(), options.fields());
     }
 
     /**
@@ -126,6 +280,17 @@ public class RedditClient {
         return getHot(subreddit, Region.GLOBAL, options);
     }
 
+    /**
+     * Lists the hot posts for a subreddit without blocking
+     * @param subreddit Subreddit name
+     * @param options The options for this listing
+     * @return A future that resolves with the listing
+     * @see #getHot(String, ListingOptions)
+     */
+    public CompletableFuture<Listing<Post>> getHotAsync(String subreddit, ListingOptions options) {
+        return getHotAsync(subreddit, Region.GLOBAL, options);
+    }
+
     /**
      * Lists the best posts for a subreddit
      * @param subreddit Subreddit name
@@ -134,8 +299,19 @@ public class RedditClient {
      */
     public Listing<Post> getBest(String subreddit, ListingOptions options) throws IOException {
         Map<String, String> params = options.toHashMap();
-        JsonObject ob = requestJSON("GET", "/r/" + subreddit + "/best", params, JsonObject.class);
-        return new Listing<>(Post.class, ob);
+        return requestListing(Post.class, "/r/" + subreddit + "/best", params, options.bypassCache(), options.fields());
+    }
+
+    /**
+     * Lists the best posts for a subreddit without blocking
+     * @param subreddit Subreddit name
+     * @param options The options for this listing
+     * @return A future that resolves with the listing
+     * @see #getBest(String, ListingOptions)
+     */
+    public CompletableFuture<Listing<Post>> getBestAsync(String subreddit, ListingOptions options) {
+        Map<String, String> params = options.toHashMap();
+        return requestListingAsync(Post.class, "/r/" + subreddit + "/best", params, options.bypassCache(), options.fields());
     }
 
     /**
@@ -148,209 +324,1260 @@ public class RedditClient {
     public Listing<Post> getTop(String subreddit, TimePeriod period, ListingOptions options) throws IOException {
         Map<String, String> params = options.toHashMap();
         params.put("t", period.name().toLowerCase());
-        JsonObject ob = requestJSON("GET", "/r/" + subreddit + "/top", params, JsonObject.class);
-        return new Listing<>(Post.class, ob);
+        return requestListing(Post.class, "/r/" + subreddit + "/top", params, options.bypassCache(), options.fields());
+    }
+
+    /**
+     * Lists the top posts for a subreddit without blocking
+     * @param subreddit Subreddit name
+     * @param period The time period to search over
+     * @param options The options for this listing
+     * @return A future that resolves with the listing
+     * @see #getTop(String, TimePeriod, ListingOptions)
+     */
+    public CompletableFuture<Listing<Post>> getTopAsync(String subreddit, TimePeriod period, ListingOptions options) {
+        Map<String, String> params = options.toHashMap();
+        params.put("t", period.name().toLowerCase());
+        return requestListingAsync(Post.class, "/r/" + subreddit + "/top", params, options.bypassCache(), options.fields());
+    }
+
+    /**
+     * Lists the controversial posts for a subreddit
+     * @param subreddit Subreddit name
+     * @param period The time period to search over
+     * @param options The options for this listing
+     * @return The listing
+     */
+    public Listing<Post> getControversial(String subreddit, TimePeriod period, ListingOptions options) throws IOException {
+        Map<String, String> params = options.toHashMap();
+        params.put("t", period.name().toLowerCase());
+        return requestListing(Post.class, "/r/" + subreddit + "/controversial", params, options.bypassCache(), options.fields());
+    }
+
+    /**
+     * Lists the controversial posts for a subreddit without blocking
+     * @param subreddit Subreddit name
+     * @param period The time period to search over
+     * @param options The options for this listing
+     * @return A future that resolves with the listing
+     * @see #getControversial(String, TimePeriod, ListingOptions)
+     */
+    public CompletableFuture<Listing<Post>> getControversialAsync(String subreddit, TimePeriod period, ListingOptions options) {
+        Map<String, String> params = options.toHashMap();
+        params.put("t", period.name().toLowerCase());
+        return requestListingAsync(Post.class, "/r/" + subreddit + "/controversial", params, options.bypassCache(), options.fields());
+    }
+
+    /**
+     * Lists the new posts for a subreddit
+     * @param subreddit Subreddit name
+     * @param options The options for this listing
+     * @return The listing
+     */
+    public Listing<Post> getNew(String subreddit, ListingOptions options) throws IOException {
+        Map<String, String> params = options.toHashMap();
+        return requestListing(Post.class, "/r/" + subreddit + "/new", params, options.bypassCache(), options.fields());
+    }
+
+    /**
+     * Lists the new posts for a subreddit without blocking
+     * @param subreddit Subreddit name
+     * @param options The options for this listing
+     * @return A future that resolves with the listing
+     * @see #getNew(String, ListingOptions)
+     */
+    public CompletableFuture<Listing<Post>> getNewAsync(String subreddit, ListingOptions options) {
+        Map<String, String> params = options.toHashMap();
+        return requestListingAsync(Post.class, "/r/" + subreddit + "/new", params, options.bypassCache(), options.fields());
+    }
+
+    /**
+     * Lists the rising posts for a subreddit
+     * @param subreddit Subreddit name
+     * @param options The options for this listing
+     * @return The listing
+     */
+    public Listing<Post> getRising(String subreddit, ListingOptions options) throws IOException {
+        Map<String, String> params = options.toHashMap();
+        return requestListing(Post.class, "/r/" + subreddit + "/rising", params, options.bypassCache(), options.fields());
+    }
+
+    /**
+     * Lists the rising posts for a subreddit without blocking
+     * @param subreddit Subreddit name
+     * @param options The options for this listing
+     * @return A future that resolves with the listing
+     * @see #getRising(String, ListingOptions)
+     */
+    public CompletableFuture<Listing<Post>> getRisingAsync(String subreddit, ListingOptions options) {
+        Map<String, String> params = options.toHashMap();
+        return requestListingAsync(Post.class, "/r/" + subreddit + "/rising", params, options.bypassCache(), options.fields());
+    }
+
+    /**
+     * Lists the newest comments across every post in a subreddit
+     * @param subreddit Subreddit name, or several joined with + (e.g. "pics+aww")
+     * @param options The options for this listing
+     * @return The listing
+     */
+    public Listing<Comment> getNewComments(String subreddit, ListingOptions options) throws IOException {
+        Map<String, String> params = options.toHashMap();
+        return requestListing(Comment.class, "/r/" + subreddit + "/comments", params, options.bypassCache(), options.fields());
+    }
+
+    /**
+     * Lists the newest comments across every post in a subreddit without blocking
+     * @param subreddit Subreddit name, or several joined with + (e.g. "pics+aww")
+     * @param options The options for this listing
+     * @return A future that resolves with the listing
+     * @see #getNewComments(String, ListingOptions)
+     */
+    public CompletableFuture<Listing<Comment>> getNewCommentsAsync(String subreddit, ListingOptions options) {
+        Map<String, String> params = options.toHashMap();
+        return requestListingAsync(Comment.class, "/r/" + subreddit + "/comments", params, options.bypassCache(), options.fields());
+    }
+
+    /**
+     * Lists the posts submitted by a user, newest first
+     * @param username The name of the user, without the u/ prefix
+     * @param options The options for this listing
+     * @return The listing
+     */
+    public Listing<Post> getUserSubmitted(String username, ListingOptions options) throws IOException {
+        Map<String, String> params = options.toHashMap();
+        return requestListing(Post.class, "/user/" + username + "/submitted", params, options.bypassCache(), options.fields());
+    }
+
+    /**
+     * Lists the posts submitted by a user without blocking
+     * @param username The name of the user, without the u/ prefix
+     * @param options The options for this listing
+     * @return A future that resolves with the listing
+     * @see #getUserSubmitted(String, ListingOptions)
+     */
+    public CompletableFuture<Listing<Post>> getUserSubmittedAsync(String username, ListingOptions options) {
+        Map<String, String> params = options.toHashMap();
+        return requestListingAsync(Post.class, "/user/" + username + "/submitted", params, options.bypassCache(), options.fields());
+    }
+
+    /**
+     * Lists the comments made by a user, newest first
+     * @param username The name of the user, without the u/ prefix
+     * @param options The options for this listing
+     * @return The listing
+     */
+    public Listing<Comment> getUserComments(String username, ListingOptions options) throws IOException {
+        Map<String, String> params = options.toHashMap();
+        return requestListing(Comment.class, "/user/" + username + "/comments", params, options.bypassCache(), options.fields());
+    }
+
+    /**
+     * Lists the comments made by a user without blocking
+     * @param username The name of the user, without the u/ prefix
+     * @param options The options for this listing
+     * @return A future that resolves with the listing
+     * @see #getUserComments(String, ListingOptions)
+     */
+    public CompletableFuture<Listing<Comment>> getUserCommentsAsync(String username, ListingOptions options) {
+        Map<String, String> params = options.toHashMap();
+        return requestListingAsync(Comment.class, "/user/" + username + "/comments", params, options.bypassCache(), options.fields());
+    }
+
+    /**
+     * Iterates over the hot posts for a subreddit across pages, fetching the next pages in the background
+     * @param subreddit Subreddit name
+     * @param region The region to search within
+     * @param options The options for the first page
+     * @param pagination The prefetch depth and the maximum number of posts
+     * @return The paginator, which should be closed if it is not consumed to the end
+     */
+    public Paginator<Post> paginateHot(String subreddit, Region region, ListingOptions options, PaginationOptions pagination) {
+        return new Paginator<>((ListingOptions page) -> getHotAsync(subreddit, region, page), options, pagination);
+    }
+
+    /**
+     * Iterates over the hot posts for a subreddit across pages, fetching the next page in the background
+     * @param subreddit Subreddit name
+     * @param region The region to search within
+     * @param options The options for the first page
+     * @return The paginator, which should be closed if it is not consumed to the end
+     * @see #paginateHot(String, Region, ListingOptions, PaginationOptions)
+     */
+    public Paginator<Post> paginateHot(String subreddit, Region region, ListingOptions options) {
+        return paginateHot(subreddit, region, options, PaginationOptions.DEFAULT);
+    }
+
+    /**
+     * Iterates over the hot posts for a subreddit across pages, fetching the next pages in the background
+     * @param subreddit Subreddit name
+     * @param options The options for the first page
+     * @param pagination The prefetch depth and the maximum number of posts
+     * @return The paginator, which should be closed if it is not consumed to the end
+     */
+    public Paginator<Post> paginateHot(String subreddit, ListingOptions options, PaginationOptions pagination) {
+        return new Paginator<>((ListingOptions page) -> getHotAsync(subreddit, page), options, pagination);
+    }
+
+    /**
+     * Iterates over the hot posts for a subreddit across pages, fetching the next page in the background
+     * @param subreddit Subreddit name
+     * @param options The options for the first page
+     * @return The paginator, which should be closed if it is not consumed to the end
+     * @see #paginateHot(String, ListingOptions, PaginationOptions)
+     */
+    public Paginator<Post> paginateHot(String subreddit, ListingOptions options) {
+        return paginateHot(subreddit, options, PaginationOptions.DEFAULT);
+    }
+
+    /**
+     * Iterates over the best posts for a subreddit across pages, fetching the next pages in the background
+     * @param subreddit Subreddit name
+     * @param options The options for the first page
+     * @param pagination The prefetch depth and the maximum number of posts
+     * @return The paginator, which should be closed if it is not consumed to the end
+     */
+    public Paginator<Post> paginateBest(String subreddit, ListingOptions options, PaginationOptions pagination) {
+        return new Paginator<>((ListingOptions page) -> getBestAsync(subreddit, page), options, pagination);
+    }
+
+    /**
+     * Iterates over the best posts for a subreddit across pages, fetching the next page in the background
+     * @param subreddit Subreddit name
+     * @param options The options for the first page
+     * @return The paginator, which should be closed if it is not consumed to the end
+     * @see #paginateBest(String, ListingOptions, PaginationOptions)
+     */
+    public Paginator<Post> paginateBest(String subreddit, ListingOptions options) {
+        return paginateBest(subreddit, options, PaginationOptions.DEFAULT);
+    }
+
+    /**
+     * Iterates over the top posts for a subreddit across pages, fetching the next pages in the background
+     * @param subreddit Subreddit name
+     * @param period The time period to search over
+     * @param options The options for the first page
+     * @param pagination The prefetch depth and the maximum number of posts
+     * @return The paginator, which should be closed if it is not consumed to the end
+     */
+    public Paginator<Post> paginateTop(String subreddit, TimePeriod period, ListingOptions options, PaginationOptions pagination) {
+        return new Paginator<>((ListingOptions page) -> getTopAsync(subreddit, period, page), options, pagination);
+    }
+
+    /**
+     * Iterates over the top posts for a subreddit across pages, fetching the next page in the background
+     * @param subreddit Subreddit name
+     * @param period The time period to search over
+     * @param options The options for the first page
+     * @return The paginator, which should be closed if it is not consumed to the end
+     * @see #paginateTop(String, TimePeriod, ListingOptions, PaginationOptions)
+     */
+    public Paginator<Post> paginateTop(String subreddit, TimePeriod period, ListingOptions options) {
+        return paginateTop(subreddit, period, options, PaginationOptions.DEFAULT);
+    }
+
+    /**
+     * Iterates over the controversial posts for a subreddit across pages, fetching the next pages in the background
+     * @param subreddit Subreddit name
+     * @param period The time period to search over
+     * @param options The options for the first page
+     * @param pagination The prefetch depth and the maximum number of posts
+     * @return The paginator, which should be closed if it is not consumed to the end
+     */
+    public Paginator<Post> paginateControversial(String subreddit, TimePeriod period, ListingOptions options, PaginationOptions pagination) {
+        return new Paginator<>((ListingOptions page) -> getControversialAsync(subreddit, period, page), options, pagination);
+    }
+
+    /**
+     * Iterates over the controversial posts for a subreddit across pages, fetching the next page in the background
+     * @param subreddit Subreddit name
+     * @param period The time period to search over
+     * @param options The options for the first page
+     * @return The paginator, which should be closed if it is not consumed to the end
+     * @see #paginateControversial(String, TimePeriod, ListingOptions, PaginationOptions)
+     */
+    public Paginator<Post> paginateControversial(String subreddit, TimePeriod period, ListingOptions options) {
+        return paginateControversial(subreddit, period, options, PaginationOptions.DEFAULT);
+    }
+
+    /**
+     * Iterates over the new posts for a subreddit across pages, fetching the next pages in the background
+     * @param subreddit Subreddit name
+     * @param options The options for the first page
+     * @param pagination The prefetch depth and the maximum number of posts
+     * @return The paginator, which should be closed if it is not consumed to the end
+     */
+    public Paginator<Post> paginateNew(String subreddit, ListingOptions options, PaginationOptions pagination) {
+        return new Paginator<>((ListingOptions page) -> getNewAsync(subreddit, page), options, pagination);
+    }
+
+    /**
+     * Iterates over the new posts for a subreddit across pages, fetching the next page in the background
+     * @param subreddit Subreddit name
+     * @param options The options for the first page
+     * @return The paginator, which should be closed if it is not consumed to the end
+     * @see #paginateNew(String, ListingOptions, PaginationOptions)
+     */
+    public Paginator<Post> paginateNew(String subreddit, ListingOptions options) {
+        return paginateNew(subreddit, options, PaginationOptions.DEFAULT);
+    }
+
+    /**
+     * Iterates over the rising posts for a subreddit across pages, fetching the next pages in the background
+     * @param subreddit Subreddit name
+     * @param options The options for the first page
+     * @param pagination The prefetch depth and the maximum number of posts
+     * @return The paginator, which should be closed if it is not consumed to the end
+     */
+    public Paginator<Post> paginateRising(String subreddit, ListingOptions options, PaginationOptions pagination) {
+        return new Paginator<>((ListingOptions page) -> getRisingAsync(subreddit, page), options, pagination);
+    }
+
+    /**
+     * Iterates over the rising posts for a subreddit across pages, fetching the next page in the background
+     * @param subreddit Subreddit name
+     * @param options The options for the first page
+     * @return The paginator, which should be closed if it is not consumed to the end
+     * @see #paginateRising(String, ListingOptions, PaginationOptions)
+     */
+    public Paginator<Post> paginateRising(String subreddit, ListingOptions options) {
+        return paginateRising(subreddit, options, PaginationOptions.DEFAULT);
+    }
+
+    /**
+     * The pagination of each group of a multi listing when none is given, which only fetches a page once the merge needs it
+     */
+    private static final PaginationOptions MULTI_PAGINATION = PaginationOptions.builder().prefetch(0).build();
+
+    /**
+     * Iterates over the new posts of many subreddits as one stream, newest first. The subreddits are spread over as few r/a+b+c
+     * groups as fit in a request (see {@link MultiListing#group(Collection)}), whose first pages are fetched at once, and the groups
+     * are merged by creation time. Later pages of a group are only fetched once the merge needs them.
+     * @param subreddits Subreddit names
+     * @param options The options for the first page of each group
+     * @param pagination The prefetch depth of each group, and the maximum number of posts in total
+     * @return The multi listing, which should be closed if it is not consumed to the end
+     */
+    public MultiListing<Post> multiNew(Collection<String> subreddits, ListingOptions options, PaginationOptions pagination) {
+        List<Paginator<Post>> sources = new ArrayList<>();
+        for (String group : MultiListing.group(subreddits)) sources.add(paginateNew(group, options, pagination));
+        return new MultiListing<>(sources, MultiListing.NEWEST_FIRST, pagination.maxItems());
+    }
+
+    /**
+     * Iterates over the new posts of many subreddits as one stream, newest first
+     * @param subreddits Subreddit names
+     * @param options The options for the first page of each group
+     * @return The multi listing, which should be closed if it is not consumed to the end
+     * @see #multiNew(Collection, ListingOptions, PaginationOptions)
+     */
+    public MultiListing<Post> multiNew(Collection<String> subreddits, ListingOptions options) {
+        return multiNew(subreddits, options, MULTI_PAGINATION);
+    }
+
+    /**
+     * Iterates over the top posts of many subreddits as one stream, highest score first. The subreddits are grouped as for
+     * {@link #multiNew(Collection, ListingOptions, PaginationOptions)}, and the groups are merged by score.
+     * @param subreddits Subreddit names
+     * @param period The period of time to get top posts from
+     * @param options The options for the first page of each group
+     * @param pagination The prefetch depth of each group, and the maximum number of posts in total
+     * @return The multi listing, which should be closed if it is not consumed to the end
+     */
+    public MultiListing<Post> multiTop(Collection<String> subreddits, TimePeriod period, ListingOptions options, PaginationOptions pagination) {
+        List<Paginator<Post>> sources = new ArrayList<>();
+        for (String group : MultiListing.group(subreddits)) sources.add(paginateTop(group, period, options, pagination));
+        return new MultiListing<>(sources, MultiListing.HIGHEST_SCORE_FIRST, pagination.maxItems());
+    }
+
+    /**
+     * Iterates over the top posts of many subreddits as one stream, highest score first
+     * @param subreddits Subreddit names
+     * @param period The period of time to get top posts from
+     * @param options The options for the first page of each group
+     * @return The multi listing, which should be closed if it is not consumed to the end
+     * @see #multiTop(Collection, TimePeriod, ListingOptions, PaginationOptions)
+     */
+    public MultiListing<Post> multiTop(Collection<String> subreddits, TimePeriod period, ListingOptions options) {
+        return multiTop(subreddits, period, options, MULTI_PAGINATION);
+    }
+
+    /**
+     * Publishes the hot posts for a subreddit across pages. A page is only fetched once the subscriber has requested more posts
+     * than the previous page held.
+     * @param subreddit Subreddit name
+     * @param region The region to search within
+     * @param options The options for the first page
+     * @return The publisher, which walks the listing from the first page for each subscriber
+     */
+    public Flow.Publisher<Post> publishHot(String subreddit, Region region, ListingOptions options) {
+        return DemandPublisher.ofListing((ListingOptions page) -> getHotAsync(subreddit, region, page), options, Long.MAX_VALUE);
+    }
+
+    /**
+     * Publishes the hot posts for a subreddit across pages. A page is only fetched once the subscriber has requested more posts
+     * than the previous page held.
+     * @param subreddit Subreddit name
+     * @param options The options for the first page
+     * @return The publisher, which walks the listing from the first page for each subscriber
+     */
+    public Flow.Publisher<Post> publishHot(String subreddit, ListingOptions options) {
+        return DemandPublisher.ofListing((ListingOptions page) -> getHotAsync(subreddit, page), options, Long.MAX_VALUE);
+    }
+
+    /**
+     * Publishes the best posts for a subreddit across pages. A page is only fetched once the subscriber has requested more posts
+     * than the previous page held.
+     * @param subreddit Subreddit name
+     * @param options The options for the first page
+     * @return The publisher, which walks the listing from the first page for each subscriber
+     */
+    public Flow.Publisher<Post> publishBest(String subreddit, ListingOptions options) {
+        return DemandPublisher.ofListing((ListingOptions page) -> getBestAsync(subreddit, page), options, Long.MAX_VALUE);
+    }
+
+    /**
+     * Publishes the top posts for a subreddit across pages. A page is only fetched once the subscriber has requested more posts
+     * than the previous page held.
+     * @param subreddit Subreddit name
+     * @param period The time period to search over
+     * @param options The options for the first page
+     * @return The publisher, which walks the listing from the first page for each subscriber
+     */
+    public Flow.Publisher<Post> publishTop(String subreddit, TimePeriod period, ListingOptions options) {
+        return DemandPublisher.ofListing((ListingOptions page) -> getTopAsync(subreddit, period, page), options, Long.MAX_VALUE);
+    }
+
+    /**
+     * Publishes the controversial posts for a subreddit across pages. A page is only fetched once the subscriber has requested more posts
+     * than the previous page held.
+     * @param subreddit Subreddit name
+     * @param period The time period to search over
+     * @param options The options for the first page
+     * @return The publisher, which walks the listing from the first page for each subscriber
+     */
+    public Flow.Publisher<Post> publishControversial(String subreddit, TimePeriod period, ListingOptions options) {
+        return DemandPublisher.ofListing((ListingOptions page) -> getControversialAsync(subreddit, period, page), options, Long.MAX_VALUE);
+    }
+
+    /**
+     * Publishes the new posts for a subreddit across pages. A page is only fetched once the subscriber has requested more posts
+     * than the previous page held.
+     * @param subreddit Subreddit name
+     * @param options The options for the first page
+     * @return The publisher, which walks the listing from the first page for each subscriber
+     */
+    public Flow.Publisher<Post> publishNew(String subreddit, ListingOptions options) {
+        return DemandPublisher.ofListing((ListingOptions page) -> getNewAsync(subreddit, page), options, Long.MAX_VALUE);
+    }
+
+    /**
+     * Publishes the rising posts for a subreddit across pages. A page is only fetched once the subscriber has requested more posts
+     * than the previous page held.
+     * @param subreddit Subreddit name
+     * @param options The options for the first page
+     * @return The publisher, which walks the listing from the first page for each subscriber
+     */
+    public Flow.Publisher<Post> publishRising(String subreddit, ListingOptions options) {
+        return DemandPublisher.ofListing((ListingOptions page) -> getRisingAsync(subreddit, page), options, Long.MAX_VALUE);
+    }
+
+    private static Map<String, String> commentParams(@Nullable String parentCommentID, CommentViewOptions opts) {
+        Map<String, String> params = new HashMap<>(Map.of(
+                "context", String.valueOf(opts.context()),
+                "depth", String.valueOf(opts.depth()),
+                "limit", String.valueOf(opts.limit()),
+                "showedits", String.valueOf(opts.showedits()),
+                "showmedia", String.valueOf(opts.showmedia()),
+                "showmore", String.valueOf(opts.showmore()),
+                "showtitle", String.valueOf(opts.showtitle()),
+                "sort", opts.sort().name().toLowerCase(),
+                "theme", opts.theme().name().toLowerCase()
+        ));
+        if (parentCommentID != null) params.put("comment", parentCommentID);
+        return params;
+    }
+
+    private ResponseParser<Listing<CommentNode>> commentsParser(@Nullable Set<String> fields) {
+        return (JsonReader reader) -> readComments(reader, fields);
+    }
+
+    private Listing<CommentNode> readComments(JsonReader reader, @Nullable Set<String> fields) throws IOException {
+        // The first element is a listing holding the post itself, which is not needed here
+        reader.beginArray();
+        reader.skipValue();
+        Listing<CommentNode> listing = canonical(Listing.read(CommentNode.class, reader, options.retainJSON(), fields), fields);
+        while (reader.hasNext()) reader.skipValue();
+        reader.endArray();
+        return listing;
+    }
+
+    public Listing<CommentNode> getComments(String subreddit, String postID, @Nullable String parentCommentID, int context, int depth, int limit, boolean showedits, boolean showmedia, boolean showmore, boolean showtitle, SortType sort, Theme theme) throws IOException {
+        return getComments(subreddit, postID, parentCommentID, new CommentViewOptions(context, depth, limit, showedits, showmedia, showmore, showtitle, sort, theme));
+    }
+
+    public CompletableFuture<Listing<CommentNode>> getCommentsAsync(String subreddit, String postID, @Nullable String parentCommentID, int context, int depth, int limit, boolean showedits, boolean showmedia, boolean showmore, boolean showtitle, SortType sort, Theme theme) {
+        return getCommentsAsync(subreddit, postID, parentCommentID, new CommentViewOptions(context, depth, limit, showedits, showmedia, showmore, showtitle, sort, theme));
+    }
+
+    public Listing<CommentNode> getComments(String subreddit, String postID, int context, int depth, int limit, boolean showedits, boolean showmedia, boolean showmore, boolean showtitle, SortType sort, Theme theme) throws IOException {
+        return getComments(subreddit, postID, null, context, depth, limit, showedits, showmedia, showmore, showtitle, sort, theme);
+    }
+
+    public CompletableFuture<Listing<CommentNode>> getCommentsAsync(String subreddit, String postID, int context, int depth, int limit, boolean showedits, boolean showmedia, boolean showmore, boolean showtitle, SortType sort, Theme theme) {
+        return getCommentsAsync(subreddit, postID, null, context, depth, limit, showedits, showmedia, showmore, showtitle, sort, theme);
+    }
+
+    public Listing<CommentNode> getComments(String subreddit, String postID, @Nullable String parentCommentID, CommentViewOptions opts) throws IOException {
+        Map<String, String> params = commentParams(parentCommentID, opts);
+        return fetch("GET", "/r/" + subreddit + "/comments/" + postID, params, "comments" + projectionKey(opts.fields()), commentsParser(opts.fields()), opts.bypassCache());
+    }
+
+    public CompletableFuture<Listing<CommentNode>> getCommentsAsync(String subreddit, String postID, @Nullable String parentCommentID, CommentViewOptions opts) {
+        Map<String, String> params = commentParams(parentCommentID, opts);
+        return fetchAsync("GET", "/r/" + subreddit + "/comments/" + postID, params, "comments" + projectionKey(opts.fields()), commentsParser(opts.fields()), opts.bypassCache());
+    }
+
+    public Listing<CommentNode> getComments(String subreddit, String postID, CommentViewOptions opts) throws IOException {
+        return getComments(subreddit, postID, null, opts);
+    }
+
+    public CompletableFuture<Listing<CommentNode>> getCommentsAsync(String subreddit, String postID, CommentViewOptions opts) {
+        return getCommentsAsync(subreddit, postID, null, opts);
+    }
+
+    public Listing<CommentNode> getComments(Post post, @Nullable String parentCommentID, CommentViewOptions opts) throws IOException {
+        return getComments(post.getSubreddit(), post.getID(), parentCommentID, opts);
+    }
+
+    public CompletableFuture<Listing<CommentNode>> getCommentsAsync(Post post, @Nullable String parentCommentID, CommentViewOptions opts) {
+        return getCommentsAsync(post.getSubreddit(), post.getID(), parentCommentID, opts);
+    }
+
+    public Listing<CommentNode> getComments(Post post, CommentViewOptions opts) throws IOException {
+        return getComments(post, null, opts);
+    }
+
+    public CompletableFuture<Listing<CommentNode>> getCommentsAsync(Post post, CommentViewOptions opts) {
+        return getCommentsAsync(post, null, opts);
+    }
+
+    /**
+     * Publishes every node of the comment tree of a post depth first, so that each comment is followed by its replies. The tree is
+     * fetched once the subscriber first requests a node.
+     * @param subreddit Subreddit name
+     * @param postID The ID of the post
+     * @param opts The options for the comment tree
+     * @return The publisher, which fetches the tree again for each subscriber
+     * @see CommentNode#depthFirst(Iterable)
+     */
+    public Flow.Publisher<CommentNode> publishComments(String subreddit, String postID, CommentViewOptions opts) {
+        return DemandPublisher.ofCommentTree(() -> getCommentsAsync(subreddit, postID, opts));
+    }
+
+    /**
+     * Publishes every node of the comment tree of a post depth first
+     * @param post The post
+     * @param opts The options for the comment tree
+     * @return The publisher, which fetches the tree again for each subscriber
+     * @see #publishComments(String, String, CommentViewOptions)
+     */
+    public Flow.Publisher<CommentNode> publishComments(Post post, CommentViewOptions opts) {
+        return DemandPublisher.ofCommentTree(() -> getCommentsAsync(post, opts));
+    }
+
+    private Listing<CommentNode> readMoreChildren(JsonReader reader) throws IOException {
+        Listing<CommentNode> things = Listing.empty();
+        JsonElement errors = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (!reader.nextName().equals("json")) {
+                reader.skipValue();
+                continue;
+            }
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "errors" -> errors = JsonParser.parseReader(reader);
+                    case "data" -> {
+                        reader.beginObject();
+                        while (reader.hasNext()) {
+                            if (reader.nextName().equals("things")) {
+                                things = canonical(Listing.readThings(CommentNode.class, reader, options.retainJSON(), null), null);
+                            } else {
+                                reader.skipValue();
+                            }
+                        }
+                        reader.endObject();
+                    }
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+        reader.endObject();
+        if (errors != null && errors.isJsonArray() && errors.getAsJsonArray().size() > 0) throw new RedditException("Reddit returned errors: " + errors);
+        return things;
+    }
+
+    /**
+     * Loads comments listed by "more" nodes
+     * @param linkID The fullname of the post (e.g. t3_abc123)
+     * @param children The IDs of the comments, without a prefix. At most {@link CommentExpander#BATCH_SIZE} are accepted.
+     * @param sort The sort order, which should match the one the tree was fetched with
+     * @return The comments as a flat list, in tree order. Their replies are empty; each reply is in the list instead, and names its
+     * parent by {@link CommentNode#getParentFullname()}.
+     * @throws IOException The request failed
+     */
+    public Listing<CommentNode> getMoreChildren(String linkID, Collection<String> children, SortType sort) throws IOException {
+        return fetch("GET", "/api/morechildren", moreChildrenParams(linkID, children, sort), "morechildren", this::readMoreChildren);
+    }
+
+    /**
+     * Loads comments listed by "more" nodes without blocking
+     * @param linkID The fullname of the post (e.g. t3_abc123)
+     * @param children The IDs of the comments, without a prefix
+     * @param sort The sort order, which should match the one the tree was fetched with
+     * @return A future that resolves with the comments as a flat list
+     * @see #getMoreChildren(String, Collection, SortType)
+     */
+    public CompletableFuture<Listing<CommentNode>> getMoreChildrenAsync(String linkID, Collection<String> children, SortType sort) {
+        return fetchAsync("GET", "/api/morechildren", moreChildrenParams(linkID, children, sort), "morechildren", this::readMoreChildren);
+    }
+
+    private static Map<String, String> moreChildrenParams(String linkID, Collection<String> children, SortType sort) {
+        if (children.size() > CommentExpander.BATCH_SIZE) throw new IllegalArgumentException("At most " + CommentExpander.BATCH_SIZE + " children may be loaded at once");
+        return Map.of(
+                "api_type", "json",
+                "link_id", linkID,
+                "children", String.join(",", children),
+                "sort", sort.name().toLowerCase(),
+                "limit_children", "false"
+        );
+    }
+
+    /**
+     * Loads every "more" node of a comment tree, including "continue this thread" nodes, and splices the loaded comments into a copy
+     * of the tree
+     * @param subreddit Subreddit name
+     * @param postID The ID of the post
+     * @param tree The top level of the tree, as returned by {@link #getComments(String, String, CommentViewOptions)}
+     * @param options The concurrency, call limit, sort order and the depth and limit of "continue this thread" fetches
+     * @return A future that resolves with the top level of the expanded tree
+     * @see CommentExpander
+     */
+    public CompletableFuture<Listing<CommentNode>> expandCommentsAsync(String subreddit, String postID, Listing<CommentNode> tree, ExpandOptions options) {
+        CommentViewOptions threadOptions = CommentViewOptions.builder().sort(options.sort()).depth(options.threadDepth()).limit(options.threadLimit()).build();
+        return CommentExpander.expand(
+                tree,
+                (List<String> children) -> getMoreChildrenAsync("t3_" + postID, children, options.sort()),
+                (String commentID) -> getCommentsAsync(subreddit, postID, commentID, threadOptions),
+                options
+        );
+    }
+
+    /**
+     * Loads every "more" node of a comment tree and splices the loaded comments into a copy of the tree
+     * @param subreddit Subreddit name
+     * @param postID The ID of the post
+     * @param tree The top level of the tree
+     * @param options The concurrency, call limit and sort order
+     * @return The top level of the expanded tree
+     * @throws IOException A request failed
+     * @see #expandCommentsAsync(String, String, Listing, ExpandOptions)
+     */
+    public Listing<CommentNode> expandComments(String subreddit, String postID, Listing<CommentNode> tree, ExpandOptions options) throws IOException {
+        return Futures.await(expandCommentsAsync(subreddit, postID, tree, options), "requests");
+    }
+
+    public Listing<CommentNode> expandComments(Post post, Listing<CommentNode> tree, ExpandOptions options) throws IOException {
+        return expandComments(post.getSubreddit(), post.getID(), tree, options);
+    }
+
+    public CompletableFuture<Listing<CommentNode>> expandCommentsAsync(Post post, Listing<CommentNode> tree, ExpandOptions options) {
+        return expandCommentsAsync(post.getSubreddit(), post.getID(), tree, options);
+    }
+
+    // Bulk methods
+
+    private BulkExecutor bulkExecutor = null;
+    private synchronized BulkExecutor getBulkExecutor() {
+        if (bulkExecutor == null) bulkExecutor = new BulkExecutor(options.bulkConcurrency());
+        return bulkExecutor;
+    }
+
+    /**
+     * Runs a blocking request for every key at once, on virtual threads where the runtime supports them. At most
+     * {@link ClientOptions#bulkConcurrency()} requests run at any one time.
+     * @param keys The keys to run the request for
+     * @param function The request to run for each key
+     * @return A map from each key to its result, in the iteration order of the keys
+     * @throws IOException Any request failed
+     * @see BulkExecutor
+     */
+    public <K, V> @NotNull Map<K, V> bulk(@NotNull Collection<? extends K> keys, @NotNull IOFunction<? super K, ? extends V> function) throws IOException {
+        return getBulkExecutor().map(keys, function);
+    }
+
+    /**
+     * Lists the hot posts for many subreddits at once
+     * @param subreddits Subreddit names
+     * @param options The options for each listing
+     * @return A map from each subreddit name to its listing
+     * @throws IOException Any request failed
+     * @see #bulk(Collection, IOFunction)
+     */
+    public @NotNull Map<String, Listing<Post>> getHotBulk(@NotNull Collection<String> subreddits, ListingOptions options) throws IOException {
+        return bulk(subreddits, (String subreddit) -> getHot(subreddit, options));
+    }
+
+    /**
+     * Lists the new posts for many subreddits at once
+     * @param subreddits Subreddit names
+     * @param options The options for each listing
+     * @return A map from each subreddit name to its listing
+     * @throws IOException Any request failed
+     * @see #bulk(Collection, IOFunction)
+     */
+    public @NotNull Map<String, Listing<Post>> getNewBulk(@NotNull Collection<String> subreddits, ListingOptions options) throws IOException {
+        return bulk(subreddits, (String subreddit) -> getNew(subreddit, options));
+    }
+
+    /**
+     * Lists the top posts for many subreddits at once
+     * @param subreddits Subreddit names
+     * @param period The time period to search over
+     * @param options The options for each listing
+     * @return A map from each subreddit name to its listing
+     * @throws IOException Any request failed
+     * @see #bulk(Collection, IOFunction)
+     */
+    public @NotNull Map<String, Listing<Post>> getTopBulk(@NotNull Collection<String> subreddits, TimePeriod period, ListingOptions options) throws IOException {
+        return bulk(subreddits, (String subreddit) -> getTop(subreddit, period, options));
+    }
+
+    /**
+     * Gets the comments of many posts at once
+     * @param posts The posts
+     * @param opts The options for each comment listing
+     * @return A map from each post to its comments
+     * @throws IOException Any request failed
+     * @see #bulk(Collection, IOFunction)
+     */
+    public @NotNull Map<Post, Listing<CommentNode>> getCommentsBulk(@NotNull Collection<Post> posts, CommentViewOptions opts) throws IOException {
+        return bulk(posts, (Post post) -> getComments(post, opts));
+    }
+
+    // Info methods
+
+    /**
+     * The most fullnames that /api/info accepts in one request
+     */
+    public static final int INFO_BATCH_SIZE = 100;
+
+    private BatchLoader<String, RedditEntity> infoLoader = null;
+
+    /**
+     * Gets the loader that batches lookups made through {@link #getInfo(String)}
+     * @return The info loader
+     */
+    public synchronized @NotNull BatchLoader<String, RedditEntity> getInfoLoader() {
+        if (infoLoader == null) infoLoader = new BatchLoader<>(this::requestInfoAsync, INFO_BATCH_SIZE, options.batchWindow());
+        return infoLoader;
+    }
+
+    private CompletableFuture<Map<String, RedditEntity>> requestInfoAsync(List<String> fullnames) {
+        // Things that cannot be wrapped are left out, so that they load as null instead of failing every lookup in the batch
+        ResponseParser<Listing<RedditEntity>> parser = (JsonReader reader) -> canonical(Listing.read(RedditEntity.class, reader, options.retainJSON(), null, true), null);
+        return fetchAsync("GET", "/api/info", Map.of("id", String.join(",", fullnames)), "info", parser, false).thenApply((Listing<RedditEntity> listing) -> {
+            Map<String, RedditEntity> map = new HashMap<>();
+            for (RedditEntity entity : listing) map.put(entity.getFullname(), entity);
+            return map;
+        });
+    }
+
+    /**
+     * Checks that the kind of a fullname is registered in {@link EntityRegistry}, so that a bad fullname fails its own lookup
+     * before it joins a batch shared with others
+     */
+    private static void checkInfoFullname(String fullname) throws IllegalArgumentException {
+        int sep = fullname.indexOf('_');
+        if (sep <= 0 || sep == fullname.length() - 1) throw new IllegalArgumentException("Not a fullname: " + fullname);
+        if (EntityRegistry.get(fullname.substring(0, sep)) == null) throw new IllegalArgumentException("Nothing is registered for the kind of " + fullname);
+    }
+
+    /**
+     * Gets a post or comment by its fullname (e.g. t3_abc123). Lookups made at around the same time, from any thread, are
+     * collected into a single /api/info request of up to {@link #INFO_BATCH_SIZE} fullnames.
+     * @param fullname The fullname
+     * @return A {@link Post} or {@link Comment}, or null if Reddit did not return the thing
+     * @throws IOException The batch request failed
+     * @throws IllegalArgumentException The fullname has no kind registered in {@link EntityRegistry}
+     * @see ClientOptions#batchWindow()
+     */
+    public @Nullable RedditEntity getInfo(@NotNull String fullname) throws IOException, IllegalArgumentException {
+        checkInfoFullname(fullname);
+        return getInfoLoader().load(fullname);
+    }
+
+    /**
+     * Gets a post or comment by its fullname without blocking
+     * @param fullname The fullname
+     * @return A future that resolves with a {@link Post} or {@link Comment}, or null if Reddit did not return the thing. It fails
+     *         with an {@link IllegalArgumentException} if the fullname has no kind registered in {@link EntityRegistry}.
+     * @see #getInfo(String)
+     */
+    public @NotNull CompletableFuture<RedditEntity> getInfoAsync(@NotNull String fullname) {
+        try {
+            checkInfoFullname(fullname);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return getInfoLoader().loadAsync(fullname);
+    }
+
+    /**
+     * Gets posts and comments by their fullnames, in as few /api/info requests as possible
+     * @param fullnames The fullnames
+     * @return A map from each fullname to its {@link Post} or {@link Comment}, or to null if Reddit did not return the thing
+     * @throws IOException Any batch request failed
+     * @throws IllegalArgumentException A fullname has no kind registered in {@link EntityRegistry}
+     * @see #getInfo(String)
+     */
+    public @NotNull Map<String, RedditEntity> getInfo(@NotNull Collection<String> fullnames) throws IOException, IllegalArgumentException {
+        for (String fullname : fullnames) checkInfoFullname(fullname);
+        return getInfoLoader().loadAll(fullnames);
+    }
+
+    /**
+     * Gets posts and comments by their fullnames without blocking
+     * @param fullnames The fullnames
+     * @return A future that resolves with a map from each fullname to its {@link Post} or {@link Comment}, or to null if Reddit did not return the thing
+     * @see #getInfo(Collection)
+     */
+    public @NotNull CompletableFuture<Map<String, RedditEntity>> getInfoAsync(@NotNull Collection<String> fullnames) {
+        try {
+            for (String fullname : fullnames) checkInfoFullname(fullname);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return getInfoLoader().loadAllAsync(fullnames);
+    }
+
+    /**
+     * Refreshes the client's bearer token. This is necessary because bearer tokens only last about 1 hour. This requires this session to have a refresh token, which it should if
+     * it was created as a "permanent" session. This is also called by default when necessary, however it should also be called manually when loading a previously suspended session.
+     * @throws IOException Failed to refresh
+     * @throws IllegalStateException Cannot refresh, no refresh token
+     * @see RedditClient#hasRefreshToken()
+     * @see RedditClient#isPermanent()
+     */
+    public void refresh() throws IOException, IllegalStateException {
+        if (!hasRefreshToken()) throw new IllegalStateException("Cannot refresh without a refresh token!");
+        acceptToken(app.requestToken(options, refreshPayload()));
+    }
+
+    private CompletableFuture<Void> refreshFuture = null;
+    /**
+     * Refreshes the client's bearer token without blocking. Concurrent calls share a single token request.
+     * @return A future that resolves when the bearer token has been refreshed
+     * @throws IllegalStateException Cannot refresh, no refresh token
+     * @see #refresh()
+     */
+    public synchronized CompletableFuture<Void> refreshAsync() throws IllegalStateException {
+        if (!hasRefreshToken()) throw new IllegalStateException("Cannot refresh without a refresh token!");
+        if (refreshFuture == null) {
+            CompletableFuture<Void> future = app.requestTokenAsync(options, refreshPayload()).thenAccept(this::acceptToken);
+            refreshFuture = future;
+            future.whenComplete((Void v, Throwable t) -> {
+                synchronized (this) {
+                    if (refreshFuture == future) refreshFuture = null;
+                }
+            });
+        }
+        return refreshFuture;
+    }
+
+    private String refreshPayload() {
+        return "grant_type=refresh_token&refresh_token=" + URLEncoder.encode(refreshToken, StandardCharsets.UTF_8);
+    }
+
+    private void acceptToken(JsonObject ob) {
+        String newAccessToken = ob.get("access_token").getAsString();
+        long expireTime = ob.get("expires_in").getAsLong();
+        this.bearerToken = newAccessToken;
+        this.refreshTime = System.currentTimeMillis() + (expireTime * 1000L);
+    }
+
+    private boolean needsRefresh() {
+        return hasRefreshToken() && System.currentTimeMillis() >= refreshTime;
+    }
+
+    protected RedditRequest buildRequest(String method, String endpoint, Map<String, String> params) {
+        return buildRequest(method, endpoint, params, null);
+    }
+
+    /**
+     * Builds a request, which is conditional if validators of a previous response are given
+     * @param method The HTTP method
+     * @param endpoint The endpoint
+     * @param params The query parameters
+     * @param prior The validators of the previous response, or null
+     * @return The request
+     */
+    protected RedditRequest buildRequest(String method, String endpoint, Map<String, String> params, @Nullable ValidatorStore.Validators prior) {
+        StringBuilder payload = new StringBuilder("raw_json=1");
+        for (Map.Entry<String, String> entry : params.entrySet()) {
+            payload.append("&");
+            payload.append(URLEncoder.encode(entry.getKey(), StandardCharsets.UTF_8));
+            payload.append("=");
+            payload.append(URLEncoder.encode(entry.getValue(), StandardCharsets.UTF_8));
+        }
+        URI uri = URI.create(options.apiURL() + endpoint + "?" + payload);
+        Map<String, String> headers = new HashMap<>(Map.of(
+                "Authorization", "Bearer " + bearerToken,
+                "Accept", "*/*",
+                "User-Agent", Reddit4J.getUserAgent()
+        ));
+        if (options.compression()) headers.put("Accept-Encoding", "gzip, deflate");
+        if (prior != null) prior.applyTo(headers);
+        return new RedditRequest(method, uri, headers, null, options.requestTimeout());
+    }
+
+    private static RedditResponse checkResponse(RedditRequest request, RedditResponse response) throws IOException {
+        if (response.getStatus() == 304 && isConditional(request)) return response;
+        if (!response.isSuccessful()) {
+            response.close();
+            throw new RedditHTTPException(response.getStatus(), "Server returned HTTP response code " + response.getStatus() + " for URL " + request.uri());
+        }
+        return response;
+    }
+
+    private static boolean isConditional(RedditRequest request) {
+        return request.headers().containsKey("If-None-Match") || request.headers().containsKey("If-Modified-Since");
+    }
+
+    private RedditResponse send(RedditRequest request) throws IOException {
+        if (rateLimiter != null) rateLimiter.acquire();
+        if (circuitBreaker != null) {
+            try {
+                circuitBreaker.acquire();
+            } catch (IOException e) {
+                if (rateLimiter != null) rateLimiter.onFailure();
+                throw e;
+            }
+        }
+        RedditResponse response;
+        try {
+            response = options.transport().send(request);
+        } catch (IOException | RuntimeException | Error e) {
+            if (circuitBreaker != null) circuitBreaker.onFailure();
+            if (rateLimiter != null) rateLimiter.onFailure();
+            throw e;
+        }
+        if (circuitBreaker != null) circuitBreaker.onResponse(response.getStatus());
+        if (rateLimiter != null) rateLimiter.update(response);
+        return response;
+    }
+
+    private CompletableFuture<RedditResponse> sendAsync(RedditRequest request) {
+        CompletableFuture<Void> ready = (rateLimiter == null ? CompletableFuture.completedFuture(null) : rateLimiter.acquireAsync());
+        return ready.thenCompose((Void v) -> {
+            if (circuitBreaker != null) {
+                try {
+                    circuitBreaker.acquire();
+                } catch (IOException e) {
+                    if (rateLimiter != null) rateLimiter.onFailure();
+                    return CompletableFuture.failedFuture(e);
+                }
+            }
+            CompletableFuture<RedditResponse> future;
+            try {
+                future = options.transport().sendAsync(request);
+            } catch (RuntimeException e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+            return future.whenComplete((RedditResponse response, Throwable t) -> {
+                if (circuitBreaker != null) {
+                    if (t != null) {
+                        circuitBreaker.onFailure();
+                    } else {
+                        circuitBreaker.onResponse(response.getStatus());
+                    }
+                }
+                if (rateLimiter != null) {
+                    if (response != null) {
+                        rateLimiter.update(response);
+                    } else {
+                        rateLimiter.onFailure();
+                    }
+                }
+            });
+        });
+    }
+
+    /**
+     * Decides whether a failed attempt should be retried
+     * @return The delay before the next attempt in nanoseconds, or -1 if the failure should be passed on to the caller
+     */
+    private long retryDelay(String method, int attempt, @Nullable RedditResponse response, @Nullable Throwable error) {
+        RetryPolicy policy = options.retryPolicy();
+        if (!policy.allowsMethod(method)) return -1L;
+        if (response != null) {
+            if (!policy.allowsStatus(response.getStatus())) return -1L;
+            return policy.delayNanos(attempt, response.getHeader("Retry-After"));
+        }
+        if (error instanceof CompletionException && error.getCause() != null) error = error.getCause();
+        // Failing fast is the point of an open circuit, and an interrupt means the caller has given up
+        if (!(error instanceof IOException) || error instanceof RedditCircuitOpenException || Thread.currentThread().isInterrupted()) return -1L;
+        return policy.delayNanos(attempt, null);
+    }
+
+    private static void pause(long nanos) throws InterruptedIOException {
+        long deadline = System.nanoTime() + nanos;
+        while (nanos > 0L) {
+            LockSupport.parkNanos(nanos);
+            if (Thread.interrupted()) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting to retry");
+            }
+            nanos = deadline - System.nanoTime();
+        }
+    }
+
+    protected RedditResponse exchange(String method, String endpoint, Map<String, String> params) throws IOException {
+        return exchange(method, endpoint, params, null);
     }
 
     /**
-     * Lists the controversial posts for a subreddit
-     * @param subreddit Subreddit name
-     * @param period The time period to search over
-     * @param options The options for this listing
-     * @return The listing
+     * Sends a request, which is conditional if validators of a previous response are given. A 304 Not Modified response is
+     * returned rather than thrown when the request is conditional.
+     * @param method The HTTP method
+     * @param endpoint The endpoint
+     * @param params The query parameters
+     * @param prior The validators of the previous response, or null
+     * @return The response
+     * @throws IOException Could not complete this request
      */
-    public Listing<Post> getControversial(String subreddit, TimePeriod period, ListingOptions options) throws IOException {
-        Map<String, String> params = options.toHashMap();
-        params.put("t", period.name().toLowerCase());
-        JsonObject ob = requestJSON("GET", "/r/" + subreddit + "/controversial", params, JsonObject.class);
-        return new Listing<>(Post.class, ob);
+    protected RedditResponse exchange(String method, String endpoint, Map<String, String> params, @Nullable ValidatorStore.Validators prior) throws IOException {
+        for (int attempt = 1; ; attempt++) {
+            if (needsRefresh()) refresh();
+            RedditRequest request = buildRequest(method, endpoint, params, prior);
+            RedditResponse response;
+            try {
+                response = send(request);
+            } catch (IOException e) {
+                long delay = retryDelay(method, attempt, null, e);
+                if (delay < 0L) throw e;
+                pause(delay);
+                continue;
+            }
+            if (!response.isSuccessful()) {
+                long delay = retryDelay(method, attempt, response, null);
+                if (delay >= 0L) {
+                    response.close();
+                    pause(delay);
+                    continue;
+                }
+            }
+            return checkResponse(request, response);
+        }
     }
 
     /**
-     * Lists the new posts for a subreddit
-     * @param subreddit Subreddit name
-     * @param options The options for this listing
-     * @return The listing
+     * Sends a request without blocking. The body of the resulting response is fully buffered.
+     * @param method The HTTP method
+     * @param endpoint The endpoint
+     * @param params The query parameters
+     * @return A future that resolves with the response, or completes exceptionally with an {@link IOException}
      */
-    public Listing<Post> getNew(String subreddit, ListingOptions options) throws IOException {
-        Map<String, String> params = options.toHashMap();
-        JsonObject ob = requestJSON("GET", "/r/" + subreddit + "/new", params, JsonObject.class);
-        return new Listing<>(Post.class, ob);
+    protected CompletableFuture<RedditResponse> exchangeAsync(String method, String endpoint, Map<String, String> params) {
+        return exchangeAsync(method, endpoint, params, null);
     }
 
     /**
-     * Lists the rising posts for a subreddit
-     * @param subreddit Subreddit name
-     * @param options The options for this listing
-     * @return The listing
+     * Sends a request without blocking, which is conditional if validators of a previous response are given
+     * @param method The HTTP method
+     * @param endpoint The endpoint
+     * @param params The query parameters
+     * @param prior The validators of the previous response, or null
+     * @return A future that resolves with the response, or completes exceptionally with an {@link IOException}
+     * @see #exchange(String, String, Map, ValidatorStore.Validators)
      */
-    public Listing<Post> getRising(String subreddit, ListingOptions options) throws IOException {
-        Map<String, String> params = options.toHashMap();
-        JsonObject ob = requestJSON("GET", "/r/" + subreddit + "/rising", params, JsonObject.class);
-        return new Listing<>(Post.class, ob);
+    protected CompletableFuture<RedditResponse> exchangeAsync(String method, String endpoint, Map<String, String> params, @Nullable ValidatorStore.Validators prior) {
+        return exchangeAsync(method, endpoint, params, prior, 1);
     }
 
-    public Listing<CommentNode> getComments(String subreddit, String postID, @Nullable String parentCommentID, int context, int depth, int limit, boolean showedits, boolean showmedia, boolean showmore, boolean showtitle, SortType sort, Theme theme) throws IOException {
-        Map<String, String> params = new HashMap<>(Map.of(
-                "context", String.valueOf(context),
-                "depth", String.valueOf(depth),
-                "limit", String.valueOf(limit),
-                "showedits", String.valueOf(showedits),
-                "showmedia", String.valueOf(showmedia),
-                "showmore", String.valueOf(showmore),
-                "showtitle", String.valueOf(showtitle),
-                "sort", sort.name().toLowerCase(),
-                "theme", theme.name().toLowerCase()
-        ));
-        if (parentCommentID != null) params.put("comment", parentCommentID);
-        JsonArray arr = requestJSON("GET", "/r/" + subreddit + "/comments/" + postID, params, JsonArray.class);
-        return new Listing<>(CommentNode.class, arr.get(1).getAsJsonObject());
+    private CompletableFuture<RedditResponse> exchangeAsync(String method, String endpoint, Map<String, String> params, @Nullable ValidatorStore.Validators prior, int attempt) {
+        CompletableFuture<Void> ready = (needsRefresh() ? refreshAsync() : CompletableFuture.completedFuture(null));
+        return ready.thenCompose((Void v) -> {
+            RedditRequest request = buildRequest(method, endpoint, params, prior);
+            return sendAsync(request).handle((RedditResponse response, Throwable t) -> {
+                long delay = -1L;
+                if (t != null || !response.isSuccessful()) delay = retryDelay(method, attempt, response, t);
+                if (delay >= 0L) {
+                    if (response != null) {
+                        try {
+                            response.close();
+                        } catch (IOException ignored) { }
+                    }
+                    Executor later = CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS, options.executor());
+                    return CompletableFuture.supplyAsync(() -> null, later)
+                            .thenCompose((Object o) -> exchangeAsync(method, endpoint, params, prior, attempt + 1));
+                }
+                if (t != null) return CompletableFuture.<RedditResponse>failedFuture(t);
+                try {
+                    return CompletableFuture.completedFuture(checkResponse(request, response));
+                } catch (IOException e) {
+                    return CompletableFuture.<RedditResponse>failedFuture(e);
+                }
+            }).thenCompose((CompletableFuture<RedditResponse> next) -> next);
+        });
     }
 
-    public Listing<CommentNode> getComments(String subreddit, String postID, int context, int depth, int limit, boolean showedits, boolean showmedia, boolean showmore, boolean showtitle, SortType sort, Theme theme) throws IOException {
-        return getComments(subreddit, postID, null, context, depth, limit, showedits, showmedia, showmore, showtitle, sort, theme);
+    protected byte[] request(String method, String endpoint, Map<String, String> params) throws IOException {
+        try (RedditResponse response = exchange(method, endpoint, params)) {
+            return response.getContent().readAllBytes();
+        }
     }
 
-    public Listing<CommentNode> getComments(String subreddit, String postID, @Nullable String parentCommentID, CommentViewOptions opts) throws IOException {
-        return getComments(
-                subreddit,
-                postID,
-                parentCommentID,
-                opts.context(),
-                opts.depth(),
-                opts.limit(),
-                opts.showedits(),
-                opts.showmedia(),
-                opts.showmore(),
-                opts.showtitle(),
-                opts.sort(),
-                opts.theme()
-        );
+    protected byte[] request(String method, String endpoint) throws IOException {
+        return request(method, endpoint, Collections.emptyMap());
     }
 
-    public Listing<CommentNode> getComments(String subreddit, String postID, CommentViewOptions opts) throws IOException {
-        return getComments(subreddit, postID, null, opts);
+    protected String requestString(String method, String endpoint, Map<String, String> params) throws IOException {
+        byte[] bytes = request(method, endpoint, params);
+        return new String(bytes, StandardCharsets.UTF_8);
     }
 
-    public Listing<CommentNode> getComments(Post post, @Nullable String parentCommentID, CommentViewOptions opts) throws IOException {
-        return getComments(
-                post.getSubreddit(),
-                post.getID(),
-                parentCommentID,
-                opts.context(),
-                opts.depth(),
-                opts.limit(),
-                opts.showedits(),
-                opts.showmedia(),
-                opts.showmore(),
-                opts.showtitle(),
-                opts.sort(),
-                opts.theme()
-        );
+    protected String requestString(String method, String endpoint) throws IOException {
+        return requestString(method, endpoint, Collections.emptyMap());
     }
 
-    public Listing<CommentNode> getComments(Post post, CommentViewOptions opts) throws IOException {
-        return getComments(post, null, opts);
+    /**
+     * Parses the JSON body of a response
+     * @param <T> The type of the parsed result
+     */
+    @FunctionalInterface
+    protected interface ResponseParser<T> {
+        T parse(JsonReader reader) throws IOException;
+    }
+
+    private final Gson gson = new Gson();
+    private <T> ResponseParser<T> jsonParser(Class<? extends T> clazz) {
+        return (JsonReader reader) -> gson.fromJson(reader, clazz);
+    }
+
+    private static <T> T parse(RedditResponse response, ResponseParser<T> parser) throws IOException {
+        try (response; JsonReader reader = new JsonReader(new InputStreamReader(response.getContent(), StandardCharsets.UTF_8))) {
+            return parser.parse(reader);
+        }
     }
 
     /**
-     * Refreshes the client's bearer token. This is necessary because bearer tokens only last about 1 hour. This requires this session to have a refresh token, which it should if
-     * it was created as a "permanent" session. This is also called by default when necessary, however it should also be called manually when loading a previously suspended session.
-     * @throws IOException Failed to refresh
-     * @throws IllegalStateException Cannot refresh, no refresh token
-     * @see RedditClient#hasRefreshToken()
-     * @see RedditClient#isPermanent()
+     * Reads the response to a GET request. A 304 Not Modified response reuses the result parsed from the response it
+     * revalidated; any other response is parsed and its validators remembered. The result is then stored in the response cache.
      */
-    public void refresh() throws IOException, IllegalStateException {
-        if (!hasRefreshToken()) throw new IllegalStateException("Cannot refresh without a refresh token!");
-        InputStream is = null;
-        OutputStream os = null;
-        try {
-            String clientSecret = (app.hasClientSecret() ? app.getClientSecret() : "");
-            String basicAuth = new String(Base64.getEncoder().encode((app.getClientID() + ":" + clientSecret).getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
-            URL url = new URL("https://www.reddit.com/api/v1/access_token");
-            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("POST");
-            conn.setDoOutput(true);
-            conn.setDoInput(true);
-            conn.setInstanceFollowRedirects(true);
-            conn.setRequestProperty("Accept", "*/*");
-            conn.setRequestProperty("Authorization", "Basic " + basicAuth);
-            conn.setRequestProperty("User-Agent", Reddit4J.getUserAgent());
-            conn.setRequestProperty("Content-Type", "application/x-www-form-urlencoded; charset=utf-8");
-            conn.connect();
-            String payload = "grant_type=refresh_token&refresh_token=" + URLEncoder.encode(refreshToken, StandardCharsets.UTF_8);
-            os = conn.getOutputStream();
-            os.write(payload.getBytes(StandardCharsets.UTF_8));
-            os.flush();
-            is = conn.getInputStream();
-            byte[] resp = is.readAllBytes();
-            String respString = new String(resp, StandardCharsets.UTF_8);
-            if (gson == null) gson = new Gson();
-            JsonObject ob = gson.fromJson(respString, JsonObject.class);
-            String newAccessToken = ob.get("access_token").getAsString();
-            long expireTime = ob.get("expires_in").getAsLong();
-            this.bearerToken = newAccessToken;
-            this.refreshTime = System.currentTimeMillis() + (expireTime * 1000L);
-        } catch (IOException e) {
-            if (is != null) is.close();
-            if (os != null) os.close();
-            throw e;
+    @SuppressWarnings("unchecked")
+    private <T> T read(String key, String endpoint, RedditResponse response, ResponseParser<T> parser, @Nullable ValidatorStore.Validators prior) throws IOException {
+        T value;
+        long encodedBytes;
+        if (response.getStatus() == 304 && prior != null) {
+            response.close();
+            validators.revalidated();
+            value = (T) prior.value();
+            encodedBytes = prior.encodedBytes();
+        } else {
+            value = parse(response, parser);
+            encodedBytes = response.getContentBytesRead();
+            if (value != null && validators != null) validators.store(key, response, value, encodedBytes);
         }
+        if (value != null && cache != null) cache.put(key, endpoint, value, encodedBytes);
+        return value;
     }
 
-    protected byte[] request(String method, String endpoint, Map<String, String> params) throws IOException {
-        if (hasRefreshToken()) {
-            if (System.currentTimeMillis() >= refreshTime) {
-                refresh();
-            }
+    private static String requestKey(String method, String endpoint, Map<String, String> params, String parserKey) {
+        StringBuilder sb = new StringBuilder(method).append(' ').append(endpoint);
+        char sep = '?';
+        for (Map.Entry<String, String> entry : new TreeMap<>(params).entrySet()) {
+            sb.append(sep).append(entry.getKey()).append('=').append(entry.getValue());
+            sep = '&';
         }
-        StringBuilder payload = new StringBuilder("raw_json=1");
-        for (Map.Entry<String, String> entry : params.entrySet()) {
-            payload.append("&");
-            payload.append(URLEncoder.encode(entry.getKey(), StandardCharsets.UTF_8));
-            payload.append("=");
-            payload.append(URLEncoder.encode(entry.getKey(), StandardCharsets.UTF_8));
-        }
-        InputStream is = null;
-        byte[] ret;
-        try {
-            URL url = new URL("https://oauth.reddit.com" + endpoint + "?" + payload);
-            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod(method);
-            conn.setDoOutput(true);
-            conn.setInstanceFollowRedirects(true);
-            conn.setRequestProperty("Authorization", "Bearer " + bearerToken);
-            conn.setRequestProperty("Accept", "*/*");
-            conn.setRequestProperty("User-Agent", Reddit4J.getUserAgent());
-            conn.connect();
-            is = conn.getInputStream();
-            ret = is.readAllBytes();
-        } catch (IOException e) {
-            if (is != null) is.close();
-            throw e;
+        return sb.append('#').append(parserKey).toString();
+    }
+
+    /**
+     * Sends a request and parses the response body. Identical GET requests that are in flight at the same time are coalesced
+     * into one, whose parsed result is shared by every caller. Results of GET requests are served from and stored in the
+     * response cache, if the client has one. Re-fetches of GET requests are sent with the validators of the previous response,
+     * and a 304 Not Modified reuses the previously parsed result.
+     * @param method The HTTP method
+     * @param endpoint The endpoint
+     * @param params The query parameters
+     * @param parserKey A key identifying what the parser produces, such that two requests with the same key may share results
+     * @param parser The parser
+     * @param bypassCache If true, the result is not looked up in the response cache (but is still stored in it)
+     * @return The parsed body
+     * @throws IOException Could not complete this request
+     */
+    @SuppressWarnings("unchecked")
+    protected <T> T fetch(String method, String endpoint, Map<String, String> params, String parserKey, ResponseParser<T> parser, boolean bypassCache) throws IOException {
+        if (!method.equals("GET")) return parse(exchange(method, endpoint, params), parser);
+        String key = requestKey(method, endpoint, params, parserKey);
+        if (!bypassCache && cache != null && cache.isCacheable(endpoint)) {
+            Object cached = cache.get(key);
+            if (cached != null) return (T) cached;
         }
-        return ret;
+        IOSupplier<T> call = () -> {
+            ValidatorStore.Validators prior = (validators == null ? null : validators.get(key));
+            return read(key, endpoint, exchange(method, endpoint, params, prior), parser, prior);
+        };
+        if (singleFlight == null) return call.get();
+        return singleFlight.execute(key, call);
     }
 
-    protected byte[] request(String method, String endpoint) throws IOException {
-        return request(method, endpoint, Collections.emptyMap());
+    protected <T> T fetch(String method, String endpoint, Map<String, String> params, String parserKey, ResponseParser<T> parser) throws IOException {
+        return fetch(method, endpoint, params, parserKey, parser, false);
     }
 
-    protected String requestString(String method, String endpoint, Map<String, String> params) throws IOException {
-        byte[] bytes = request(method, endpoint, params);
-        return new String(bytes, StandardCharsets.UTF_8);
+    /**
+     * Sends a request without blocking and parses the response body on the client's executor
+     * @param method The HTTP method
+     * @param endpoint The endpoint
+     * @param params The query parameters
+     * @param parserKey A key identifying what the parser produces, such that two requests with the same key may share results
+     * @param parser The parser
+     * @param bypassCache If true, the result is not looked up in the response cache (but is still stored in it)
+     * @return A future that resolves with the parsed body
+     * @see #fetch(String, String, Map, String, ResponseParser, boolean)
+     */
+    @SuppressWarnings("unchecked")
+    protected <T> CompletableFuture<T> fetchAsync(String method, String endpoint, Map<String, String> params, String parserKey, ResponseParser<T> parser, boolean bypassCache) {
+        String key = requestKey(method, endpoint, params, parserKey);
+        boolean get = method.equals("GET");
+        if (get && !bypassCache && cache != null && cache.isCacheable(endpoint)) {
+            Object cached = cache.get(key);
+            if (cached != null) return CompletableFuture.completedFuture((T) cached);
+        }
+        Supplier<CompletableFuture<T>> call = () -> {
+            ValidatorStore.Validators prior = (get && validators != null ? validators.get(key) : null);
+            return exchangeAsync(method, endpoint, params, prior).thenApplyAsync((RedditResponse response) -> {
+                try {
+                    return get ? read(key, endpoint, response, parser, prior) : parse(response, parser);
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                }
+            }, options.executor());
+        };
+        if (singleFlight == null || !get) return call.get();
+        return singleFlight.executeAsync(key, call);
     }
 
-    protected String requestString(String method, String endpoint) throws IOException {
-        return requestString(method, endpoint, Collections.emptyMap());
+    protected <T> CompletableFuture<T> fetchAsync(String method, String endpoint, Map<String, String> params, String parserKey, ResponseParser<T> parser) {
+        return fetchAsync(method, endpoint, params, parserKey, parser, false);
     }
 
-    private Gson gson = null;
     protected JsonElement requestJSON(String method, String endpoint, Map<String, String> params) throws IOException {
-        String string = requestString(method, endpoint, params);
-        if (gson == null) gson = new Gson();
-        return gson.fromJson(string, JsonElement.class);
+        return requestJSON(method, endpoint, params, JsonElement.class);
     }
 
     protected JsonElement requestJSON(String method, String endpoint) throws IOException {
@@ -358,15 +1585,61 @@ public class RedditClient {
     }
 
     protected <T> T requestJSON(String method, String endpoint, Map<String, String> params, Class<? extends T> clazz) throws IOException {
-        String string = requestString(method, endpoint, params);
-        if (gson == null) gson = new Gson();
-        return gson.fromJson(string, clazz);
+        return fetch(method, endpoint, params, "json:" + clazz.getName(), jsonParser(clazz));
     }
 
     protected <T> T requestJSON(String method, String endpoint, Class<? extends T> clazz) throws IOException {
         return requestJSON(method, endpoint, Collections.emptyMap(), clazz);
     }
 
+    /**
+     * Sends a request without blocking and parses the body on the client's executor
+     * @param method The HTTP method
+     * @param endpoint The endpoint
+     * @param params The query parameters
+     * @param clazz The class of the data structure to parse the body with
+     * @return A future that resolves with the parsed body
+     */
+    protected <T> CompletableFuture<T> requestJSONAsync(String method, String endpoint, Map<String, String> params, Class<? extends T> clazz) {
+        return fetchAsync(method, endpoint, params, "json:" + clazz.getName(), jsonParser(clazz));
+    }
+
+    /**
+     * Gets a suffix for parser keys that tells apart results decoded with different projections
+     */
+    private static String projectionKey(@Nullable Set<String> fields) {
+        if (fields == null) return "";
+        return new TreeSet<>(fields).toString();
+    }
+
+    private <T extends RedditEntity> ResponseParser<Listing<T>> listingParser(Class<T> clazz, @Nullable Set<String> fields) {
+        return (JsonReader reader) -> canonical(Listing.read(clazz, reader, options.retainJSON(), fields), fields);
+    }
+
+    /**
+     * Resolves the children of a freshly decoded listing to their canonical instances, if the client keeps them. This is done as
+     * part of parsing, so that results served from the response cache do not refresh instances with older values.
+     */
+    private <T extends RedditEntity> Listing<T> canonical(Listing<T> listing, @Nullable Set<String> fields) {
+        return (identities == null ? listing : identities.canonicalize(listing, fields));
+    }
+
+    protected <T extends RedditEntity> Listing<T> requestListing(Class<T> clazz, String endpoint, Map<String, String> params, boolean bypassCache, @Nullable Set<String> fields) throws IOException {
+        return fetch("GET", endpoint, params, "listing:" + clazz.getName() + projectionKey(fields), listingParser(clazz, fields), bypassCache);
+    }
+
+    protected <T extends RedditEntity> Listing<T> requestListing(Class<T> clazz, String endpoint, Map<String, String> params, boolean bypassCache) throws IOException {
+        return requestListing(clazz, endpoint, params, bypassCache, null);
+    }
+
+    protected <T extends RedditEntity> CompletableFuture<Listing<T>> requestListingAsync(Class<T> clazz, String endpoint, Map<String, String> params, boolean bypassCache, @Nullable Set<String> fields) {
+        return fetchAsync("GET", endpoint, params, "listing:" + clazz.getName() + projectionKey(fields), listingParser(clazz, fields), bypassCache);
+    }
+
+    protected <T extends RedditEntity> CompletableFuture<Listing<T>> requestListingAsync(Class<T> clazz, String endpoint, Map<String, String> params, boolean bypassCache) {
+        return requestListingAsync(clazz, endpoint, params, bypassCache, null);
+    }
+
     // Expose low-level methods
 
     /**
@@ -381,6 +1654,44 @@ public class RedditClient {
         return requestJSON("GET", endpoint, params, clazz);
     }
 
+    /**
+     * Sends a GET request to the specified endpoint without blocking
+     * @param endpoint The endpoint (e.g. /api/v1/me). See all endpoints <a href="https://www.reddit.com/dev/api/">here</a>.
+     * @param params A map of URI-encoded parameters to send.
+     * @param clazz The class of the data structure to parse the body with (e.g. JsonObject.class).
+     * @return A future that resolves with the JSON body
+     * @see #get(String, Map, Class)
+     */
+    public <T> @NotNull CompletableFuture<T> getAsync(String endpoint, Map<String, String> params, Class<? extends T> clazz) {
+        return requestJSONAsync("GET", endpoint, params, clazz);
+    }
+
+    /**
+     * Sends a GET request to the specified endpoint and returns the result
+     * @param endpoint The endpoint (e.g. /api/v1/me). See all endpoints <a href="https://www.reddit.com/dev/api/">here</a>.
+     * @param params A map of URI-encoded parameters to send.
+     * @param clazz The class of the data structure to parse the body with (e.g. JsonObject.class).
+     * @param bypassCache If true, the result is always fetched from Reddit rather than the response cache
+     * @return The JSON body
+     * @throws IOException Could not complete this request
+     */
+    public <T> @NotNull T get(String endpoint, Map<String, String> params, Class<? extends T> clazz, boolean bypassCache) throws IOException {
+        return fetch("GET", endpoint, params, "json:" + clazz.getName(), jsonParser(clazz), bypassCache);
+    }
+
+    /**
+     * Sends a GET request to the specified endpoint without blocking
+     * @param endpoint The endpoint (e.g. /api/v1/me). See all endpoints <a href="https://www.reddit.com/dev/api/">here</a>.
+     * @param params A map of URI-encoded parameters to send.
+     * @param clazz The class of the data structure to parse the body with (e.g. JsonObject.class).
+     * @param bypassCache If true, the result is always fetched from Reddit rather than the response cache
+     * @return A future that resolves with the JSON body
+     * @see #get(String, Map, Class, boolean)
+     */
+    public <T> @NotNull CompletableFuture<T> getAsync(String endpoint, Map<String, String> params, Class<? extends T> clazz, boolean bypassCache) {
+        return fetchAsync("GET", endpoint, params, "json:" + clazz.getName(), jsonParser(clazz), bypassCache);
+    }
+
     /**
      * Sends a GET request to the specified endpoint and returns the result
      * @param endpoint The endpoint (e.g. /api/v1/me). See all endpoints <a href="https://www.reddit.com/dev/api/">here</a>.
@@ -392,6 +1703,17 @@ public class RedditClient {
         return requestJSON("GET", endpoint, params, JsonElement.class);
     }
 
+    /**
+     * Sends a GET request to the specified endpoint without blocking
+     * @param endpoint The endpoint (e.g. /api/v1/me). See all endpoints <a href="https://www.reddit.com/dev/api/">here</a>.
+     * @param params A map of URI-encoded parameters to send.
+     * @return A future that resolves with the JSON body
+     * @see #get(String, Map)
+     */
+    public @NotNull CompletableFuture<JsonElement> getAsync(String endpoint, Map<String, String> params) {
+        return requestJSONAsync("GET", endpoint, params, JsonElement.class);
+    }
+
     /**
      * Sends a GET request to the specified endpoint and returns the result
      * @param endpoint The endpoint (e.g. /api/v1/me). See all endpoints <a href="https://www.reddit.com/dev/api/">here</a>.
@@ -402,6 +1724,16 @@ public class RedditClient {
         return requestJSON("GET", endpoint, Collections.emptyMap(), JsonElement.class);
     }
 
+    /**
+     * Sends a GET request to the specified endpoint without blocking
+     * @param endpoint The endpoint (e.g. /api/v1/me). See all endpoints <a href="https://www.reddit.com/dev/api/">here</a>.
+     * @return A future that resolves with the JSON body
+     * @see #get(String)
+     */
+    public @NotNull CompletableFuture<JsonElement> getAsync(String endpoint) {
+        return requestJSONAsync("GET", endpoint, Collections.emptyMap(), JsonElement.class);
+    }
+
     /**
      * Sends a GET request to the specified endpoint and returns the result
      * @param endpoint The endpoint (e.g. /api/v1/me). See all endpoints <a href="https://www.reddit.com/dev/api/">here</a>.
@@ -413,6 +1745,17 @@ public class RedditClient {
         return requestJSON("GET", endpoint, Collections.emptyMap(), clazz);
     }
 
+    /**
+     * Sends a GET request to the specified endpoint without blocking
+     * @param endpoint The endpoint (e.g. /api/v1/me). See all endpoints <a href="https://www.reddit.com/dev/api/">here</a>.
+     * @param clazz The class of the data structure to parse the body with (e.g. JsonObject.class).
+     * @return A future that resolves with the JSON body
+     * @see #get(String, Class)
+     */
+    public <T> @NotNull CompletableFuture<T> getAsync(String endpoint, Class<? extends T> clazz) {
+        return requestJSONAsync("GET", endpoint, Collections.emptyMap(), clazz);
+    }
+
     /**
      * Sends a POST request to the specified endpoint and returns the result
      * @param endpoint The endpoint (e.g. /api/v1/me). See all endpoints <a href="https://www.reddit.com/dev/api/">here</a>.
@@ -425,6 +1768,18 @@ public class RedditClient {
         return requestJSON("POST", endpoint, params, clazz);
     }
 
+    /**
+     * Sends a POST request to the specified endpoint without blocking
+     * @param endpoint The endpoint (e.g. /api/v1/me). See all endpoints <a href="https://www.reddit.com/dev/api/">here</a>.
+     * @param params A map of URI-encoded parameters to send.
+     * @param clazz The class of the data structure to parse the body with (e.g. JsonObject.class).
+     * @return A future that resolves with the JSON body
+     * @see #post(String, Map, Class)
+     */
+    public <T> @NotNull CompletableFuture<T> postAsync(String endpoint, Map<String, String> params, Class<? extends T> clazz) {
+        return requestJSONAsync("POST", endpoint, params, clazz);
+    }
+
     /**
      * Sends a POST request to the specified endpoint and returns the result
      * @param endpoint The endpoint (e.g. /api/v1/me). See all endpoints <a href="https://www.reddit.com/dev/api/">here</a>.
@@ -436,6 +1791,17 @@ public class RedditClient {
         return requestJSON("POST", endpoint, params, JsonElement.class);
     }
 
+    /**
+     * Sends a POST request to the specified endpoint without blocking
+     * @param endpoint The endpoint (e.g. /api/v1/me). See all endpoints <a href="https://www.reddit.com/dev/api/">here</a>.
+     * @param params A map of URI-encoded parameters to send.
+     * @return A future that resolves with the JSON body
+     * @see #post(String, Map)
+     */
+    public @NotNull CompletableFuture<JsonElement> postAsync(String endpoint, Map<String, String> params) {
+        return requestJSONAsync("POST", endpoint, params, JsonElement.class);
+    }
+
     /**
      * Sends a POST request to the specified endpoint and returns the result
      * @param endpoint The endpoint (e.g. /api/v1/me). See all endpoints <a href="https://www.reddit.com/dev/api/">here</a>.
@@ -446,6 +1812,16 @@ public class RedditClient {
         return requestJSON("POST", endpoint, Collections.emptyMap(), JsonElement.class);
     }
 
+    /**
+     * Sends a POST request to the specified endpoint without blocking
+     * @param endpoint The endpoint (e.g. /api/v1/me). See all endpoints <a href="https://www.reddit.com/dev/api/">here</a>.
+     * @return A future that resolves with the JSON body
+     * @see #post(String)
+     */
+    public @NotNull CompletableFuture<JsonElement> postAsync(String endpoint) {
+        return requestJSONAsync("POST", endpoint, Collections.emptyMap(), JsonElement.class);
+    }
+
     /**
      * Sends a POST request to the specified endpoint and returns the result
      * @param endpoint The endpoint (e.g. /api/v1/me). See all endpoints <a href="https://www.reddit.com/dev/api/">here</a>.
@@ -457,6 +1833,17 @@ public class RedditClient {
         return requestJSON("POST", endpoint, Collections.emptyMap(), clazz);
     }
 
+    /**
+     * Sends a POST request to the specified endpoint without blocking
+     * @param endpoint The endpoint (e.g. /api/v1/me). See all endpoints <a href="https://www.reddit.com/dev/api/">here</a>.
+     * @param clazz The class of the data structure to parse the body with (e.g. JsonObject.class).
+     * @return A future that resolves with the JSON body
+     * @see #post(String, Class)
+     */
+    public <T> @NotNull CompletableFuture<T> postAsync(String endpoint, Class<? extends T> clazz) {
+        return requestJSONAsync("POST", endpoint, Collections.emptyMap(), clazz);
+    }
+
     /**
      * Sends a PATCH request to the specified endpoint and returns the result
      * @param endpoint The endpoint (e.g. /api/v1/me). See all endpoints <a href="https://www.reddit.com/dev/api/">here</a>.
@@ -469,6 +1856,18 @@ public class RedditClient {
         return requestJSON("PATCH", endpoint, params, clazz);
     }
 
+    /**
+     * Sends a PATCH request to the specified endpoint without blocking
+     * @param endpoint The endpoint (e.g. /api/v1/me). See all endpoints <a href="https://www.reddit.com/dev/api/">here</a>.
+     * @param params A map of URI-encoded parameters to send.
+     * @param clazz The class of the data structure to parse the body with (e.g. JsonObject.class).
+     * @return A future that resolves with the JSON body
+     * @see #patch(String, Map, Class)
+     */
+    public <T> @NotNull CompletableFuture<T> patchAsync(String endpoint, Map<String, String> params, Class<? extends T> clazz) {
+        return requestJSONAsync("PATCH", endpoint, params, clazz);
+    }
+
     /**
      * Sends a PATCH request to the specified endpoint and returns the result
      * @param endpoint The endpoint (e.g. /api/v1/me). See all endpoints <a href="https://www.reddit.com/dev/api/">here</a>.
@@ -480,6 +1879,17 @@ public class RedditClient {
         return requestJSON("PATCH", endpoint, params, JsonElement.class);
     }
 
+    /**
+     * Sends a PATCH request to the specified endpoint without blocking
+     * @param endpoint The endpoint (e.g. /api/v1/me). See all endpoints <a href="https://www.reddit.com/dev/api/">here</a>.
+     * @param params A map of URI-encoded parameters to send.
+     * @return A future that resolves with the JSON body
+     * @see #patch(String, Map)
+     */
+    public @NotNull CompletableFuture<JsonElement> patchAsync(String endpoint, Map<String, String> params) {
+        return requestJSONAsync("PATCH", endpoint, params, JsonElement.class);
+    }
+
     /**
      * Sends a PATCH request to the specified endpoint and returns the result
      * @param endpoint The endpoint (e.g. /api/v1/me). See all endpoints <a href="https://www.reddit.com/dev/api/">here</a>.
@@ -490,6 +1900,16 @@ public class RedditClient {
         return requestJSON("PATCH", endpoint, Collections.emptyMap(), JsonElement.class);
     }
 
+    /**
+     * Sends a PATCH request to the specified endpoint without blocking
+     * @param endpoint The endpoint (e.g. /api/v1/me). See all endpoints <a href="https://www.reddit.com/dev/api/">here</a>.
+     * @return A future that resolves with the JSON body
+     * @see #patch(String)
+     */
+    public @NotNull CompletableFuture<JsonElement> patchAsync(String endpoint) {
+        return requestJSONAsync("PATCH", endpoint, Collections.emptyMap(), JsonElement.class);
+    }
+
     /**
      * Sends a PATCH request to the specified endpoint and returns the result
      * @param endpoint The endpoint (e.g. /api/v1/me). See all endpoints <a href="https://www.reddit.com/dev/api/">here</a>.
@@ -501,6 +1921,17 @@ public class RedditClient {
         return requestJSON("PATCH", endpoint, Collections.emptyMap(), clazz);
     }
 
+    /**
+     * Sends a PATCH request to the specified endpoint without blocking
+     * @param endpoint The endpoint (e.g. /api/v1/me). See all endpoints <a href="https://www.reddit.com/dev/api/">here</a>.
+     * @param clazz The class of the data structure to parse the body with (e.g. JsonObject.class).
+     * @return A future that resolves with the JSON body
+     * @see #patch(String, Class)
+     */
+    public <T> @NotNull CompletableFuture<T> patchAsync(String endpoint, Class<? extends T> clazz) {
+        return requestJSONAsync("PATCH", endpoint, Collections.emptyMap(), clazz);
+    }
+
     /**
      * Sends a PUT request to the specified endpoint and returns the result
      * @param endpoint The endpoint (e.g. /api/v1/me). See all endpoints <a href="https://www.reddit.com/dev/api/">here</a>.
@@ -513,6 +1944,18 @@ public class RedditClient {
         return requestJSON("PUT", endpoint, params, clazz);
     }
 
+    /**
+     * Sends a PUT request to the specified endpoint without blocking
+     * @param endpoint The endpoint (e.g. /api/v1/me). See all endpoints <a href="https://www.reddit.com/dev/api/">here</a>.
+     * @param params A map of URI-encoded parameters to send.
+     * @param clazz The class of the data structure to parse the body with (e.g. JsonObject.class).
+     * @return A future that resolves with the JSON body
+     * @see #put(String, Map, Class)
+     */
+    public <T> @NotNull CompletableFuture<T> putAsync(String endpoint, Map<String, String> params, Class<? extends T> clazz) {
+        return requestJSONAsync("PUT", endpoint, params, clazz);
+    }
+
     /**
      * Sends a PUT request to the specified endpoint and returns the result
      * @param endpoint The endpoint (e.g. /api/v1/me). See all endpoints <a href="https://www.reddit.com/dev/api/">here</a>.
@@ -524,6 +1967,17 @@ public class RedditClient {
         return requestJSON("PUT", endpoint, params, JsonElement.class);
     }
 
+    /**
+     * Sends a PUT request to the specified endpoint without blocking
+     * @param endpoint The endpoint (e.g. /api/v1/me). See all endpoints <a href="https://www.reddit.com/dev/api/">here</a>.
+     * @param params A map of URI-encoded parameters to send.
+     * @return A future that resolves with the JSON body
+     * @see #put(String, Map)
+     */
+    public @NotNull CompletableFuture<JsonElement> putAsync(String endpoint, Map<String, String> params) {
+        return requestJSONAsync("PUT", endpoint, params, JsonElement.class);
+    }
+
     /**
      * Sends a PUT request to the specified endpoint and returns the result
      * @param endpoint The endpoint (e.g. /api/v1/me). See all endpoints <a href="https://www.reddit.com/dev/api/">here</a>.
@@ -534,6 +1988,16 @@ public class RedditClient {
         return requestJSON("PUT", endpoint, Collections.emptyMap(), JsonElement.class);
     }
 
+    /**
+     * Sends a PUT request to the specified endpoint without blocking
+     * @param endpoint The endpoint (e.g. /api/v1/me). See all endpoints <a href="https://www.reddit.com/dev/api/">here</a>.
+     * @return A future that resolves with the JSON body
+     * @see #put(String)
+     */
+    public @NotNull CompletableFuture<JsonElement> putAsync(String endpoint) {
+        return requestJSONAsync("PUT", endpoint, Collections.emptyMap(), JsonElement.class);
+    }
+
     /**
      * Sends a PUT request to the specified endpoint and returns the result
      * @param endpoint The endpoint (e.g. /api/v1/me). See all endpoints <a href="https://www.reddit.com/dev/api/">here</a>.
@@ -545,6 +2009,17 @@ public class RedditClient {
         return requestJSON("PUT", endpoint, Collections.emptyMap(), clazz);
     }
 
+    /**
+     * Sends a PUT request to the specified endpoint without blocking
+     * @param endpoint The endpoint (e.g. /api/v1/me). See all endpoints <a href="https://www.reddit.com/dev/api/">here</a>.
+     * @param clazz The class of the data structure to parse the body with (e.g. JsonObject.class).
+     * @return A future that resolves with the JSON body
+     * @see #put(String, Class)
+     */
+    public <T> @NotNull CompletableFuture<T> putAsync(String endpoint, Class<? extends T> clazz) {
+        return requestJSONAsync("PUT", endpoint, Collections.emptyMap(), clazz);
+    }
+
     /**
      * Sends a DELETE request to the specified endpoint and returns the result
      * @param endpoint The endpoint (e.g. /api/v1/me). See all endpoints <a href="https://www.reddit.com/dev/api/">here</a>.
@@ -557,6 +2032,18 @@ public class RedditClient {
         return requestJSON("DELETE", endpoint, params, clazz);
     }
 
+    /**
+     * Sends a DELETE request to the specified endpoint without blocking
+     * @param endpoint The endpoint (e.g. /api/v1/me). See all endpoints <a href="https://www.reddit.com/dev/api/">here</a>.
+     * @param params A map of URI-encoded parameters to send.
+     * @param clazz The class of the data structure to parse the body with (e.g. JsonObject.class).
+     * @return A future that resolves with the JSON body
+     * @see #delete(String, Map, Class)
+     */
+    public <T> @NotNull CompletableFuture<T> deleteAsync(String endpoint, Map<String, String> params, Class<? extends T> clazz) {
+        return requestJSONAsync("DELETE", endpoint, params, clazz);
+    }
+
     /**
      * Sends a DELETE request to the specified endpoint and returns the result
      * @param endpoint The endpoint (e.g. /api/v1/me). See all endpoints <a href="https://www.reddit.com/dev/api/">here</a>.
@@ -568,6 +2055,17 @@ public class RedditClient {
         return requestJSON("DELETE", endpoint, params, JsonElement.class);
     }
 
+    /**
+     * Sends a DELETE request to the specified endpoint without blocking
+     * @param endpoint The endpoint (e.g. /api/v1/me). See all endpoints <a href="https://www.reddit.com/dev/api/">here</a>.
+     * @param params A map of URI-encoded parameters to send.
+     * @return A future that resolves with the JSON body
+     * @see #delete(String, Map)
+     */
+    public @NotNull CompletableFuture<JsonElement> deleteAsync(String endpoint, Map<String, String> params) {
+        return requestJSONAsync("DELETE", endpoint, params, JsonElement.class);
+    }
+
     /**
      * Sends a DELETE request to the specified endpoint and returns the result
      * @param endpoint The endpoint (e.g. /api/v1/me). See all endpoints <a href="https://www.reddit.com/dev/api/">here</a>.
@@ -578,6 +2076,16 @@ public class RedditClient {
         return requestJSON("DELETE", endpoint, Collections.emptyMap(), JsonElement.class);
     }
 
+    /**
+     * Sends a DELETE request to the specified endpoint without blocking
+     * @param endpoint The endpoint (e.g. /api/v1/me). See all endpoints <a href="https://www.reddit.com/dev/api/">here</a>.
+     * @return A future that resolves with the JSON body
+     * @see #delete(String)
+     */
+    public @NotNull CompletableFuture<JsonElement> deleteAsync(String endpoint) {
+        return requestJSONAsync("DELETE", endpoint, Collections.emptyMap(), JsonElement.class);
+    }
+
     /**
      * Sends a DELETE request to the specified endpoint and returns the result
      * @param endpoint The endpoint (e.g. /api/v1/me). See all endpoints <a href="https://www.reddit.com/dev/api/">here</a>.
@@ -589,4 +2097,15 @@ public class RedditClient {
         return requestJSON("DELETE", endpoint, Collections.emptyMap(), clazz);
     }
 
+    /**
+     * Sends a DELETE request to the specified endpoint without blocking
+     * @param endpoint The endpoint (e.g. /api/v1/me). See all endpoints <a href="https://www.reddit.com/dev/api/">here</a>.
+     * @param clazz The class of the data structure to parse the body with (e.g. JsonObject.class).
+     * @return A future that resolves with the JSON body
+     * @see #delete(String, Class)
+     */
+    public <T> @NotNull CompletableFuture<T> deleteAsync(String endpoint, Class<? extends T> clazz) {
+        return requestJSONAsync("DELETE", endpoint, Collections.emptyMap(), clazz);
+    }
+
 }
@@ -0,0 +1,192 @@
+package codes.wasabi.r4j.concurrent;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects single-key loads into batches. The first key of a batch starts a short window, and the batch is dispatched when the
+ * window ends or it reaches the maximum size, whichever comes first. Each caller is then completed with the value for its own key.
+ * Loading the same key twice while a batch is pending shares one slot in the batch.
+ * @param <K> The key type
+ * @param <V> The value type
+ */
+public class BatchLoader<K, V> {
+
+    /**
+     * Loads the values of a batch of keys
+     * @param <K> The key type
+     * @param <V> The value type
+     */
+    @FunctionalInterface
+    public interface BatchFunction<K, V> {
+        /**
+         * Loads the values of a batch of keys
+         * @param keys The keys, which are distinct
+         * @return A future that resolves with the loaded values. Keys that are absent from the map load as null.
+         */
+        @NotNull CompletableFuture<Map<K, V>> load(@NotNull List<K> keys);
+    }
+
+    /**
+     * A snapshot of the batching counters
+     * @param batches The number of batches dispatched
+     * @param keys The number of keys dispatched across all batches
+     * @param shared The number of loads that shared a pending key with an earlier load
+     */
+    public record Stats(long batches, long keys, long shared) {
+
+        /**
+         * Gets the average number of keys per batch
+         * @return The average batch size
+         */
+        public double averageBatchSize() {
+            return batches == 0L ? 0d : ((double) keys) / batches;
+        }
+
+    }
+
+    private final BatchFunction<K, V> function;
+    private final int maxBatchSize;
+    private final Executor delayed;
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder keys = new LongAdder();
+    private final LongAdder shared = new LongAdder();
+    private Map<K, CompletableFuture<V>> pending = null;
+
+    /**
+     * Creates a new loader
+     * @param function The function that loads a batch
+     * @param maxBatchSize The maximum number of keys in one batch
+     * @param window How long a batch waits for more keys after its first key
+     * @throws IllegalArgumentException Max batch size is not positive
+     */
+    public BatchLoader(@NotNull BatchFunction<K, V> function, int maxBatchSize, @NotNull Duration window) throws IllegalArgumentException {
+        if (maxBatchSize < 1) throw new IllegalArgumentException("Max batch size must be positive");
+        this.function = function;
+        this.maxBatchSize = maxBatchSize;
+        this.delayed = CompletableFuture.delayedExecutor(Math.max(0L, window.toNanos()), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Loads the value of a key as part of a batch
+     * @param key The key
+     * @return A future that resolves with the value, which is null if the batch function did not return one
+     */
+    public @NotNull CompletableFuture<V> loadAsync(@NotNull K key) {
+        Map<K, CompletableFuture<V>> full = null;
+        CompletableFuture<V> future;
+        synchronized (this) {
+            if (pending == null) {
+                Map<K, CompletableFuture<V>> batch = new LinkedHashMap<>();
+                pending = batch;
+                delayed.execute(() -> dispatch(batch));
+            }
+            future = pending.get(key);
+            if (future != null) {
+                shared.increment();
+            } else {
+                future = new CompletableFuture<>();
+                pending.put(key, future);
+                if (pending.size() >= maxBatchSize) {
+                    full = pending;
+                    pending = null;
+                }
+            }
+        }
+        if (full != null) run(full);
+        return future.copy();
+    }
+
+    /**
+     * Loads the values of several keys as part of one or more batches
+     * @param keys The keys
+     * @return A future that resolves with every key mapped to its value, in iteration order
+     */
+    public @NotNull CompletableFuture<Map<K, V>> loadAllAsync(@NotNull Collection<? extends K> keys) {
+        Map<K, CompletableFuture<V>> futures = new LinkedHashMap<>();
+        for (K key : keys) futures.computeIfAbsent(key, this::loadAsync);
+        return CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0])).thenApply((Void v) -> {
+            Map<K, V> ret = new LinkedHashMap<>();
+            for (Map.Entry<K, CompletableFuture<V>> entry : futures.entrySet()) ret.put(entry.getKey(), entry.getValue().join());
+            return ret;
+        });
+    }
+
+    /**
+     * Loads the value of a key as part of a batch, blocking until the batch completes
+     * @param key The key
+     * @return The value, or null if the batch function did not return one
+     * @throws IOException The batch failed
+     */
+    public @Nullable V load(@NotNull K key) throws IOException {
+        return Futures.await(loadAsync(key), "batch");
+    }
+
+    /**
+     * Loads the values of several keys as part of one or more batches, blocking until they complete
+     * @param keys The keys
+     * @return Every key mapped to its value, in iteration order
+     * @throws IOException A batch failed
+     */
+    public @NotNull Map<K, V> loadAll(@NotNull Collection<? extends K> keys) throws IOException {
+        return Futures.await(loadAllAsync(keys), "batch");
+    }
+
+    /**
+     * Dispatches the pending batch without waiting for its window to end
+     */
+    public void dispatch() {
+        Map<K, CompletableFuture<V>> batch;
+        synchronized (this) {
+            batch = pending;
+            pending = null;
+        }
+        if (batch != null) run(batch);
+    }
+
+    private void dispatch(Map<K, CompletableFuture<V>> batch) {
+        synchronized (this) {
+            // Already dispatched for being full, or by an explicit dispatch
+            if (pending != batch) return;
+            pending = null;
+        }
+        run(batch);
+    }
+
+    private void run(Map<K, CompletableFuture<V>> batch) {
+        batches.increment();
+        keys.add(batch.size());
+        CompletableFuture<Map<K, V>> result;
+        try {
+            result = function.load(new ArrayList<>(batch.keySet()));
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        result.whenComplete((Map<K, V> values, Throwable t) -> {
+            for (Map.Entry<K, CompletableFuture<V>> entry : batch.entrySet()) {
+                if (t != null) {
+                    entry.getValue().completeExceptionally(t);
+                } else {
+                    entry.getValue().complete(values == null ? null : values.get(entry.getKey()));
+                }
+            }
+        });
+    }
+
+    /**
+     * Gets a snapshot of the batching counters
+     * @return The stats
+     */
+    public @NotNull Stats getStats() {
+        return new Stats(batches.sum(), keys.sum(), shared.sum());
+    }
+
+}
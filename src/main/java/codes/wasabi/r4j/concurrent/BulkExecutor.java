@@ -0,0 +1,156 @@
+package codes.wasabi.r4j.concurrent;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs many blocking requests at once. On Java 21 and above, each task runs on its own virtual thread; on older runtimes
+ * a cached pool of daemon platform threads is used instead. In both cases the number of tasks running at any one time is
+ * capped by a semaphore rather than by the size of a pool.
+ */
+public class BulkExecutor {
+
+    private static final MethodHandle VIRTUAL_EXECUTOR_FACTORY;
+    static {
+        MethodHandle handle;
+        try {
+            handle = MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class));
+        } catch (ReflectiveOperationException e) {
+            handle = null;
+        }
+        VIRTUAL_EXECUTOR_FACTORY = handle;
+    }
+
+    /**
+     * Checks if this runtime supports virtual threads
+     * @return True if tasks will run on virtual threads
+     */
+    public static boolean isVirtualThreadsSupported() {
+        return VIRTUAL_EXECUTOR_FACTORY != null;
+    }
+
+    /**
+     * Creates an executor for blocking tasks, which runs each task on its own virtual thread, or on a cached pool of daemon
+     * platform threads if this runtime does not support virtual threads
+     * @param name The name given to platform threads, followed by their number
+     * @return The executor
+     */
+    public static @NotNull ExecutorService newBlockingExecutor(@NotNull String name) {
+        if (VIRTUAL_EXECUTOR_FACTORY != null) {
+            try {
+                return (ExecutorService) VIRTUAL_EXECUTOR_FACTORY.invoke();
+            } catch (Throwable ignored) { }
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newCachedThreadPool((Runnable r) -> {
+            Thread thread = new Thread(r, name + " #" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final int concurrency;
+
+    /**
+     * Creates a new bulk executor
+     * @param concurrency The maximum number of tasks that may run at once
+     * @throws IllegalArgumentException Concurrency is less than 1
+     */
+    public BulkExecutor(int concurrency) throws IllegalArgumentException {
+        if (concurrency < 1) throw new IllegalArgumentException("Concurrency must be at least 1");
+        this.executor = newBlockingExecutor("R4J Bulk Thread");
+        this.permits = new Semaphore(concurrency);
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Gets the maximum number of tasks that may run at once
+     * @return The concurrency limit
+     */
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    /**
+     * Applies the function to every key concurrently, blocking until all have completed. If any call fails, no further calls
+     * are started, the running ones are cancelled and the first failure is thrown.
+     * @param keys The keys to apply the function to
+     * @param function The function, typically a blocking request
+     * @return A map from each key to its result, in the iteration order of the keys
+     * @throws IOException A call failed
+     */
+    public <K, V> @NotNull Map<K, V> map(@NotNull Collection<? extends K> keys, @NotNull IOFunction<? super K, ? extends V> function) throws IOException {
+        Map<K, Future<V>> futures = new LinkedHashMap<>();
+        BlockingQueue<Future<V>> completed = new LinkedBlockingQueue<>();
+        AtomicBoolean failed = new AtomicBoolean(false);
+        try {
+            for (K key : keys) {
+                if (futures.containsKey(key)) continue;
+                // Acquire before submitting so that waiting tasks never occupy a thread
+                permits.acquire();
+                if (failed.get()) {
+                    permits.release();
+                    break;
+                }
+                // Whichever of the task body and done() claims the task first releases its permit: the body once it returns, so
+                // that a cancelled call still holds its permit until its blocking I/O actually ends, or done() if it never started
+                AtomicBoolean claimed = new AtomicBoolean(false);
+                FutureTask<V> task = new FutureTask<>(() -> {
+                    if (!claimed.compareAndSet(false, true)) throw new CancellationException();
+                    try {
+                        return function.apply(key);
+                    } catch (Throwable t) {
+                        failed.set(true);
+                        throw t;
+                    } finally {
+                        permits.release();
+                    }
+                }) {
+                    @Override
+                    protected void done() {
+                        if (claimed.compareAndSet(false, true)) permits.release();
+                        completed.add(this);
+                    }
+                };
+                try {
+                    executor.execute(task);
+                } catch (RejectedExecutionException e) {
+                    claimed.set(true);
+                    permits.release();
+                    throw e;
+                }
+                futures.put(key, task);
+            }
+            // Wait in order of completion, so that a failure is seen as soon as it happens
+            for (int i=0; i < futures.size(); i++) completed.take().get();
+            Map<K, V> ret = new LinkedHashMap<>();
+            for (Map.Entry<K, Future<V>> entry : futures.entrySet()) {
+                ret.put(entry.getKey(), entry.getValue().get());
+            }
+            return ret;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while awaiting bulk requests");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) throw io;
+            if (cause instanceof RuntimeException re) throw re;
+            if (cause instanceof Error err) throw err;
+            throw new IOException(cause);
+        } finally {
+            for (Future<V> future : futures.values()) future.cancel(true);
+        }
+    }
+
+}
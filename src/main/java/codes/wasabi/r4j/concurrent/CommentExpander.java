@@ -0,0 +1,239 @@
+package codes.wasabi.r4j.concurrent;
+
+import codes.wasabi.r4j.param.ExpandOptions;
+import codes.wasabi.r4j.struct.Comment;
+import codes.wasabi.r4j.struct.CommentNode;
+import codes.wasabi.r4j.struct.Listing;
+import codes.wasabi.r4j.struct.MoreComments;
+import codes.wasabi.r4j.util.LongObjectMap;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Loads the "more" nodes of a comment tree and splices the loaded comments into it. The IDs of every "more" node are collected
+ * into requests of up to {@link #BATCH_SIZE}, several of which may be in flight at once, and "more" nodes found among the loaded
+ * comments are queued as they arrive. A "continue this thread" node, which lists no IDs, is loaded by fetching the thread below its
+ * parent instead.
+ * <p>
+ * The loaded comments take the place of the "more" node they were listed by, so siblings keep the order Reddit gave them in, and
+ * their replies are attached to their parents by fullname. The original tree is not modified; comments on the path to a loaded
+ * comment are copied with {@link Comment#withReplies(Listing)}.
+ */
+public final class CommentExpander {
+
+    /**
+     * The most comment IDs that /api/morechildren accepts in one request
+     */
+    public static final int BATCH_SIZE = 100;
+
+    /**
+     * Loads every "more" node of a comment tree
+     * @param tree The top level of the tree
+     * @param more Loads the comments with the given IDs (without a prefix), as a flat list whose replies are attached by parent
+     * @param thread Loads the thread below the comment with the given ID (without a prefix), whose top level holds that comment
+     * @param options The concurrency, call limit and sort order
+     * @return A future that resolves with the top level of the expanded tree, or fails with the first failed request
+     */
+    public static @NotNull CompletableFuture<Listing<CommentNode>> expand(@NotNull Listing<CommentNode> tree, @NotNull Function<List<String>, CompletableFuture<Listing<CommentNode>>> more, @NotNull Function<String, CompletableFuture<Listing<CommentNode>>> thread, @NotNull ExpandOptions options) {
+        CommentExpander expander = new CommentExpander(tree, more, thread, options);
+        Iterator<CommentNode> nodes = CommentNode.depthFirst(tree);
+        while (nodes.hasNext()) {
+            if (nodes.next() instanceof MoreComments node) expander.enqueue(node);
+        }
+        expander.pump();
+        return expander.result;
+    }
+
+    /**
+     * A slice of the IDs of a "more" node, or all of a "continue this thread" node if it has no IDs
+     */
+    private record Chunk(MoreComments owner, int index, List<String> ids) { }
+
+    /**
+     * The comments loaded for a "more" node, one part per chunk
+     */
+    private static final class Expansion {
+        private final List<List<CommentNode>> parts;
+        private int pending;
+
+        Expansion(int chunks) {
+            parts = new ArrayList<>(Collections.nCopies(chunks, null));
+            pending = chunks;
+        }
+    }
+
+    private final Listing<CommentNode> tree;
+    private final Function<List<String>, CompletableFuture<Listing<CommentNode>>> more;
+    private final Function<String, CompletableFuture<Listing<CommentNode>>> thread;
+    private final ExpandOptions options;
+    private final CompletableFuture<Listing<CommentNode>> result = new CompletableFuture<>();
+    private final Deque<Chunk> queue = new ArrayDeque<>();
+    private final Map<MoreComments, Expansion> expansions = new IdentityHashMap<>();
+    private final LongObjectMap<List<CommentNode>> adopted = new LongObjectMap<>();
+    private int calls = 0;
+    private int inFlight = 0;
+    private Throwable failure = null;
+    private boolean done = false;
+
+    private CommentExpander(Listing<CommentNode> tree, Function<List<String>, CompletableFuture<Listing<CommentNode>>> more, Function<String, CompletableFuture<Listing<CommentNode>>> thread, ExpandOptions options) {
+        this.tree = tree;
+        this.more = more;
+        this.thread = thread;
+        this.options = options;
+    }
+
+    private void enqueue(MoreComments node) {
+        String[] ids = node.getChildren();
+        if (ids.length == 0) {
+            // "Continue this thread" at the top level has no parent comment to load the thread of
+            String parent = node.getParentFullname();
+            if (parent == null || !parent.startsWith("t1_")) return;
+            expansions.put(node, new Expansion(1));
+            queue.add(new Chunk(node, 0, List.of()));
+            return;
+        }
+        int chunks = (ids.length + BATCH_SIZE - 1) / BATCH_SIZE;
+        expansions.put(node, new Expansion(chunks));
+        for (int i=0; i < chunks; i++) {
+            queue.add(new Chunk(node, i, List.of(ids).subList(i * BATCH_SIZE, Math.min(ids.length, (i + 1) * BATCH_SIZE))));
+        }
+    }
+
+    /**
+     * Sends requests until the concurrency or call limit is reached, or completes the result once nothing is left to send or await
+     */
+    private void pump() {
+        List<List<Chunk>> batches = new ArrayList<>();
+        boolean finished;
+        synchronized (this) {
+            while (failure == null && inFlight < options.concurrency() && calls < options.maxCalls() && !queue.isEmpty()) {
+                List<Chunk> batch = new ArrayList<>();
+                Chunk first = queue.poll();
+                batch.add(first);
+                if (!first.ids().isEmpty()) {
+                    // Fill the request with the IDs of other "more" nodes
+                    int size = first.ids().size();
+                    while (!queue.isEmpty() && !queue.peek().ids().isEmpty() && size + queue.peek().ids().size() <= BATCH_SIZE) {
+                        Chunk next = queue.poll();
+                        size += next.ids().size();
+                        batch.add(next);
+                    }
+                }
+                batches.add(batch);
+                calls++;
+                inFlight++;
+            }
+            finished = !done && inFlight == 0 && (failure != null || queue.isEmpty() || calls >= options.maxCalls());
+            if (finished) done = true;
+        }
+        for (List<Chunk> batch : batches) send(batch);
+        if (!finished) return;
+        if (failure != null) {
+            result.completeExceptionally(failure);
+            return;
+        }
+        try {
+            result.complete(Listing.of(CommentSplicer.rebuild(tree, this::replacement, adopted)));
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    private void send(List<Chunk> batch) {
+        CompletableFuture<Listing<CommentNode>> future;
+        try {
+            if (batch.get(0).ids().isEmpty()) {
+                future = thread.apply(batch.get(0).owner().getParentFullname().substring(3));
+            } else {
+                List<String> ids = new ArrayList<>();
+                for (Chunk chunk : batch) ids.addAll(chunk.ids());
+                future = more.apply(ids);
+            }
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        future.whenComplete((Listing<CommentNode> listing, Throwable error) -> {
+            synchronized (this) {
+                inFlight--;
+                if (error != null) {
+                    if (failure == null) failure = (error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+                } else if (batch.get(0).ids().isEmpty()) {
+                    spliceThread(batch.get(0), listing);
+                } else {
+                    spliceMore(batch, listing);
+                }
+            }
+            pump();
+        });
+    }
+
+    private void spliceMore(List<Chunk> batch, Listing<CommentNode> listing) {
+        List<MoreComments> owners = new ArrayList<>(batch.size());
+        List<List<String>> ids = new ArrayList<>(batch.size());
+        for (Chunk chunk : batch) {
+            owners.add(chunk.owner());
+            ids.add(chunk.ids());
+        }
+        List<List<CommentNode>> parts = CommentSplicer.splice(owners, ids, listing, adopted);
+        for (CommentNode node : listing) {
+            if (node instanceof MoreComments nested) enqueue(nested);
+        }
+        for (int i=0; i < batch.size(); i++) fill(batch.get(i), parts.get(i));
+    }
+
+    private void spliceThread(Chunk chunk, Listing<CommentNode> listing) {
+        List<CommentNode> replies = List.of();
+        for (CommentNode node : listing) {
+            if (node instanceof Comment comment && comment.getFullname().equals(chunk.owner().getParentFullname())) {
+                replies = comment.getReplies();
+                break;
+            }
+        }
+        Iterator<CommentNode> nodes = CommentNode.depthFirst(replies);
+        while (nodes.hasNext()) {
+            if (nodes.next() instanceof MoreComments nested) enqueue(nested);
+        }
+        fill(chunk, replies);
+    }
+
+    private void fill(Chunk chunk, List<CommentNode> part) {
+        Expansion expansion = expansions.get(chunk.owner());
+        expansion.parts.set(chunk.index(), part);
+        expansion.pending--;
+    }
+
+    /**
+     * Gets what takes the place of a "more" node: the comments loaded for it, and a node for the IDs that were not loaded
+     * @return The replacement, or null to keep the node
+     */
+    private List<CommentNode> replacement(MoreComments more) {
+        Expansion expansion = expansions.get(more);
+        // A node that loaded nothing is kept as it is
+        if (expansion == null || expansion.pending == expansion.parts.size()) return null;
+        List<CommentNode> out = new ArrayList<>();
+        for (List<CommentNode> part : expansion.parts) {
+            if (part != null) out.addAll(part);
+        }
+        // Keep a node for the IDs that were never loaded, e.g. because the call limit was reached
+        if (expansion.pending > 0) out.add(leftover(more, expansion));
+        return out;
+    }
+
+    /**
+     * Gets a "more" node listing only the IDs of the chunks that were not loaded
+     */
+    private static MoreComments leftover(MoreComments more, Expansion expansion) {
+        String[] ids = more.getChildren();
+        if (expansion.pending == expansion.parts.size()) return more;
+        List<String> left = new ArrayList<>(expansion.pending * BATCH_SIZE);
+        for (int i=0; i < expansion.parts.size(); i++) {
+            if (expansion.parts.get(i) == null) left.addAll(List.of(ids).subList(i * BATCH_SIZE, Math.min(ids.length, (i + 1) * BATCH_SIZE)));
+        }
+        return more.withChildren(left.toArray(new String[0]));
+    }
+
+}
@@ -0,0 +1,102 @@
+package codes.wasabi.r4j.concurrent;
+
+import codes.wasabi.r4j.struct.Comment;
+import codes.wasabi.r4j.struct.CommentNode;
+import codes.wasabi.r4j.struct.Listing;
+import codes.wasabi.r4j.struct.MoreComments;
+import codes.wasabi.r4j.struct.RedditId;
+import codes.wasabi.r4j.util.LongObjectMap;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Splices the comments loaded for "more" nodes into a comment tree, for both {@link CommentExpander} and {@link ThreadCrawler}.
+ * <p>
+ * A comment of a flat /api/morechildren response takes the place of the "more" node that listed it, if it sits under the same
+ * parent as that node, and so does a "more" node for the siblings that did not fit. Every other comment is adopted by its parent,
+ * which may be anywhere in the tree, including among the comments of the same or another response. Comments whose parent is never
+ * found are dropped.
+ */
+final class CommentSplicer {
+
+    private CommentSplicer() { }
+
+    /**
+     * Sorts the comments of a flat /api/morechildren response by the "more" node they take the place of
+     * @param owners The "more" nodes whose IDs were requested
+     * @param ids The IDs (without a prefix) requested for each owner
+     * @param flat The response
+     * @param adopted Collects the comments that belong under another comment, by the packed fullname of the parent
+     * @return The comments that take the place of each owner, in the order of the response
+     */
+    static List<List<CommentNode>> splice(List<MoreComments> owners, List<? extends Collection<String>> ids, List<? extends CommentNode> flat, LongObjectMap<List<CommentNode>> adopted) {
+        LongObjectMap<Integer> slots = new LongObjectMap<>(CommentExpander.BATCH_SIZE);
+        for (int i=0; i < owners.size(); i++) {
+            for (String id : ids.get(i)) {
+                long packed = RedditId.tryParse(id);
+                if (packed != RedditId.NONE) slots.put(packed, i);
+            }
+        }
+        List<List<CommentNode>> parts = new ArrayList<>(owners.size());
+        for (int i=0; i < owners.size(); i++) parts.add(new ArrayList<>());
+        for (CommentNode node : flat) {
+            String parent = node.getParentFullname();
+            long id = RedditId.tryParse(node.getID());
+            Integer owner = (id == RedditId.NONE ? null : slots.get(id));
+            int slot = -1;
+            if (owner != null && Objects.equals(parent, owners.get(owner).getParentFullname())) {
+                slot = owner;
+            } else if (owner == null) {
+                // A "more" node for the siblings that did not fit takes the place of the node that listed them
+                for (int i=owners.size() - 1; i >= 0 && slot < 0; i--) {
+                    if (Objects.equals(parent, owners.get(i).getParentFullname())) slot = i;
+                }
+            }
+            if (slot >= 0) {
+                parts.get(slot).add(node);
+            } else {
+                long parentID = RedditId.tryParse(parent);
+                if (parentID != RedditId.NONE) adopted.computeIfAbsent(parentID, (long k) -> new ArrayList<>()).add(node);
+            }
+        }
+        return parts;
+    }
+
+    /**
+     * Rebuilds a list of siblings with their "more" nodes replaced by what was loaded for them, and adopted comments added to the
+     * replies of their parents. Comments on the path to a change are copied with {@link Comment#withReplies(Listing)}.
+     * @param siblings The siblings
+     * @param replacement Gets what takes the place of a "more" node, or null to keep the node
+     * @param adopted The adopted comments, which are removed from the map as they are placed
+     * @return The rebuilt siblings
+     */
+    static List<CommentNode> rebuild(List<? extends CommentNode> siblings, Function<MoreComments, List<CommentNode>> replacement, LongObjectMap<List<CommentNode>> adopted) {
+        List<CommentNode> out = new ArrayList<>(siblings.size());
+        for (CommentNode node : siblings) {
+            List<CommentNode> replaced = (node instanceof MoreComments more ? replacement.apply(more) : null);
+            if (replaced != null) {
+                out.addAll(rebuild(replaced, replacement, adopted));
+            } else if (node instanceof Comment comment) {
+                Listing<CommentNode> replies = comment.getReplies();
+                List<CommentNode> rebuilt = rebuild(replies, replacement, adopted);
+                long id = RedditId.tryParse(comment.getFullname());
+                List<CommentNode> adoptees = (id == RedditId.NONE || adopted.isEmpty() ? null : adopted.remove(id));
+                if (adoptees != null) rebuilt.addAll(rebuild(adoptees, replacement, adopted));
+                out.add(same(replies, rebuilt) ? comment : comment.withReplies(Listing.of(rebuilt)));
+            } else {
+                out.add(node);
+            }
+        }
+        return out;
+    }
+
+    private static boolean same(List<CommentNode> a, List<CommentNode> b) {
+        if (a.size() != b.size()) return false;
+        for (int i=0; i < a.size(); i++) {
+            if (a.get(i) != b.get(i)) return false;
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,221 @@
+package codes.wasabi.r4j.concurrent;
+
+import codes.wasabi.r4j.param.ListingOptions;
+import codes.wasabi.r4j.struct.CommentNode;
+import codes.wasabi.r4j.struct.Listing;
+import codes.wasabi.r4j.struct.RedditEntity;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Publishes items that are fetched a page at a time, driven by demand. A page is only fetched once every item of the previous page
+ * has been delivered and the subscriber has requested more, so at most one page is held in memory per subscription and no
+ * request is sent for items nobody has asked for. Each subscription walks the pages from the start.
+ * <p>
+ * Signals may be delivered on the thread that calls {@link Flow.Subscription#request(long)} or on the thread that completes a page
+ * fetch, but never concurrently.
+ * @param <T> The type of the items
+ */
+public class DemandPublisher<T> implements Flow.Publisher<T> {
+
+    /**
+     * Fetches the pages of one subscription in order
+     * @param <T> The type of the items
+     */
+    @FunctionalInterface
+    public interface PageSource<T> {
+        /**
+         * Fetches the next page. This is not called again until the returned future has completed.
+         * @return A future that resolves with the items of the page, or with null if there are no more pages
+         */
+        @NotNull CompletableFuture<@Nullable Iterator<T>> next();
+    }
+
+    /**
+     * Creates a publisher over the items of a listing across pages, following the "after" cursor of each page
+     * @param fetcher Fetches a page with the given options
+     * @param options The options of the first page. Later pages use the same options, with the cursor and count moved along.
+     * @param maxItems The maximum number of items published to each subscriber
+     * @return The publisher
+     */
+    public static <T extends RedditEntity> @NotNull DemandPublisher<T> ofListing(@NotNull Function<ListingOptions, CompletableFuture<Listing<T>>> fetcher, @NotNull ListingOptions options, long maxItems) {
+        return new DemandPublisher<>(() -> new PageSource<>() {
+            private String after = options.after();
+            private String before = options.before();
+            private long seen = 0L;
+            private boolean first = true;
+
+            @Override
+            public @NotNull CompletableFuture<Iterator<T>> next() {
+                if (!first && (after == null || seen >= maxItems)) return CompletableFuture.completedFuture(null);
+                first = false;
+                int limit = (int) Math.min(options.limit(), Math.max(1L, maxItems - seen));
+                int count = (int) Math.min(Integer.MAX_VALUE, options.count() + seen);
+                ListingOptions page = new ListingOptions(after, before, count, limit, options.showAll(), options.bypassCache(), options.fields());
+                before = null;
+                return fetcher.apply(page).thenApply((Listing<T> listing) -> {
+                    seen += listing.size();
+                    after = (listing.isEmpty() ? null : listing.getAfter());
+                    return listing.iterator();
+                });
+            }
+        }, maxItems);
+    }
+
+    /**
+     * Creates a publisher over every node of a comment tree, depth first, which is fetched once the first node is requested
+     * @param fetcher Fetches the top level of the tree
+     * @return The publisher
+     * @see CommentNode#depthFirst(Iterable)
+     */
+    public static @NotNull DemandPublisher<CommentNode> ofCommentTree(@NotNull Supplier<CompletableFuture<Listing<CommentNode>>> fetcher) {
+        return new DemandPublisher<>(() -> new PageSource<>() {
+            private boolean fetched = false;
+
+            @Override
+            public @NotNull CompletableFuture<Iterator<CommentNode>> next() {
+                if (fetched) return CompletableFuture.completedFuture(null);
+                fetched = true;
+                return fetcher.get().thenApply(CommentNode::depthFirst);
+            }
+        }, Long.MAX_VALUE);
+    }
+
+    private final Supplier<? extends PageSource<T>> sources;
+    private final long maxItems;
+
+    /**
+     * Creates a publisher
+     * @param sources Creates the page source of each subscription
+     * @param maxItems The maximum number of items published to each subscriber
+     */
+    public DemandPublisher(@NotNull Supplier<? extends PageSource<T>> sources, long maxItems) {
+        this.sources = sources;
+        this.maxItems = maxItems;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber);
+        Subscription<T> subscription = new Subscription<>(subscriber, sources.get(), maxItems);
+        subscriber.onSubscribe(subscription);
+        subscription.drain();
+    }
+
+    private static final class Subscription<T> implements Flow.Subscription {
+        private final Flow.Subscriber<? super T> subscriber;
+        private final PageSource<T> source;
+        private final long maxItems;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private Iterator<T> current = Collections.emptyIterator();
+        private long delivered = 0L;
+        private boolean fetching = false;
+        private boolean done = false;
+        private volatile boolean cancelled = false;
+        private volatile CompletableFuture<Iterator<T>> inFlight = null;
+        private volatile Iterator<T> fetchedPage = null;
+        private volatile boolean exhausted = false;
+        private volatile Throwable error = null;
+
+        Subscription(Flow.Subscriber<? super T> subscriber, PageSource<T> source, long maxItems) {
+            this.subscriber = subscriber;
+            this.source = source;
+            this.maxItems = maxItems;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0L) {
+                error = new IllegalArgumentException("Requested " + n + " items, but at least 1 must be requested");
+            } else {
+                requested.getAndUpdate((long r) -> (r + n < 0L ? Long.MAX_VALUE : r + n));
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            CompletableFuture<Iterator<T>> future = inFlight;
+            if (future != null) future.cancel(false);
+        }
+
+        void drain() {
+            if (wip.getAndIncrement() != 0) return;
+            int missed = 1;
+            do {
+                if (!done) drainLoop();
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void drainLoop() {
+            while (!cancelled) {
+                Throwable e = error;
+                if (e != null) {
+                    terminate();
+                    subscriber.onError(e);
+                    return;
+                }
+                Iterator<T> page = fetchedPage;
+                if (page != null) {
+                    fetchedPage = null;
+                    fetching = false;
+                    current = page;
+                }
+                if (delivered >= maxItems || (!fetching && !current.hasNext() && exhausted)) {
+                    terminate();
+                    subscriber.onComplete();
+                    return;
+                }
+                if (requested.get() == 0L) return;
+                if (current.hasNext()) {
+                    requested.decrementAndGet();
+                    delivered++;
+                    subscriber.onNext(current.next());
+                    continue;
+                }
+                if (fetching) return;
+                fetching = true;
+                CompletableFuture<Iterator<T>> future;
+                try {
+                    future = source.next();
+                } catch (RuntimeException ex) {
+                    future = CompletableFuture.failedFuture(ex);
+                }
+                inFlight = future;
+                future.whenComplete((Iterator<T> items, Throwable t) -> {
+                    inFlight = null;
+                    if (t != null) {
+                        error = (t instanceof CompletionException && t.getCause() != null ? t.getCause() : t);
+                    } else if (items == null) {
+                        exhausted = true;
+                        fetchedPage = Collections.emptyIterator();
+                    } else {
+                        fetchedPage = items;
+                    }
+                    drain();
+                });
+            }
+        }
+
+        private void terminate() {
+            done = true;
+            cancelled = true;
+            current = Collections.emptyIterator();
+        }
+    }
+
+}
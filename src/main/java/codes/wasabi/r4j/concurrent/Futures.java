@@ -0,0 +1,44 @@
+package codes.wasabi.r4j.concurrent;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Helpers for blocking on the futures of the asynchronous methods
+ */
+public final class Futures {
+
+    private Futures() { }
+
+    /**
+     * Waits for a future to complete, and rethrows what it failed with as it was thrown. An {@link IOException},
+     * {@link RuntimeException} or {@link Error} is rethrown as is, even if the future wrapped it in a {@link CompletionException};
+     * any other cause is wrapped in an {@link IOException}.
+     * @param future The future to wait for
+     * @param what What is being awaited, for the message of the exception thrown if the wait is interrupted
+     * @return The result of the future
+     * @throws InterruptedIOException If the thread was interrupted while waiting, in which case the interrupt flag is set again
+     * @throws IOException If the future failed with an IOException, or with a checked exception that is not one
+     */
+    public static <T> T await(@NotNull CompletableFuture<T> future, @NotNull String what) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while awaiting " + what);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof CompletionException && cause.getCause() != null) cause = cause.getCause();
+            if (cause instanceof IOException io) throw io;
+            if (cause instanceof RuntimeException re) throw re;
+            if (cause instanceof Error err) throw err;
+            throw new IOException(cause);
+        }
+    }
+
+}
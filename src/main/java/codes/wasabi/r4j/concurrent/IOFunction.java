@@ -0,0 +1,15 @@
+package codes.wasabi.r4j.concurrent;
+
+import java.io.IOException;
+
+/**
+ * A function that may throw an {@link IOException}
+ * @param <T> The input type
+ * @param <R> The result type
+ */
+@FunctionalInterface
+public interface IOFunction<T, R> {
+
+    R apply(T t) throws IOException;
+
+}
@@ -0,0 +1,14 @@
+package codes.wasabi.r4j.concurrent;
+
+import java.io.IOException;
+
+/**
+ * A supplier that may throw an {@link IOException}
+ * @param <T> The result type
+ */
+@FunctionalInterface
+public interface IOSupplier<T> {
+
+    T get() throws IOException;
+
+}
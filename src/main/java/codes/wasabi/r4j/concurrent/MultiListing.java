@@ -0,0 +1,195 @@
+package codes.wasabi.r4j.concurrent;
+
+import codes.wasabi.r4j.struct.Post;
+import codes.wasabi.r4j.struct.RedditEntity;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Merges several listings that are each ordered the same way into one ordered stream. The head item of every source is kept in a
+ * heap, and a source is only advanced once its head has been taken and the next item is asked for. With a
+ * {@link codes.wasabi.r4j.param.PaginationOptions#prefetch() prefetch depth} of 0, a source therefore only fetches its next page
+ * once the merge needs an item from it.
+ * <p>
+ * Reddit can list several subreddits at once through r/a+b+c, but a path holding hundreds of names is too long to request.
+ * {@link #group(Collection)} spreads a set of subreddits over as few such groups as fit, which can then be merged.
+ * <p>
+ * A multi listing is meant to be consumed by one thread. Failures to fetch a page are thrown from {@link #hasNext()} as an
+ * {@link java.io.UncheckedIOException}, after which every source is closed.
+ * @param <T> The type of the items
+ */
+public class MultiListing<T extends RedditEntity> implements Iterator<T>, AutoCloseable {
+
+    /**
+     * Orders posts from newest to oldest, the order of /new
+     */
+    public static final Comparator<Post> NEWEST_FIRST = Comparator.comparingLong(Post::getCreatedTime).reversed();
+
+    /**
+     * Orders posts from highest to lowest score, the order of /top
+     */
+    public static final Comparator<Post> HIGHEST_SCORE_FIRST = Comparator.comparingInt(Post::getScore).reversed();
+
+    /**
+     * The most subreddits joined into one group
+     */
+    public static final int MAX_GROUP_SIZE = 100;
+
+    /**
+     * The longest a group may be once joined with +, which keeps the URL of a request well under 2048 characters
+     */
+    public static final int MAX_GROUP_LENGTH = 1800;
+
+    /**
+     * Spreads subreddits over as few r/a+b+c groups as fit within {@link #MAX_GROUP_SIZE} and {@link #MAX_GROUP_LENGTH}. The names
+     * are balanced over the groups by length, so that the groups are of similar size, and sorted within each group, so that the
+     * same set of subreddits always gives the same paths.
+     * @param subreddits The subreddit names
+     * @return The groups, joined with +
+     * @throws IllegalArgumentException A subreddit name is longer than a group may be
+     */
+    public static @NotNull List<String> group(@NotNull Collection<String> subreddits) throws IllegalArgumentException {
+        List<String> names = new ArrayList<>(new LinkedHashSet<>(subreddits));
+        if (names.isEmpty()) return List.of();
+        long length = 0L;
+        for (String name : names) {
+            if (name.length() > MAX_GROUP_LENGTH) throw new IllegalArgumentException("Subreddit name is too long: " + name);
+            length += name.length() + 1;
+        }
+        int count = (int) Math.max((names.size() + MAX_GROUP_SIZE - 1) / MAX_GROUP_SIZE, (length + MAX_GROUP_LENGTH - 1) / MAX_GROUP_LENGTH);
+        List<List<String>> groups = new ArrayList<>();
+        List<Integer> lengths = new ArrayList<>();
+        for (int i=0; i < count; i++) {
+            groups.add(new ArrayList<>());
+            lengths.add(-1);
+        }
+        // Longest first, each into the shortest group it fits in
+        names.sort(Comparator.comparingInt(String::length).reversed());
+        for (String name : names) {
+            int best = -1;
+            for (int i=0; i < groups.size(); i++) {
+                if (groups.get(i).size() >= MAX_GROUP_SIZE || lengths.get(i) + 1 + name.length() > MAX_GROUP_LENGTH) continue;
+                if (best < 0 || lengths.get(i) < lengths.get(best)) best = i;
+            }
+            if (best < 0) {
+                groups.add(new ArrayList<>());
+                lengths.add(-1);
+                best = groups.size() - 1;
+            }
+            groups.get(best).add(name);
+            lengths.set(best, lengths.get(best) + 1 + name.length());
+        }
+        List<String> ret = new ArrayList<>(groups.size());
+        for (List<String> group : groups) {
+            if (group.isEmpty()) continue;
+            Collections.sort(group);
+            ret.add(String.join("+", group));
+        }
+        return ret;
+    }
+
+    private record Head<T>(T item, int source) { }
+
+    private final List<Paginator<T>> sources;
+    private final long maxItems;
+    private final PriorityQueue<Head<T>> heap;
+    private boolean started = false;
+    private int taken = -1;
+    private long produced = 0L;
+    private boolean closed = false;
+
+    /**
+     * Creates a multi listing over paginators that have already started fetching their first pages
+     * @param sources The sources, each ordered by the comparator
+     * @param order The order shared by the sources
+     * @param maxItems The maximum number of items produced in total
+     */
+    public MultiListing(@NotNull List<Paginator<T>> sources, @NotNull Comparator<? super T> order, long maxItems) {
+        this.sources = List.copyOf(sources);
+        this.maxItems = maxItems;
+        Comparator<Head<T>> byItem = Comparator.comparing(Head::item, order);
+        // Ties go to the source listed first, so that the merge is deterministic
+        this.heap = new PriorityQueue<>(Math.max(1, sources.size()), byItem.thenComparingInt(Head::source));
+    }
+
+    private void advance(int source) {
+        Paginator<T> paginator = sources.get(source);
+        try {
+            if (paginator.hasNext()) heap.add(new Head<>(paginator.next(), source));
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (closed) return false;
+        if (produced >= maxItems) {
+            close();
+            return false;
+        }
+        if (!started) {
+            started = true;
+            for (int i=0; i < sources.size(); i++) advance(i);
+        }
+        // The source of the last item is only advanced now, so that no page is fetched for an item that is never asked for
+        if (taken >= 0) {
+            int source = taken;
+            taken = -1;
+            advance(source);
+        }
+        if (heap.isEmpty()) {
+            close();
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        Head<T> head = heap.poll();
+        produced++;
+        taken = head.source();
+        return head.item();
+    }
+
+    /**
+     * Gets the number of items produced so far
+     * @return The number of items
+     */
+    public long getProduced() {
+        return produced;
+    }
+
+    /**
+     * Gets the number of sources being merged
+     * @return The number of sources
+     */
+    public int getSourceCount() {
+        return sources.size();
+    }
+
+    /**
+     * Creates a sequential stream over the remaining items. Closing the stream closes this multi listing.
+     * @return The stream
+     */
+    public @NotNull Stream<T> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(this::close);
+    }
+
+    /**
+     * Stops iteration and closes every source
+     */
+    @Override
+    public void close() {
+        closed = true;
+        heap.clear();
+        for (Paginator<T> source : sources) source.close();
+    }
+
+}
@@ -0,0 +1,174 @@
+package codes.wasabi.r4j.concurrent;
+
+import codes.wasabi.r4j.param.ListingOptions;
+import codes.wasabi.r4j.param.PaginationOptions;
+import codes.wasabi.r4j.struct.Listing;
+import codes.wasabi.r4j.struct.RedditEntity;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Iterates over the items of a listing across pages, following the "after" cursor of each page. While the items of one page are
+ * being consumed, the following pages (up to the {@link PaginationOptions#prefetch() prefetch depth}) are already being fetched.
+ * Iteration ends when a page has no "after" cursor, a page is empty, the maximum number of items has been produced, or the
+ * paginator is closed. Closing cancels any pages that are still being fetched.
+ * <p>
+ * A paginator is meant to be consumed by one thread. Failures to fetch a page are thrown from {@link #hasNext()} as an
+ * {@link UncheckedIOException}, after which the paginator is closed.
+ * @param <T> The type of the items
+ */
+public class Paginator<T extends RedditEntity> implements Iterator<T>, AutoCloseable {
+
+    private record Page<T extends RedditEntity>(@NotNull Listing<T> listing, long seen) { }
+
+    private final Function<ListingOptions, CompletableFuture<Listing<T>>> fetcher;
+    private final ListingOptions options;
+    private final int prefetch;
+    private final long maxItems;
+    private final Deque<CompletableFuture<Page<T>>> pages = new ArrayDeque<>();
+    private CompletableFuture<Page<T>> last;
+    private Iterator<T> current = Collections.emptyIterator();
+    private String after = null;
+    private long produced = 0L;
+    private volatile boolean closed = false;
+
+    /**
+     * Creates a paginator and starts fetching the first page
+     * @param fetcher Fetches a page with the given options
+     * @param options The options of the first page. Later pages use the same options, with the cursor and count moved along.
+     * @param pagination The prefetch depth and the maximum number of items
+     */
+    public Paginator(@NotNull Function<ListingOptions, CompletableFuture<Listing<T>>> fetcher, @NotNull ListingOptions options, @NotNull PaginationOptions pagination) {
+        this.fetcher = fetcher;
+        this.options = options;
+        this.prefetch = pagination.prefetch();
+        this.maxItems = pagination.maxItems();
+        if (maxItems == 0L) {
+            closed = true;
+            return;
+        }
+        last = fetch(options.after(), options.before(), 0L);
+        pages.add(last);
+        while (pages.size() <= prefetch && extend()) { }
+    }
+
+    private CompletableFuture<Page<T>> fetch(@Nullable String after, @Nullable String before, long seen) {
+        int limit = (int) Math.min(options.limit(), maxItems - seen);
+        int count = (int) Math.min(Integer.MAX_VALUE, options.count() + seen);
+        ListingOptions page = new ListingOptions(after, before, count, limit, options.showAll(), options.bypassCache(), options.fields());
+        return fetcher.apply(page).thenApply((Listing<T> listing) -> new Page<>(listing, seen + listing.size()));
+    }
+
+    private CompletableFuture<Page<T>> next(@Nullable Page<T> page) {
+        if (closed || page == null) return CompletableFuture.completedFuture(null);
+        String cursor = page.listing.getAfter();
+        if (cursor == null || page.listing.isEmpty() || page.seen >= maxItems) return CompletableFuture.completedFuture(null);
+        return fetch(cursor, null, page.seen);
+    }
+
+    /**
+     * Chains the fetch of the page after the last one
+     * @return False if the last page is known to be the end of the listing
+     */
+    private boolean extend() {
+        if (last.isDone() && !last.isCompletedExceptionally() && last.join() == null) return false;
+        last = last.thenCompose(this::next);
+        pages.add(last);
+        return true;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (produced >= maxItems) close();
+        while (!current.hasNext()) {
+            if (closed) return false;
+            if (pages.isEmpty() && !extend()) {
+                close();
+                return false;
+            }
+            CompletableFuture<Page<T>> head = pages.poll();
+            while (pages.size() < prefetch && extend()) { }
+            Page<T> page;
+            try {
+                page = head.join();
+            } catch (CancellationException e) {
+                return false;
+            } catch (CompletionException e) {
+                close();
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException io) throw new UncheckedIOException(io);
+                if (cause instanceof RuntimeException re) throw re;
+                throw e;
+            }
+            if (page == null) {
+                close();
+                return false;
+            }
+            after = page.listing.getAfter();
+            current = page.listing.iterator();
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        produced++;
+        return current.next();
+    }
+
+    /**
+     * Gets the "after" cursor of the page that items are currently being produced from, which can be used to resume from the page
+     * after it
+     * @return The cursor, or null if no page has been consumed yet or the current page is the last one
+     */
+    public @Nullable String getAfter() {
+        return after;
+    }
+
+    /**
+     * Gets the number of items produced so far
+     * @return The number of items
+     */
+    public long getProduced() {
+        return produced;
+    }
+
+    /**
+     * Returns true if this paginator has been closed, either explicitly or by reaching the end of the listing
+     * @return True if no more pages will be fetched
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Creates a sequential stream over the remaining items. Closing the stream closes this paginator.
+     * @return The stream
+     */
+    public @NotNull Stream<T> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(this::close);
+    }
+
+    /**
+     * Stops iteration and cancels the pages that are still being fetched
+     */
+    @Override
+    public void close() {
+        closed = true;
+        current = Collections.emptyIterator();
+        CompletableFuture<Page<T>> page;
+        while ((page = pages.poll()) != null) page.cancel(false);
+    }
+
+}
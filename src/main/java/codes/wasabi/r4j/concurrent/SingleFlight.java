@@ -0,0 +1,110 @@
+package codes.wasabi.r4j.concurrent;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls with the same key into a single execution, whose result is shared by every caller that arrived
+ * while it was in flight. Results are not remembered once the execution completes.
+ * @param <K> The key type
+ */
+public class SingleFlight<K> {
+
+    /**
+     * A snapshot of the coalescing counters
+     * @param executions The number of calls that were actually executed
+     * @param coalesced The number of calls that shared the result of another execution
+     * @param inFlight The number of executions currently in flight
+     */
+    public record Stats(long executions, long coalesced, int inFlight) {
+
+        /**
+         * Gets the fraction of calls that shared another call's execution
+         * @return The coalescing ratio, between 0 and 1
+         */
+        public double coalescedRatio() {
+            long total = executions + coalesced;
+            return total == 0L ? 0d : ((double) coalesced) / total;
+        }
+
+    }
+
+    private final Map<K, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Executes the call on the current thread, or waits for the in-flight execution with the same key
+     * @param key The key identifying the call
+     * @param supplier The call
+     * @return The result of the call
+     * @throws IOException The call failed
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(@NotNull K key, @NotNull IOSupplier<T> supplier) throws IOException {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            coalesced.increment();
+            return (T) Futures.await(existing, "coalesced request");
+        }
+        executions.increment();
+        try {
+            T value = supplier.get();
+            inFlight.remove(key, mine);
+            mine.complete(value);
+            return value;
+        } catch (IOException | RuntimeException | Error e) {
+            inFlight.remove(key, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Starts the call, or joins the in-flight execution with the same key
+     * @param key The key identifying the call
+     * @param supplier The call
+     * @return A future that resolves with the result of the call
+     */
+    @SuppressWarnings("unchecked")
+    public <T> @NotNull CompletableFuture<T> executeAsync(@NotNull K key, @NotNull Supplier<CompletableFuture<T>> supplier) {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            coalesced.increment();
+            return (CompletableFuture<T>) existing.copy();
+        }
+        executions.increment();
+        CompletableFuture<T> future;
+        try {
+            future = supplier.get();
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        future.whenComplete((T value, Throwable t) -> {
+            inFlight.remove(key, mine);
+            if (t != null) {
+                mine.completeExceptionally(t);
+            } else {
+                mine.complete(value);
+            }
+        });
+        return (CompletableFuture<T>) mine.copy();
+    }
+
+    /**
+     * Gets a snapshot of the coalescing counters
+     * @return The stats
+     */
+    public @NotNull Stats getStats() {
+        return new Stats(executions.sum(), coalesced.sum(), inFlight.size());
+    }
+
+}
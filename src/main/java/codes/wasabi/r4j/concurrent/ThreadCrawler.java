@@ -0,0 +1,247 @@
+package codes.wasabi.r4j.concurrent;
+
+import codes.wasabi.r4j.RedditClient;
+import codes.wasabi.r4j.param.CommentViewOptions;
+import codes.wasabi.r4j.struct.Comment;
+import codes.wasabi.r4j.struct.CommentNode;
+import codes.wasabi.r4j.struct.Listing;
+import codes.wasabi.r4j.struct.MoreComments;
+import codes.wasabi.r4j.util.LongObjectMap;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Crawls whole comment threads on a {@link ForkJoinPool}. Every "more" node is a task, which loads the comments it lists through
+ * /api/morechildren, or the thread below its parent comment if it is a "continue this thread" node. The comments a task loads are
+ * walked for further "more" nodes, which are forked as new tasks, so that idle workers steal pending subtrees from busy ones. Tasks
+ * never wait on each other; the tree is assembled once every task has completed.
+ * <p>
+ * At most one request per worker is in flight at once. Requests go through the client and share its rate limiter. "More" nodes
+ * left over once the call limit of a crawl is reached stay in the tree.
+ */
+public class ThreadCrawler implements AutoCloseable {
+
+    /**
+     * The result of a crawl
+     * @param tree The top level of the assembled tree
+     * @param calls The number of requests sent, including the one for the top of the thread
+     * @param complete False if the call limit was reached, so that "more" nodes were left in the tree
+     */
+    public record Result(@NotNull Listing<CommentNode> tree, int calls, boolean complete) { }
+
+    private final RedditClient client;
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a crawler with its own pool
+     * @param client The client used to send requests
+     * @param workers The number of worker threads, and so the number of requests in flight at once
+     * @throws IllegalArgumentException Workers is less than 1
+     */
+    public ThreadCrawler(@NotNull RedditClient client, int workers) throws IllegalArgumentException {
+        if (workers < 1) throw new IllegalArgumentException("Workers must be at least 1");
+        this.client = client;
+        this.pool = new ForkJoinPool(workers);
+    }
+
+    public int getWorkers() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Crawls a whole thread, blocking until every task has finished
+     * @param subreddit Subreddit name
+     * @param postID The ID of the post
+     * @param options The options of every request for a thread. The sort order is also used for /api/morechildren.
+     * @param maxCalls The maximum number of requests sent for the thread
+     * @return The assembled tree
+     * @throws IOException A request failed
+     */
+    public @NotNull Result crawl(@NotNull String subreddit, @NotNull String postID, @NotNull CommentViewOptions options, int maxCalls) throws IOException {
+        if (maxCalls < 1) throw new IllegalArgumentException("Max calls must be at least 1");
+        Crawl crawl = new Crawl(subreddit, postID, options, maxCalls);
+        Listing<CommentNode> top = client.getComments(subreddit, postID, options);
+        crawl.calls.incrementAndGet();
+        Root root = new Root(crawl, top);
+        try {
+            pool.invoke(root);
+        } catch (UncheckedIOException e) {
+            // The pool may rethrow a copy of the exception, with the original as its cause
+            Throwable cause = e;
+            while (cause instanceof UncheckedIOException && cause.getCause() != null) cause = cause.getCause();
+            if (cause instanceof IOException io) throw io;
+            throw e;
+        }
+        return new Result(Listing.of(crawl.build(top)), crawl.calls.get(), !crawl.truncated);
+    }
+
+    /**
+     * Stops the pool. Crawls in progress are left to finish.
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    /**
+     * The state shared by the tasks of one crawl
+     */
+    private final class Crawl {
+        private final String subreddit;
+        private final String postID;
+        private final CommentViewOptions options;
+        private final int maxCalls;
+        private final AtomicInteger calls = new AtomicInteger();
+        private final Semaphore permits = new Semaphore(pool.getParallelism());
+        private final Map<MoreComments, List<CommentNode>> loaded = new ConcurrentHashMap<>();
+        private final LongObjectMap<List<CommentNode>> adopted = new LongObjectMap<>();
+        private volatile boolean truncated = false;
+
+        Crawl(String subreddit, String postID, CommentViewOptions options, int maxCalls) {
+            this.subreddit = subreddit;
+            this.postID = postID;
+            this.options = options;
+            this.maxCalls = maxCalls;
+        }
+
+        /**
+         * Takes a call from the budget
+         * @return False if the budget is spent
+         */
+        boolean take() {
+            if (calls.getAndUpdate((int n) -> (n < maxCalls ? n + 1 : n)) < maxCalls) return true;
+            truncated = true;
+            return false;
+        }
+
+        /**
+         * Sends a request while holding a permit. The client blocks on a future, which a pool compensates for by starting spare
+         * threads, so the permits are what keep the number of requests in flight at the number of workers.
+         */
+        <T> T call(IOSupplier<T> request) throws IOException {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while awaiting a request permit");
+            }
+            try {
+                return request.get();
+            } finally {
+                permits.release();
+            }
+        }
+
+        /**
+         * Forks a task for every "more" node in a list of siblings and their replies
+         */
+        void forkAll(CountedCompleter<?> parent, List<? extends CommentNode> siblings) {
+            for (CommentNode node : siblings) {
+                if (node instanceof MoreComments more) {
+                    parent.addToPendingCount(1);
+                    new Load(parent, this, more).fork();
+                } else if (node instanceof Comment comment) {
+                    forkAll(parent, comment.getReplies());
+                }
+            }
+        }
+
+        /**
+         * Rebuilds a list of siblings with their "more" nodes replaced by what was loaded for them
+         */
+        List<CommentNode> build(List<? extends CommentNode> siblings) {
+            return CommentSplicer.rebuild(siblings, loaded::get, adopted);
+        }
+    }
+
+    /**
+     * Forks the tasks for the "more" nodes of the top of the thread, and completes once every task has
+     */
+    @SuppressWarnings("serial") // Tasks only live for one crawl and are never serialized
+    private static final class Root extends CountedCompleter<Void> {
+        private final Crawl crawl;
+        private final List<CommentNode> top;
+
+        Root(Crawl crawl, List<CommentNode> top) {
+            this.crawl = crawl;
+            this.top = top;
+        }
+
+        @Override
+        public void compute() {
+            crawl.forkAll(this, top);
+            tryComplete();
+        }
+    }
+
+    /**
+     * Loads what a "more" node stands for, and forks tasks for the "more" nodes among what it loaded
+     */
+    @SuppressWarnings("serial") // Tasks only live for one crawl and are never serialized
+    private final class Load extends CountedCompleter<Void> {
+        private final Crawl crawl;
+        private final MoreComments more;
+
+        Load(CountedCompleter<?> parent, Crawl crawl, MoreComments more) {
+            super(parent);
+            this.crawl = crawl;
+            this.more = more;
+        }
+
+        @Override
+        public void compute() {
+            String[] ids = more.getChildren();
+            String parent = more.getParentFullname();
+            List<CommentNode> loaded = new ArrayList<>();
+            List<CommentNode> found = loaded;
+            try {
+                if (ids.length == 0) {
+                    // "Continue this thread" at the top level has no parent comment to load the thread of
+                    if (parent == null || !parent.startsWith("t1_") || !crawl.take()) {
+                        tryComplete();
+                        return;
+                    }
+                    Listing<CommentNode> thread = crawl.call(() -> client.getComments(crawl.subreddit, crawl.postID, parent.substring(3), crawl.options));
+                    for (CommentNode node : thread) {
+                        if (node instanceof Comment comment && comment.getFullname().equals(parent)) loaded.addAll(comment.getReplies());
+                    }
+                } else {
+                    found = new ArrayList<>();
+                    for (int i=0; i < ids.length; i += CommentExpander.BATCH_SIZE) {
+                        if (!crawl.take()) {
+                            if (i == 0) {
+                                tryComplete();
+                                return;
+                            }
+                            // List the comments that were not loaded in a node of their own, never in the one being replaced
+                            loaded.add(more.withChildren(Arrays.copyOfRange(ids, i, ids.length)));
+                            break;
+                        }
+                        List<String> chunk = Arrays.asList(ids).subList(i, Math.min(ids.length, i + CommentExpander.BATCH_SIZE));
+                        Listing<CommentNode> flat = crawl.call(() -> client.getMoreChildren("t3_" + crawl.postID, chunk, crawl.options.sort()));
+                        synchronized (crawl.adopted) {
+                            loaded.addAll(CommentSplicer.splice(List.of(more), List.of(chunk), flat, crawl.adopted).get(0));
+                        }
+                        found.addAll(flat);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            crawl.loaded.put(more, loaded);
+            // Every "more" node of a response is forked, whether it took the place of this node or was adopted by a comment
+            crawl.forkAll(this, found);
+            tryComplete();
+        }
+    }
+
+}
@@ -0,0 +1,409 @@
+package codes.wasabi.r4j.crawl;
+
+import codes.wasabi.r4j.watch.FullnameSet;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only file holding the progress of a crawl. Each checkpoint is one record, framed by its length and a CRC32 of its
+ * contents, and holds the cursor, page count and item count of a source along with the fullnames delivered since its previous
+ * checkpoint. Opening a journal replays its records to rebuild the state of every source.
+ * <p>
+ * A checkpoint is written with a single write, and flushed to the storage device before {@link #checkpoint} returns if the journal
+ * syncs. A crash can therefore only leave the last record incomplete; when a journal is opened, records are replayed up to the first
+ * one that is cut short or fails its checksum, and the file is truncated there.
+ * <p>
+ * Once the file has grown well past the size of the state it holds, it is compacted: a snapshot with one record per source is
+ * written to a temporary file, which then atomically replaces the journal. A compaction that fails does not fail the checkpoint
+ * that set it off, which has already been written; it is tried again once the journal has grown further.
+ */
+public class CrawlJournal implements AutoCloseable {
+
+    /**
+     * The state of a source as of its last checkpoint
+     * @param source The key of the source
+     * @param after The cursor of the next page, or null if the source has not been started or has ended
+     * @param pages The number of pages crawled
+     * @param items The number of items delivered
+     * @param done True if the source has been crawled to its end
+     */
+    public record Checkpoint(@NotNull String source, @Nullable String after, int pages, long items, boolean done) { }
+
+    private static final int MAGIC = 0x52344A4A; // R4JJ
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int FRAME_SIZE = 8;
+    private static final int MAX_RECORD_SIZE = 64 << 20;
+    private static final byte TYPE_CHECKPOINT = 0;
+    private static final byte TYPE_SNAPSHOT = 1;
+
+    /**
+     * How far the journal may grow past twice the size of its last compaction before it is compacted again
+     */
+    private static final long COMPACT_SLACK = 1L << 20;
+
+    /**
+     * Opens a journal, creating it if it does not exist, and replays its records
+     * @param path The path of the journal
+     * @param dedupeCapacity The number of recently delivered fullnames remembered per source
+     * @param sync Whether each checkpoint is flushed to the storage device before returning
+     * @return The journal
+     * @throws IOException The file could not be read, or is not a crawl journal
+     */
+    public static @NotNull CrawlJournal open(@NotNull Path path, int dedupeCapacity, boolean sync) throws IOException {
+        if (dedupeCapacity < 1) throw new IllegalArgumentException("Dedupe capacity must be positive");
+        // Left over from a compaction that did not finish, in which case the journal itself is still whole
+        Files.deleteIfExists(temporaryPath(path));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            CrawlJournal journal = new CrawlJournal(path, channel, dedupeCapacity, sync);
+            journal.replay();
+            return journal;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static Path temporaryPath(Path path) {
+        return path.resolveSibling(path.getFileName() + ".tmp");
+    }
+
+    private static final class Source {
+        private String after = null;
+        private int pages = 0;
+        private long items = 0L;
+        private boolean done = false;
+        private final FullnameSet seen;
+
+        Source(int capacity) {
+            seen = new FullnameSet(capacity);
+        }
+    }
+
+    private final Path path;
+    private final int dedupeCapacity;
+    private final boolean sync;
+    private final Map<String, Source> sources = new LinkedHashMap<>();
+    private FileChannel channel;
+    private long end = 0L;
+    private long compactedSize = 0L;
+    private int recovered = 0;
+    private long discarded = 0L;
+    private long written = 0L;
+    private int compactions = 0;
+    private int failedCompactions = 0;
+
+    private CrawlJournal(Path path, FileChannel channel, int dedupeCapacity, boolean sync) {
+        this.path = path;
+        this.channel = channel;
+        this.dedupeCapacity = dedupeCapacity;
+        this.sync = sync;
+    }
+
+    private void replay() throws IOException {
+        long size = channel.size();
+        if (size < HEADER_SIZE) {
+            // Empty, or cut short while it was being created
+            channel.truncate(0L);
+            write(ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION).flip());
+            channel.force(true);
+            discarded = size;
+            compactedSize = end;
+            return;
+        }
+        long offset = HEADER_SIZE;
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel.position(0L)), 65536));
+        if (in.readInt() != MAGIC) throw new IOException("Not a crawl journal: " + path);
+        int version = in.readInt();
+        if (version != VERSION) throw new IOException("Unsupported crawl journal version " + version + ": " + path);
+        CRC32 crc = new CRC32();
+        while (size - offset >= FRAME_SIZE) {
+            int length = in.readInt();
+            int checksum = in.readInt();
+            if (length < 0 || length > MAX_RECORD_SIZE || length > size - offset - FRAME_SIZE) break;
+            byte[] payload = in.readNBytes(length);
+            if (payload.length != length) break;
+            crc.reset();
+            crc.update(payload);
+            if ((int) crc.getValue() != checksum) break;
+            try {
+                apply(payload);
+            } catch (IOException e) {
+                break;
+            }
+            offset += FRAME_SIZE + length;
+            recovered++;
+        }
+        discarded = size - offset;
+        if (discarded > 0L) {
+            channel.truncate(offset);
+            channel.force(true);
+        }
+        end = offset;
+        compactedSize = offset;
+    }
+
+    private void apply(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        byte type = in.readByte();
+        String key = in.readUTF();
+        String after = (in.readBoolean() ? in.readUTF() : null);
+        int pages = in.readInt();
+        long items = in.readLong();
+        boolean done = in.readBoolean();
+        int count = in.readInt();
+        if (count < 0) throw new IOException("Negative fullname count");
+        List<String> fullnames = new ArrayList<>(Math.min(count, 1024));
+        for (int i=0; i < count; i++) fullnames.add(in.readUTF());
+        Source source = (type == TYPE_SNAPSHOT ? new Source(dedupeCapacity) : sources.computeIfAbsent(key, (String k) -> new Source(dedupeCapacity)));
+        if (type == TYPE_SNAPSHOT) sources.put(key, source);
+        source.after = after;
+        source.pages = pages;
+        source.items = items;
+        source.done = done;
+        for (String fullname : fullnames) source.seen.add(fullname);
+    }
+
+    private static byte[] encode(byte type, String key, String after, int pages, long items, boolean done, Collection<String> fullnames) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + fullnames.size() * 12);
+        try {
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(0);
+            out.writeInt(0);
+            out.writeByte(type);
+            out.writeUTF(key);
+            out.writeBoolean(after != null);
+            if (after != null) out.writeUTF(after);
+            out.writeInt(pages);
+            out.writeLong(items);
+            out.writeBoolean(done);
+            out.writeInt(fullnames.size());
+            for (String fullname : fullnames) out.writeUTF(fullname);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] record = bytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(record, FRAME_SIZE, record.length - FRAME_SIZE);
+        ByteBuffer.wrap(record).putInt(record.length - FRAME_SIZE).putInt((int) crc.getValue());
+        return record;
+    }
+
+    private void write(ByteBuffer buffer) throws IOException {
+        long position = end;
+        try {
+            while (buffer.hasRemaining()) position += channel.write(buffer, position);
+        } catch (IOException e) {
+            // Drop the partial record, so that later records are not stranded behind it
+            try {
+                channel.truncate(end);
+            } catch (IOException ignored) { }
+            throw e;
+        }
+        end = position;
+    }
+
+    /**
+     * Records that a page of a source has been crawled
+     * @param source The key of the source
+     * @param after The cursor of the next page, or null if the source has ended
+     * @param delivered The fullnames of the items delivered from the page
+     * @param done True if the source has been crawled to its end
+     * @return The new state of the source
+     * @throws IOException The checkpoint could not be written, in which case the state is unchanged
+     */
+    public synchronized @NotNull Checkpoint checkpoint(@NotNull String source, @Nullable String after, @NotNull Collection<String> delivered, boolean done) throws IOException {
+        if (channel == null) throw new IOException("Journal is closed");
+        Source state = sources.get(source);
+        int pages = (state == null ? 0 : state.pages) + 1;
+        long items = (state == null ? 0L : state.items) + delivered.size();
+        write(ByteBuffer.wrap(encode(TYPE_CHECKPOINT, source, after, pages, items, done, delivered)));
+        if (sync) channel.force(false);
+        written++;
+        if (state == null) {
+            state = new Source(dedupeCapacity);
+            sources.put(source, state);
+        }
+        state.after = after;
+        state.pages = pages;
+        state.items = items;
+        state.done = done;
+        for (String fullname : delivered) state.seen.add(fullname);
+        if (end > compactedSize * 2L + COMPACT_SLACK) {
+            try {
+                compact();
+            } catch (IOException e) {
+                // The checkpoint is already written, so only put off the next attempt until the journal has grown again
+                failedCompactions++;
+                compactedSize = end;
+            }
+        }
+        return new Checkpoint(source, after, pages, items, done);
+    }
+
+    /**
+     * Rewrites the journal as one record per source, replacing the file atomically
+     * @throws IOException The snapshot could not be written, in which case the journal is left as it was, or the journal could not
+     *                     be reopened afterwards, in which case it is closed
+     */
+    public synchronized void compact() throws IOException {
+        if (channel == null) throw new IOException("Journal is closed");
+        ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+        snapshot.write(ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION).array());
+        for (Map.Entry<String, Source> entry : sources.entrySet()) {
+            Source state = entry.getValue();
+            snapshot.write(encode(TYPE_SNAPSHOT, entry.getKey(), state.after, state.pages, state.items, state.done, state.seen.toList()));
+        }
+        Path temporary = temporaryPath(path);
+        try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(snapshot.toByteArray());
+            while (buffer.hasRemaining()) out.write(buffer);
+            out.force(true);
+        }
+        FileChannel old = channel;
+        // Closed until the path is open again, so that a failed reopen never leaves a closed channel to append to
+        channel = null;
+        old.close();
+        try {
+            Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            syncDirectory();
+        } finally {
+            // Whether or not the move went through, the path now holds a whole journal to carry on appending to
+            FileChannel reopened = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            end = reopened.size();
+            channel = reopened;
+        }
+        compactedSize = end;
+        compactions++;
+    }
+
+    /**
+     * Flushes the directory holding the journal, so that a rename survives a power loss. Not every platform can open a directory,
+     * in which case this does nothing.
+     */
+    private void syncDirectory() {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent == null) return;
+        try (FileChannel directory = FileChannel.open(parent, StandardOpenOption.READ)) {
+            directory.force(true);
+        } catch (IOException ignored) { }
+    }
+
+    /**
+     * Gets the state of a source
+     * @param source The key of the source
+     * @return The state as of the last checkpoint, or null if the source has none
+     */
+    public synchronized @Nullable Checkpoint getCheckpoint(@NotNull String source) {
+        Source state = sources.get(source);
+        if (state == null) return null;
+        return new Checkpoint(source, state.after, state.pages, state.items, state.done);
+    }
+
+    /**
+     * Gets the state of every source with a checkpoint
+     * @return The states, in the order the sources were first checkpointed
+     */
+    public synchronized @NotNull List<Checkpoint> getCheckpoints() {
+        List<Checkpoint> ret = new ArrayList<>(sources.size());
+        for (String source : sources.keySet()) ret.add(getCheckpoint(source));
+        return ret;
+    }
+
+    /**
+     * Checks if an item was recently delivered from a source
+     * @param source The key of the source
+     * @param fullname The fullname of the item
+     * @return True if the fullname is among the most recent ones delivered from the source
+     */
+    public synchronized boolean isSeen(@NotNull String source, @NotNull String fullname) {
+        Source state = sources.get(source);
+        return state != null && state.seen.contains(fullname);
+    }
+
+    /**
+     * Gets the fullnames most recently delivered from a source
+     * @param source The key of the source
+     * @param limit The most fullnames returned
+     * @return The fullnames, newest first
+     */
+    public synchronized @NotNull List<String> getRecent(@NotNull String source, int limit) {
+        Source state = sources.get(source);
+        if (state == null) return List.of();
+        List<String> recent = new ArrayList<>(state.seen.toList());
+        Collections.reverse(recent);
+        return List.copyOf(recent.subList(0, Math.min(Math.max(0, limit), recent.size())));
+    }
+
+    public @NotNull Path getPath() {
+        return path;
+    }
+
+    /**
+     * Gets the size of the journal
+     * @return The size in bytes
+     */
+    public synchronized long getSize() {
+        return end;
+    }
+
+    /**
+     * Gets the number of records replayed when the journal was opened
+     */
+    public int getRecovered() {
+        return recovered;
+    }
+
+    /**
+     * Gets the number of bytes cut from the end of the journal when it was opened, which belonged to a record that was not
+     * completely written
+     */
+    public long getDiscardedBytes() {
+        return discarded;
+    }
+
+    /**
+     * Gets the number of checkpoints written since the journal was opened
+     */
+    public synchronized long getWritten() {
+        return written;
+    }
+
+    /**
+     * Gets the number of times the journal has been compacted since it was opened
+     */
+    public synchronized int getCompactions() {
+        return compactions;
+    }
+
+    /**
+     * Gets the number of compactions set off by a checkpoint that failed since the journal was opened
+     */
+    public synchronized int getFailedCompactions() {
+        return failedCompactions;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel == null) return;
+        try {
+            if (sync) channel.force(true);
+        } finally {
+            channel.close();
+            channel = null;
+        }
+    }
+
+}
@@ -0,0 +1,221 @@
+package codes.wasabi.r4j.crawl;
+
+import codes.wasabi.r4j.RedditClient;
+import codes.wasabi.r4j.concurrent.IOFunction;
+import codes.wasabi.r4j.enums.TimePeriod;
+import codes.wasabi.r4j.param.CrawlOptions;
+import codes.wasabi.r4j.param.ListingOptions;
+import codes.wasabi.r4j.struct.Comment;
+import codes.wasabi.r4j.struct.Listing;
+import codes.wasabi.r4j.struct.Post;
+import codes.wasabi.r4j.struct.RedditEntity;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Walks listings to their end across restarts of the JVM. After the items of each page have been handled, the cursor of the next
+ * page and the fullnames of the handled items are checkpointed to a {@link CrawlJournal}. A crawler opened on the same journal
+ * carries on every source from the page after its last checkpoint, and skips sources that were already crawled to their end.
+ * <p>
+ * Pages are handled at least once: if the process dies after a page was handled but before its checkpoint was written, that page is
+ * handled again on the next run. Items that move from one page to the next while a listing is being walked are only handled once,
+ * as long as they are among the {@link CrawlOptions#dedupeCapacity()} most recent items of their source.
+ * <p>
+ * A source only ends on a page without a cursor to the next. If the item a saved cursor points at was removed, Reddit answers with
+ * an empty page instead of the rest of the listing. The crawl then carries on after the items delivered just before it, trying up to
+ * {@link #FALLBACK_CURSORS} of the most recent ones as cursors. Only if none of them works is the source walked again from its head,
+ * skipping the items still among the recent ones. An empty page after that, in the same run, fails the crawl rather than ending
+ * the source.
+ * <p>
+ * Sources are crawled concurrently through {@link RedditClient#bulk(Collection, IOFunction)}, with the pages of each source fetched
+ * one after another.
+ */
+public class ResumableCrawler implements AutoCloseable {
+
+    /**
+     * Handles the items of a page
+     * @param <T> The type of the items
+     */
+    @FunctionalInterface
+    public interface PageHandler<T> {
+        /**
+         * Called once for each page with new items. Calls for the same source are never concurrent.
+         * @param source The key of the source
+         * @param items The items of the page that were not handled before, in listing order
+         * @throws IOException The items could not be handled, which stops the crawl before the page is checkpointed
+         */
+        void onPage(@NotNull String source, @NotNull List<T> items) throws IOException;
+    }
+
+    /**
+     * The most recently delivered items tried as cursors when the cursor of a source points at a removed item
+     */
+    public static final int FALLBACK_CURSORS = 10;
+
+    private record Source<T extends RedditEntity>(@NotNull String key, @NotNull IOFunction<ListingOptions, Listing<T>> fetcher, @NotNull PageHandler<? super T> handler) { }
+
+    private final RedditClient client;
+    private final CrawlOptions options;
+    private final CrawlJournal journal;
+    private final Map<String, Source<?>> sources = new LinkedHashMap<>();
+
+    /**
+     * Creates a crawler, opening or creating its journal
+     * @param client The client used to fetch pages
+     * @param journal The path of the journal
+     * @param options The options of the crawl
+     * @throws IOException The journal could not be opened
+     */
+    public ResumableCrawler(@NotNull RedditClient client, @NotNull Path journal, @NotNull CrawlOptions options) throws IOException {
+        this.client = client;
+        this.options = options;
+        this.journal = CrawlJournal.open(journal, options.dedupeCapacity(), options.sync());
+    }
+
+    public ResumableCrawler(@NotNull RedditClient client, @NotNull Path journal) throws IOException {
+        this(client, journal, CrawlOptions.DEFAULT);
+    }
+
+    /**
+     * Adds a source to the crawl. The key identifies the source in the journal, so it must be the same on every run.
+     * @param key The key of the source
+     * @param fetcher Fetches a page of the listing with the given options
+     * @param handler Handles the items of each page
+     * @throws IllegalArgumentException A source with the same key was already added
+     */
+    public synchronized <T extends RedditEntity> void add(@NotNull String key, @NotNull IOFunction<ListingOptions, Listing<T>> fetcher, @NotNull PageHandler<? super T> handler) throws IllegalArgumentException {
+        if (sources.containsKey(key)) throw new IllegalArgumentException("Duplicate source: " + key);
+        sources.put(key, new Source<>(key, fetcher, handler));
+    }
+
+    /**
+     * Adds the new posts of a subreddit, under the key "new:{subreddit}"
+     * @param subreddit Subreddit name
+     * @param handler Handles the posts of each page
+     */
+    public void addNew(@NotNull String subreddit, @NotNull PageHandler<? super Post> handler) {
+        add("new:" + subreddit, (ListingOptions page) -> client.getNew(subreddit, page), handler);
+    }
+
+    /**
+     * Adds the top posts of a subreddit, under the key "top/{period}:{subreddit}"
+     * @param subreddit Subreddit name
+     * @param period The time period to get top posts from
+     * @param handler Handles the posts of each page
+     */
+    public void addTop(@NotNull String subreddit, @NotNull TimePeriod period, @NotNull PageHandler<? super Post> handler) {
+        add("top/" + period.name().toLowerCase() + ":" + subreddit, (ListingOptions page) -> client.getTop(subreddit, period, page), handler);
+    }
+
+    /**
+     * Adds the posts submitted by a user, under the key "submitted:{username}"
+     * @param username The name of the user
+     * @param handler Handles the posts of each page
+     */
+    public void addUserSubmitted(@NotNull String username, @NotNull PageHandler<? super Post> handler) {
+        add("submitted:" + username, (ListingOptions page) -> client.getUserSubmitted(username, page), handler);
+    }
+
+    /**
+     * Adds the comments made by a user, under the key "comments:{username}"
+     * @param username The name of the user
+     * @param handler Handles the comments of each page
+     */
+    public void addUserComments(@NotNull String username, @NotNull PageHandler<? super Comment> handler) {
+        add("comments:" + username, (ListingOptions page) -> client.getUserComments(username, page), handler);
+    }
+
+    /**
+     * Crawls every source that has not yet been crawled to its end, blocking until all have ended. If a source fails, the crawl
+     * stops and the failure is thrown; every page checkpointed until then is kept, so running the crawl again carries on from there.
+     * @throws IOException A page could not be fetched, handled or checkpointed
+     */
+    public void run() throws IOException {
+        List<Source<?>> pending;
+        synchronized (this) {
+            pending = new ArrayList<>(sources.values());
+        }
+        client.bulk(pending, (Source<?> source) -> {
+            crawl(source);
+            return Boolean.TRUE;
+        });
+    }
+
+    private <T extends RedditEntity> void crawl(Source<T> source) throws IOException {
+        CrawlJournal.Checkpoint checkpoint = journal.getCheckpoint(source.key());
+        if (checkpoint != null && checkpoint.done()) return;
+        String after = (checkpoint == null ? null : checkpoint.after());
+        long items = (checkpoint == null ? 0L : checkpoint.items());
+        Deque<String> fallbacks = null;
+        boolean resynced = false;
+        while (items < options.maxItems()) {
+            ListingOptions page = ListingOptions.builder()
+                    .after(after)
+                    .count((int) Math.min(Integer.MAX_VALUE, items))
+                    .limit(options.pageSize())
+                    .bypassCache(true)
+                    .build();
+            Listing<T> listing = source.fetcher().apply(page);
+            if (listing.isEmpty() && after != null) {
+                // The item the cursor points at was removed, which does not mean the source has ended
+                if (fallbacks == null) {
+                    fallbacks = new ArrayDeque<>(journal.getRecent(source.key(), FALLBACK_CURSORS));
+                    fallbacks.remove(after);
+                }
+                if (!fallbacks.isEmpty()) {
+                    after = fallbacks.poll();
+                    continue;
+                }
+                if (resynced) throw new IOException("Empty page after " + after + " in source " + source.key() + ", which was already walked again from its head");
+                resynced = true;
+                after = null;
+                continue;
+            }
+            List<T> fresh = new ArrayList<>(listing.size());
+            Set<String> fullnames = new LinkedHashSet<>();
+            for (T item : listing) {
+                if (items + fresh.size() >= options.maxItems()) break;
+                String fullname = item.getFullname();
+                if (journal.isSeen(source.key(), fullname) || !fullnames.add(fullname)) continue;
+                fresh.add(item);
+            }
+            if (!fresh.isEmpty()) {
+                source.handler().onPage(source.key(), Collections.unmodifiableList(fresh));
+                // Progress was made, so a later removed cursor falls back to the items delivered just before it
+                fallbacks = null;
+            }
+            after = listing.getAfter();
+            boolean done = (after == null || items + fresh.size() >= options.maxItems());
+            items = journal.checkpoint(source.key(), after, fullnames, done).items();
+            if (done) return;
+        }
+        journal.checkpoint(source.key(), after, List.of(), true);
+    }
+
+    /**
+     * Gets the progress of a source
+     * @param key The key of the source
+     * @return The state of the source as of its last checkpoint, or null if it has none
+     */
+    public @Nullable CrawlJournal.Checkpoint getProgress(@NotNull String key) {
+        return journal.getCheckpoint(key);
+    }
+
+    public @NotNull CrawlJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Closes the journal. Sources can no longer be crawled afterwards.
+     * @throws IOException The journal could not be flushed
+     */
+    @Override
+    public void close() throws IOException {
+        journal.close();
+    }
+
+}
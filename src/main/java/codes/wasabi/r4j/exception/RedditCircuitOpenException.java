@@ -0,0 +1,28 @@
+package codes.wasabi.r4j.exception;
+
+import java.io.IOException;
+
+/**
+ * Thrown instead of sending a request while the circuit breaker of its host is open, because recent requests to that host have
+ * kept failing
+ * @see codes.wasabi.r4j.http.CircuitBreaker
+ */
+public class RedditCircuitOpenException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryInMillis;
+
+    public RedditCircuitOpenException(String message, long retryInMillis) {
+        super(message);
+        this.retryInMillis = retryInMillis;
+    }
+
+    /**
+     * Gets the time until the breaker lets a trial request through
+     * @return The time in milliseconds
+     */
+    public long getRetryInMillis() {
+        return retryInMillis;
+    }
+}
@@ -0,0 +1,29 @@
+package codes.wasabi.r4j.exception;
+
+import java.io.IOException;
+
+/**
+ * Thrown when Reddit responds to a request with an unsuccessful status code
+ */
+public class RedditHTTPException extends IOException {
+
+    private final int status;
+
+    public RedditHTTPException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public RedditHTTPException(int status, String message, Throwable cause) {
+        super(message, cause);
+        this.status = status;
+    }
+
+    /**
+     * Gets the HTTP status code that Reddit responded with
+     * @return The status code
+     */
+    public int getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,17 @@
+package codes.wasabi.r4j.http;
+
+import codes.wasabi.r4j.concurrent.BulkExecutor;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Holds the executor that {@link RedditTransport#sendAsync(RedditRequest)} runs blocking sends on by default. It is kept apart from
+ * the common pool, which responses are parsed on unless the client is given another executor.
+ */
+final class BlockingSends {
+
+    static final ExecutorService EXECUTOR = BulkExecutor.newBlockingExecutor("R4J Transport Thread");
+
+    private BlockingSends() { }
+
+}
@@ -0,0 +1,156 @@
+package codes.wasabi.r4j.http;
+
+import codes.wasabi.r4j.exception.RedditCircuitOpenException;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stops requests to a host that keeps failing. After {@link #getFailureThreshold() a number} of consecutive failures (I/O errors
+ * or 5XX responses) the breaker opens and every request fails fast with a {@link RedditCircuitOpenException}. Once the open
+ * duration has passed, a single trial request is let through; if it succeeds the breaker closes, otherwise it opens again. A
+ * trial that has not completed within the open duration is given up on, and the next request becomes the trial instead.
+ * @see #forHost(String)
+ */
+public class CircuitBreaker {
+
+    private static final Map<String, CircuitBreaker> SHARED = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the breaker shared by all clients that send requests to the given host
+     * @param host The host name
+     * @return The shared breaker
+     */
+    public static @NotNull CircuitBreaker forHost(@NotNull String host) {
+        return SHARED.computeIfAbsent(host, (String k) -> new CircuitBreaker(k));
+    }
+
+    public enum State {
+        /**
+         * Requests are sent normally
+         */
+        CLOSED,
+        /**
+         * Requests fail fast without being sent
+         */
+        OPEN,
+        /**
+         * A single trial request is in flight, and all others fail fast until it completes or the open duration passes
+         */
+        HALF_OPEN
+    }
+
+    public static final int DEFAULT_FAILURE_THRESHOLD = 10;
+    public static final Duration DEFAULT_OPEN_DURATION = Duration.ofSeconds(30L);
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openNanos;
+    private State state = State.CLOSED;
+    private int failures = 0;
+    private long openedAt = 0L;
+    private long trialStartedAt = 0L;
+
+    /**
+     * Creates a new breaker
+     * @param name The name used in exception messages, usually the host
+     * @param failureThreshold The number of consecutive failures that open the breaker
+     * @param openDuration How long the breaker stays open before letting a trial request through
+     * @throws IllegalArgumentException Threshold is not positive, or the duration is negative
+     */
+    public CircuitBreaker(@NotNull String name, int failureThreshold, @NotNull Duration openDuration) throws IllegalArgumentException {
+        if (failureThreshold < 1) throw new IllegalArgumentException("Failure threshold must be positive");
+        if (openDuration.isNegative()) throw new IllegalArgumentException("Open duration cannot be negative");
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+    }
+
+    /**
+     * Creates a new breaker with the {@link #DEFAULT_FAILURE_THRESHOLD default threshold} and
+     * {@link #DEFAULT_OPEN_DURATION default open duration}
+     * @param name The name used in exception messages, usually the host
+     */
+    public CircuitBreaker(@NotNull String name) {
+        this(name, DEFAULT_FAILURE_THRESHOLD, DEFAULT_OPEN_DURATION);
+    }
+
+    /**
+     * Asks permission to send a request. Every successful call must be followed by {@link #onSuccess()} or {@link #onFailure()}.
+     * @throws RedditCircuitOpenException The breaker is open, or half open with a trial request already in flight
+     */
+    public synchronized void acquire() throws RedditCircuitOpenException {
+        long now = System.nanoTime();
+        switch (state) {
+            case CLOSED:
+                return;
+            case OPEN:
+                long elapsed = now - openedAt;
+                if (elapsed >= openNanos) {
+                    state = State.HALF_OPEN;
+                    trialStartedAt = now;
+                    return;
+                }
+                throw new RedditCircuitOpenException("Circuit to " + name + " is open after " + failures + " consecutive failures", TimeUnit.NANOSECONDS.toMillis(openNanos - elapsed));
+            default:
+                long trialElapsed = now - trialStartedAt;
+                if (trialElapsed >= openNanos) {
+                    // The trial request is hanging, or its outcome was never reported; let this one take over
+                    trialStartedAt = now;
+                    return;
+                }
+                throw new RedditCircuitOpenException("Circuit to " + name + " is half open with a trial request in flight", TimeUnit.NANOSECONDS.toMillis(openNanos - trialElapsed));
+        }
+    }
+
+    /**
+     * Records that a request sent with permission succeeded
+     */
+    public synchronized void onSuccess() {
+        failures = 0;
+        state = State.CLOSED;
+    }
+
+    /**
+     * Records that a request sent with permission failed
+     */
+    public synchronized void onFailure() {
+        failures++;
+        if (state == State.HALF_OPEN || failures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+        }
+    }
+
+    /**
+     * Records the outcome of a request sent with permission from its response status. 5XX statuses count as failures.
+     * @param status The status code
+     */
+    public void onResponse(int status) {
+        if (status >= 500) {
+            onFailure();
+        } else {
+            onSuccess();
+        }
+    }
+
+    /**
+     * Gets the state of this breaker
+     * @return The state
+     */
+    public synchronized @NotNull State getState() {
+        return state;
+    }
+
+    /**
+     * Gets the number of consecutive failures that open this breaker
+     * @return The failure threshold
+     */
+    public int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+}
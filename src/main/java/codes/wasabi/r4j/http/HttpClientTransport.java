@@ -0,0 +1,94 @@
+package codes.wasabi.r4j.http;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The default {@link RedditTransport}, backed by {@link HttpClient}. Connections are kept alive and pooled, and HTTP/2 is
+ * negotiated where the server supports it so that concurrent requests are multiplexed over a single connection.
+ */
+public class HttpClientTransport implements RedditTransport {
+
+    private static HttpClientTransport shared = null;
+
+    /**
+     * Gets the transport shared by all clients that do not specify their own
+     * @return The shared transport
+     */
+    public static synchronized @NotNull HttpClientTransport getShared() {
+        if (shared == null) shared = new HttpClientTransport();
+        return shared;
+    }
+
+    private final HttpClient client;
+
+    /**
+     * Creates a transport around the given client
+     * @param client The client to send requests with
+     */
+    public HttpClientTransport(@NotNull HttpClient client) {
+        this.client = client;
+    }
+
+    /**
+     * Creates a transport with a new HTTP/2 capable client
+     */
+    public HttpClientTransport() {
+        this(HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build()
+        );
+    }
+
+    /**
+     * Gets the underlying HTTP client
+     * @return The client
+     */
+    public final @NotNull HttpClient getClient() {
+        return client;
+    }
+
+    protected @NotNull HttpRequest toHttpRequest(@NotNull RedditRequest request) {
+        byte[] body = request.body();
+        HttpRequest.Builder builder = HttpRequest.newBuilder(request.uri())
+                .method(request.method(), body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofByteArray(body));
+        for (Map.Entry<String, String> entry : request.headers().entrySet()) {
+            builder.header(entry.getKey(), entry.getValue());
+        }
+        if (request.timeout() != null) builder.timeout(request.timeout());
+        // HTTP/2 is negotiated via ALPN over TLS; attempting an h2c upgrade on cleartext connections only adds overhead
+        if ("http".equalsIgnoreCase(request.uri().getScheme())) builder.version(HttpClient.Version.HTTP_1_1);
+        return builder.build();
+    }
+
+    @Override
+    public @NotNull RedditResponse send(@NotNull RedditRequest request) throws IOException {
+        HttpResponse<InputStream> response;
+        try {
+            response = client.send(toHttpRequest(request), HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while awaiting response");
+        }
+        return new RedditResponse(response.statusCode(), response.headers().map(), response.body());
+    }
+
+    @Override
+    public @NotNull CompletableFuture<RedditResponse> sendAsync(@NotNull RedditRequest request) {
+        return client.sendAsync(toHttpRequest(request), HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply((HttpResponse<byte[]> response) -> new RedditResponse(response.statusCode(), response.headers().map(), new ByteArrayInputStream(response.body())));
+    }
+
+}
@@ -0,0 +1,314 @@
+package codes.wasabi.r4j.http;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.InterruptedIOException;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Paces requests according to the X-Ratelimit-* headers that Reddit sends with every response. The remaining budget is spread
+ * evenly across the time left until the window resets, with a small allowance for bursts. Requests that are reserved but have
+ * not had a response yet are counted against the budget, and once it runs out, requests are spread over the next window
+ * instead. When a window resets, the budget and length of the last one carry over until a response reports the new budget.
+ * <p>
+ * Until the first response reports the budget, a single request is sent to probe for it while the others wait. If the probe takes
+ * longer than {@link #PROBE_TIMEOUT_SECONDS}, another request takes over. If the server answers without reporting a budget,
+ * requests are not paced.
+ * <p>
+ * A single limiter should be shared by every client that uses the same OAuth token, since Reddit counts the budget per token.
+ * @see #forToken(String)
+ */
+public class RateLimiter {
+
+    private static final Map<String, Shared> SHARED = new HashMap<>();
+    private static final ReferenceQueue<RateLimiter> SHARED_QUEUE = new ReferenceQueue<>();
+
+    private static final class Shared extends WeakReference<RateLimiter> {
+        private final String token;
+
+        Shared(String token, RateLimiter limiter) {
+            super(limiter, SHARED_QUEUE);
+            this.token = token;
+        }
+    }
+
+    /**
+     * Gets the limiter shared by all clients that use the given token. Limiters are held weakly, so the limiter of a token that
+     * no client uses anymore is dropped.
+     * @param token The OAuth token (the refresh token, for permanent sessions)
+     * @return The shared limiter
+     */
+    public static @NotNull RateLimiter forToken(@NotNull String token) {
+        synchronized (SHARED) {
+            Reference<? extends RateLimiter> cleared;
+            while ((cleared = SHARED_QUEUE.poll()) != null) {
+                Shared entry = (Shared) cleared;
+                if (SHARED.get(entry.token) == entry) SHARED.remove(entry.token);
+            }
+            Shared entry = SHARED.get(token);
+            RateLimiter limiter = (entry == null ? null : entry.get());
+            if (limiter == null) {
+                limiter = new RateLimiter();
+                SHARED.put(token, new Shared(token, limiter));
+            }
+            return limiter;
+        }
+    }
+
+    /**
+     * The default number of requests that may be sent back-to-back before pacing applies
+     */
+    public static final int DEFAULT_BURST = 5;
+
+    /**
+     * The number of seconds that the other requests wait for a probe request before one of them takes over
+     */
+    public static final int PROBE_TIMEOUT_SECONDS = 2;
+
+    private static final long PROBE_TIMEOUT = TimeUnit.SECONDS.toNanos(PROBE_TIMEOUT_SECONDS);
+    // Reset times are reported in whole seconds
+    private static final long RESET_TOLERANCE = TimeUnit.SECONDS.toNanos(1L);
+
+    private final int burst;
+    private boolean known = false;
+    private boolean unreported = false;
+    private CompletableFuture<Void> probe = null;
+    private long probeDeadline = 0L;
+    private double remaining = 0d;
+    private double budget = 1d;
+    private long window = RESET_TOLERANCE;
+    private int used = 0;
+    private int inFlight = 0;
+    private long resetAt = 0L;
+    private long nextSlot = System.nanoTime();
+    private long notBefore = nextSlot;
+
+    /**
+     * Creates a new limiter
+     * @param burst The number of requests that may be sent back-to-back before pacing applies
+     * @throws IllegalArgumentException Burst is negative
+     */
+    public RateLimiter(int burst) throws IllegalArgumentException {
+        if (burst < 0) throw new IllegalArgumentException("Burst cannot be negative");
+        this.burst = burst;
+    }
+
+    /**
+     * Creates a new limiter with the {@link #DEFAULT_BURST default burst}
+     */
+    public RateLimiter() {
+        this(DEFAULT_BURST);
+    }
+
+    /**
+     * Reserves a slot for one request, unless the budget is not known yet and another request is already probing for it
+     * @return The number of nanoseconds the caller must wait before sending the request, or -1 if the caller must wait for the
+     * {@link #probe} to complete and try again
+     */
+    private synchronized long reserve() {
+        long now = System.nanoTime();
+        if (!known) {
+            if (!unreported) {
+                if (probe != null && probeDeadline - now > 0L) return -1L;
+                probe = new CompletableFuture<>();
+                probeDeadline = now + PROBE_TIMEOUT;
+            }
+            inFlight++;
+            return 0L;
+        }
+        inFlight++;
+        if (nextSlot - now < 0L) nextSlot = now;
+        if (nextSlot - resetAt >= 0L) {
+            // The window has reset, or the slots reserved so far reach past it; carry the last budget over
+            long windows = (nextSlot - resetAt) / window + 1L;
+            notBefore = resetAt + (windows - 1L) * window;
+            resetAt += windows * window;
+            remaining = budget;
+        }
+        if (remaining < 1d) {
+            // The budget of this window is spent; spread the request over the next one, with no burst before it starts
+            nextSlot = resetAt;
+            notBefore = resetAt;
+            resetAt += window;
+            remaining = budget;
+        }
+        long interval = (long) ((resetAt - nextSlot) / remaining);
+        long allowedAt = Math.max(nextSlot - (burst * interval), notBefore);
+        nextSlot += interval;
+        remaining -= 1d;
+        return Math.max(0L, allowedAt - now);
+    }
+
+    /**
+     * Reserves a slot for one request, blocking until the request may be sent. The request must then be reported to
+     * {@link #update(RedditResponse)} or {@link #onFailure()} once it completes.
+     * @throws InterruptedIOException Interrupted while waiting
+     */
+    public void acquire() throws InterruptedIOException {
+        long delay;
+        while (true) {
+            CompletableFuture<Void> pending;
+            long timeout;
+            synchronized (this) {
+                delay = reserve();
+                if (delay >= 0L) break;
+                pending = probe;
+                timeout = probeDeadline - System.nanoTime();
+            }
+            try {
+                pending.get(timeout, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for rate limit");
+            } catch (ExecutionException | TimeoutException ignored) { }
+        }
+        long deadline = System.nanoTime() + delay;
+        while (delay > 0L) {
+            LockSupport.parkNanos(this, delay);
+            if (Thread.interrupted()) {
+                Thread.currentThread().interrupt();
+                onFailure();
+                throw new InterruptedIOException("Interrupted while waiting for rate limit");
+            }
+            delay = deadline - System.nanoTime();
+        }
+    }
+
+    /**
+     * Reserves a slot for one request without blocking. The request must then be reported to {@link #update(RedditResponse)}
+     * or {@link #onFailure()} once it completes.
+     * @return A future that resolves when the request may be sent
+     */
+    public @NotNull CompletableFuture<Void> acquireAsync() {
+        long delay;
+        CompletableFuture<Void> pending;
+        long timeout;
+        synchronized (this) {
+            delay = reserve();
+            pending = probe;
+            timeout = probeDeadline - System.nanoTime();
+        }
+        if (delay < 0L) {
+            return pending.exceptionally((Throwable t) -> null)
+                    .completeOnTimeout(null, timeout, TimeUnit.NANOSECONDS)
+                    .thenCompose((Void v) -> acquireAsync());
+        }
+        if (delay == 0L) return CompletableFuture.completedFuture(null);
+        return CompletableFuture.runAsync(() -> { }, CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * Updates the budget from the headers of a response, and ends the reservation of its request
+     * @param response The response
+     */
+    public void update(@NotNull RedditResponse response) {
+        String remainingHeader = response.getHeader("X-Ratelimit-Remaining");
+        String resetHeader = response.getHeader("X-Ratelimit-Reset");
+        String usedHeader = response.getHeader("X-Ratelimit-Used");
+        boolean limited = (response.getStatus() == 429);
+        double rem = -1d;
+        long reset = -1L;
+        int u = -1;
+        try {
+            if (remainingHeader != null && resetHeader != null) {
+                rem = Double.parseDouble(remainingHeader.trim());
+                reset = Long.parseLong(resetHeader.trim());
+            }
+            if (usedHeader != null) u = (int) Double.parseDouble(usedHeader.trim());
+        } catch (NumberFormatException e) {
+            rem = -1d;
+        }
+        long now = System.nanoTime();
+        CompletableFuture<Void> probed;
+        synchronized (this) {
+            probed = endRequest();
+            if (u >= 0) used = u;
+            if (rem < 0d) {
+                if (limited) {
+                    if (!known) {
+                        resetAt = now + RESET_TOLERANCE;
+                        nextSlot = now;
+                        known = true;
+                    }
+                    remaining = 0d;
+                } else if (!known) {
+                    // The server does not report a budget, so there is nothing to pace by
+                    unreported = true;
+                }
+            } else {
+                applyBudget(now, rem, reset, u, limited);
+            }
+        }
+        if (probed != null) probed.complete(null);
+    }
+
+    private void applyBudget(long now, double rem, long reset, int u, boolean limited) {
+        if (limited) rem = 0d;
+        long reportedReset = now + TimeUnit.SECONDS.toNanos(Math.max(reset, 1L));
+        window = Math.max(window, reportedReset - now);
+        budget = Math.max(budget, rem + Math.max(u, 0));
+        // A response from a window that has since been carried over says nothing about the current one
+        if (known && resetAt - reportedReset > RESET_TOLERANCE) return;
+        // Requests still in flight may not have been counted yet
+        remaining = Math.max(0d, rem - inFlight);
+        resetAt = reportedReset;
+        if (!known) nextSlot = now;
+        known = true;
+    }
+
+    /**
+     * Ends the reservation of a request that failed without a response
+     */
+    public void onFailure() {
+        CompletableFuture<Void> probed;
+        synchronized (this) {
+            probed = endRequest();
+        }
+        if (probed != null) probed.complete(null);
+    }
+
+    // Any response or failure ends the probe, so that the callers waiting on it try again
+    private CompletableFuture<Void> endRequest() {
+        if (inFlight > 0) inFlight--;
+        CompletableFuture<Void> probed = probe;
+        probe = null;
+        return probed;
+    }
+
+    /**
+     * Gets the number of requests that may still be sent in the current window, as last reported by Reddit and less any
+     * requests reserved since
+     * @return The remaining budget, or -1 if it is not yet known
+     */
+    public synchronized double getRemaining() {
+        return known ? remaining : -1d;
+    }
+
+    /**
+     * Gets the number of requests used in the current window, as last reported by Reddit
+     * @return The used budget
+     */
+    public synchronized int getUsed() {
+        return used;
+    }
+
+    /**
+     * Gets the time until the current window resets
+     * @param unit The unit to return the time in
+     * @return The time until reset, or 0 if it is not yet known
+     */
+    public synchronized long getTimeUntilReset(@NotNull TimeUnit unit) {
+        if (!known) return 0L;
+        return unit.convert(Math.max(0L, resetAt - System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+
+}
@@ -0,0 +1,24 @@
+package codes.wasabi.r4j.http;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * A single HTTP request to be carried out by a {@link RedditTransport}
+ * @param method The HTTP method (e.g. GET)
+ * @param uri The full URI to request
+ * @param headers The request headers
+ * @param body The request body, or null if no body should be sent
+ * @param timeout How long to wait for the response before the request fails, or null to wait as long as the transport does
+ */
+public record RedditRequest(@NotNull String method, @NotNull URI uri, @NotNull Map<String, String> headers, byte @Nullable [] body, @Nullable Duration timeout) {
+
+    public RedditRequest(@NotNull String method, @NotNull URI uri, @NotNull Map<String, String> headers, byte @Nullable [] body) {
+        this(method, uri, headers, body, null);
+    }
+
+}
@@ -0,0 +1,188 @@
+package codes.wasabi.r4j.http;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.UnmodifiableView;
+
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * A response produced by a {@link RedditTransport}. The body should be closed once it has been consumed so that the underlying
+ * connection may be returned to the pool. The body is kept as it was sent over the wire; {@link #getContent()} decodes it
+ * according to the Content-Encoding header.
+ */
+public class RedditResponse implements Closeable {
+
+    private final int status;
+    private final Map<String, List<String>> headers;
+    private final CountingInputStream body;
+    private CountingInputStream content = null;
+
+    public RedditResponse(int status, @NotNull Map<String, List<String>> headers, @NotNull InputStream body) {
+        this.status = status;
+        Map<String, List<String>> map = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (Map.Entry<String, List<String>> entry : headers.entrySet()) {
+            if (entry.getKey() == null) continue;
+            map.put(entry.getKey(), entry.getValue());
+        }
+        this.headers = Collections.unmodifiableMap(map);
+        this.body = new CountingInputStream(body);
+    }
+
+    /**
+     * Gets the HTTP status code of this response
+     * @return The status code
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * Returns true if the status code is in the 2XX range
+     * @return True if the request was successful
+     */
+    public boolean isSuccessful() {
+        return status >= 200 && status < 300;
+    }
+
+    /**
+     * Gets all response headers. Lookups on the returned map are case-insensitive.
+     * @return The response headers
+     */
+    public @UnmodifiableView @NotNull Map<String, List<String>> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Gets the first value of the given header
+     * @param name The header name (case-insensitive)
+     * @return The header value, or null if not present
+     */
+    public @Nullable String getHeader(@NotNull String name) {
+        List<String> values = headers.get(name);
+        if (values == null || values.isEmpty()) return null;
+        return values.get(0);
+    }
+
+    /**
+     * Gets the response body as it was sent, without decoding its Content-Encoding. This may only be read once.
+     * @return The body stream
+     * @see #getContent()
+     */
+    public @NotNull InputStream getBody() {
+        return body;
+    }
+
+    /**
+     * Gets the response body, decompressed as it is read if the Content-Encoding is gzip or deflate. This may only be read once,
+     * and not in addition to {@link #getBody()}.
+     * @return The decoded body stream
+     * @throws IOException The Content-Encoding is not supported, or the compressed stream is malformed
+     */
+    public synchronized @NotNull InputStream getContent() throws IOException {
+        if (content == null) content = new CountingInputStream(decode(body, getHeader("Content-Encoding")));
+        return content;
+    }
+
+    /**
+     * Gets the number of body bytes that have been read so far, as sent over the wire
+     * @return The number of bytes read
+     */
+    public long getBytesRead() {
+        return body.count;
+    }
+
+    /**
+     * Gets the number of decoded body bytes that have been read so far through {@link #getContent()}
+     * @return The number of decoded bytes read
+     */
+    public synchronized long getContentBytesRead() {
+        return content == null ? body.count : content.count;
+    }
+
+    private static @NotNull InputStream decode(@NotNull InputStream in, @Nullable String encoding) throws IOException {
+        if (encoding == null) return in;
+        switch (encoding.trim().toLowerCase(Locale.ROOT)) {
+            case "", "identity":
+                return in;
+            case "gzip", "x-gzip":
+                return new GZIPInputStream(in, 8192);
+            case "deflate":
+                // Some servers send raw deflate data rather than the zlib stream that the spec calls for
+                PushbackInputStream pushback = new PushbackInputStream(in, 2);
+                int b0 = pushback.read();
+                if (b0 < 0) return pushback;
+                int b1 = pushback.read();
+                if (b1 >= 0) pushback.unread(b1);
+                pushback.unread(b0);
+                boolean zlib = (b1 >= 0) && ((b0 & 0x0F) == 8) && ((((b0 << 8) | b1) % 31) == 0);
+                Inflater inflater = new Inflater(!zlib);
+                // InflaterInputStream does not end an inflater it was given, so its native memory would wait for the GC
+                return new InflaterInputStream(pushback, inflater, 8192) {
+                    @Override
+                    public void close() throws IOException {
+                        try {
+                            super.close();
+                        } finally {
+                            inflater.end();
+                        }
+                    }
+                };
+            default:
+                throw new IOException("Unsupported Content-Encoding: " + encoding);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        InputStream decoded;
+        synchronized (this) {
+            decoded = content;
+        }
+        if (decoded != null) decoded.close();
+        body.close();
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        private long count = 0L;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte @NotNull [] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) count += n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+
+}
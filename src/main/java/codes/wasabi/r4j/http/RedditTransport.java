@@ -0,0 +1,46 @@
+package codes.wasabi.r4j.http;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Carries out HTTP requests on behalf of a {@link codes.wasabi.r4j.RedditClient}. Implementations should be thread-safe, and
+ * are expected to be shared between clients so that connections may be reused.
+ * @see HttpClientTransport
+ * @see URLConnectionTransport
+ */
+public interface RedditTransport {
+
+    /**
+     * Sends a request and waits for the response headers. Responses are returned for every status code; it is up to the caller
+     * to check {@link RedditResponse#getStatus()}.
+     * @param request The request to send
+     * @return The response, whose body is streamed from the connection
+     * @throws IOException The request could not be completed
+     */
+    @NotNull RedditResponse send(@NotNull RedditRequest request) throws IOException;
+
+    /**
+     * Sends a request without blocking the calling thread. The returned response is fully buffered, so reading its body never blocks.
+     * The default implementation runs {@link #send(RedditRequest)} on a virtual thread of its own, or on a dedicated pool of
+     * daemon threads on runtimes without virtual threads, so that blocked sends never hold threads of the common pool.
+     * Implementations backed by non-blocking I/O should override this.
+     * @param request The request to send
+     * @return A future that resolves with the response, or completes exceptionally with an {@link IOException}
+     */
+    default @NotNull CompletableFuture<RedditResponse> sendAsync(@NotNull RedditRequest request) {
+        return CompletableFuture.supplyAsync(() -> {
+            try (RedditResponse response = send(request)) {
+                byte[] body = response.getBody().readAllBytes();
+                return new RedditResponse(response.getStatus(), response.getHeaders(), new ByteArrayInputStream(body));
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, BlockingSends.EXECUTOR);
+    }
+
+}
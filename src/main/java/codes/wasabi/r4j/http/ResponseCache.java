@@ -0,0 +1,160 @@
+package codes.wasabi.r4j.http;
+
+import codes.wasabi.r4j.param.CacheOptions;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caches parsed responses of GET requests for a time that depends on the endpoint. When the estimated number of bytes retained
+ * by cached results exceeds {@link CacheOptions#maxBytes()}, the least recently used results are evicted.
+ */
+public class ResponseCache {
+
+    /**
+     * Parsed JSON retains several times the size of its encoded form once strings are widened and objects are boxed
+     */
+    public static final int RETAINED_BYTES_PER_ENCODED_BYTE = 4;
+
+    private static final int ENTRY_OVERHEAD = 96;
+
+    /**
+     * A snapshot of the cache counters
+     * @param hits The number of lookups that found a fresh result
+     * @param misses The number of lookups that did not
+     * @param evictions The number of results evicted to stay within the size bound
+     * @param entries The number of results currently cached
+     * @param retainedBytes The estimated number of bytes retained by cached results
+     */
+    public record Stats(long hits, long misses, long evictions, int entries, long retainedBytes) {
+
+        /**
+         * Gets the fraction of lookups that found a fresh result
+         * @return The hit ratio, between 0 and 1
+         */
+        public double hitRatio() {
+            long total = hits + misses;
+            return total == 0L ? 0d : ((double) hits) / total;
+        }
+
+    }
+
+    private record Entry(Object value, long retainedBytes, long expiresAt) { }
+
+    private final CacheOptions options;
+    private final LinkedHashMap<String, Entry> map = new LinkedHashMap<>(64, 0.75f, true);
+    private long retainedBytes = 0L;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ResponseCache(@NotNull CacheOptions options) {
+        this.options = options;
+    }
+
+    /**
+     * Gets the options this cache was created with
+     * @return The cache options
+     */
+    public @NotNull CacheOptions getOptions() {
+        return options;
+    }
+
+    /**
+     * Checks if results of the given endpoint are cached at all
+     * @param endpoint The endpoint, without query parameters
+     * @return True if the endpoint has a positive time to live
+     */
+    public boolean isCacheable(@NotNull String endpoint) {
+        Duration ttl = options.ttl(endpoint);
+        return !ttl.isZero() && !ttl.isNegative();
+    }
+
+    /**
+     * Looks up a fresh result
+     * @param key The request key
+     * @return The cached result, or null if none is cached or it has expired
+     */
+    public @Nullable Object get(@NotNull String key) {
+        long now = System.nanoTime();
+        synchronized (this) {
+            Entry entry = map.get(key);
+            if (entry != null) {
+                if (now - entry.expiresAt() < 0L) {
+                    hits.increment();
+                    return entry.value();
+                }
+                map.remove(key);
+                retainedBytes -= entry.retainedBytes();
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Caches a result
+     * @param key The request key
+     * @param endpoint The endpoint, without query parameters, which determines the time to live
+     * @param value The parsed result
+     * @param encodedBytes The size of the encoded response body that the result was parsed from
+     */
+    public void put(@NotNull String key, @NotNull String endpoint, @NotNull Object value, long encodedBytes) {
+        Duration ttl = options.ttl(endpoint);
+        if (ttl.isZero() || ttl.isNegative()) return;
+        long size = (encodedBytes * RETAINED_BYTES_PER_ENCODED_BYTE) + (key.length() * 2L) + ENTRY_OVERHEAD;
+        if (size > options.maxBytes()) return;
+        Entry entry = new Entry(value, size, System.nanoTime() + ttl.toNanos());
+        synchronized (this) {
+            Entry previous = map.put(key, entry);
+            if (previous != null) retainedBytes -= previous.retainedBytes();
+            retainedBytes += size;
+            Iterator<Entry> it = map.values().iterator();
+            while (retainedBytes > options.maxBytes() && it.hasNext()) {
+                Entry eldest = it.next();
+                it.remove();
+                retainedBytes -= eldest.retainedBytes();
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Removes every cached result whose request key starts with the given prefix
+     * @param method The HTTP method, e.g. GET
+     * @param endpointPrefix The start of the endpoint, e.g. /r/pics
+     */
+    public synchronized void invalidate(@NotNull String method, @NotNull String endpointPrefix) {
+        String prefix = method + " " + endpointPrefix;
+        Iterator<Map.Entry<String, Entry>> it = map.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Entry> next = it.next();
+            if (next.getKey().startsWith(prefix)) {
+                it.remove();
+                retainedBytes -= next.getValue().retainedBytes();
+            }
+        }
+    }
+
+    /**
+     * Removes every cached result
+     */
+    public synchronized void clear() {
+        map.clear();
+        retainedBytes = 0L;
+    }
+
+    /**
+     * Gets a snapshot of the cache counters
+     * @return The stats
+     */
+    public synchronized @NotNull Stats getStats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), map.size(), retainedBytes);
+    }
+
+}
@@ -0,0 +1,50 @@
+package codes.wasabi.r4j.http;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.util.Map;
+
+/**
+ * A {@link RedditTransport} backed by {@link HttpURLConnection}, opening a connection per request. This was the behavior of
+ * Reddit4J prior to pluggable transports, and is kept for environments where {@link java.net.http.HttpClient} is unsuitable.
+ * Note that {@link HttpURLConnection} does not support the PATCH method.
+ */
+public class URLConnectionTransport implements RedditTransport {
+
+    @Override
+    public @NotNull RedditResponse send(@NotNull RedditRequest request) throws IOException {
+        HttpURLConnection conn = (HttpURLConnection) request.uri().toURL().openConnection();
+        conn.setRequestMethod(request.method());
+        conn.setDoInput(true);
+        conn.setInstanceFollowRedirects(true);
+        if (request.timeout() != null) {
+            int timeout = (int) Math.min(Integer.MAX_VALUE, Math.max(1L, request.timeout().toMillis()));
+            conn.setConnectTimeout(timeout);
+            conn.setReadTimeout(timeout);
+        }
+        for (Map.Entry<String, String> entry : request.headers().entrySet()) {
+            conn.setRequestProperty(entry.getKey(), entry.getValue());
+        }
+        byte[] body = request.body();
+        if (body != null) {
+            conn.setDoOutput(true);
+            conn.connect();
+            try (OutputStream os = conn.getOutputStream()) {
+                os.write(body);
+                os.flush();
+            }
+        } else {
+            conn.connect();
+        }
+        int status = conn.getResponseCode();
+        InputStream is = (status >= 400 ? conn.getErrorStream() : conn.getInputStream());
+        if (is == null) is = new ByteArrayInputStream(new byte[0]);
+        return new RedditResponse(status, conn.getHeaderFields(), is);
+    }
+
+}
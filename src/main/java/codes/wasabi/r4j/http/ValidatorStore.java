@@ -0,0 +1,167 @@
+package codes.wasabi.r4j.http;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers the validators (ETag and Last-Modified) of GET responses along with their parsed results, so that a re-fetch can be
+ * sent as a conditional request and a 304 Not Modified answered with the result parsed the last time. Only the most recently
+ * used entries are kept, up to a number of entries and an estimated number of bytes retained by their results, estimated the same
+ * way as by {@link ResponseCache}.
+ */
+public class ValidatorStore {
+
+    /**
+     * The validators of a response and the result parsed from it
+     * @param etag The value of the ETag header, or null if absent
+     * @param lastModified The value of the Last-Modified header, or null if absent
+     * @param value The parsed result
+     * @param encodedBytes The size of the encoded response body
+     */
+    public record Validators(@Nullable String etag, @Nullable String lastModified, @NotNull Object value, long encodedBytes) {
+
+        /**
+         * Adds the matching conditional headers (If-None-Match and If-Modified-Since) to a header map
+         * @param headers The headers to add to
+         */
+        public void applyTo(@NotNull Map<String, String> headers) {
+            if (etag != null) headers.put("If-None-Match", etag);
+            if (lastModified != null) headers.put("If-Modified-Since", lastModified);
+        }
+
+    }
+
+    /**
+     * A snapshot of the store counters
+     * @param revalidated The number of responses that were 304 Not Modified and reused a previous result
+     * @param entries The number of responses whose validators are remembered
+     * @param retainedBytes The estimated number of bytes retained by the results of those responses
+     */
+    public record Stats(long revalidated, int entries, long retainedBytes) { }
+
+    /**
+     * The default maximum estimated number of bytes that remembered results may retain
+     */
+    public static final long DEFAULT_MAX_BYTES = 16L * 1024L * 1024L;
+
+    private static final int ENTRY_OVERHEAD = 128;
+
+    private final int capacity;
+    private final long maxBytes;
+    private final LinkedHashMap<String, Validators> map;
+    private long retainedBytes = 0L;
+    private final LongAdder revalidated = new LongAdder();
+
+    /**
+     * Creates a new store
+     * @param capacity The maximum number of responses to remember
+     * @param maxBytes The maximum estimated number of bytes that remembered results may retain before the least recently used are
+     *                 forgotten
+     * @throws IllegalArgumentException Capacity is not positive, or the byte bound is negative
+     */
+    public ValidatorStore(int capacity, long maxBytes) throws IllegalArgumentException {
+        if (capacity < 1) throw new IllegalArgumentException("Capacity must be positive");
+        if (maxBytes < 0L) throw new IllegalArgumentException("Max bytes cannot be negative");
+        this.capacity = capacity;
+        this.maxBytes = maxBytes;
+        this.map = new LinkedHashMap<>(Math.min(capacity, 64), 0.75f, true);
+    }
+
+    /**
+     * Creates a new store that may retain up to {@link #DEFAULT_MAX_BYTES}
+     * @param capacity The maximum number of responses to remember
+     * @throws IllegalArgumentException Capacity is not positive
+     */
+    public ValidatorStore(int capacity) throws IllegalArgumentException {
+        this(capacity, DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * Gets the maximum number of responses this store remembers
+     * @return The capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets the maximum estimated number of bytes that remembered results may retain
+     * @return The byte bound
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    private static long retainedSize(String key, Validators validators) {
+        return (validators.encodedBytes() * ResponseCache.RETAINED_BYTES_PER_ENCODED_BYTE) + (key.length() * 2L) + ENTRY_OVERHEAD;
+    }
+
+    /**
+     * Looks up the validators of the last response to a request
+     * @param key The request key
+     * @return The validators, or null if none are known
+     */
+    public synchronized @Nullable Validators get(@NotNull String key) {
+        return map.get(key);
+    }
+
+    /**
+     * Remembers the validators of a response. If the response has neither an ETag nor a Last-Modified header, or its result
+     * alone would exceed the byte bound, any validators previously remembered for the request are forgotten.
+     * @param key The request key
+     * @param response The response
+     * @param value The result parsed from the response
+     * @param encodedBytes The size of the encoded response body
+     */
+    public void store(@NotNull String key, @NotNull RedditResponse response, @NotNull Object value, long encodedBytes) {
+        String etag = response.getHeader("ETag");
+        String lastModified = response.getHeader("Last-Modified");
+        Validators validators = (etag == null && lastModified == null ? null : new Validators(etag, lastModified, value, encodedBytes));
+        long size = (validators == null ? 0L : retainedSize(key, validators));
+        synchronized (this) {
+            Validators previous;
+            if (validators == null || size > maxBytes) {
+                previous = map.remove(key);
+            } else {
+                previous = map.put(key, validators);
+                retainedBytes += size;
+            }
+            if (previous != null) retainedBytes -= retainedSize(key, previous);
+            Iterator<Map.Entry<String, Validators>> it = map.entrySet().iterator();
+            while ((map.size() > capacity || retainedBytes > maxBytes) && it.hasNext()) {
+                Map.Entry<String, Validators> eldest = it.next();
+                it.remove();
+                retainedBytes -= retainedSize(eldest.getKey(), eldest.getValue());
+            }
+        }
+    }
+
+    /**
+     * Records that a conditional request was answered with 304 Not Modified
+     */
+    public void revalidated() {
+        revalidated.increment();
+    }
+
+    /**
+     * Forgets every remembered response
+     */
+    public synchronized void clear() {
+        map.clear();
+        retainedBytes = 0L;
+    }
+
+    /**
+     * Gets a snapshot of the store counters
+     * @return The stats
+     */
+    public synchronized @NotNull Stats getStats() {
+        return new Stats(revalidated.sum(), map.size(), retainedBytes);
+    }
+
+}
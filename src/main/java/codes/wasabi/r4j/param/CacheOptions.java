@@ -0,0 +1,84 @@
+package codes.wasabi.r4j.param;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Options for the response cache that sits in front of GET requests
+ * @param maxBytes The maximum estimated number of bytes that cached results may retain before the least recently used are evicted
+ * @param ttls Regular expressions matched against the endpoint (e.g. /r/pics/hot), mapped to how long matching results stay fresh. The first match wins.
+ * @param defaultTTL How long results of endpoints that match no expression stay fresh. Zero disables caching for those endpoints.
+ */
+public record CacheOptions(@Range(from=0L, to=Long.MAX_VALUE) long maxBytes, @NotNull Map<Pattern, Duration> ttls, @NotNull Duration defaultTTL) {
+
+    public static class Builder {
+        private long maxBytes = 64L * 1024L * 1024L;
+        private final Map<Pattern, Duration> ttls = new LinkedHashMap<>();
+        private Duration defaultTTL = Duration.ZERO;
+
+        Builder() {
+            ttls.put(Pattern.compile("/api/v1/me"), Duration.ofMinutes(10L));
+            ttls.put(Pattern.compile(".*/about(/.*)?"), Duration.ofHours(1L));
+            ttls.put(Pattern.compile("(/r/[^/]+)?/(hot|best|new|rising|top|controversial)"), Duration.ofSeconds(30L));
+            ttls.put(Pattern.compile("/r/[^/]+/comments/.*"), Duration.ofSeconds(30L));
+        }
+
+        @Contract(value = "_ -> this", mutates = "this")
+        public @NotNull Builder maxBytes(@Range(from=0L, to=Long.MAX_VALUE) long maxBytes) {
+            this.maxBytes = maxBytes;
+            return this;
+        }
+
+        /**
+         * Sets how long results of endpoints matching the expression stay fresh. Expressions added later are checked after the
+         * defaults and any added earlier; use {@link #clearTTLs()} first to replace the defaults.
+         */
+        @Contract(value = "_, _ -> this", mutates = "this")
+        public @NotNull Builder ttl(@NotNull String endpointRegex, @NotNull Duration ttl) {
+            ttls.put(Pattern.compile(endpointRegex), ttl);
+            return this;
+        }
+
+        @Contract(value = " -> this", mutates = "this")
+        public @NotNull Builder clearTTLs() {
+            ttls.clear();
+            return this;
+        }
+
+        @Contract(value = "_ -> this", mutates = "this")
+        public @NotNull Builder defaultTTL(@NotNull Duration defaultTTL) {
+            this.defaultTTL = defaultTTL;
+            return this;
+        }
+
+        @Contract(value = " -> new", pure = true)
+        public @NotNull CacheOptions build() {
+            return new CacheOptions(maxBytes, Collections.unmodifiableMap(new LinkedHashMap<>(ttls)), defaultTTL);
+        }
+    }
+
+    @Contract(value = " -> new", pure = true)
+    public static @NotNull Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Gets how long results of the given endpoint stay fresh
+     * @param endpoint The endpoint, without query parameters
+     * @return The time to live, which is zero if results should not be cached
+     */
+    public @NotNull Duration ttl(@NotNull String endpoint) {
+        for (Map.Entry<Pattern, Duration> entry : ttls.entrySet()) {
+            if (entry.getKey().matcher(endpoint).matches()) return entry.getValue();
+        }
+        return defaultTTL;
+    }
+
+}
@@ -0,0 +1,216 @@
+package codes.wasabi.r4j.param;
+
+import codes.wasabi.r4j.http.CircuitBreaker;
+import codes.wasabi.r4j.http.HttpClientTransport;
+import codes.wasabi.r4j.http.RateLimiter;
+import codes.wasabi.r4j.http.RedditTransport;
+import codes.wasabi.r4j.http.ValidatorStore;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Range;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Options that control how a {@link codes.wasabi.r4j.RedditClient} communicates with Reddit
+ * @param transport The transport used to send requests
+ * @param apiURL The base URL of the OAuth API (e.g. https://oauth.reddit.com)
+ * @param tokenURL The base URL that access tokens are requested from (e.g. https://www.reddit.com)
+ * @param requestTimeout How long to wait for the response to a request before it fails
+ * @param executor The executor that responses of asynchronous requests are parsed on
+ * @param bulkConcurrency The maximum number of requests that bulk methods (e.g. {@link codes.wasabi.r4j.RedditClient#getNewBulk}) run at once
+ * @param rateLimiting Whether requests should be paced according to Reddit's rate limit headers
+ * @param rateLimiter The limiter to pace requests with, or null to share one between all clients with the same token
+ * @param coalescing Whether identical GET requests that are in flight at the same time should share one network call
+ * @param cache The options of the response cache, or null to disable caching
+ * @param revalidationCapacity The number of GET responses whose ETag/Last-Modified validators are remembered so that re-fetches can be sent as conditional requests, or 0 (the default) to disable conditional requests
+ * @param revalidationMaxBytes The maximum estimated number of bytes that the results remembered with those validators may retain before the least recently used are forgotten
+ * @param compression Whether responses should be requested with gzip or deflate compression
+ * @param retryPolicy How failed requests are retried
+ * @param circuitBreaking Whether requests to a host that keeps failing should fail fast rather than be sent
+ * @param circuitBreaker The breaker to guard requests with, or null to share one between all clients that use the same API host
+ * @param batchWindow How long {@link codes.wasabi.r4j.RedditClient#getInfo(String)} waits for more fullnames to batch into the same /api/info request
+ * @param retainJSON Whether posts, comments and listings keep the raw JSON they were decoded from, so that {@link codes.wasabi.r4j.struct.JsonObjectWrapper#getJSON()} can be used on them. Without it, only the decoded fields are kept.
+ * @param canonicalEntities Whether every copy of a post or comment decoded by the client resolves to one canonical instance, which is refreshed in place by newer copies (see {@link codes.wasabi.r4j.struct.EntityIdentityMap}). Listings decoded this way do not retain their own raw JSON.
+ */
+public record ClientOptions(@NotNull RedditTransport transport, @NotNull String apiURL, @NotNull String tokenURL, @NotNull Duration requestTimeout, @NotNull Executor executor, @Range(from=1L, to=Integer.MAX_VALUE) int bulkConcurrency, boolean rateLimiting, @Nullable RateLimiter rateLimiter, boolean coalescing, @Nullable CacheOptions cache, @Range(from=0L, to=Integer.MAX_VALUE) int revalidationCapacity, @Range(from=0L, to=Long.MAX_VALUE) long revalidationMaxBytes, boolean compression, @NotNull RetryPolicy retryPolicy, boolean circuitBreaking, @Nullable CircuitBreaker circuitBreaker, @NotNull Duration batchWindow, boolean retainJSON, boolean canonicalEntities) {
+
+    public static final String DEFAULT_API_URL = "https://oauth.reddit.com";
+    public static final String DEFAULT_TOKEN_URL = "https://www.reddit.com";
+    public static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofSeconds(30L);
+
+    public static class Builder {
+        private RedditTransport transport = null;
+        private String apiURL = DEFAULT_API_URL;
+        private String tokenURL = DEFAULT_TOKEN_URL;
+        private Duration requestTimeout = DEFAULT_REQUEST_TIMEOUT;
+        private Executor executor = null;
+        private int bulkConcurrency = 64;
+        private boolean rateLimiting = true;
+        private RateLimiter rateLimiter = null;
+        private boolean coalescing = true;
+        private CacheOptions cache = null;
+        private int revalidationCapacity = 0;
+        private long revalidationMaxBytes = ValidatorStore.DEFAULT_MAX_BYTES;
+        private boolean compression = true;
+        private RetryPolicy retryPolicy = null;
+        private boolean circuitBreaking = true;
+        private CircuitBreaker circuitBreaker = null;
+        private Duration batchWindow = Duration.ofMillis(10L);
+        private boolean retainJSON = true;
+        private boolean canonicalEntities = false;
+
+        @Contract(value = "_ -> this", mutates = "this")
+        public @NotNull Builder transport(@NotNull RedditTransport transport) {
+            this.transport = transport;
+            return this;
+        }
+
+        @Contract(value = "_ -> this", mutates = "this")
+        public @NotNull Builder apiURL(@NotNull String apiURL) {
+            this.apiURL = stripTrailingSlash(apiURL);
+            return this;
+        }
+
+        @Contract(value = "_ -> this", mutates = "this")
+        public @NotNull Builder tokenURL(@NotNull String tokenURL) {
+            this.tokenURL = stripTrailingSlash(tokenURL);
+            return this;
+        }
+
+        @Contract(value = "_ -> this", mutates = "this")
+        public @NotNull Builder requestTimeout(@NotNull Duration requestTimeout) {
+            this.requestTimeout = requestTimeout;
+            return this;
+        }
+
+        @Contract(value = "_ -> this", mutates = "this")
+        public @NotNull Builder executor(@NotNull Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        @Contract(value = "_ -> this", mutates = "this")
+        public @NotNull Builder bulkConcurrency(@Range(from=1L, to=Integer.MAX_VALUE) int bulkConcurrency) {
+            this.bulkConcurrency = bulkConcurrency;
+            return this;
+        }
+
+        @Contract(value = "_ -> this", mutates = "this")
+        public @NotNull Builder rateLimiting(boolean rateLimiting) {
+            this.rateLimiting = rateLimiting;
+            return this;
+        }
+
+        @Contract(value = "_ -> this", mutates = "this")
+        public @NotNull Builder rateLimiter(@Nullable RateLimiter rateLimiter) {
+            this.rateLimiter = rateLimiter;
+            return this;
+        }
+
+        @Contract(value = "_ -> this", mutates = "this")
+        public @NotNull Builder coalescing(boolean coalescing) {
+            this.coalescing = coalescing;
+            return this;
+        }
+
+        @Contract(value = "_ -> this", mutates = "this")
+        public @NotNull Builder cache(@Nullable CacheOptions cache) {
+            this.cache = cache;
+            return this;
+        }
+
+        @Contract(value = "_ -> this", mutates = "this")
+        public @NotNull Builder revalidationCapacity(@Range(from=0L, to=Integer.MAX_VALUE) int revalidationCapacity) {
+            this.revalidationCapacity = revalidationCapacity;
+            return this;
+        }
+
+        @Contract(value = "_ -> this", mutates = "this")
+        public @NotNull Builder revalidationMaxBytes(@Range(from=0L, to=Long.MAX_VALUE) long revalidationMaxBytes) {
+            this.revalidationMaxBytes = revalidationMaxBytes;
+            return this;
+        }
+
+        @Contract(value = "_ -> this", mutates = "this")
+        public @NotNull Builder compression(boolean compression) {
+            this.compression = compression;
+            return this;
+        }
+
+        @Contract(value = "_ -> this", mutates = "this")
+        public @NotNull Builder retryPolicy(@NotNull RetryPolicy retryPolicy) {
+            this.retryPolicy = retryPolicy;
+            return this;
+        }
+
+        @Contract(value = "_ -> this", mutates = "this")
+        public @NotNull Builder circuitBreaking(boolean circuitBreaking) {
+            this.circuitBreaking = circuitBreaking;
+            return this;
+        }
+
+        @Contract(value = "_ -> this", mutates = "this")
+        public @NotNull Builder circuitBreaker(@Nullable CircuitBreaker circuitBreaker) {
+            this.circuitBreaker = circuitBreaker;
+            return this;
+        }
+
+        @Contract(value = "_ -> this", mutates = "this")
+        public @NotNull Builder batchWindow(@NotNull Duration batchWindow) {
+            this.batchWindow = batchWindow;
+            return this;
+        }
+
+        @Contract(value = "_ -> this", mutates = "this")
+        public @NotNull Builder retainJSON(boolean retainJSON) {
+            this.retainJSON = retainJSON;
+            return this;
+        }
+
+        @Contract(value = "_ -> this", mutates = "this")
+        public @NotNull Builder canonicalEntities(boolean canonicalEntities) {
+            this.canonicalEntities = canonicalEntities;
+            return this;
+        }
+
+        @Contract(" -> new")
+        public @NotNull ClientOptions build() {
+            return new ClientOptions(
+                    transport == null ? HttpClientTransport.getShared() : transport,
+                    apiURL,
+                    tokenURL,
+                    requestTimeout,
+                    executor == null ? ForkJoinPool.commonPool() : executor,
+                    bulkConcurrency,
+                    rateLimiting,
+                    rateLimiter,
+                    coalescing,
+                    cache,
+                    revalidationCapacity,
+                    revalidationMaxBytes,
+                    compression,
+                    retryPolicy == null ? RetryPolicy.builder().build() : retryPolicy,
+                    circuitBreaking,
+                    circuitBreaker,
+                    batchWindow,
+                    retainJSON,
+                    canonicalEntities
+            );
+        }
+    }
+
+    @Contract(value = " -> new", pure = true)
+    public static @NotNull Builder builder() {
+        return new Builder();
+    }
+
+    private static String stripTrailingSlash(String url) {
+        while (url.endsWith("/")) url = url.substring(0, url.length() - 1);
+        return url;
+    }
+
+}
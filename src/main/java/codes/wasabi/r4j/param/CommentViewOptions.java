@@ -4,8 +4,25 @@ import codes.wasabi.r4j.enums.SortType;
 import codes.wasabi.r4j.enums.Theme;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-public record CommentViewOptions(int context, int depth, int limit, boolean showedits, boolean showmedia, boolean showmore, boolean showtitle, SortType sort, Theme theme) {
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Set;
+
+public record CommentViewOptions(int context, int depth, int limit, boolean showedits, boolean showmedia, boolean showmore, boolean showtitle, SortType sort, Theme theme, boolean bypassCache, @Nullable Set<String> fields) {
+
+    public CommentViewOptions {
+        if (fields != null) fields = Set.copyOf(fields);
+    }
+
+    public CommentViewOptions(int context, int depth, int limit, boolean showedits, boolean showmedia, boolean showmore, boolean showtitle, SortType sort, Theme theme, boolean bypassCache) {
+        this(context, depth, limit, showedits, showmedia, showmore, showtitle, sort, theme, bypassCache, null);
+    }
+
+    public CommentViewOptions(int context, int depth, int limit, boolean showedits, boolean showmedia, boolean showmore, boolean showtitle, SortType sort, Theme theme) {
+        this(context, depth, limit, showedits, showmedia, showmore, showtitle, sort, theme, false);
+    }
 
     public static class Builder {
         private int context = 0;
@@ -17,6 +34,8 @@ public record CommentViewOptions(int context, int depth, int limit, boolean show
         private boolean showtitle = false;
         private SortType sort = SortType.TOP;
         private Theme theme = Theme.DEFAULT;
+        private boolean bypassCache = false;
+        private Set<String> fields = null;
 
         @Contract(value = "_ -> this", mutates = "this")
         public @NotNull Builder context(int context) {
@@ -72,9 +91,41 @@ public record CommentViewOptions(int context, int depth, int limit, boolean show
             return this;
         }
 
+        /**
+         * If set, the comments are always fetched from Reddit rather than the client's response cache. The fresh comments still
+         * replace any cached ones.
+         */
+        @Contract(value = "_ -> this", mutates = "this")
+        public @NotNull Builder bypassCache(boolean bypassCache) {
+            this.bypassCache = bypassCache;
+            return this;
+        }
+
+        /**
+         * Decodes only the given fields of each comment, as they are named in Reddit's JSON (e.g. "score", "created"). Other fields
+         * are skipped without being parsed and read as null or 0. The fullname, ID, parent ID and depth of each comment, and the
+         * children and count of each "more" node, are always decoded, so that the tree can still be expanded. Include "replies" to
+         * decode the replies of each comment, which are projected in the same way.
+         * @param fields The fields to decode, or null to decode every field
+         */
+        @Contract(value = "_ -> this", mutates = "this")
+        public @NotNull Builder fields(@Nullable Collection<String> fields) {
+            this.fields = (fields == null ? null : Set.copyOf(fields));
+            return this;
+        }
+
+        /**
+         * Decodes only the given fields of each comment
+         * @see #fields(Collection)
+         */
+        @Contract(value = "_ -> this", mutates = "this")
+        public @NotNull Builder fields(@NotNull String... fields) {
+            return fields(Arrays.asList(fields));
+        }
+
         @Contract(" -> !null")
         public @NotNull CommentViewOptions build() {
-            return new CommentViewOptions(context, depth, limit, showedits, showmedia, showmore, showtitle, sort, theme);
+            return new CommentViewOptions(context, depth, limit, showedits, showmedia, showmore, showtitle, sort, theme, bypassCache, fields);
         }
     }
 
@@ -0,0 +1,67 @@
+package codes.wasabi.r4j.param;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
+
+/**
+ * Options for a resumable crawl
+ * @param pageSize The number of items requested per page
+ * @param maxItems The maximum number of items delivered per source, across every run of the crawl
+ * @param dedupeCapacity The number of recently delivered fullnames remembered per source, to suppress items that move across a page
+ *                       boundary while the listing is being walked
+ * @param sync Whether each checkpoint is flushed to the storage device before the crawl moves on. Without this, a checkpoint survives
+ *             the JVM crashing but not the machine losing power.
+ */
+public record CrawlOptions(@Range(from=1L, to=100L) int pageSize, @Range(from=0L, to=Long.MAX_VALUE) long maxItems, @Range(from=1L, to=Integer.MAX_VALUE) int dedupeCapacity, boolean sync) {
+
+    public static final CrawlOptions DEFAULT = builder().build();
+
+    public CrawlOptions {
+        if (pageSize < 1 || pageSize > 100) throw new IllegalArgumentException("Page size must be between 1 and 100");
+        if (maxItems < 0L) throw new IllegalArgumentException("Max items cannot be negative");
+        if (dedupeCapacity < 1) throw new IllegalArgumentException("Dedupe capacity must be positive");
+    }
+
+    public static class Builder {
+        private int pageSize = 100;
+        private long maxItems = Long.MAX_VALUE;
+        private int dedupeCapacity = 1000;
+        private boolean sync = true;
+
+        @Contract(value = "_ -> this", mutates = "this")
+        public @NotNull Builder pageSize(@Range(from=1L, to=100L) int pageSize) {
+            this.pageSize = pageSize;
+            return this;
+        }
+
+        @Contract(value = "_ -> this", mutates = "this")
+        public @NotNull Builder maxItems(@Range(from=0L, to=Long.MAX_VALUE) long maxItems) {
+            this.maxItems = maxItems;
+            return this;
+        }
+
+        @Contract(value = "_ -> this", mutates = "this")
+        public @NotNull Builder dedupeCapacity(@Range(from=1L, to=Integer.MAX_VALUE) int dedupeCapacity) {
+            this.dedupeCapacity = dedupeCapacity;
+            return this;
+        }
+
+        @Contract(value = "_ -> this", mutates = "this")
+        public @NotNull Builder sync(boolean sync) {
+            this.sync = sync;
+            return this;
+        }
+
+        @Contract(value = " -> new", pure = true)
+        public @NotNull CrawlOptions build() {
+            return new CrawlOptions(pageSize, maxItems, dedupeCapacity, sync);
+        }
+    }
+
+    @Contract(value = " -> new", pure = true)
+    public static @NotNull Builder builder() {
+        return new Builder();
+    }
+
+}
@@ -0,0 +1,81 @@
+package codes.wasabi.r4j.param;
+
+import codes.wasabi.r4j.enums.SortType;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
+
+/**
+ * Options for loading the "more" nodes of a comment tree
+ * @param concurrency The maximum number of requests in flight at once. Reddit documents /api/morechildren as allowing only one
+ *                    request at a time per user, so raise this with care.
+ * @param maxCalls The maximum number of requests sent for one tree. "More" nodes left over once this is reached stay in the tree.
+ * @param sort The sort order of the loaded comments, which should match the one the tree was fetched with
+ * @param threadDepth The depth of the thread fetched for a "continue this thread" node, which should match the one the tree was
+ *                    fetched with
+ * @param threadLimit The most comments fetched for a "continue this thread" node
+ */
+public record ExpandOptions(@Range(from=1L, to=Integer.MAX_VALUE) int concurrency, @Range(from=0L, to=Integer.MAX_VALUE) int maxCalls, @NotNull SortType sort, @Range(from=1L, to=Integer.MAX_VALUE) int threadDepth, @Range(from=1L, to=Integer.MAX_VALUE) int threadLimit) {
+
+    public static final ExpandOptions DEFAULT = builder().build();
+
+    public ExpandOptions {
+        if (concurrency < 1) throw new IllegalArgumentException("Concurrency must be at least 1");
+        if (maxCalls < 0) throw new IllegalArgumentException("Max calls must not be negative");
+        if (threadDepth < 1) throw new IllegalArgumentException("Thread depth must be at least 1");
+        if (threadLimit < 1) throw new IllegalArgumentException("Thread limit must be at least 1");
+    }
+
+    public ExpandOptions(@Range(from=1L, to=Integer.MAX_VALUE) int concurrency, @Range(from=0L, to=Integer.MAX_VALUE) int maxCalls, @NotNull SortType sort) {
+        this(concurrency, maxCalls, sort, 10, 500);
+    }
+
+    public static class Builder {
+        private int concurrency = 1;
+        private int maxCalls = Integer.MAX_VALUE;
+        private SortType sort = SortType.TOP;
+        private int threadDepth = 10;
+        private int threadLimit = 500;
+
+        @Contract(value = "_ -> this", mutates = "this")
+        public @NotNull Builder concurrency(@Range(from=1L, to=Integer.MAX_VALUE) int concurrency) {
+            this.concurrency = concurrency;
+            return this;
+        }
+
+        @Contract(value = "_ -> this", mutates = "this")
+        public @NotNull Builder maxCalls(@Range(from=0L, to=Integer.MAX_VALUE) int maxCalls) {
+            this.maxCalls = maxCalls;
+            return this;
+        }
+
+        @Contract(value = "_ -> this", mutates = "this")
+        public @NotNull Builder sort(@NotNull SortType sort) {
+            this.sort = sort;
+            return this;
+        }
+
+        @Contract(value = "_ -> this", mutates = "this")
+        public @NotNull Builder threadDepth(@Range(from=1L, to=Integer.MAX_VALUE) int threadDepth) {
+            this.threadDepth = threadDepth;
+            return this;
+        }
+
+        @Contract(value = "_ -> this", mutates = "this")
+        public @NotNull Builder threadLimit(@Range(from=1L, to=Integer.MAX_VALUE) int threadLimit) {
+            this.threadLimit = threadLimit;
+            return this;
+        }
+
+        @Contract(value = " -> new", pure = true)
+        public @NotNull ExpandOptions build() {
+            return new ExpandOptions(concurrency, maxCalls, sort, threadDepth, threadLimit);
+        }
+    }
+
+    @Contract(value = " -> new", pure = true)
+    public static @NotNull Builder builder() {
+        return new Builder();
+    }
+
+}
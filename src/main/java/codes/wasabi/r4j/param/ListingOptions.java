@@ -5,10 +5,25 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Range;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
-public record ListingOptions(@Nullable String after, @Nullable String before, @Range(from=0L, to=Integer.MAX_VALUE) int count, @Range(from=1L, to=100L) int limit, boolean showAll) {
+public record ListingOptions(@Nullable String after, @Nullable String before, @Range(from=0L, to=Integer.MAX_VALUE) int count, @Range(from=1L, to=100L) int limit, boolean showAll, boolean bypassCache, @Nullable Set<String> fields) {
+
+    public ListingOptions {
+        if (fields != null) fields = Set.copyOf(fields);
+    }
+
+    public ListingOptions(@Nullable String after, @Nullable String before, @Range(from=0L, to=Integer.MAX_VALUE) int count, @Range(from=1L, to=100L) int limit, boolean showAll, boolean bypassCache) {
+        this(after, before, count, limit, showAll, bypassCache, null);
+    }
+
+    public ListingOptions(@Nullable String after, @Nullable String before, @Range(from=0L, to=Integer.MAX_VALUE) int count, @Range(from=1L, to=100L) int limit, boolean showAll) {
+        this(after, before, count, limit, showAll, false);
+    }
 
     public static class Builder {
         private String after = null;
@@ -16,6 +31,8 @@ public record ListingOptions(@Nullable String after, @Nullable String before, @R
         private int count = 0;
         private int limit = 100;
         private boolean showAll = false;
+        private boolean bypassCache = false;
+        private Set<String> fields = null;
 
         @Contract(value = "_ -> this", mutates = "this")
         public Builder after(@Nullable String after) {
@@ -47,9 +64,40 @@ public record ListingOptions(@Nullable String after, @Nullable String before, @R
             return this;
         }
 
+        /**
+         * If set, the listing is always fetched from Reddit rather than the client's response cache. The fresh listing still
+         * replaces any cached one.
+         */
+        @Contract(value = "_ -> this", mutates = "this")
+        public Builder bypassCache(boolean bypassCache) {
+            this.bypassCache = bypassCache;
+            return this;
+        }
+
+        /**
+         * Decodes only the given fields of each post, as they are named in Reddit's JSON (e.g. "score", "created"). Other fields
+         * are skipped without being parsed and read as null or 0. The fullname and ID are always decoded, and so are the
+         * parent ID and depth of comments.
+         * @param fields The fields to decode, or null to decode every field
+         */
+        @Contract(value = "_ -> this", mutates = "this")
+        public Builder fields(@Nullable Collection<String> fields) {
+            this.fields = (fields == null ? null : Set.copyOf(fields));
+            return this;
+        }
+
+        /**
+         * Decodes only the given fields of each post
+         * @see #fields(Collection)
+         */
+        @Contract(value = "_ -> this", mutates = "this")
+        public Builder fields(@NotNull String... fields) {
+            return fields(Arrays.asList(fields));
+        }
+
         @Contract(value = " -> new", pure = true)
         public @NotNull ListingOptions build() {
-            return new ListingOptions(after, before, count, limit, showAll);
+            return new ListingOptions(after, before, count, limit, showAll, bypassCache, fields);
         }
     }
 
@@ -0,0 +1,49 @@
+package codes.wasabi.r4j.param;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
+
+/**
+ * Options for walking a listing across pages
+ * @param prefetch The number of pages fetched ahead of the page being consumed. 0 fetches each page only once the previous one
+ *                 has been consumed.
+ * @param maxItems The maximum number of items produced across all pages
+ */
+public record PaginationOptions(@Range(from=0L, to=Integer.MAX_VALUE) int prefetch, @Range(from=0L, to=Long.MAX_VALUE) long maxItems) {
+
+    public static final PaginationOptions DEFAULT = builder().build();
+
+    public PaginationOptions {
+        if (prefetch < 0) throw new IllegalArgumentException("Prefetch depth cannot be negative");
+        if (maxItems < 0L) throw new IllegalArgumentException("Max items cannot be negative");
+    }
+
+    public static class Builder {
+        private int prefetch = 1;
+        private long maxItems = Long.MAX_VALUE;
+
+        @Contract(value = "_ -> this", mutates = "this")
+        public @NotNull Builder prefetch(@Range(from=0L, to=Integer.MAX_VALUE) int prefetch) {
+            this.prefetch = prefetch;
+            return this;
+        }
+
+        @Contract(value = "_ -> this", mutates = "this")
+        public @NotNull Builder maxItems(@Range(from=0L, to=Long.MAX_VALUE) long maxItems) {
+            this.maxItems = maxItems;
+            return this;
+        }
+
+        @Contract(value = " -> new", pure = true)
+        public @NotNull PaginationOptions build() {
+            return new PaginationOptions(prefetch, maxItems);
+        }
+    }
+
+    @Contract(value = " -> new", pure = true)
+    public static @NotNull Builder builder() {
+        return new Builder();
+    }
+
+}
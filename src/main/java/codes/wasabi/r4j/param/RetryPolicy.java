@@ -0,0 +1,149 @@
+package codes.wasabi.r4j.param;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Range;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Controls how failed requests are retried. Delays grow exponentially with "full jitter", meaning each delay is picked at random
+ * between zero and the exponential cap so that many clients failing at once do not retry in lockstep.
+ * @param maxAttempts The maximum number of times a request is sent, including the first. 1 disables retrying.
+ * @param baseDelay The cap of the delay before the first retry, which doubles for every retry after
+ * @param maxDelay The largest delay ever waited before a retry. A Retry-After longer than this is not waited out.
+ * @param retryStatuses The response status codes that are retried
+ * @param retryNonIdempotent Whether POST and PATCH requests may be retried. These may have taken effect even though they failed.
+ * @param respectRetryAfter Whether a retry waits at least as long as the response's Retry-After header asks
+ */
+public record RetryPolicy(@Range(from=1L, to=Integer.MAX_VALUE) int maxAttempts, @NotNull Duration baseDelay, @NotNull Duration maxDelay, @NotNull Set<Integer> retryStatuses, boolean retryNonIdempotent, boolean respectRetryAfter) {
+
+    /**
+     * A policy that never retries
+     */
+    public static final RetryPolicy NONE = builder().maxAttempts(1).build();
+
+    private static final Set<String> IDEMPOTENT_METHODS = Set.of("GET", "HEAD", "OPTIONS", "PUT", "DELETE");
+
+    public static class Builder {
+        private int maxAttempts = 3;
+        private Duration baseDelay = Duration.ofMillis(500L);
+        private Duration maxDelay = Duration.ofSeconds(30L);
+        private final Set<Integer> retryStatuses = new TreeSet<>(Set.of(429, 500, 502, 503, 504));
+        private boolean retryNonIdempotent = false;
+        private boolean respectRetryAfter = true;
+
+        @Contract(value = "_ -> this", mutates = "this")
+        public @NotNull Builder maxAttempts(@Range(from=1L, to=Integer.MAX_VALUE) int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        @Contract(value = "_ -> this", mutates = "this")
+        public @NotNull Builder baseDelay(@NotNull Duration baseDelay) {
+            this.baseDelay = baseDelay;
+            return this;
+        }
+
+        @Contract(value = "_ -> this", mutates = "this")
+        public @NotNull Builder maxDelay(@NotNull Duration maxDelay) {
+            this.maxDelay = maxDelay;
+            return this;
+        }
+
+        @Contract(value = "_ -> this", mutates = "this")
+        public @NotNull Builder retryStatus(int status) {
+            this.retryStatuses.add(status);
+            return this;
+        }
+
+        @Contract(value = " -> this", mutates = "this")
+        public @NotNull Builder clearRetryStatuses() {
+            this.retryStatuses.clear();
+            return this;
+        }
+
+        @Contract(value = "_ -> this", mutates = "this")
+        public @NotNull Builder retryNonIdempotent(boolean retryNonIdempotent) {
+            this.retryNonIdempotent = retryNonIdempotent;
+            return this;
+        }
+
+        @Contract(value = "_ -> this", mutates = "this")
+        public @NotNull Builder respectRetryAfter(boolean respectRetryAfter) {
+            this.respectRetryAfter = respectRetryAfter;
+            return this;
+        }
+
+        @Contract(value = " -> new", pure = true)
+        public @NotNull RetryPolicy build() {
+            return new RetryPolicy(maxAttempts, baseDelay, maxDelay, Collections.unmodifiableSet(new TreeSet<>(retryStatuses)), retryNonIdempotent, respectRetryAfter);
+        }
+    }
+
+    @Contract(value = " -> new", pure = true)
+    public static @NotNull Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Checks if requests with the given method may be retried at all
+     * @param method The HTTP method
+     * @return True if the method is idempotent, or non-idempotent methods are allowed to be retried
+     */
+    public boolean allowsMethod(@NotNull String method) {
+        return retryNonIdempotent || IDEMPOTENT_METHODS.contains(method);
+    }
+
+    /**
+     * Checks if a response with the given status should be retried
+     * @param status The status code
+     * @return True if the status is one of {@link #retryStatuses()}
+     */
+    public boolean allowsStatus(int status) {
+        return retryStatuses.contains(status);
+    }
+
+    /**
+     * Picks the delay before the next retry
+     * @param attempt The number of attempts that have failed so far, starting at 1
+     * @param retryAfter The value of the failed response's Retry-After header, or null
+     * @return The delay in nanoseconds, or -1 if the request should not be retried again
+     */
+    public long delayNanos(int attempt, @Nullable String retryAfter) {
+        if (attempt >= maxAttempts) return -1L;
+        long max = maxDelay.toNanos();
+        long cap = baseDelay.toNanos();
+        for (int i=1; i < attempt && cap < max; i++) cap <<= 1;
+        cap = Math.max(0L, Math.min(cap, max));
+        long delay = (cap == 0L ? 0L : ThreadLocalRandom.current().nextLong(cap + 1L));
+        if (respectRetryAfter && retryAfter != null) {
+            long requested = parseRetryAfter(retryAfter);
+            if (requested > max) return -1L;
+            delay = Math.max(delay, requested);
+        }
+        return delay;
+    }
+
+    private static long parseRetryAfter(@NotNull String value) {
+        value = value.trim();
+        try {
+            return Duration.ofSeconds(Math.max(0L, Long.parseLong(value))).toNanos();
+        } catch (NumberFormatException ignored) { }
+        try {
+            ZonedDateTime at = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME);
+            return Math.max(0L, Duration.between(ZonedDateTime.now(at.getZone()), at).toNanos());
+        } catch (DateTimeParseException | ArithmeticException e) {
+            return 0L;
+        }
+    }
+
+}
@@ -0,0 +1,85 @@
+package codes.wasabi.r4j.param;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
+
+import java.time.Duration;
+
+/**
+ * Options for watching listings for new items
+ * @param minInterval The shortest time waited between two polls of the same listing
+ * @param maxInterval The longest time waited between two polls of the same listing
+ * @param initialInterval The time waited after the first poll, if the listing held too few items to estimate how often new ones arrive
+ * @param targetItemsPerPoll How many new items a poll should find on average. The interval is adapted to each listing's observed
+ *                           rate of new items so that this many arrive between polls, within the bounds above. Lower values give
+ *                           lower latency at the cost of more requests.
+ * @param dedupeCapacity The number of recently seen fullnames remembered to suppress duplicates
+ * @param deliverExisting Whether the items found by the first poll of a listing are delivered, rather than only marked as seen
+ */
+public record WatchOptions(@NotNull Duration minInterval, @NotNull Duration maxInterval, @NotNull Duration initialInterval, double targetItemsPerPoll, @Range(from=1L, to=Integer.MAX_VALUE) int dedupeCapacity, boolean deliverExisting) {
+
+    public static final WatchOptions DEFAULT = builder().build();
+
+    public WatchOptions {
+        if (minInterval.isNegative() || maxInterval.compareTo(minInterval) < 0) throw new IllegalArgumentException("Intervals must satisfy 0 <= min <= max");
+        if (!(targetItemsPerPoll > 0d)) throw new IllegalArgumentException("Target items per poll must be positive");
+        if (dedupeCapacity < 1) throw new IllegalArgumentException("Dedupe capacity must be positive");
+    }
+
+    public static class Builder {
+        private Duration minInterval = Duration.ofMillis(500L);
+        private Duration maxInterval = Duration.ofMinutes(5L);
+        private Duration initialInterval = Duration.ofSeconds(30L);
+        private double targetItemsPerPoll = 1d;
+        private int dedupeCapacity = 10000;
+        private boolean deliverExisting = false;
+
+        @Contract(value = "_ -> this", mutates = "this")
+        public @NotNull Builder minInterval(@NotNull Duration minInterval) {
+            this.minInterval = minInterval;
+            return this;
+        }
+
+        @Contract(value = "_ -> this", mutates = "this")
+        public @NotNull Builder maxInterval(@NotNull Duration maxInterval) {
+            this.maxInterval = maxInterval;
+            return this;
+        }
+
+        @Contract(value = "_ -> this", mutates = "this")
+        public @NotNull Builder initialInterval(@NotNull Duration initialInterval) {
+            this.initialInterval = initialInterval;
+            return this;
+        }
+
+        @Contract(value = "_ -> this", mutates = "this")
+        public @NotNull Builder targetItemsPerPoll(double targetItemsPerPoll) {
+            this.targetItemsPerPoll = targetItemsPerPoll;
+            return this;
+        }
+
+        @Contract(value = "_ -> this", mutates = "this")
+        public @NotNull Builder dedupeCapacity(@Range(from=1L, to=Integer.MAX_VALUE) int dedupeCapacity) {
+            this.dedupeCapacity = dedupeCapacity;
+            return this;
+        }
+
+        @Contract(value = "_ -> this", mutates = "this")
+        public @NotNull Builder deliverExisting(boolean deliverExisting) {
+            this.deliverExisting = deliverExisting;
+            return this;
+        }
+
+        @Contract(value = " -> new", pure = true)
+        public @NotNull WatchOptions build() {
+            return new WatchOptions(minInterval, maxInterval, initialInterval, targetItemsPerPoll, dedupeCapacity, deliverExisting);
+        }
+    }
+
+    @Contract(value = " -> new", pure = true)
+    public static @NotNull Builder builder() {
+        return new Builder();
+    }
+
+}
@@ -1,63 +1,269 @@
 package codes.wasabi.r4j.struct;
 
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.Set;
 
 public class Comment extends CommentNode {
 
+    /**
+     * The fields of a comment, decoded once from the data object of a t1 thing
+     */
+    public record Data(String name, String id, String parentID, int depth, String author, String authorFullname, String body, String bodyHTML, long created, float controversiality, int ups, int downs, int score, String permalink, String subreddit, String subredditID, @NotNull Listing<CommentNode> replies) {
+
+        /**
+         * Decodes every field including the replies, which are decoded without retaining raw JSON
+         */
+        public static final TypeAdapter<Data> ADAPTER = new Adapter(true);
+
+        /**
+         * Decodes every field except the replies, for comments whose replies are wrapped from an existing tree
+         */
+        static final TypeAdapter<Data> WITHOUT_REPLIES = new Adapter(false);
+
+        private Data withReplies(@NotNull Listing<CommentNode> replies) {
+            return new Data(name, id, parentID, depth, author, authorFullname, body, bodyHTML, created, controversiality, ups, downs, score, permalink, subreddit, subredditID, replies);
+        }
+
+        private static final class Adapter extends TypeAdapter<Data> {
+            private final boolean readReplies;
+
+            Adapter(boolean readReplies) {
+                this.readReplies = readReplies;
+            }
+
+            @Override
+            public void write(JsonWriter out, Data value) throws IOException {
+                out.beginObject();
+                JsonFields.writeString(out, "name", value.name);
+                JsonFields.writeString(out, "id", value.id);
+                JsonFields.writeString(out, "parent_id", value.parentID);
+                out.name("depth").value(value.depth);
+                JsonFields.writeString(out, "author", value.author);
+                JsonFields.writeString(out, "author_fullname", value.authorFullname);
+                JsonFields.writeString(out, "body", value.body);
+                JsonFields.writeString(out, "body_html", value.bodyHTML);
+                out.name("created").value(value.created);
+                out.name("controversiality").value(value.controversiality);
+                out.name("ups").value(value.ups);
+                out.name("downs").value(value.downs);
+                out.name("score").value(value.score);
+                JsonFields.writeString(out, "permalink", value.permalink);
+                JsonFields.writeString(out, "subreddit", value.subreddit);
+                JsonFields.writeString(out, "subreddit_id", value.subredditID);
+                out.endObject();
+            }
+
+            @Override
+            public Data read(JsonReader in) throws IOException {
+                return Data.read(in, readReplies, null);
+            }
+        }
+
+        /**
+         * Decodes the fields of a comment, skipping the ones outside a projection. Replies are decoded with the same projection
+         * if "replies" is part of it.
+         * @param in The reader, positioned at the start of the data object
+         * @param readReplies If false, the replies are skipped
+         * @param fields The projected fields, or null to decode every field
+         * @return The decoded fields
+         * @throws IOException Could not read the data object
+         */
+        static @NotNull Data read(@NotNull JsonReader in, boolean readReplies, @Nullable Set<String> fields) throws IOException {
+            String name = null, id = null, parentID = null, author = null, authorFullname = null, body = null, bodyHTML = null, permalink = null, subreddit = null, subredditID = null;
+            int depth = 0, ups = 0, downs = 0, score = 0;
+            long created = 0L;
+            float controversiality = 0f;
+            Listing<CommentNode> replies = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                String key = in.nextName();
+                if (!JsonFields.projects(fields, key)) {
+                    in.skipValue();
+                    continue;
+                }
+                switch (key) {
+                    case "name" -> name = JsonFields.nextString(in);
+                    case "id" -> id = JsonFields.nextString(in);
+                    case "parent_id" -> parentID = JsonFields.nextString(in);
+                    case "depth" -> depth = JsonFields.nextInt(in);
+                    case "author" -> author = JsonFields.nextString(in);
+                    case "author_fullname" -> authorFullname = JsonFields.nextString(in);
+                    case "body" -> body = JsonFields.nextString(in);
+                    case "body_html" -> bodyHTML = JsonFields.nextString(in);
+                    case "created" -> created = JsonFields.nextLong(in);
+                    case "controversiality" -> controversiality = JsonFields.nextFloat(in);
+                    case "ups" -> ups = JsonFields.nextInt(in);
+                    case "downs" -> downs = JsonFields.nextInt(in);
+                    case "score" -> score = JsonFields.nextInt(in);
+                    case "permalink" -> permalink = JsonFields.nextString(in);
+                    case "subreddit" -> subreddit = JsonFields.nextString(in);
+                    case "subreddit_id" -> subredditID = JsonFields.nextString(in);
+                    case "replies" -> {
+                        // Reddit sends an empty string rather than an empty listing when there are no replies
+                        if (readReplies && in.peek() == JsonToken.BEGIN_OBJECT) {
+                            replies = Listing.read(CommentNode.class, in, false, fields);
+                        } else {
+                            in.skipValue();
+                        }
+                    }
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            if (replies == null) replies = Listing.empty();
+            return new Data(name, id, parentID, depth, author, authorFullname, body, bodyHTML, created, controversiality, ups, downs, score, permalink, subreddit, subredditID, replies);
+        }
+
+        /**
+         * Takes the fields that a newer copy was decoded with from it, and the rest from these fields. The depth and the replies are
+         * kept, since they belong to the view the comment was first fetched in, so that a newer view with another depth or sort
+         * does not reshape a tree that is already held.
+         * @param fresh The fields of the newer copy
+         * @param fields The projected fields of the newer copy, or null if it has every field
+         * @return The merged fields
+         */
+        @NotNull Data merge(@NotNull Data fresh, @Nullable Set<String> fields) {
+            return new Data(
+                    fresh.name,
+                    JsonFields.projects(fields, "id") ? fresh.id : id,
+                    JsonFields.projects(fields, "parent_id") ? fresh.parentID : parentID,
+                    depth,
+                    JsonFields.projects(fields, "author") ? fresh.author : author,
+                    JsonFields.projects(fields, "author_fullname") ? fresh.authorFullname : authorFullname,
+                    JsonFields.projects(fields, "body") ? fresh.body : body,
+                    JsonFields.projects(fields, "body_html") ? fresh.bodyHTML : bodyHTML,
+                    JsonFields.projects(fields, "created") ? fresh.created : created,
+                    JsonFields.projects(fields, "controversiality") ? fresh.controversiality : controversiality,
+                    JsonFields.projects(fields, "ups") ? fresh.ups : ups,
+                    JsonFields.projects(fields, "downs") ? fresh.downs : downs,
+                    JsonFields.projects(fields, "score") ? fresh.score : score,
+                    JsonFields.projects(fields, "permalink") ? fresh.permalink : permalink,
+                    JsonFields.projects(fields, "subreddit") ? fresh.subreddit : subreddit,
+                    JsonFields.projects(fields, "subreddit_id") ? fresh.subredditID : subredditID,
+                    replies
+            );
+        }
+
+    }
+
+    private volatile Data data;
+
     public Comment(JsonObject ob) {
-        super(ob);
+        this(ob, Data.WITHOUT_REPLIES.fromJsonTree(ob).withReplies(treeReplies(ob)));
+    }
+
+    /**
+     * Creates a comment from decoded fields, without retaining raw JSON
+     * @param data The decoded fields
+     */
+    public Comment(@NotNull Data data) {
+        this(null, data);
+    }
+
+    protected Comment(@Nullable JsonObject ob, @NotNull Data data) {
+        super(ob, data.depth, data.name, data.id, data.parentID);
+        this.data = data;
+    }
+
+    /**
+     * Wraps the replies in the raw JSON of a comment, each the first time it is accessed, so that wrapping one comment of a tree
+     * does not wrap the whole subtree below it
+     */
+    private static Listing<CommentNode> treeReplies(JsonObject ob) {
+        JsonElement replies = ob.get("replies");
+        if (replies == null || !replies.isJsonObject()) return Listing.empty();
+        return Listing.lazy(CommentNode.class, replies.getAsJsonObject());
+    }
+
+    /**
+     * Creates a copy of this comment with other replies, e.g. once the "more" nodes among them have been loaded. The raw JSON, if
+     * retained, is shared with this comment and still holds the original replies.
+     * @param replies The replies
+     * @return The copy
+     */
+    public @NotNull Comment withReplies(@NotNull Listing<CommentNode> replies) {
+        return new Comment(hasJSON() ? getJSON() : null, data.withReplies(replies));
+    }
+
+    /**
+     * Gets the decoded fields of this comment
+     * @return The decoded fields
+     */
+    public final @NotNull Data getData() {
+        return data;
+    }
+
+    /**
+     * Takes the fields of a newer copy of this comment, such as its score and body. The replies are not taken.
+     * @see Data#merge(Data, Set)
+     */
+    @Override
+    protected boolean refresh(@NotNull RedditEntity fresh, @Nullable Set<String> fields) {
+        if (!(fresh instanceof Comment comment)) return false;
+        data = data.merge(comment.data, fields);
+        refreshJSON(comment, fields, "replies");
+        return true;
     }
 
     public String getAuthor() {
-        return getJSON().get("author").getAsString();
+        return data.author;
     }
 
     public String getAuthorFullname() {
-        return getJSON().get("author_fullname").getAsString();
+        return data.authorFullname;
     }
 
     public String getBody() {
-        return getJSON().get("body").getAsString();
+        return data.body;
     }
 
     public String getBodyHTML() {
-        return getJSON().get("body_html").getAsString();
+        return data.bodyHTML;
     }
 
     public long getCreatedTime() {
-        return getJSON().get("created").getAsLong();
+        return data.created;
     }
 
     public float getControversiality() {
-        return getJSON().get("controversiality").getAsFloat();
+        return data.controversiality;
     }
 
     public int getDownvotes() {
-        return getJSON().get("downs").getAsInt();
+        return data.downs;
     }
 
     public int getUpvotes() {
-        return getJSON().get("ups").getAsInt();
+        return data.ups;
     }
 
     public String getPermalink() {
-        return getJSON().get("permalink").getAsString();
+        return data.permalink;
     }
 
     public Listing<CommentNode> getReplies() {
-        return new Listing<>(CommentNode.class, getJSON().get("replies").getAsJsonObject());
+        return data.replies;
     }
 
     public int getScore() {
-        return getJSON().get("score").getAsInt();
+        return data.score;
     }
 
     public String getSubreddit() {
-        return getJSON().get("subreddit").getAsString();
+        return data.subreddit;
     }
 
     public String getSubredditID() {
-        return getJSON().get("subreddit_id").getAsString();
+        return data.subredditID;
     }
 
 }
@@ -5,30 +5,77 @@ import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
 /**
  * Expresses a "node" in a comment tree, which can either be MoreComments (signifying a list of more comments that you may load), or a Comment
  */
 public abstract class CommentNode extends RedditEntity {
 
+    /**
+     * Iterates over every node of a comment tree depth first, so that each comment is followed by its replies before its next sibling.
+     * Replies are walked as they are reached, so the tree is not copied.
+     * @param roots The top level nodes
+     * @return The iterator
+     */
+    public static @NotNull Iterator<CommentNode> depthFirst(@NotNull Iterable<? extends CommentNode> roots) {
+        Deque<Iterator<? extends CommentNode>> stack = new ArrayDeque<>();
+        stack.push(roots.iterator());
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                while (!stack.isEmpty()) {
+                    if (stack.peek().hasNext()) return true;
+                    stack.pop();
+                }
+                return false;
+            }
+
+            @Override
+            public CommentNode next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                CommentNode node = stack.peek().next();
+                if (node instanceof Comment comment && !comment.getReplies().isEmpty()) stack.push(comment.getReplies().iterator());
+                return node;
+            }
+        };
+    }
+
+    private final int depth;
+    private final String fullname;
+    private final String id;
+    private final String parentFullname;
+
     public CommentNode(JsonObject ob) {
+        this(ob, JsonFields.getInt(ob, "depth"), JsonFields.getString(ob, "name"), JsonFields.getString(ob, "id"), JsonFields.getString(ob, "parent_id"));
+    }
+
+    protected CommentNode(@Nullable JsonObject ob, int depth, String fullname, String id, String parentFullname) {
         super(ob);
+        this.depth = depth;
+        this.fullname = fullname;
+        this.id = id;
+        this.parentFullname = parentFullname;
     }
 
     public final int getDepth() {
-        return getJSON().get("depth").getAsInt();
+        return depth;
     }
 
     @Override
     public String getFullname() {
-        return getJSON().get("name").getAsString();
+        return fullname;
     }
 
     public final String getID() {
-        return getJSON().get("id").getAsString();
+        return id;
     }
 
     public final String getParentFullname() {
-        return getJSON().get("parent_id").getAsString();
+        return parentFullname;
     }
 
     @Contract(" -> this")
@@ -0,0 +1,171 @@
+package codes.wasabi.r4j.struct;
+
+import codes.wasabi.r4j.util.LongObjectMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Resolves every copy of a post or comment to one canonical instance, so that the same post found in several listings is the same
+ * object. When a newer copy is decoded, the canonical instance is {@link RedditEntity#refresh refreshed} in place with its fields,
+ * so every holder of it sees the newest score, comment count and so on, and the newer copy can be collected.
+ * <p>
+ * Instances are keyed by their fullname packed with {@link RedditId}, and held weakly: once nothing else refers to an instance, it
+ * is dropped from the map. "More" nodes and things whose fullname cannot be packed are passed through as they are.
+ * <p>
+ * The replies of a comment are not refreshed, since they belong to the view it was fetched in: a copy with replies of its own, e.g.
+ * from a thread fetched with another depth or sort, resolves to a copy of the canonical instance that holds those replies, so a
+ * tree that is already held is never reshaped.
+ * <p>
+ * A canonical instance keeps the raw JSON of its newest copy, if any. Listings whose children were resolved are copied without
+ * their own raw JSON, which would otherwise keep every older copy reachable.
+ * <p>
+ * The map is thread safe. When copies of the same thing are decoded at once, the one decoded last wins.
+ * @see codes.wasabi.r4j.param.ClientOptions#canonicalEntities()
+ */
+public final class EntityIdentityMap {
+
+    /**
+     * A snapshot of the map's counters
+     * @param entries The number of canonical instances that are still reachable
+     * @param hits The number of copies resolved to an existing instance
+     * @param misses The number of copies that became the canonical instance
+     * @param refreshes The number of times an existing instance was refreshed
+     */
+    public record Stats(int entries, long hits, long misses, long refreshes) { }
+
+    private static final class Entry extends WeakReference<RedditEntity> {
+        private final long key;
+
+        Entry(long key, RedditEntity entity, ReferenceQueue<RedditEntity> queue) {
+            super(entity, queue);
+            this.key = key;
+        }
+    }
+
+    private final LongObjectMap<Entry> entries = new LongObjectMap<>();
+    private final ReferenceQueue<RedditEntity> queue = new ReferenceQueue<>();
+    private long hits = 0L;
+    private long misses = 0L;
+    private long refreshes = 0L;
+
+    /**
+     * Resolves a copy of a thing to its canonical instance. The replies of a comment are resolved first.
+     * @param entity The copy
+     * @param fields The fields the copy was decoded with, or null if it was decoded with every field
+     * @return The canonical instance, refreshed with the fields of the copy, or the copy itself if it is the first of its thing. A
+     *         comment with other replies than the canonical instance resolves to a copy of it holding the replies of the given copy.
+     */
+    public synchronized <T extends RedditEntity> @NotNull T canonicalize(@NotNull T entity, @Nullable Set<String> fields) {
+        expunge();
+        return resolve(entity, fields);
+    }
+
+    /**
+     * Resolves every child of a listing to its canonical instance
+     * @param listing The listing
+     * @param fields The fields the listing was decoded with, or null if it was decoded with every field
+     * @return A listing with the same cursors holding the canonical instances, or the listing itself if every child already was one
+     */
+    public synchronized <T extends RedditEntity> @NotNull Listing<T> canonicalize(@NotNull Listing<T> listing, @Nullable Set<String> fields) {
+        expunge();
+        return resolveAll(listing, fields);
+    }
+
+    private <T extends RedditEntity> Listing<T> resolveAll(Listing<T> listing, Set<String> fields) {
+        List<T> resolved = null;
+        for (int i=0; i < listing.size(); i++) {
+            T child = listing.get(i);
+            T canonical = resolve(child, fields);
+            if (canonical != child && resolved == null) {
+                resolved = new ArrayList<>(listing.size());
+                resolved.addAll(listing.subList(0, i));
+            }
+            if (resolved != null) resolved.add(canonical);
+        }
+        return (resolved == null ? listing : listing.withContent(resolved));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends RedditEntity> T resolve(T entity, Set<String> fields) {
+        if (entity instanceof MoreComments) return entity;
+        if (entity instanceof Comment comment && !comment.getReplies().isEmpty()) {
+            Listing<CommentNode> replies = resolveAll(comment.getReplies(), fields);
+            if (replies != comment.getReplies()) entity = (T) comment.withReplies(replies);
+        }
+        long key = RedditId.tryParse(entity.getFullname());
+        if (key == RedditId.NONE) return entity;
+        Entry entry = entries.get(key);
+        RedditEntity existing = (entry == null ? null : entry.get());
+        if (existing == entity) return entity;
+        if (existing != null && existing.getClass() == entity.getClass() && existing.refresh(entity, fields)) {
+            hits++;
+            refreshes++;
+            if (entity instanceof Comment comment && existing instanceof Comment held && !comment.getReplies().isEmpty() && comment.getReplies() != held.getReplies()) {
+                // The replies belong to the view the copy was fetched in, and the canonical instance keeps its own
+                return (T) held.withReplies(comment.getReplies());
+            }
+            return (T) existing;
+        }
+        misses++;
+        entries.put(key, new Entry(key, entity, queue));
+        return entity;
+    }
+
+    /**
+     * Removes the entries whose instances have been collected
+     */
+    private void expunge() {
+        Reference<? extends RedditEntity> reference;
+        while ((reference = queue.poll()) != null) {
+            Entry entry = (Entry) reference;
+            // The key may have been taken by a newer instance since
+            if (entries.get(entry.key) == entry) entries.remove(entry.key);
+        }
+    }
+
+    /**
+     * Gets the canonical instance of a thing
+     * @param fullname The fullname of the thing
+     * @return The instance, or null if none is reachable
+     */
+    public synchronized @Nullable RedditEntity get(@NotNull String fullname) {
+        long key = RedditId.tryParse(fullname);
+        if (key == RedditId.NONE) return null;
+        Entry entry = entries.get(key);
+        return (entry == null ? null : entry.get());
+    }
+
+    /**
+     * Gets the number of canonical instances that are still reachable
+     * @return The number of entries
+     */
+    public synchronized int size() {
+        expunge();
+        return entries.size();
+    }
+
+    /**
+     * Gets a snapshot of the map's counters
+     * @return The counters
+     */
+    public synchronized @NotNull Stats getStats() {
+        expunge();
+        return new Stats(entries.size(), hits, misses, refreshes);
+    }
+
+    /**
+     * Forgets every canonical instance. Instances that are still held elsewhere are no longer refreshed.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        while (queue.poll() != null) { }
+    }
+
+}
@@ -0,0 +1,223 @@
+package codes.wasabi.r4j.struct;
+
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps the kind of a Reddit thing (e.g. t1, t3, more) to the class that wraps it, so that listings build the right type for each
+ * child without reflection. Comments (t1), posts (t3) and "more" nodes are registered by default; other kinds, or subclasses
+ * that should replace the default ones, can be registered with {@link #register(String, Class, Factory)}.
+ */
+public final class EntityRegistry {
+
+    /**
+     * Creates an entity from the data object of a thing
+     */
+    @FunctionalInterface
+    public interface Factory<T extends JsonObjectWrapper> {
+        @NotNull T create(@NotNull JsonObject data);
+    }
+
+    /**
+     * Creates an entity straight from a stream of JSON, without building a tree
+     */
+    @FunctionalInterface
+    public interface StreamFactory<T extends RedditEntity> {
+        /**
+         * Reads an entity
+         * @param reader The reader, positioned at the start of the data object of the thing
+         * @param fields The fields to decode, or null to decode every field. Other fields should be skipped.
+         * @return The entity, which does not retain raw JSON
+         * @throws IOException Could not read the data object
+         */
+        @NotNull T read(@NotNull JsonReader reader, @Nullable Set<String> fields) throws IOException;
+    }
+
+    /**
+     * A registered kind
+     * @param kind The kind, as it appears in the "kind" field of a thing
+     * @param type The class that things of this kind are wrapped in
+     * @param factory Creates an entity from the data object of a thing
+     * @param streamFactory Creates an entity from a stream, or null if entities of this kind can only be created from a tree
+     */
+    public record Entry<T extends RedditEntity>(@NotNull String kind, @NotNull Class<T> type, @NotNull Factory<? extends T> factory, @Nullable StreamFactory<? extends T> streamFactory) { }
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodType FACTORY_TYPE = MethodType.methodType(JsonObjectWrapper.class, JsonObject.class);
+    private static final Map<String, Entry<?>> KINDS = new ConcurrentHashMap<>();
+    private static final ClassValue<Factory<?>> CONSTRUCTORS = new ClassValue<>() {
+        @Override
+        protected Factory<?> computeValue(@NotNull Class<?> type) {
+            return constructorFactory(type.asSubclass(JsonObjectWrapper.class));
+        }
+    };
+
+    static {
+        register("t1", Comment.class, Comment::new, (JsonReader reader, Set<String> fields) -> new Comment(Comment.Data.read(reader, true, fields)));
+        register("t3", Post.class, Post::new, (JsonReader reader, Set<String> fields) -> new Post(Post.Data.read(reader, fields)));
+        register("more", MoreComments.class, MoreComments::new, (JsonReader reader, Set<String> fields) -> new MoreComments(MoreComments.Data.read(reader, fields)));
+    }
+
+    private EntityRegistry() { }
+
+    /**
+     * Registers the class that things of a kind are wrapped in, replacing any class registered for that kind before
+     * @param kind The kind, as it appears in the "kind" field of a thing
+     * @param type The class
+     * @param factory Creates an entity from the data object of a thing
+     * @param streamFactory Creates an entity from a stream, or null to read a tree and pass it to the factory
+     */
+    public static <T extends RedditEntity> void register(@NotNull String kind, @NotNull Class<T> type, @NotNull Factory<? extends T> factory, @Nullable StreamFactory<? extends T> streamFactory) {
+        register(new Entry<>(kind, type, factory, streamFactory));
+    }
+
+    /**
+     * Registers a kind, replacing any class registered for that kind before. This can be used to restore an entry returned by
+     * {@link #get(String)}.
+     * @param entry The entry
+     */
+    public static void register(@NotNull Entry<?> entry) {
+        KINDS.put(entry.kind, entry);
+    }
+
+    /**
+     * Registers the class that things of a kind are wrapped in, replacing any class registered for that kind before
+     * @param kind The kind, as it appears in the "kind" field of a thing
+     * @param type The class
+     * @param factory Creates an entity from the data object of a thing
+     */
+    public static <T extends RedditEntity> void register(@NotNull String kind, @NotNull Class<T> type, @NotNull Factory<? extends T> factory) {
+        register(kind, type, factory, null);
+    }
+
+    /**
+     * Registers the class that things of a kind are wrapped in, which is created through its public constructor that takes the
+     * data object of a thing as a {@link JsonObject}
+     * @param kind The kind, as it appears in the "kind" field of a thing
+     * @param type The class
+     * @throws IllegalStateException The class has no such constructor
+     */
+    public static <T extends RedditEntity> void register(@NotNull String kind, @NotNull Class<T> type) throws IllegalStateException {
+        register(kind, type, constructor(type));
+    }
+
+    /**
+     * Removes the class registered for a kind
+     * @param kind The kind
+     * @return True if a class was registered for the kind
+     */
+    public static boolean unregister(@NotNull String kind) {
+        return KINDS.remove(kind) != null;
+    }
+
+    /**
+     * Gets the class registered for a kind
+     * @param kind The kind
+     * @return The entry, or null if nothing is registered for the kind
+     */
+    public static @Nullable Entry<?> get(@NotNull String kind) {
+        return KINDS.get(kind);
+    }
+
+    /**
+     * Gets a factory that calls the public constructor of a class that takes the data object of a thing as a {@link JsonObject}.
+     * The factory is generated once per class and does not use reflection when called.
+     * @param type The class
+     * @return The factory
+     * @throws IllegalStateException The class has no such constructor
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends JsonObjectWrapper> @NotNull Factory<T> constructor(@NotNull Class<T> type) throws IllegalStateException {
+        return (Factory<T>) CONSTRUCTORS.get(type);
+    }
+
+    /**
+     * Creates an entity from a thing. The class registered for the kind is used if it fits the expected type; otherwise the
+     * constructor of the expected type is called.
+     * @param type The expected type
+     * @param kind The kind of the thing
+     * @param data The data object of the thing
+     * @return The entity
+     * @throws IllegalStateException The kind is not registered to a subtype of the expected type, and the expected type has no
+     *                               public constructor that takes a {@link JsonObject}
+     */
+    public static <T extends RedditEntity> @NotNull T create(@NotNull Class<T> type, @NotNull String kind, @NotNull JsonObject data) throws IllegalStateException {
+        Entry<?> entry = KINDS.get(kind);
+        if (entry != null && type.isAssignableFrom(entry.type)) return type.cast(entry.factory.create(data));
+        return constructor(type).create(data);
+    }
+
+    /**
+     * Checks if a thing of a kind can be created as the expected type, through the class registered for the kind or the constructor
+     * of the expected type
+     */
+    static boolean creates(Class<? extends RedditEntity> type, @Nullable String kind) {
+        if (kind == null) return false;
+        Entry<?> entry = KINDS.get(kind);
+        if (entry != null && type.isAssignableFrom(entry.type)) return true;
+        try {
+            constructor(type);
+            return true;
+        } catch (IllegalStateException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Reads an entity from a stream if the class registered for the kind fits the expected type and can be read from a stream
+     * @return The entity, or null if it should be read as a tree instead, in which case nothing has been consumed
+     */
+    static <T extends RedditEntity> @Nullable T read(Class<T> type, String kind, JsonReader reader, @Nullable Set<String> fields) throws IOException {
+        Entry<?> entry = KINDS.get(kind);
+        if (entry == null || entry.streamFactory == null || !type.isAssignableFrom(entry.type)) return null;
+        return type.cast(entry.streamFactory.read(reader, fields));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends JsonObjectWrapper> Factory<T> constructorFactory(Class<T> type) {
+        if (Modifier.isAbstract(type.getModifiers())) throw new IllegalStateException(type.getName() + " is abstract, so it cannot be created for kinds that are not registered to one of its subclasses");
+        MethodHandle handle;
+        try {
+            handle = LOOKUP.findConstructor(type, MethodType.methodType(void.class, JsonObject.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalStateException(type.getName() + " has no public constructor that takes a JsonObject", e);
+        }
+        try {
+            CallSite site = LambdaMetafactory.metafactory(
+                    LOOKUP,
+                    "create",
+                    MethodType.methodType(Factory.class),
+                    FACTORY_TYPE,
+                    handle,
+                    MethodType.methodType(type, JsonObject.class)
+            );
+            return (Factory<T>) site.getTarget().invoke();
+        } catch (Throwable t) {
+            // The class may not be visible from this class loader, so call the constructor through its handle instead
+            MethodHandle generic = handle.asType(FACTORY_TYPE);
+            return (JsonObject data) -> {
+                try {
+                    return (T) (JsonObjectWrapper) generic.invokeExact(data);
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new IllegalStateException(e);
+                }
+            };
+        }
+    }
+
+}
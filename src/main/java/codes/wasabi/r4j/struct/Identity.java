@@ -1,23 +1,91 @@
 package codes.wasabi.r4j.struct;
 
 import com.google.gson.JsonObject;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
 
 public class Identity extends RedditEntity {
 
+    /**
+     * The fields of an identity, decoded once from the response of /api/v1/me
+     */
+    public record Data(String name, double created, String id, boolean over18) {
+
+        public static final TypeAdapter<Data> ADAPTER = new TypeAdapter<>() {
+            @Override
+            public void write(JsonWriter out, Data value) throws IOException {
+                out.beginObject();
+                JsonFields.writeString(out, "name", value.name);
+                out.name("created").value(value.created);
+                JsonFields.writeString(out, "id", value.id);
+                out.name("over_18").value(value.over18);
+                out.endObject();
+            }
+
+            @Override
+            public Data read(JsonReader in) throws IOException {
+                String name = null, id = null;
+                double created = 0d;
+                boolean over18 = false;
+                in.beginObject();
+                while (in.hasNext()) {
+                    switch (in.nextName()) {
+                        case "name" -> name = JsonFields.nextString(in);
+                        case "created" -> created = JsonFields.nextDouble(in);
+                        case "id" -> id = JsonFields.nextString(in);
+                        case "over_18" -> over18 = JsonFields.nextBoolean(in);
+                        default -> in.skipValue();
+                    }
+                }
+                in.endObject();
+                return new Data(name, created, id, over18);
+            }
+        };
+
+    }
+
+    private final Data data;
+
     public Identity(JsonObject json) {
+        this(json, Data.ADAPTER.fromJsonTree(json));
+    }
+
+    /**
+     * Creates an identity from decoded fields, without retaining raw JSON
+     * @param data The decoded fields
+     */
+    public Identity(@NotNull Data data) {
+        this(null, data);
+    }
+
+    protected Identity(@Nullable JsonObject json, @NotNull Data data) {
         super(json);
+        this.data = data;
+    }
+
+    /**
+     * Gets the decoded fields of this identity
+     * @return The decoded fields
+     */
+    public final @NotNull Data getData() {
+        return data;
     }
 
     public final String getUsername() {
-        return getJSON().get("name").toString();
+        return data.name;
     }
 
     public final double getCreatedTime() {
-        return getJSON().get("created").getAsDouble();
+        return data.created;
     }
 
     public final String getID() {
-        return getJSON().get("id").getAsString();
+        return data.id;
     }
 
     @Override
@@ -26,7 +94,7 @@ public class Identity extends RedditEntity {
     }
 
     public final boolean isOver18() {
-        return getJSON().get("over_18").getAsBoolean();
+        return data.over18;
     }
 
 }
@@ -0,0 +1,108 @@
+package codes.wasabi.r4j.struct;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Lenient readers for the primitive fields of Reddit things. Reddit sends null or omits fields that do not apply (e.g. the
+ * author of a deleted post), and sends some integral values such as timestamps as floating point numbers.
+ */
+final class JsonFields {
+
+    private JsonFields() { }
+
+    /**
+     * The fields that every projection keeps: the fullname, which identifies the thing, and the keys that comment trees are
+     * assembled and expanded from
+     */
+    static final Set<String> STRUCTURAL = Set.of("name", "id", "parent_id", "depth", "children", "count");
+
+    /**
+     * Checks if a field is part of a projection. The {@link #STRUCTURAL structural} fields are always decoded.
+     * @param fields The projected fields, or null to decode every field
+     * @param name The name of the field
+     * @return True if the field should be decoded, false if it should be skipped
+     */
+    static boolean projects(@Nullable Set<String> fields, String name) {
+        return fields == null || fields.contains(name) || STRUCTURAL.contains(name);
+    }
+
+    static @Nullable String nextString(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        if (token == JsonToken.BOOLEAN) return String.valueOf(in.nextBoolean());
+        if (token != JsonToken.STRING && token != JsonToken.NUMBER) {
+            in.skipValue();
+            return null;
+        }
+        return in.nextString();
+    }
+
+    static double nextDouble(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NUMBER) return in.nextDouble();
+        if (token == JsonToken.STRING) {
+            try {
+                return Double.parseDouble(in.nextString());
+            } catch (NumberFormatException e) {
+                return 0d;
+            }
+        }
+        in.skipValue();
+        return 0d;
+    }
+
+    static long nextLong(JsonReader in) throws IOException {
+        return (long) nextDouble(in);
+    }
+
+    static int nextInt(JsonReader in) throws IOException {
+        return (int) nextDouble(in);
+    }
+
+    static float nextFloat(JsonReader in) throws IOException {
+        return (float) nextDouble(in);
+    }
+
+    static boolean nextBoolean(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.BOOLEAN) return in.nextBoolean();
+        in.skipValue();
+        return false;
+    }
+
+    static void writeString(JsonWriter out, String name, @Nullable String value) throws IOException {
+        out.name(name);
+        if (value == null) {
+            out.nullValue();
+        } else {
+            out.value(value);
+        }
+    }
+
+    static @Nullable String getString(JsonObject ob, String name) {
+        JsonElement el = ob.get(name);
+        if (el == null || !el.isJsonPrimitive()) return null;
+        return el.getAsString();
+    }
+
+    static int getInt(JsonObject ob, String name) {
+        JsonElement el = ob.get(name);
+        if (el == null || !el.isJsonPrimitive()) return 0;
+        try {
+            return (int) el.getAsDouble();
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+}
@@ -1,28 +1,75 @@
 package codes.wasabi.r4j.struct;
 
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.lang.reflect.Constructor;
+import java.util.Map;
+import java.util.Set;
 
 public abstract class JsonObjectWrapper {
 
+    /**
+     * Creates an instance of a class through its public constructor that takes a {@link JsonObject}
+     * @param clazz The class
+     * @param ob The JSON to pass to the constructor
+     * @return The instance
+     * @throws IllegalStateException The class has no such constructor
+     * @see EntityRegistry#constructor(Class)
+     */
     public static <T extends JsonObjectWrapper> @NotNull T tryInstantiate(Class<T> clazz, JsonObject ob) throws IllegalStateException {
-         try {
-             Constructor<T> con = clazz.getConstructor(JsonObject.class);
-             return con.newInstance(ob);
-         } catch (Exception e) {
-             throw new IllegalStateException(e);
-         }
+        return EntityRegistry.constructor(clazz).create(ob);
     }
 
-    private final JsonObject ob;
-    public JsonObjectWrapper(JsonObject ob) {
+    private volatile JsonObject ob;
+    public JsonObjectWrapper(@Nullable JsonObject ob) {
         this.ob = ob;
     }
 
-    public final JsonObject getJSON() {
-        return ob;
+    /**
+     * Takes the raw JSON of a newer copy of this object, when it is refreshed from a newer response. If the copy was decoded with a
+     * projection, or some keys are kept, its keys are merged into a copy of the retained JSON, which may be shared, rather than
+     * replacing it.
+     * @param fresh The newer copy
+     * @param fields The fields the copy was decoded with, or null if every field was decoded
+     * @param kept The keys whose values are kept from the retained JSON, such as the replies of a comment
+     */
+    protected final void refreshJSON(@NotNull JsonObjectWrapper fresh, @Nullable Set<String> fields, @NotNull String... kept) {
+        JsonObject update = fresh.ob;
+        if (update == null) return;
+        if (fields == null && kept.length == 0) {
+            ob = update;
+            return;
+        }
+        JsonObject current = ob;
+        if (current == null) return;
+        Set<String> keep = Set.of(kept);
+        JsonObject merged = new JsonObject();
+        for (Map.Entry<String, JsonElement> entry : current.entrySet()) merged.add(entry.getKey(), entry.getValue());
+        for (Map.Entry<String, JsonElement> entry : update.entrySet()) {
+            if (JsonFields.projects(fields, entry.getKey()) && !keep.contains(entry.getKey())) merged.add(entry.getKey(), entry.getValue());
+        }
+        ob = merged;
+    }
+
+    /**
+     * Gets the raw JSON this object was decoded from
+     * @return The raw JSON
+     * @throws IllegalStateException The raw JSON was not retained (see {@link codes.wasabi.r4j.param.ClientOptions#retainJSON()})
+     */
+    public final JsonObject getJSON() throws IllegalStateException {
+        JsonObject json = ob;
+        if (json == null) throw new IllegalStateException("The raw JSON of this " + getClass().getSimpleName() + " was not retained");
+        return json;
+    }
+
+    /**
+     * Returns true if the raw JSON this object was decoded from was retained
+     * @return True if {@link #getJSON()} may be called
+     */
+    public final boolean hasJSON() {
+        return ob != null;
     }
 
 }
@@ -3,58 +3,441 @@ package codes.wasabi.r4j.struct;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.UnmodifiableView;
 
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 public class Listing<T extends RedditEntity> extends JsonObjectWrapper implements List<T> {
 
+    private static final Listing<?> EMPTY = new Listing<>(null, null, null, 0, Collections.emptyList());
+
+    /**
+     * Gets an empty listing, which has no raw JSON
+     * @return The empty listing
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends RedditEntity> @NotNull Listing<T> empty() {
+        return (Listing<T>) EMPTY;
+    }
+
+    /**
+     * Creates a listing of the given children, which has no cursors or raw JSON
+     * @param children The children
+     * @return The listing
+     */
+    public static <T extends RedditEntity> @NotNull Listing<T> of(@NotNull List<? extends T> children) {
+        if (children.isEmpty()) return empty();
+        return new Listing<>(null, null, null, children.size(), new ArrayList<>(children));
+    }
+
+    /**
+     * Reads a JSON array of things, such as the "things" of an /api/morechildren response, into a listing without cursors
+     * @param clazz The type of the things
+     * @param reader The reader, positioned at the start of the array
+     * @param retainJSON If false, the things are decoded without retaining raw JSON
+     * @param fields The projected fields, or null to decode every field
+     * @return The listing
+     * @throws IOException Could not read the array
+     */
+    public static <T extends RedditEntity> @NotNull Listing<T> readThings(@NotNull Class<T> clazz, @NotNull JsonReader reader, boolean retainJSON, @Nullable Set<String> fields) throws IOException {
+        List<T> list = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (retainJSON) {
+                list.add(wrap(clazz, fields == null ? JsonParser.parseReader(reader).getAsJsonObject() : readThingTree(reader, fields)));
+            } else {
+                list.add(readChild(clazz, reader, fields, false));
+            }
+        }
+        reader.endArray();
+        return new Listing<>(null, null, null, list.size(), list);
+    }
+
+    /**
+     * The pagination cursors of a listing
+     * @param before The fullname of the first child, to get the page before this one
+     * @param after The fullname of the last child, to get the page after this one
+     * @param distance The number of children
+     */
+    public record Cursors(@Nullable String before, @Nullable String after, int distance) { }
+
+    /**
+     * Gets the cursors of a listing without wrapping any of its children
+     * @param ob The listing object
+     * @return The cursors
+     */
+    public static @NotNull Cursors cursors(@NotNull JsonObject ob) {
+        JsonObject data = ob.get("data").getAsJsonObject();
+        return new Cursors(JsonFields.getString(data, "before"), JsonFields.getString(data, "after"), JsonFields.getInt(data, "dist"));
+    }
+
+    /**
+     * Reads the cursors of a listing from a stream of JSON, skipping its children without parsing them
+     * @param reader The reader, positioned at the start of the listing object
+     * @return The cursors
+     * @throws IOException Could not read the listing
+     */
+    public static @NotNull Cursors readCursors(@NotNull JsonReader reader) throws IOException {
+        String before = null;
+        String after = null;
+        int distance = 0;
+        boolean found = false;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (!reader.nextName().equals("data") || reader.peek() != JsonToken.BEGIN_OBJECT) {
+                reader.skipValue();
+                continue;
+            }
+            found = true;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "before" -> before = JsonFields.nextString(reader);
+                    case "after" -> after = JsonFields.nextString(reader);
+                    case "dist" -> distance = JsonFields.nextInt(reader);
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+        reader.endObject();
+        if (!found) throw new JsonParseException("Listing has no data");
+        return new Cursors(before, after, distance);
+    }
+
+    /**
+     * Creates a listing that wraps each child the first time it is accessed, rather than all of them up front. Each wrapper is
+     * only created once. The cursors can be read without wrapping any children.
+     * @param clazz The type of the children
+     * @param ob The listing object
+     * @return The listing
+     */
+    public static <T extends RedditEntity> @NotNull Listing<T> lazy(@NotNull Class<T> clazz, @NotNull JsonObject ob) {
+        Cursors cursors = cursors(ob);
+        JsonArray children = ob.get("data").getAsJsonObject().get("children").getAsJsonArray();
+        return new Listing<>(ob, cursors.before, cursors.after, cursors.distance, new LazyChildren<>(clazz, children));
+    }
+
     private final String before;
     private final String after;
     private final int distance;
     private final List<T> conts;
     private final int length;
     public Listing(Class<T> clazz, JsonObject ob) {
+        this(
+                ob,
+                JsonFields.getString(ob.get("data").getAsJsonObject(), "before"),
+                JsonFields.getString(ob.get("data").getAsJsonObject(), "after"),
+                JsonFields.getInt(ob.get("data").getAsJsonObject(), "dist"),
+                wrapAll(clazz, ob.get("data").getAsJsonObject().get("children").getAsJsonArray())
+        );
+    }
+
+    private Listing(@Nullable JsonObject ob, @Nullable String before, @Nullable String after, int distance, List<T> list) {
         super(ob);
-        JsonObject data = ob.get("data").getAsJsonObject();
-        String s;
-        try {
-            s = ob.get("after").getAsString();
-        } catch (Exception e) {
-            s = null;
+        this.before = before;
+        this.after = after;
+        this.distance = distance;
+        conts = Collections.unmodifiableList(list);
+        length = conts.size();
+    }
+
+    /**
+     * Reads a listing from a stream of JSON without first parsing the whole response into a tree. The raw JSON is retained, and
+     * children are wrapped the first time they are accessed (see {@link #lazy(Class, JsonObject)}).
+     * @param clazz The type of the children
+     * @param reader The reader, positioned at the start of the listing object
+     * @return The listing
+     * @throws IOException Could not read the listing
+     * @see #read(Class, JsonReader, boolean)
+     */
+    public static <T extends RedditEntity> @NotNull Listing<T> read(@NotNull Class<T> clazz, @NotNull JsonReader reader) throws IOException {
+        return read(clazz, reader, true);
+    }
+
+    /**
+     * Reads a listing from a stream of JSON, wrapping each child as soon as it has been read rather than after the whole
+     * listing has been parsed into a tree
+     * @param clazz The type of the children
+     * @param reader The reader, positioned at the start of the listing object
+     * @param retainJSON If false, posts, comments and more nodes are decoded straight into their fields without building any
+     *                   JSON tree, and neither they nor the listing retain raw JSON. Other types always retain raw JSON. If true,
+     *                   children are wrapped the first time they are accessed.
+     * @return The listing
+     * @throws IOException Could not read the listing
+     * @see #read(Class, JsonReader, boolean, Set)
+     */
+    public static <T extends RedditEntity> @NotNull Listing<T> read(@NotNull Class<T> clazz, @NotNull JsonReader reader, boolean retainJSON) throws IOException {
+        return read(clazz, reader, retainJSON, null);
+    }
+
+    /**
+     * Reads a listing from a stream of JSON, decoding only some fields of each child. Fields outside the projection are skipped
+     * without being parsed, and read as null or 0 from the children. The fullname ("name"), and the fields that comment trees
+     * are built from ("id", "parent_id", "depth", "children" and "count"), are always decoded.
+     * @param clazz The type of the children
+     * @param reader The reader, positioned at the start of the listing object
+     * @param retainJSON If true, the raw JSON of each child is retained, but holds only the projected fields. Children are then
+     *                   wrapped the first time they are accessed.
+     * @param fields The names of the fields to decode as they appear in the JSON (e.g. "score"), or null to decode every field.
+     *               Replies of comments are only decoded if "replies" is included.
+     * @return The listing
+     * @throws IOException Could not read the listing
+     */
+    public static <T extends RedditEntity> @NotNull Listing<T> read(@NotNull Class<T> clazz, @NotNull JsonReader reader, boolean retainJSON, @Nullable Set<String> fields) throws IOException {
+        return read(clazz, reader, retainJSON, fields, false);
+    }
+
+    /**
+     * Reads a listing from a stream of JSON, optionally leaving out the children that cannot be wrapped, e.g. things of a kind that
+     * nothing is registered for in a listing of mixed kinds such as an /api/info response
+     * @param clazz The type of the children
+     * @param reader The reader, positioned at the start of the listing object
+     * @param retainJSON If true, the raw JSON of each child is retained, and children are wrapped the first time they are accessed
+     * @param fields The names of the fields to decode, or null to decode every field
+     * @param skipUnknown If true, children whose kind is not registered to a subtype of the type, and that the type itself cannot be
+     *                    created for, are left out rather than failing the read or the access
+     * @return The listing
+     * @throws IOException Could not read the listing
+     * @see #read(Class, JsonReader, boolean, Set)
+     */
+    public static <T extends RedditEntity> @NotNull Listing<T> read(@NotNull Class<T> clazz, @NotNull JsonReader reader, boolean retainJSON, @Nullable Set<String> fields, boolean skipUnknown) throws IOException {
+        JsonObject ob = (retainJSON ? new JsonObject() : null);
+        Listing<T> listing = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (name.equals("data") && reader.peek() == JsonToken.BEGIN_OBJECT) {
+                JsonObject data = (retainJSON ? new JsonObject() : null);
+                listing = readData(clazz, reader, ob, data, fields, skipUnknown);
+                if (ob != null) ob.add("data", data);
+            } else if (ob != null) {
+                ob.add(name, JsonParser.parseReader(reader));
+            } else {
+                reader.skipValue();
+            }
         }
-        after = s;
-        try {
-            s = ob.get("before").getAsString();
-        } catch (Exception e) {
-            s = null;
+        reader.endObject();
+        if (listing == null) throw new JsonParseException("Listing has no data");
+        return listing;
+    }
+
+    private static <T extends RedditEntity> Listing<T> readData(Class<T> clazz, JsonReader reader, @Nullable JsonObject ob, @Nullable JsonObject data, @Nullable Set<String> fields, boolean skipUnknown) throws IOException {
+        String before = null;
+        String after = null;
+        int distance = 0;
+        List<T> list = (data != null ? null : new ArrayList<>());
+        JsonArray children = (data != null ? new JsonArray() : null);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            switch (name) {
+                case "children" -> {
+                    if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+                        reader.skipValue();
+                        continue;
+                    }
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        if (children != null) {
+                            JsonObject child = (fields == null ? JsonParser.parseReader(reader).getAsJsonObject() : readThingTree(reader, fields));
+                            if (!skipUnknown || EntityRegistry.creates(clazz, JsonFields.getString(child, "kind"))) children.add(child);
+                        } else {
+                            T child = readChild(clazz, reader, fields, skipUnknown);
+                            if (child != null) list.add(child);
+                        }
+                    }
+                    reader.endArray();
+                }
+                case "before", "after", "dist" -> {
+                    JsonElement value = JsonParser.parseReader(reader);
+                    if (data != null) data.add(name, value);
+                    if (!value.isJsonPrimitive()) continue;
+                    switch (name) {
+                        case "before" -> before = value.getAsString();
+                        case "after" -> after = value.getAsString();
+                        default -> distance = (int) value.getAsDouble();
+                    }
+                }
+                default -> {
+                    if (data != null) {
+                        data.add(name, JsonParser.parseReader(reader));
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+            }
         }
-        before = s;
-        int dist;
-        try {
-            dist = data.get("dist").getAsInt();
-        } catch (Exception e) {
-            dist = 0;
+        reader.endObject();
+        if (data != null) {
+            data.add("children", children);
+            return new Listing<>(ob, before, after, distance, new LazyChildren<>(clazz, children));
         }
-        distance = dist;
-        JsonArray children = data.get("children").getAsJsonArray();
-        List<T> list = new ArrayList<>();
-        for (JsonElement el : children) {
-            JsonObject child = el.getAsJsonObject();
-            if (clazz.equals(CommentNode.class)) {
-                if (child.get("kind").getAsString().equalsIgnoreCase("more")) {
-                    list.add(clazz.cast(new MoreComments(child.get("data").getAsJsonObject())));
-                } else {
-                    list.add(clazz.cast(new Comment(child.get("data").getAsJsonObject())));
+        return new Listing<>(ob, before, after, distance, list);
+    }
+
+    /**
+     * Reads a child without building a JSON tree, if its kind has a decoder and comes before its data
+     * @return The child, or null if it cannot be wrapped and unknown kinds are skipped
+     */
+    private static <T extends RedditEntity> @Nullable T readChild(Class<T> clazz, JsonReader reader, @Nullable Set<String> fields, boolean skipUnknown) throws IOException {
+        String kind = null;
+        T ret = null;
+        JsonElement tree = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (name.equals("kind")) {
+                kind = JsonFields.nextString(reader);
+            } else if (name.equals("data") && ret == null && tree == null) {
+                ret = (kind == null ? null : EntityRegistry.read(clazz, kind, reader, fields));
+                if (ret == null) {
+                    // No stream factory for this kind (or the kind is not known yet), so fall back to wrapping the tree
+                    tree = (fields == null ? JsonParser.parseReader(reader) : readDataTree(reader, fields));
                 }
             } else {
-                list.add(JsonObjectWrapper.tryInstantiate(clazz, child.get("data").getAsJsonObject()));
+                reader.skipValue();
             }
         }
-        conts = Collections.unmodifiableList(list);
-        length = conts.size();
+        reader.endObject();
+        if (ret != null) return ret;
+        if (tree == null || kind == null) throw new JsonParseException("Listing child has no kind or data");
+        if (skipUnknown && !EntityRegistry.creates(clazz, kind)) return null;
+        JsonObject child = new JsonObject();
+        child.addProperty("kind", kind);
+        child.add("data", tree);
+        return wrap(clazz, child);
+    }
+
+    /**
+     * Reads a thing into a tree, keeping only the projected fields of its data
+     */
+    private static JsonObject readThingTree(JsonReader reader, Set<String> fields) throws IOException {
+        JsonObject thing = new JsonObject();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (name.equals("data") && reader.peek() == JsonToken.BEGIN_OBJECT) {
+                thing.add(name, readDataTree(reader, fields));
+            } else {
+                thing.add(name, JsonParser.parseReader(reader));
+            }
+        }
+        reader.endObject();
+        return thing;
+    }
+
+    /**
+     * Reads the data object of a thing into a tree, keeping only the projected fields. Replies are projected in the same way.
+     */
+    private static JsonObject readDataTree(JsonReader reader, Set<String> fields) throws IOException {
+        JsonObject data = new JsonObject();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (!JsonFields.projects(fields, name)) {
+                reader.skipValue();
+            } else if (name.equals("replies") && reader.peek() == JsonToken.BEGIN_OBJECT) {
+                data.add(name, readListingTree(reader, fields));
+            } else {
+                data.add(name, JsonParser.parseReader(reader));
+            }
+        }
+        reader.endObject();
+        return data;
+    }
+
+    private static JsonObject readListingTree(JsonReader reader, Set<String> fields) throws IOException {
+        JsonObject listing = new JsonObject();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (!name.equals("data") || reader.peek() != JsonToken.BEGIN_OBJECT) {
+                listing.add(name, JsonParser.parseReader(reader));
+                continue;
+            }
+            JsonObject data = new JsonObject();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String key = reader.nextName();
+                if (key.equals("children") && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                    JsonArray children = new JsonArray();
+                    reader.beginArray();
+                    while (reader.hasNext()) children.add(readThingTree(reader, fields));
+                    reader.endArray();
+                    data.add(key, children);
+                } else {
+                    data.add(key, JsonParser.parseReader(reader));
+                }
+            }
+            reader.endObject();
+            listing.add(name, data);
+        }
+        reader.endObject();
+        return listing;
+    }
+
+    /**
+     * Wraps children the first time they are accessed. Concurrent first accesses to the same child may both wrap it, but only
+     * one of the wrappers is kept and returned to both.
+     */
+    private static final class LazyChildren<T extends RedditEntity> extends AbstractList<T> implements RandomAccess {
+        private final Class<T> clazz;
+        private final JsonArray children;
+        private final AtomicReferenceArray<T> wrapped;
+
+        LazyChildren(Class<T> clazz, JsonArray children) {
+            this.clazz = clazz;
+            this.children = children;
+            wrapped = new AtomicReferenceArray<>(children.size());
+        }
+
+        @Override
+        public T get(int index) {
+            T ret = wrapped.get(index);
+            if (ret != null) return ret;
+            ret = wrap(clazz, children.get(index).getAsJsonObject());
+            if (wrapped.compareAndSet(index, null, ret)) return ret;
+            return wrapped.get(index);
+        }
+
+        @Override
+        public int size() {
+            return wrapped.length();
+        }
+    }
+
+    private static <T extends RedditEntity> List<T> wrapAll(Class<T> clazz, JsonArray children) {
+        List<T> list = new ArrayList<>(children.size());
+        for (JsonElement el : children) list.add(wrap(clazz, el.getAsJsonObject()));
+        return list;
+    }
+
+    /**
+     * Wraps a child by its kind, so that listings of mixed kinds (e.g. from /api/info) hold the class registered for the kind of
+     * each child when the element type allows it
+     * @see EntityRegistry
+     */
+    private static <T extends RedditEntity> T wrap(Class<T> clazz, JsonObject child) {
+        return EntityRegistry.create(clazz, child.get("kind").getAsString(), child.get("data").getAsJsonObject());
+    }
+
+    /**
+     * Creates a copy of this listing with other children, keeping its cursors. The copy does not retain raw JSON, since the children
+     * in it would no longer be the ones given.
+     * @param children The children
+     * @return The copy
+     */
+    public @NotNull Listing<T> withContent(@NotNull List<? extends T> children) {
+        return new Listing<>(null, before, after, distance, new ArrayList<>(children));
     }
 
     public @UnmodifiableView @NotNull List<T> getContent() {
@@ -77,6 +460,14 @@ public class Listing<T extends RedditEntity> extends JsonObjectWrapper implement
         return after;
     }
 
+    /**
+     * Gets the pagination cursors of this listing, without wrapping any children
+     * @return The cursors
+     */
+    public @NotNull Cursors getCursors() {
+        return new Cursors(before, after, distance);
+    }
+
     // List Implementation
 
     @Override
@@ -1,26 +1,132 @@
 package codes.wasabi.r4j.struct;
 
-import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 
 public class MoreComments extends CommentNode {
 
+    /**
+     * The fields of a "more" node, decoded once from the data object of a more thing
+     */
+    public record Data(String name, String id, String parentID, int depth, @NotNull String[] children, int count) {
+
+        public static final TypeAdapter<Data> ADAPTER = new TypeAdapter<>() {
+            @Override
+            public void write(JsonWriter out, Data value) throws IOException {
+                out.beginObject();
+                JsonFields.writeString(out, "name", value.name);
+                JsonFields.writeString(out, "id", value.id);
+                JsonFields.writeString(out, "parent_id", value.parentID);
+                out.name("depth").value(value.depth);
+                out.name("children").beginArray();
+                for (String child : value.children) out.value(child);
+                out.endArray();
+                out.name("count").value(value.count);
+                out.endObject();
+            }
+
+            @Override
+            public Data read(JsonReader in) throws IOException {
+                return Data.read(in, null);
+            }
+        };
+
+        /**
+         * Decodes the fields of a "more" node, skipping the ones outside a projection
+         * @param in The reader, positioned at the start of the data object
+         * @param fields The projected fields, or null to decode every field
+         * @return The decoded fields
+         * @throws IOException Could not read the data object
+         */
+        static @NotNull Data read(@NotNull JsonReader in, @Nullable Set<String> fields) throws IOException {
+            String name = null, id = null, parentID = null;
+            int depth = 0, count = 0;
+            List<String> children = new ArrayList<>();
+            in.beginObject();
+            while (in.hasNext()) {
+                String key = in.nextName();
+                if (!JsonFields.projects(fields, key)) {
+                    in.skipValue();
+                    continue;
+                }
+                switch (key) {
+                    case "name" -> name = JsonFields.nextString(in);
+                    case "id" -> id = JsonFields.nextString(in);
+                    case "parent_id" -> parentID = JsonFields.nextString(in);
+                    case "depth" -> depth = JsonFields.nextInt(in);
+                    case "count" -> count = JsonFields.nextInt(in);
+                    case "children" -> {
+                        if (in.peek() == JsonToken.BEGIN_ARRAY) {
+                            in.beginArray();
+                            while (in.hasNext()) children.add(JsonFields.nextString(in));
+                            in.endArray();
+                        } else {
+                            in.skipValue();
+                        }
+                    }
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new Data(name, id, parentID, depth, children.toArray(new String[0]), count);
+        }
+
+    }
+
+    private final Data data;
+
     public MoreComments(JsonObject ob) {
-        super(ob);
+        this(ob, Data.ADAPTER.fromJsonTree(ob));
+    }
+
+    /**
+     * Creates a "more" node from decoded fields, without retaining raw JSON
+     * @param data The decoded fields
+     */
+    public MoreComments(@NotNull Data data) {
+        this(null, data);
+    }
+
+    protected MoreComments(@Nullable JsonObject ob, @NotNull Data data) {
+        super(ob, data.depth, data.name, data.id, data.parentID);
+        this.data = data;
+    }
+
+    /**
+     * Gets the decoded fields of this node
+     * @return The decoded fields
+     */
+    public final @NotNull Data getData() {
+        return data;
+    }
+
+    /**
+     * Creates a copy of this node that lists other IDs, e.g. the ones left over once some of its comments have been loaded. The copy
+     * does not retain raw JSON, and its count is reduced by the number of IDs dropped.
+     * @param children The IDs (without a prefix)
+     * @return The copy
+     */
+    public @NotNull MoreComments withChildren(@NotNull String[] children) {
+        int count = Math.max(children.length, data.count - (data.children.length - children.length));
+        return new MoreComments(new Data(data.name, data.id, data.parentID, data.depth, children.clone(), count));
     }
 
     public String[] getChildren() {
-        JsonArray arr = getJSON().get("children").getAsJsonArray();
-        int size = arr.size();
-        String[] ret = new String[size];
-        for (int i=0; i < size; i++) {
-            ret[i] = arr.get(i).getAsString();
-        }
-        return ret;
+        return data.children.clone();
     }
 
     public int getCount() {
-        return getJSON().get("count").getAsInt();
+        return data.count;
     }
 
 }
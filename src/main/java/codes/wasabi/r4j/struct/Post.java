@@ -1,68 +1,212 @@
 package codes.wasabi.r4j.struct;
 
 import com.google.gson.JsonObject;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.Set;
 
 public class Post extends RedditEntity {
 
+    /**
+     * The fields of a post, decoded once from the data object of a t3 thing
+     */
+    public record Data(String name, String author, String authorFullname, long created, String id, String permalink, String title, int ups, int downs, int score, float upvoteRatio, String subreddit, String subredditID, int numComments) {
+
+        public static final TypeAdapter<Data> ADAPTER = new TypeAdapter<>() {
+            @Override
+            public void write(JsonWriter out, Data value) throws IOException {
+                out.beginObject();
+                JsonFields.writeString(out, "name", value.name);
+                JsonFields.writeString(out, "author", value.author);
+                JsonFields.writeString(out, "author_fullname", value.authorFullname);
+                out.name("created").value(value.created);
+                JsonFields.writeString(out, "id", value.id);
+                JsonFields.writeString(out, "permalink", value.permalink);
+                JsonFields.writeString(out, "title", value.title);
+                out.name("ups").value(value.ups);
+                out.name("downs").value(value.downs);
+                out.name("score").value(value.score);
+                out.name("upvote_ratio").value(value.upvoteRatio);
+                JsonFields.writeString(out, "subreddit", value.subreddit);
+                JsonFields.writeString(out, "subreddit_id", value.subredditID);
+                out.name("num_comments").value(value.numComments);
+                out.endObject();
+            }
+
+            @Override
+            public Data read(JsonReader in) throws IOException {
+                return Data.read(in, null);
+            }
+        };
+
+        /**
+         * Decodes the fields of a post, skipping the ones outside a projection
+         * @param in The reader, positioned at the start of the data object
+         * @param fields The projected fields, or null to decode every field
+         * @return The decoded fields
+         * @throws IOException Could not read the data object
+         */
+        static @NotNull Data read(@NotNull JsonReader in, @Nullable Set<String> fields) throws IOException {
+            String name = null, author = null, authorFullname = null, id = null, permalink = null, title = null, subreddit = null, subredditID = null;
+            long created = 0L;
+            int ups = 0, downs = 0, score = 0, numComments = 0;
+            float upvoteRatio = 0f;
+            in.beginObject();
+            while (in.hasNext()) {
+                String key = in.nextName();
+                if (!JsonFields.projects(fields, key)) {
+                    in.skipValue();
+                    continue;
+                }
+                switch (key) {
+                    case "name" -> name = JsonFields.nextString(in);
+                    case "author" -> author = JsonFields.nextString(in);
+                    case "author_fullname" -> authorFullname = JsonFields.nextString(in);
+                    case "created" -> created = JsonFields.nextLong(in);
+                    case "id" -> id = JsonFields.nextString(in);
+                    case "permalink" -> permalink = JsonFields.nextString(in);
+                    case "title" -> title = JsonFields.nextString(in);
+                    case "ups" -> ups = JsonFields.nextInt(in);
+                    case "downs" -> downs = JsonFields.nextInt(in);
+                    case "score" -> score = JsonFields.nextInt(in);
+                    case "upvote_ratio" -> upvoteRatio = JsonFields.nextFloat(in);
+                    case "subreddit" -> subreddit = JsonFields.nextString(in);
+                    case "subreddit_id" -> subredditID = JsonFields.nextString(in);
+                    case "num_comments" -> numComments = JsonFields.nextInt(in);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new Data(name, author, authorFullname, created, id, permalink, title, ups, downs, score, upvoteRatio, subreddit, subredditID, numComments);
+        }
+
+        /**
+         * Takes the fields that a newer copy was decoded with from it, and the rest from these fields
+         * @param fresh The fields of the newer copy
+         * @param fields The projected fields of the newer copy, or null if it has every field
+         * @return The merged fields
+         */
+        @NotNull Data merge(@NotNull Data fresh, @Nullable Set<String> fields) {
+            if (fields == null) return fresh;
+            return new Data(
+                    fresh.name,
+                    JsonFields.projects(fields, "author") ? fresh.author : author,
+                    JsonFields.projects(fields, "author_fullname") ? fresh.authorFullname : authorFullname,
+                    JsonFields.projects(fields, "created") ? fresh.created : created,
+                    JsonFields.projects(fields, "id") ? fresh.id : id,
+                    JsonFields.projects(fields, "permalink") ? fresh.permalink : permalink,
+                    JsonFields.projects(fields, "title") ? fresh.title : title,
+                    JsonFields.projects(fields, "ups") ? fresh.ups : ups,
+                    JsonFields.projects(fields, "downs") ? fresh.downs : downs,
+                    JsonFields.projects(fields, "score") ? fresh.score : score,
+                    JsonFields.projects(fields, "upvote_ratio") ? fresh.upvoteRatio : upvoteRatio,
+                    JsonFields.projects(fields, "subreddit") ? fresh.subreddit : subreddit,
+                    JsonFields.projects(fields, "subreddit_id") ? fresh.subredditID : subredditID,
+                    JsonFields.projects(fields, "num_comments") ? fresh.numComments : numComments
+            );
+        }
+
+    }
+
+    private volatile Data data;
+
     public Post(JsonObject ob) {
+        this(ob, Data.ADAPTER.fromJsonTree(ob));
+    }
+
+    /**
+     * Creates a post from decoded fields, without retaining raw JSON
+     * @param data The decoded fields
+     */
+    public Post(@NotNull Data data) {
+        this(null, data);
+    }
+
+    protected Post(@Nullable JsonObject ob, @NotNull Data data) {
         super(ob);
+        this.data = data;
+    }
+
+    /**
+     * Gets the decoded fields of this post
+     * @return The decoded fields
+     */
+    public final @NotNull Data getData() {
+        return data;
+    }
+
+    /**
+     * Takes the fields of a newer copy of this post, such as its score and comment count. Fields outside the projection the copy
+     * was decoded with are kept, in the decoded fields and in the raw JSON.
+     */
+    @Override
+    protected boolean refresh(@NotNull RedditEntity fresh, @Nullable Set<String> fields) {
+        if (!(fresh instanceof Post post)) return false;
+        data = data.merge(post.data, fields);
+        refreshJSON(post, fields);
+        return true;
     }
 
     @Override
     public String getFullname() {
-        return getJSON().get("name").getAsString();
+        return data.name;
     }
 
     public String getAuthor() {
-        return getJSON().get("author").getAsString();
+        return data.author;
     }
 
     public String getAuthorFullname() {
-        return getJSON().get("author_fullname").getAsString();
+        return data.authorFullname;
     }
 
     public long getCreatedTime() {
-        return getJSON().get("created").getAsLong();
+        return data.created;
     }
 
     public String getID() {
-        return getJSON().get("id").getAsString();
+        return data.id;
     }
 
     public String getPermalink() {
-        return getJSON().get("permalink").getAsString();
+        return data.permalink;
     }
 
     public String getTitle() {
-        return getJSON().get("title").getAsString();
+        return data.title;
     }
 
     public int getUpvotes() {
-        return getJSON().get("ups").getAsInt();
+        return data.ups;
     }
 
     public int getDownvotes() {
-        return getJSON().get("downs").getAsInt();
+        return data.downs;
     }
 
     public int getScore() {
-        return getJSON().get("score").getAsInt();
+        return data.score;
     }
 
     public float getUpvoteRatio() {
-        return getJSON().get("upvote_ratio").getAsFloat();
+        return data.upvoteRatio;
     }
 
     public String getSubreddit() {
-        return getJSON().get("subreddit").getAsString();
+        return data.subreddit;
     }
 
     public String getSubredditFullname() {
-        return getJSON().get("subreddit_id").getAsString();
+        return data.subredditID;
     }
 
     public int getCommentCount() {
-        return getJSON().get("num_comments").getAsInt();
+        return data.numComments;
     }
 
 }
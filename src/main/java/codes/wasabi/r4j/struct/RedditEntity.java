@@ -1,9 +1,24 @@
 package codes.wasabi.r4j.struct;
 
 import com.google.gson.JsonObject;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Set;
 
 public abstract class RedditEntity extends JsonObjectWrapper implements Fullnamed {
-    public RedditEntity(JsonObject ob) {
+    public RedditEntity(@Nullable JsonObject ob) {
         super(ob);
     }
+
+    /**
+     * Updates this entity in place with the fields of a newer copy of the same thing, for the {@link EntityIdentityMap}. Entities
+     * that cannot be refreshed return false, in which case the newer copy takes their place in the map.
+     * @param fresh The newer copy, which is of the same class as this entity
+     * @param fields The fields the newer copy was decoded with, or null if it was decoded with every field
+     * @return True if this entity was updated
+     */
+    protected boolean refresh(@NotNull RedditEntity fresh, @Nullable Set<String> fields) {
+        return false;
+    }
 }
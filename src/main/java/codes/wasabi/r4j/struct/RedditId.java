@@ -0,0 +1,134 @@
+package codes.wasabi.r4j.struct;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Packs Reddit IDs into longs. An ID (e.g. abc123) is a number of up to {@link #MAX_LENGTH} base 36 digits, which fits in the low 57
+ * bits, and the type of a fullname (the 3 in t3_abc123) is kept in the 4 bits above them. IDs without a type are packed with type
+ * 0, so t3_abc123 and abc123 pack to different values.
+ * <p>
+ * Packing is exact: only the lowercase, unpadded form that Reddit uses is accepted, so every packed value turns back into the
+ * string it came from. Packed values are never negative, which leaves {@link #NONE} free to stand for "not an ID".
+ */
+public final class RedditId {
+
+    /**
+     * The value returned by {@link #tryParse(String)} for a string that is not an ID or fullname
+     */
+    public static final long NONE = -1L;
+
+    /**
+     * The most base 36 digits in an ID that can be packed
+     */
+    public static final int MAX_LENGTH = 11;
+
+    private static final int TYPE_SHIFT = 57;
+    private static final long VALUE_MASK = (1L << TYPE_SHIFT) - 1L;
+
+    private RedditId() { }
+
+    /**
+     * Packs an ID or a fullname
+     * @param value An ID (e.g. abc123) or a fullname (e.g. t3_abc123)
+     * @return The packed value, or {@link #NONE} if the string is neither
+     */
+    public static long tryParse(@Nullable String value) {
+        if (value == null) return NONE;
+        int length = value.length();
+        if (length > 3 && value.charAt(0) == 't' && value.charAt(2) == '_') {
+            int type = value.charAt(1) - '0';
+            if (type < 1 || type > 9) return NONE;
+            long id = parseDigits(value, 3);
+            return (id == NONE ? NONE : ((long) type << TYPE_SHIFT) | id);
+        }
+        return parseDigits(value, 0);
+    }
+
+    private static long parseDigits(String value, int start) {
+        int length = value.length() - start;
+        if (length < 1 || length > MAX_LENGTH) return NONE;
+        // A leading zero would not survive the trip back to a string
+        if (length > 1 && value.charAt(start) == '0') return NONE;
+        long id = 0L;
+        for (int i=start; i < value.length(); i++) {
+            char c = value.charAt(i);
+            int digit;
+            if (c >= '0' && c <= '9') {
+                digit = c - '0';
+            } else if (c >= 'a' && c <= 'z') {
+                digit = c - 'a' + 10;
+            } else {
+                return NONE;
+            }
+            id = id * 36L + digit;
+        }
+        return id;
+    }
+
+    /**
+     * Packs an ID or a fullname
+     * @param value An ID (e.g. abc123) or a fullname (e.g. t3_abc123)
+     * @return The packed value
+     * @throws IllegalArgumentException The string is neither an ID nor a fullname, or is too long to pack
+     */
+    public static long parse(@NotNull String value) throws IllegalArgumentException {
+        long packed = tryParse(value);
+        if (packed == NONE) throw new IllegalArgumentException("Not a packable ID or fullname: " + value);
+        return packed;
+    }
+
+    /**
+     * Packs an ID with a type
+     * @param type The type, from 1 (comment) to 9, or 0 for none
+     * @param id The ID, without a prefix
+     * @return The packed value
+     * @throws IllegalArgumentException The type is out of range, or the ID is not valid
+     */
+    public static long pack(int type, @NotNull String id) throws IllegalArgumentException {
+        if (type < 0 || type > 9) throw new IllegalArgumentException("Type must be between 0 and 9");
+        long value = parseDigits(id, 0);
+        if (value == NONE) throw new IllegalArgumentException("Not a packable ID: " + id);
+        return ((long) type << TYPE_SHIFT) | value;
+    }
+
+    /**
+     * Gets the type of a packed value
+     * @param packed The packed value
+     * @return The type, e.g. 3 for a post, or 0 if it was packed from an ID without a type
+     */
+    public static int getType(long packed) {
+        return (int) (packed >>> TYPE_SHIFT);
+    }
+
+    /**
+     * Removes the type from a packed value
+     * @param packed The packed value
+     * @return The packed value of the ID alone
+     */
+    public static long withoutType(long packed) {
+        return packed & VALUE_MASK;
+    }
+
+    /**
+     * Turns a packed value back into the ID it holds
+     * @param packed The packed value
+     * @return The ID, without a prefix
+     */
+    public static @NotNull String toID(long packed) {
+        if (packed < 0L) throw new IllegalArgumentException("Not a packed ID: " + packed);
+        return Long.toString(packed & VALUE_MASK, 36);
+    }
+
+    /**
+     * Turns a packed value back into the string it was packed from
+     * @param packed The packed value
+     * @return The fullname (e.g. t3_abc123), or the ID if it was packed without a type
+     */
+    public static @NotNull String toString(long packed) {
+        int type = getType(packed);
+        String id = toID(packed);
+        return (type == 0 ? id : "t" + type + "_" + id);
+    }
+
+}
@@ -0,0 +1,182 @@
+package codes.wasabi.r4j.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.function.LongFunction;
+
+/**
+ * A map from longs to objects, with the keys stored unboxed in one array and the values in a parallel one. Like {@link LongSet},
+ * it uses open addressing and is kept at most half full. Null values are not allowed. This map is not thread safe.
+ * @param <V> The value type
+ * @see codes.wasabi.r4j.struct.RedditId
+ */
+public class LongObjectMap<V> {
+
+    /**
+     * Receives the entries of a map
+     * @param <V> The value type
+     */
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+        void accept(long key, @NotNull V value);
+    }
+
+    // A null value marks an empty slot, so the key 0 needs no special case
+    private long[] keys;
+    private Object[] values;
+    private int size = 0;
+
+    /**
+     * Creates an empty map
+     * @param expected The number of entries to make room for up front
+     */
+    public LongObjectMap(int expected) {
+        if (expected < 0) throw new IllegalArgumentException("Expected size cannot be negative");
+        int capacity = LongSet.capacityFor(expected);
+        keys = new long[capacity];
+        values = new Object[capacity];
+    }
+
+    public LongObjectMap() {
+        this(0);
+    }
+
+    private int find(long key) {
+        int mask = keys.length - 1;
+        int i = LongSet.mix(key) & mask;
+        while (values[i] != null) {
+            if (keys[i] == key) return i;
+            i = (i + 1) & mask;
+        }
+        return -1 - i;
+    }
+
+    /**
+     * Gets the value of a key
+     * @param key The key
+     * @return The value, or null if the key is not in the map
+     */
+    @SuppressWarnings("unchecked")
+    public @Nullable V get(long key) {
+        int i = find(key);
+        return (i < 0 ? null : (V) values[i]);
+    }
+
+    public boolean containsKey(long key) {
+        return find(key) >= 0;
+    }
+
+    /**
+     * Maps a key to a value
+     * @param key The key
+     * @param value The value
+     * @return The previous value of the key, or null if it had none
+     */
+    @SuppressWarnings("unchecked")
+    public @Nullable V put(long key, @NotNull V value) {
+        if (value == null) throw new NullPointerException("Value cannot be null");
+        int i = find(key);
+        if (i >= 0) {
+            V previous = (V) values[i];
+            values[i] = value;
+            return previous;
+        }
+        insert(-1 - i, key, value);
+        return null;
+    }
+
+    /**
+     * Gets the value of a key, computing and adding it if the key is not in the map
+     * @param key The key
+     * @param function Computes the value of the key
+     * @return The value
+     */
+    @SuppressWarnings("unchecked")
+    public @NotNull V computeIfAbsent(long key, @NotNull LongFunction<? extends V> function) {
+        int i = find(key);
+        if (i >= 0) return (V) values[i];
+        V value = function.apply(key);
+        if (value == null) throw new NullPointerException("Computed value cannot be null");
+        // The function may have changed the map
+        put(key, value);
+        return value;
+    }
+
+    private void insert(int i, long key, V value) {
+        keys[i] = key;
+        values[i] = value;
+        if (++size * 2 > keys.length) grow();
+    }
+
+    /**
+     * Removes a key
+     * @param key The key
+     * @return The value of the key, or null if it was not in the map
+     */
+    @SuppressWarnings("unchecked")
+    public @Nullable V remove(long key) {
+        int i = find(key);
+        if (i < 0) return null;
+        V previous = (V) values[i];
+        int mask = keys.length - 1;
+        // Shift later entries of the run back into the gap, so that no lookup stops short of them
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            if (values[j] == null) break;
+            int home = LongSet.mix(keys[j]) & mask;
+            if (((j - home) & mask) >= ((j - i) & mask)) {
+                keys[i] = keys[j];
+                values[i] = values[j];
+                i = j;
+            }
+        }
+        keys[i] = 0L;
+        values[i] = null;
+        size--;
+        return previous;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new Object[oldValues.length * 2];
+        int mask = keys.length - 1;
+        for (int n=0; n < oldKeys.length; n++) {
+            if (oldValues[n] == null) continue;
+            int i = LongSet.mix(oldKeys[n]) & mask;
+            while (values[i] != null) i = (i + 1) & mask;
+            keys[i] = oldKeys[n];
+            values[i] = oldValues[n];
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * Calls an action for every entry, in no particular order
+     * @param action The action
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(@NotNull EntryConsumer<? super V> action) {
+        for (int i=0; i < keys.length; i++) {
+            if (values[i] != null) action.accept(keys[i], (V) values[i]);
+        }
+    }
+
+}
@@ -0,0 +1,170 @@
+package codes.wasabi.r4j.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * A set of longs, stored unboxed in one array with open addressing and linear probing. The array is kept at most half full, so
+ * each element costs 16 bytes or less, against roughly 100 for a {@link String} in a {@link java.util.HashSet}. This set is not
+ * thread safe.
+ * @see codes.wasabi.r4j.struct.RedditId
+ */
+public class LongSet {
+
+    private static final int MIN_CAPACITY = 8;
+
+    // 0 marks an empty slot, so whether 0 itself is in the set is tracked apart
+    private long[] slots;
+    private int size = 0;
+    private boolean hasZero = false;
+
+    /**
+     * Creates an empty set
+     * @param expected The number of elements to make room for up front
+     */
+    public LongSet(int expected) {
+        if (expected < 0) throw new IllegalArgumentException("Expected size cannot be negative");
+        slots = new long[capacityFor(expected)];
+    }
+
+    public LongSet() {
+        this(0);
+    }
+
+    static int capacityFor(int expected) {
+        long capacity = Math.max(MIN_CAPACITY, Long.highestOneBit(Math.max(1L, (long) expected * 2L - 1L)) << 1);
+        if (capacity > (1 << 30)) throw new IllegalArgumentException("Too many elements: " + expected);
+        return (int) capacity;
+    }
+
+    static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Adds an element
+     * @param value The element
+     * @return True if the element was not already in the set
+     */
+    public boolean add(long value) {
+        if (value == 0L) {
+            if (hasZero) return false;
+            hasZero = true;
+            size++;
+            return true;
+        }
+        int mask = slots.length - 1;
+        int i = mix(value) & mask;
+        long slot;
+        while ((slot = slots[i]) != 0L) {
+            if (slot == value) return false;
+            i = (i + 1) & mask;
+        }
+        slots[i] = value;
+        if (++size * 2 > slots.length) grow();
+        return true;
+    }
+
+    public boolean contains(long value) {
+        if (value == 0L) return hasZero;
+        int mask = slots.length - 1;
+        int i = mix(value) & mask;
+        long slot;
+        while ((slot = slots[i]) != 0L) {
+            if (slot == value) return true;
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Removes an element
+     * @param value The element
+     * @return True if the element was in the set
+     */
+    public boolean remove(long value) {
+        if (value == 0L) {
+            if (!hasZero) return false;
+            hasZero = false;
+            size--;
+            return true;
+        }
+        int mask = slots.length - 1;
+        int i = mix(value) & mask;
+        long slot;
+        while ((slot = slots[i]) != value) {
+            if (slot == 0L) return false;
+            i = (i + 1) & mask;
+        }
+        // Shift later elements of the run back into the gap, so that no lookup stops short of them
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            long moved = slots[j];
+            if (moved == 0L) break;
+            int home = mix(moved) & mask;
+            if (((j - home) & mask) >= ((j - i) & mask)) {
+                slots[i] = moved;
+                i = j;
+            }
+        }
+        slots[i] = 0L;
+        size--;
+        return true;
+    }
+
+    private void grow() {
+        long[] old = slots;
+        slots = new long[old.length * 2];
+        int mask = slots.length - 1;
+        for (long value : old) {
+            if (value == 0L) continue;
+            int i = mix(value) & mask;
+            while (slots[i] != 0L) i = (i + 1) & mask;
+            slots[i] = value;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(slots, 0L);
+        hasZero = false;
+        size = 0;
+    }
+
+    /**
+     * Calls an action for every element, in no particular order
+     * @param action The action
+     */
+    public void forEach(@NotNull LongConsumer action) {
+        if (hasZero) action.accept(0L);
+        for (long value : slots) {
+            if (value != 0L) action.accept(value);
+        }
+    }
+
+    /**
+     * Copies the elements into an array
+     * @return The elements, in no particular order
+     */
+    public long @NotNull [] toArray() {
+        long[] ret = new long[size];
+        int n = 0;
+        if (hasZero) ret[n++] = 0L;
+        for (long value : slots) {
+            if (value != 0L) ret[n++] = value;
+        }
+        return ret;
+    }
+
+}
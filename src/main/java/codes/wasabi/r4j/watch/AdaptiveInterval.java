@@ -0,0 +1,66 @@
+package codes.wasabi.r4j.watch;
+
+import codes.wasabi.r4j.param.WatchOptions;
+
+/**
+ * Picks the time between polls of a listing from a smoothed estimate of how often new items arrive in it
+ */
+final class AdaptiveInterval {
+
+    private static final double SMOOTHING = 0.3d;
+
+    private final long minNanos;
+    private final long maxNanos;
+    private final long initialNanos;
+    private final double target;
+    private double rate = Double.NaN;
+
+    AdaptiveInterval(WatchOptions options) {
+        this.minNanos = options.minInterval().toNanos();
+        this.maxNanos = options.maxInterval().toNanos();
+        this.initialNanos = Math.max(minNanos, Math.min(maxNanos, options.initialInterval().toNanos()));
+        this.target = options.targetItemsPerPoll();
+    }
+
+    /**
+     * Seeds the estimate from the creation times of the items of a page
+     * @param count The number of items
+     * @param spanSeconds The time between the creation of the oldest and the newest item
+     */
+    void seed(int count, double spanSeconds) {
+        // Creation times are whole seconds, so a busy listing can fill a page within the same second
+        if (count >= 2) rate = (count - 1) / Math.max(spanSeconds, 1d);
+    }
+
+    /**
+     * Updates the estimate with the result of a poll
+     * @param newItems The number of new items the poll found
+     * @param elapsedNanos The time since the previous poll
+     */
+    void observe(int newItems, long elapsedNanos) {
+        if (elapsedNanos <= 0L) return;
+        double observed = newItems / (elapsedNanos / 1e9d);
+        rate = (Double.isNaN(rate) ? observed : SMOOTHING * observed + (1d - SMOOTHING) * rate);
+    }
+
+    /**
+     * Gets the time to wait before the next poll
+     * @return The interval in nanoseconds
+     */
+    long nanos() {
+        if (Double.isNaN(rate)) return initialNanos;
+        if (rate <= 0d) return maxNanos;
+        double nanos = (target / rate) * 1e9d;
+        if (nanos >= maxNanos) return maxNanos;
+        return Math.max(minNanos, (long) nanos);
+    }
+
+    /**
+     * Gets the estimated rate of new items
+     * @return The rate in items per second, or NaN if there is no estimate yet
+     */
+    double rate() {
+        return rate;
+    }
+
+}
@@ -0,0 +1,200 @@
+package codes.wasabi.r4j.watch;
+
+import codes.wasabi.r4j.RedditClient;
+import codes.wasabi.r4j.param.ListingOptions;
+import codes.wasabi.r4j.param.WatchOptions;
+import codes.wasabi.r4j.struct.Comment;
+import codes.wasabi.r4j.struct.Listing;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Watches subreddits for new comments by polling /r/{sub}/comments, which lists the newest comments across every post of a
+ * subreddit. This costs one request per poll, rather than one per post when walking the comments of each post.
+ * <p>
+ * Each poll fetches the newest page. If none of its comments were seen before, more comments arrived since the last poll than fit on
+ * a page, so older pages are fetched by their "after" cursor until one reaches back to a comment that was already seen. Unlike a
+ * "before" cursor, which stops matching anything once the comment it names is removed, this always finds the newest comments.
+ * <p>
+ * Each comment is delivered to the listeners once, oldest first. Polls bypass the response cache, but are still revalidated with
+ * ETags where Reddit sends them.
+ */
+public class CommentWatcher extends ListingWatcher<Comment> {
+
+    /**
+     * Receives the comments found by a watcher
+     */
+    @FunctionalInterface
+    public interface Listener {
+        /**
+         * Called once for each new comment. Calls for the same subreddit are never concurrent.
+         * @param comment The comment
+         */
+        void onComment(@NotNull Comment comment);
+
+        /**
+         * Called when a poll fails. The subreddit keeps being watched.
+         * @param subreddit The subreddit
+         * @param error The error
+         */
+        default void onError(@NotNull String subreddit, @NotNull Throwable error) { }
+
+        /**
+         * Called when more comments arrived between two polls than could be fetched, so that some may have been missed
+         * @param subreddit The subreddit
+         */
+        default void onGap(@NotNull String subreddit) { }
+    }
+
+    /**
+     * The most pages fetched by a single poll while filling a gap
+     */
+    private static final int MAX_PAGES = 10;
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final LongAdder backfills = new LongAdder();
+    private final LongAdder gaps = new LongAdder();
+
+    /**
+     * Creates a watcher that is not watching any subreddits yet
+     * @param client The client used to poll
+     * @param options The polling options
+     */
+    public CommentWatcher(@NotNull RedditClient client, @NotNull WatchOptions options) {
+        super(client, options);
+    }
+
+    public CommentWatcher(@NotNull RedditClient client) {
+        this(client, WatchOptions.DEFAULT);
+    }
+
+    public void addListener(@NotNull Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(@NotNull Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Gets the number of older pages fetched to fill gaps between polls
+     */
+    public long getBackfills() {
+        return backfills.sum();
+    }
+
+    /**
+     * Gets the number of gaps that could not be filled within the page limit
+     */
+    public long getGaps() {
+        return gaps.sum();
+    }
+
+    @Override
+    protected @NotNull Feed createFeed(@NotNull String subreddit) {
+        return new CommentFeed(subreddit);
+    }
+
+    @Override
+    protected void deliver(@NotNull Comment comment) {
+        for (Listener listener : listeners) {
+            try {
+                listener.onComment(comment);
+            } catch (RuntimeException e) {
+                try {
+                    listener.onError(comment.getSubreddit() == null ? "" : comment.getSubreddit(), e);
+                } catch (RuntimeException ignored) { }
+            }
+        }
+    }
+
+    @Override
+    protected void fail(@NotNull String subreddit, @NotNull Throwable error) {
+        for (Listener listener : listeners) {
+            try {
+                listener.onError(subreddit, error);
+            } catch (RuntimeException ignored) { }
+        }
+    }
+
+    private final class CommentFeed extends Feed {
+        private long newestCreated = Long.MIN_VALUE;
+
+        CommentFeed(String subreddit) {
+            super(subreddit);
+        }
+
+        @Override
+        protected @NotNull CompletableFuture<Long> fetch() {
+            return client.getNewCommentsAsync(subreddit, page(null)).thenCompose((Listing<Comment> listing) -> {
+                List<Listing<Comment>> pages = new ArrayList<>();
+                pages.add(listing);
+                if (isFirst() || reachesBack(listing)) return CompletableFuture.completedFuture(pages);
+                return backfill(pages, listing.getAfter());
+            }).thenApply(this::handle);
+        }
+
+        private ListingOptions page(String after) {
+            return ListingOptions.builder().after(after).limit(PAGE_SIZE).bypassCache(true).build();
+        }
+
+        /**
+         * Fetches older pages until one reaches back to the comments seen by the previous poll
+         */
+        private CompletableFuture<List<Listing<Comment>>> backfill(List<Listing<Comment>> pages, String after) {
+            if (pages.size() >= MAX_PAGES) {
+                gaps.increment();
+                for (Listener listener : listeners) {
+                    try {
+                        listener.onGap(subreddit);
+                    } catch (RuntimeException ignored) { }
+                }
+                return CompletableFuture.completedFuture(pages);
+            }
+            backfills.increment();
+            return client.getNewCommentsAsync(subreddit, page(after)).thenCompose((Listing<Comment> listing) -> {
+                pages.add(listing);
+                if (reachesBack(listing)) return CompletableFuture.completedFuture(pages);
+                return backfill(pages, listing.getAfter());
+            });
+        }
+
+        /**
+         * Checks if a page holds a comment that was seen before, or one that is no newer than the newest comment seen before
+         */
+        private boolean reachesBack(Listing<Comment> listing) {
+            if (listing.isEmpty() || listing.getAfter() == null) return true;
+            if (listing.get(listing.size() - 1).getCreatedTime() < newestCreated) return true;
+            for (Comment comment : listing) {
+                if (isSeen(comment.getFullname())) return true;
+            }
+            return false;
+        }
+
+        /**
+         * Delivers the new comments of a poll
+         * @return The time to wait before the next poll
+         */
+        private long handle(List<Listing<Comment>> pages) {
+            int fresh = 0;
+            // Pages and the comments on them are newest first, so walk both backwards to deliver the oldest first
+            for (int p=pages.size() - 1; p >= 0; p--) {
+                Listing<Comment> listing = pages.get(p);
+                for (int i=listing.size() - 1; i >= 0; i--) {
+                    Comment comment = listing.get(i);
+                    if (offer(comment)) fresh++;
+                    newestCreated = Math.max(newestCreated, comment.getCreatedTime());
+                }
+            }
+            Listing<Comment> head = pages.get(0);
+            double span = (head.isEmpty() ? 0d : head.get(0).getCreatedTime() - head.get(head.size() - 1).getCreatedTime());
+            return settle(fresh, head.size(), span);
+        }
+    }
+
+}
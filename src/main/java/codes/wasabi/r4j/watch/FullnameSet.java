@@ -0,0 +1,109 @@
+package codes.wasabi.r4j.watch;
+
+import codes.wasabi.r4j.struct.RedditId;
+import codes.wasabi.r4j.util.LongSet;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * A set of the most recently added fullnames, used to suppress duplicates in a stream of things. Once the capacity is reached, the
+ * fullname that was added the longest time ago is forgotten.
+ * <p>
+ * Fullnames are packed with {@link RedditId} and kept in a {@link LongSet}, with a ring of the packed values recording the order
+ * they were added in, for about 24 bytes per fullname. Strings that cannot be packed are kept apart in a {@link LinkedHashSet}.
+ */
+public class FullnameSet {
+
+    private final int capacity;
+    private final LongSet packed;
+    private long[] ring;
+    private int head = 0;
+    private int count = 0;
+    private final LinkedHashSet<String> unpacked = new LinkedHashSet<>();
+
+    /**
+     * Creates an empty set
+     * @param capacity The maximum number of fullnames remembered
+     */
+    public FullnameSet(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("Capacity must be positive");
+        this.capacity = capacity;
+        int initial = Math.min(capacity, 1024);
+        this.packed = new LongSet(initial);
+        this.ring = new long[initial];
+    }
+
+    /**
+     * Adds a fullname
+     * @param fullname The fullname
+     * @return True if the fullname was not already in the set
+     */
+    public synchronized boolean add(@NotNull String fullname) {
+        long id = RedditId.tryParse(fullname);
+        if (id == RedditId.NONE) {
+            if (unpacked.contains(fullname)) return false;
+            if (count + unpacked.size() >= capacity) evict(false);
+            unpacked.add(fullname);
+            return true;
+        }
+        if (packed.contains(id)) return false;
+        if (count + unpacked.size() >= capacity) evict(true);
+        packed.add(id);
+        if (count == ring.length) {
+            // Only reached while the ring is smaller than the capacity; unroll it so that the oldest entry is first
+            long[] grown = new long[(int) Math.min(capacity, ring.length * 2L)];
+            for (int i=0; i < count; i++) grown[i] = ring[(head + i) % ring.length];
+            ring = grown;
+            head = 0;
+        }
+        ring[(head + count) % ring.length] = id;
+        count++;
+        return true;
+    }
+
+    private void evict(boolean preferPacked) {
+        if (count > 0 && (preferPacked || unpacked.isEmpty())) {
+            packed.remove(ring[head]);
+            head = (head + 1) % ring.length;
+            count--;
+        } else {
+            Iterator<String> iterator = unpacked.iterator();
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Checks if a fullname is in the set
+     * @param fullname The fullname
+     * @return True if the fullname was added and has not been forgotten since
+     */
+    public synchronized boolean contains(@NotNull String fullname) {
+        long id = RedditId.tryParse(fullname);
+        return (id == RedditId.NONE ? unpacked.contains(fullname) : packed.contains(id));
+    }
+
+    /**
+     * Gets the fullnames in the set
+     * @return A copy of the fullnames, in the order they were added. Strings that could not be packed come last.
+     */
+    public synchronized @NotNull List<String> toList() {
+        List<String> ret = new ArrayList<>(count + unpacked.size());
+        for (int i=0; i < count; i++) ret.add(RedditId.toString(ring[(head + i) % ring.length]));
+        ret.addAll(unpacked);
+        return ret;
+    }
+
+    public synchronized int size() {
+        return count + unpacked.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+}
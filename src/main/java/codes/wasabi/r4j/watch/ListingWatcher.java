@@ -0,0 +1,236 @@
+package codes.wasabi.r4j.watch;
+
+import codes.wasabi.r4j.RedditClient;
+import codes.wasabi.r4j.param.WatchOptions;
+import codes.wasabi.r4j.struct.RedditEntity;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Watches listings of subreddits for new things by polling them. Each subreddit is polled on its own schedule, which adapts to the
+ * rate at which new things arrive in it within the bounds of the {@link WatchOptions}. Duplicates are suppressed by remembering a
+ * bounded number of recently seen fullnames, shared by every subreddit of the watcher.
+ * @param <T> The type of the things
+ */
+public abstract class ListingWatcher<T extends RedditEntity> implements AutoCloseable {
+
+    /**
+     * A snapshot of the watcher's counters
+     * @param polls The number of polls sent
+     * @param delivered The number of things delivered to listeners
+     * @param duplicates The number of things that were found again and suppressed
+     */
+    public record Stats(long polls, long delivered, long duplicates) { }
+
+    /**
+     * The largest page Reddit serves
+     */
+    protected static final int PAGE_SIZE = 100;
+
+    protected final RedditClient client;
+    protected final WatchOptions options;
+    private final FullnameSet seen;
+    private final Map<String, Feed> feeds = new ConcurrentHashMap<>();
+    private final LongAdder polls = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private volatile boolean closed = false;
+
+    protected ListingWatcher(@NotNull RedditClient client, @NotNull WatchOptions options) {
+        this.client = client;
+        this.options = options;
+        this.seen = new FullnameSet(options.dedupeCapacity());
+    }
+
+    /**
+     * Starts watching a subreddit. The first poll is sent right away.
+     * @param subreddit The subreddit name, or several joined with + (e.g. "pics+aww")
+     * @return False if the subreddit was already being watched
+     * @throws IllegalStateException The watcher is closed
+     */
+    public boolean watch(@NotNull String subreddit) throws IllegalStateException {
+        if (closed) throw new IllegalStateException("Watcher is closed");
+        Feed feed = createFeed(subreddit);
+        if (feeds.putIfAbsent(subreddit, feed) != null) return false;
+        feed.poll();
+        return true;
+    }
+
+    /**
+     * Stops watching a subreddit. A poll that is already in flight is still delivered.
+     * @param subreddit The subreddit name
+     * @return False if the subreddit was not being watched
+     */
+    public boolean unwatch(@NotNull String subreddit) {
+        Feed feed = feeds.remove(subreddit);
+        if (feed == null) return false;
+        feed.active = false;
+        return true;
+    }
+
+    public @NotNull Set<String> getSubreddits() {
+        return Collections.unmodifiableSet(feeds.keySet());
+    }
+
+    /**
+     * Gets the time currently waited between polls of a subreddit
+     * @param subreddit The subreddit name
+     * @return The interval, or null if the subreddit is not being watched
+     */
+    public @Nullable Duration getInterval(@NotNull String subreddit) {
+        Feed feed = feeds.get(subreddit);
+        if (feed == null) return null;
+        return Duration.ofNanos(feed.intervalNanos);
+    }
+
+    public @NotNull Stats getStats() {
+        return new Stats(polls.sum(), delivered.sum(), duplicates.sum());
+    }
+
+    /**
+     * Stops watching every subreddit
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (Feed feed : feeds.values()) feed.active = false;
+        feeds.clear();
+    }
+
+    /**
+     * Creates the feed that polls a subreddit
+     * @param subreddit The subreddit name
+     * @return The feed, which is not polled yet
+     */
+    protected abstract @NotNull Feed createFeed(@NotNull String subreddit);
+
+    /**
+     * Hands a new thing to the listeners
+     * @param item The thing
+     */
+    protected abstract void deliver(@NotNull T item);
+
+    /**
+     * Hands an error to the listeners
+     * @param subreddit The subreddit whose poll failed
+     * @param error The error
+     */
+    protected abstract void fail(@NotNull String subreddit, @NotNull Throwable error);
+
+    /**
+     * Checks if a thing has been seen recently, without marking it as seen
+     * @param fullname The fullname of the thing
+     * @return True if the thing was seen and has not been forgotten since
+     */
+    protected boolean isSeen(@NotNull String fullname) {
+        return seen.contains(fullname);
+    }
+
+    /**
+     * Polls one subreddit for as long as it is watched
+     */
+    protected abstract class Feed {
+        protected final String subreddit;
+        private final AdaptiveInterval interval = new AdaptiveInterval(options);
+        private volatile boolean active = true;
+        private volatile long intervalNanos;
+        private boolean first = true;
+        private long pollStart = 0L;
+        private long lastPoll = 0L;
+
+        protected Feed(@NotNull String subreddit) {
+            this.subreddit = subreddit;
+            this.intervalNanos = interval.nanos();
+        }
+
+        /**
+         * Sends one poll, and passes each thing it finds to {@link #offer(RedditEntity)} oldest first. Polls of the same feed are never
+         * concurrent.
+         * @return A future that resolves with the time to wait before the next poll, usually {@link #settle(int, int, double)}
+         */
+        protected abstract @NotNull CompletableFuture<Long> fetch();
+
+        /**
+         * Checks if this is the first poll of the feed, whose things are only marked as seen unless
+         * {@link WatchOptions#deliverExisting()} is set
+         */
+        protected boolean isFirst() {
+            return first;
+        }
+
+        /**
+         * Delivers a thing if it has not been seen recently
+         * @param item The thing
+         * @return True if the thing was new
+         */
+        protected boolean offer(@NotNull T item) {
+            if (!seen.add(item.getFullname())) {
+                duplicates.increment();
+                return false;
+            }
+            if (!first || options.deliverExisting()) {
+                delivered.increment();
+                deliver(item);
+            }
+            return true;
+        }
+
+        /**
+         * Updates the interval with the result of a poll
+         * @param fresh The number of new things the poll found
+         * @param pageSize The number of things on the newest page of the poll
+         * @param pageSpanSeconds The time between the creation of the oldest and the newest thing on that page
+         * @return The time to wait before the next poll
+         */
+        protected long settle(int fresh, int pageSize, double pageSpanSeconds) {
+            if (first) {
+                first = false;
+                interval.seed(pageSize, pageSpanSeconds);
+            } else {
+                interval.observe(fresh, pollStart - lastPoll);
+            }
+            lastPoll = pollStart;
+            intervalNanos = interval.nanos();
+            return intervalNanos;
+        }
+
+        final void poll() {
+            if (!active) return;
+            polls.increment();
+            pollStart = System.nanoTime();
+            CompletableFuture<Long> future;
+            try {
+                future = fetch();
+            } catch (RuntimeException e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+            future.whenComplete((Long delay, Throwable error) -> {
+                long wait = intervalNanos;
+                if (error != null) {
+                    report(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+                } else if (delay != null) {
+                    wait = delay;
+                }
+                if (!active) return;
+                CompletableFuture.delayedExecutor(wait, TimeUnit.NANOSECONDS, client.getOptions().executor()).execute(this::poll);
+            });
+        }
+
+        private void report(Throwable error) {
+            try {
+                fail(subreddit, error);
+            } catch (RuntimeException ignored) { }
+        }
+    }
+
+}
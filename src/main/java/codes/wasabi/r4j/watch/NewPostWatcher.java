@@ -0,0 +1,134 @@
+package codes.wasabi.r4j.watch;
+
+import codes.wasabi.r4j.RedditClient;
+import codes.wasabi.r4j.param.ListingOptions;
+import codes.wasabi.r4j.param.WatchOptions;
+import codes.wasabi.r4j.struct.Listing;
+import codes.wasabi.r4j.struct.Post;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Watches subreddits for new posts by polling /r/{sub}/new. After the first poll, each poll passes the newest post seen so far as
+ * the "before" cursor, so that only newer posts are fetched. If a poll fills a whole page, the next poll is sent right away.
+ * <p>
+ * Each post is delivered to the listeners once, oldest first. Polls bypass the response cache, but are still revalidated with ETags
+ * where Reddit sends them.
+ */
+public class NewPostWatcher extends ListingWatcher<Post> {
+
+    /**
+     * Receives the posts found by a watcher
+     */
+    @FunctionalInterface
+    public interface Listener {
+        /**
+         * Called once for each new post. Calls for the same subreddit are never concurrent.
+         * @param post The post
+         */
+        void onPost(@NotNull Post post);
+
+        /**
+         * Called when a poll fails. The subreddit keeps being watched.
+         * @param subreddit The subreddit
+         * @param error The error
+         */
+        default void onError(@NotNull String subreddit, @NotNull Throwable error) { }
+    }
+
+    /**
+     * Polls after this many consecutive empty polls are sent without a cursor, in case the post used as the cursor was removed
+     */
+    private static final int RESYNC_AFTER = 10;
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Creates a watcher that is not watching any subreddits yet
+     * @param client The client used to poll
+     * @param options The polling options
+     */
+    public NewPostWatcher(@NotNull RedditClient client, @NotNull WatchOptions options) {
+        super(client, options);
+    }
+
+    public NewPostWatcher(@NotNull RedditClient client) {
+        this(client, WatchOptions.DEFAULT);
+    }
+
+    public void addListener(@NotNull Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(@NotNull Listener listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    protected @NotNull Feed createFeed(@NotNull String subreddit) {
+        return new PostFeed(subreddit);
+    }
+
+    @Override
+    protected void deliver(@NotNull Post post) {
+        for (Listener listener : listeners) {
+            try {
+                listener.onPost(post);
+            } catch (RuntimeException e) {
+                try {
+                    listener.onError(post.getSubreddit() == null ? "" : post.getSubreddit(), e);
+                } catch (RuntimeException ignored) { }
+            }
+        }
+    }
+
+    @Override
+    protected void fail(@NotNull String subreddit, @NotNull Throwable error) {
+        for (Listener listener : listeners) {
+            try {
+                listener.onError(subreddit, error);
+            } catch (RuntimeException ignored) { }
+        }
+    }
+
+    private final class PostFeed extends Feed {
+        private String newest = null;
+        private int emptyPolls = 0;
+
+        PostFeed(String subreddit) {
+            super(subreddit);
+        }
+
+        @Override
+        protected @NotNull CompletableFuture<Long> fetch() {
+            ListingOptions.Builder builder = ListingOptions.builder().limit(PAGE_SIZE).bypassCache(true);
+            boolean cursor = (newest != null && emptyPolls < RESYNC_AFTER);
+            if (cursor) builder.before(newest);
+            return client.getNewAsync(subreddit, builder.build()).thenApply((Listing<Post> listing) -> handle(listing, cursor));
+        }
+
+        /**
+         * Delivers the new posts of a poll
+         * @return The time to wait before the next poll
+         */
+        private long handle(Listing<Post> listing, boolean cursor) {
+            int fresh = 0;
+            // Listings are newest first, so walk them backwards to deliver the oldest first
+            for (int i=listing.size() - 1; i >= 0; i--) {
+                if (offer(listing.get(i))) fresh++;
+            }
+            if (!listing.isEmpty()) newest = listing.get(0).getFullname();
+            emptyPolls = (fresh == 0 ? emptyPolls + 1 : 0);
+            if (emptyPolls > RESYNC_AFTER) emptyPolls = 0;
+            double span = (listing.isEmpty() ? 0d : listing.get(0).getCreatedTime() - listing.get(listing.size() - 1).getCreatedTime());
+            long delay = settle(fresh, listing.size(), span);
+            // A full page of new posts means there may be more that did not fit, so fetch them right away
+            if (cursor && listing.size() >= PAGE_SIZE) return 0L;
+            return delay;
+        }
+    }
+
+}
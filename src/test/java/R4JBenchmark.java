@@ -0,0 +1,1972 @@
+import codes.wasabi.r4j.RedditApplication;
+import codes.wasabi.r4j.RedditClient;
+import codes.wasabi.r4j.concurrent.BulkExecutor;
+import codes.wasabi.r4j.concurrent.MultiListing;
+import codes.wasabi.r4j.concurrent.Paginator;
+import codes.wasabi.r4j.concurrent.ThreadCrawler;
+import codes.wasabi.r4j.crawl.CrawlJournal;
+import codes.wasabi.r4j.crawl.ResumableCrawler;
+import codes.wasabi.r4j.enums.TimePeriod;
+import codes.wasabi.r4j.http.CircuitBreaker;
+import codes.wasabi.r4j.http.HttpClientTransport;
+import codes.wasabi.r4j.http.RedditRequest;
+import codes.wasabi.r4j.http.RedditTransport;
+import codes.wasabi.r4j.http.URLConnectionTransport;
+import codes.wasabi.r4j.param.CacheOptions;
+import codes.wasabi.r4j.param.ClientOptions;
+import codes.wasabi.r4j.param.CommentViewOptions;
+import codes.wasabi.r4j.param.CrawlOptions;
+import codes.wasabi.r4j.param.ExpandOptions;
+import codes.wasabi.r4j.param.ListingOptions;
+import codes.wasabi.r4j.param.PaginationOptions;
+import codes.wasabi.r4j.param.RetryPolicy;
+import codes.wasabi.r4j.param.WatchOptions;
+import codes.wasabi.r4j.struct.Comment;
+import codes.wasabi.r4j.struct.CommentNode;
+import codes.wasabi.r4j.struct.EntityIdentityMap;
+import codes.wasabi.r4j.struct.EntityRegistry;
+import codes.wasabi.r4j.struct.MoreComments;
+import codes.wasabi.r4j.struct.Listing;
+import codes.wasabi.r4j.struct.Post;
+import codes.wasabi.r4j.struct.RedditEntity;
+import codes.wasabi.r4j.struct.RedditId;
+import codes.wasabi.r4j.util.LongObjectMap;
+import codes.wasabi.r4j.util.LongSet;
+import codes.wasabi.r4j.watch.CommentWatcher;
+import codes.wasabi.r4j.watch.FullnameSet;
+import codes.wasabi.r4j.watch.NewPostWatcher;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Benchmarks Reddit4J against a local stand-in for Reddit's API. Run with the name of a benchmark to run only that one.
+ */
+public class R4JBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        Set<String> selected = new HashSet<>(Arrays.asList(args));
+        try (StubServer server = new StubServer()) {
+            if (selected.isEmpty() || selected.contains("transport")) benchTransport(server);
+            if (selected.isEmpty() || selected.contains("async")) benchAsync(server);
+            if (selected.isEmpty() || selected.contains("bulk")) benchBulk(server);
+            if (selected.isEmpty() || selected.contains("coalesce")) benchCoalesce(server);
+            if (selected.isEmpty() || selected.contains("cache")) benchCache(server);
+            if (selected.isEmpty() || selected.contains("conditional")) benchConditional(server);
+            if (selected.isEmpty() || selected.contains("compression")) benchCompression(server);
+            if (selected.isEmpty() || selected.contains("retry")) benchRetry(server);
+            if (selected.isEmpty() || selected.contains("info")) benchInfo(server);
+            if (selected.isEmpty() || selected.contains("paginate")) benchPaginate(server);
+            if (selected.isEmpty() || selected.contains("publisher")) benchPublisher(server);
+            if (selected.isEmpty() || selected.contains("multi")) benchMulti(server);
+            if (selected.isEmpty() || selected.contains("checkpoint")) benchCheckpoint(server);
+            if (selected.isEmpty() || selected.contains("identity")) benchIdentity(server);
+            if (selected.isEmpty() || selected.contains("watch")) benchWatch(server);
+            if (selected.isEmpty() || selected.contains("commentwatch")) benchCommentWatch(server);
+            if (selected.isEmpty() || selected.contains("expand")) benchExpand(server);
+            if (selected.isEmpty() || selected.contains("crawl")) benchCrawl(server);
+            if (selected.isEmpty() || selected.contains("decode")) benchDecode();
+            if (selected.isEmpty() || selected.contains("model")) benchModel();
+            if (selected.isEmpty() || selected.contains("projection")) benchProjection();
+            if (selected.isEmpty() || selected.contains("registry")) benchRegistry();
+            if (selected.isEmpty() || selected.contains("lazy")) benchLazy();
+            if (selected.isEmpty() || selected.contains("ids")) benchIds();
+        }
+    }
+
+    // Stub server
+
+    private static class StubServer implements AutoCloseable {
+        private final HttpServer server;
+        private final ExecutorService executor = Executors.newFixedThreadPool(32);
+        private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(4);
+        private final Map<String, byte[]> routes = new ConcurrentHashMap<>();
+        private final Map<String, byte[]> gzipRoutes = new ConcurrentHashMap<>();
+        private final Map<String, Function<String, byte[]>> dynamicRoutes = new ConcurrentHashMap<>();
+        private volatile long latency = 0L;
+        private volatile boolean validators = false;
+        private final LongAdder bytesSent = new LongAdder();
+        private final LongAdder handled = new LongAdder();
+        private volatile double failureRate = 0d;
+
+        StubServer() throws IOException {
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+            server.createContext("/", this::handle);
+            server.setExecutor(executor);
+            server.start();
+        }
+
+        void route(String path, byte[] body) {
+            routes.put(path, body);
+            ByteArrayOutputStream bos = new ByteArrayOutputStream(body.length / 4);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(bos)) {
+                gzip.write(body);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            gzipRoutes.put(path, bos.toByteArray());
+        }
+
+        /**
+         * Routes a path to a body computed from the raw query string of each request
+         */
+        void route(String path, Function<String, byte[]> body) {
+            dynamicRoutes.put(path, body);
+        }
+
+        /**
+         * Simulates network latency by delaying every response without occupying a server thread
+         */
+        void latency(long millis) {
+            latency = millis;
+        }
+
+        /**
+         * Sends an ETag with every response and answers matching conditional requests with 304 Not Modified
+         */
+        void validators(boolean validators) {
+            this.validators = validators;
+        }
+
+        /**
+         * Answers the given fraction of requests with 503 Service Unavailable
+         */
+        void failureRate(double failureRate) {
+            this.failureRate = failureRate;
+        }
+
+        long handled() {
+            return handled.sum();
+        }
+
+        long bytesSent() {
+            return bytesSent.sum();
+        }
+
+        String url() {
+            return "http://127.0.0.1:" + server.getAddress().getPort();
+        }
+
+        private void handle(HttpExchange exchange) throws IOException {
+            exchange.getRequestBody().readAllBytes();
+            long delay = latency;
+            if (delay > 0L) {
+                scheduler.schedule(() -> {
+                    try {
+                        respond(exchange);
+                    } catch (IOException ignored) { }
+                }, delay, TimeUnit.MILLISECONDS);
+            } else {
+                respond(exchange);
+            }
+        }
+
+        private void respond(HttpExchange exchange) throws IOException {
+            handled.increment();
+            byte[] body = routes.get(exchange.getRequestURI().getPath());
+            Function<String, byte[]> dynamic = dynamicRoutes.get(exchange.getRequestURI().getPath());
+            if (dynamic != null) {
+                body = dynamic.apply(exchange.getRequestURI().getRawQuery());
+                exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream os = exchange.getResponseBody()) {
+                    os.write(body);
+                }
+                bytesSent.add(body.length);
+                exchange.close();
+                return;
+            }
+            if (failureRate > 0d && ThreadLocalRandom.current().nextDouble() < failureRate) {
+                exchange.sendResponseHeaders(503, -1);
+            } else if (body == null) {
+                exchange.sendResponseHeaders(404, -1);
+            } else if (validators && etag(body).equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.getResponseHeaders().set("ETag", etag(body));
+                exchange.sendResponseHeaders(304, -1);
+            } else {
+                exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+                if (validators) exchange.getResponseHeaders().set("ETag", etag(body));
+                String accept = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+                if (accept != null && accept.contains("gzip")) {
+                    body = gzipRoutes.get(exchange.getRequestURI().getPath());
+                    exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+                }
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream os = exchange.getResponseBody()) {
+                    os.write(body);
+                }
+                bytesSent.add(body.length);
+            }
+            exchange.close();
+        }
+
+        private static String etag(byte[] body) {
+            return "\"" + Integer.toHexString(Arrays.hashCode(body)) + "\"";
+        }
+
+        @Override
+        public void close() {
+            server.stop(0);
+            executor.shutdownNow();
+            scheduler.shutdownNow();
+        }
+    }
+
+    // Fixtures
+
+    private static String postJSON(int i) {
+        return "{\"kind\":\"t3\",\"data\":{" +
+                "\"id\":\"p" + Integer.toString(i, 36) + "\"," +
+                "\"name\":\"t3_p" + Integer.toString(i, 36) + "\"," +
+                "\"author\":\"user" + i + "\"," +
+                "\"author_fullname\":\"t2_u" + i + "\"," +
+                "\"title\":\"Benchmark post number " + i + "\"," +
+                "\"selftext\":\"" + "Lorem ipsum dolor sit amet. ".repeat(8) + "\"," +
+                "\"permalink\":\"/r/bench/comments/p" + Integer.toString(i, 36) + "/\"," +
+                "\"subreddit\":\"bench\"," +
+                "\"subreddit_id\":\"t5_bench\"," +
+                "\"created\":" + (1650000000L - i * 60L) + "," +
+                "\"ups\":" + (1000 - i) + ",\"downs\":0,\"score\":" + (1000 - i) + "," +
+                "\"upvote_ratio\":0.97,\"num_comments\":" + (i * 3) + "}}";
+    }
+
+    /**
+     * A post with roughly as many fields as Reddit sends (about 100), most of which a typical job never reads
+     */
+    private static String widePostJSON(int i) {
+        String post = postJSON(i);
+        StringBuilder sb = new StringBuilder(post.substring(0, post.length() - 2));
+        for (int k=0; k < 30; k++) sb.append(",\"str_field_").append(k).append("\":\"value ").append(k).append(" of post ").append(i).append("\"");
+        for (int k=0; k < 25; k++) sb.append(",\"num_field_").append(k).append("\":").append(i * 31 + k);
+        for (int k=0; k < 20; k++) sb.append(",\"flag_field_").append(k).append("\":").append((i + k) % 2 == 0);
+        for (int k=0; k < 10; k++) sb.append(",\"null_field_").append(k).append("\":null");
+        sb.append(",\"preview\":{\"images\":[{\"source\":{\"url\":\"https://preview.example/").append(i).append(".jpg\",\"width\":1080,\"height\":720},\"resolutions\":[");
+        for (int w=108; w <= 1080; w *= 2) sb.append(w == 108 ? "" : ",").append("{\"url\":\"https://preview.example/").append(i).append("_").append(w).append(".jpg\",\"width\":").append(w).append(",\"height\":").append(w * 2 / 3).append("}");
+        sb.append("]}],\"enabled\":true}");
+        sb.append(",\"all_awardings\":[],\"link_flair_richtext\":[{\"e\":\"text\",\"t\":\"Discussion\"}],\"gildings\":{}}}");
+        return sb.toString();
+    }
+
+    private static byte[] wideListingJSON(int size) {
+        StringBuilder sb = new StringBuilder("{\"kind\":\"Listing\",\"data\":{\"after\":null,\"before\":null,\"dist\":" + size + ",\"children\":[");
+        for (int i=0; i < size; i++) {
+            if (i > 0) sb.append(",");
+            sb.append(widePostJSON(i));
+        }
+        sb.append("]}}");
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] listingJSON(int size) {
+        StringBuilder sb = new StringBuilder("{\"kind\":\"Listing\",\"data\":{\"after\":null,\"before\":null,\"dist\":" + size + ",\"children\":[");
+        for (int i=0; i < size; i++) {
+            if (i > 0) sb.append(",");
+            sb.append(postJSON(i));
+        }
+        sb.append("]}}");
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String commentJSON(int i, int depth, String parent, String replies) {
+        String id = "c" + Integer.toString(i, 36);
+        return "{\"kind\":\"t1\",\"data\":{" +
+                "\"id\":\"" + id + "\"," +
+                "\"name\":\"t1_" + id + "\"," +
+                "\"parent_id\":\"" + parent + "\"," +
+                "\"link_id\":\"t3_big\"," +
+                "\"depth\":" + depth + "," +
+                "\"author\":\"user" + (i % 97) + "\"," +
+                "\"body\":\"" + "This is comment number " + i + " and it says something moderately long. ".repeat(3) + "\"," +
+                "\"body_html\":\"&lt;div class=\\\"md\\\"&gt;&lt;p&gt;Comment " + i + "&lt;/p&gt;&lt;/div&gt;\"," +
+                "\"permalink\":\"/r/bench/comments/big/_/" + id + "/\"," +
+                "\"subreddit\":\"bench\"," +
+                "\"created\":" + (1650000000L + i) + "," +
+                "\"ups\":" + (500 - i % 500) + ",\"score\":" + (500 - i % 500) + "," +
+                "\"replies\":" + replies + "}}";
+    }
+
+    /**
+     * A comment thread response in the shape of /r/{sub}/comments/{id}, with top level comments that each have a chain of replies
+     */
+    private static byte[] threadJSON(int topLevel, int repliesEach) {
+        StringBuilder sb = new StringBuilder("[{\"kind\":\"Listing\",\"data\":{\"after\":null,\"before\":null,\"children\":[" + postJSON(0) + "]}},");
+        sb.append("{\"kind\":\"Listing\",\"data\":{\"after\":null,\"before\":null,\"children\":[");
+        int n = 0;
+        for (int t=0; t < topLevel; t++) {
+            if (t > 0) sb.append(",");
+            int top = n++;
+            String replies = "\"\"";
+            for (int r=repliesEach; r > 0; r--) {
+                int id = top + r;
+                String parent = (r == 1 ? "t1_c" + Integer.toString(top, 36) : "t1_c" + Integer.toString(id - 1, 36));
+                replies = "{\"kind\":\"Listing\",\"data\":{\"after\":null,\"before\":null,\"children\":[" + commentJSON(id, r, parent, replies) + "]}}";
+            }
+            n += repliesEach;
+            sb.append(commentJSON(top, 0, "t3_big", replies));
+        }
+        sb.append("]}}]");
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Options pointing at the stub server, with coalescing disabled so that repeated identical requests all reach the network
+     */
+    private static ClientOptions.Builder options(StubServer server, RedditTransport transport) {
+        return ClientOptions.builder()
+                .transport(transport)
+                .apiURL(server.url())
+                .tokenURL(server.url())
+                .coalescing(false);
+    }
+
+    private static RedditClient createClient(ClientOptions options) {
+        return new RedditApplication("benchmark", options).createClient("token");
+    }
+
+    private static RedditClient createClient(StubServer server, RedditTransport transport) {
+        return createClient(options(server, transport).build());
+    }
+
+    private static double throughput(int threads, int requests, Callable<?> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Callable<Object>> tasks = new ArrayList<>(requests);
+            for (int i=0; i < requests; i++) tasks.add(task::call);
+            long start = System.nanoTime();
+            for (Future<Object> future : executor.invokeAll(tasks)) future.get();
+            long elapsed = System.nanoTime() - start;
+            return requests / (elapsed / 1e9d);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // Benchmarks
+
+    private static void benchTransport(StubServer server) throws Exception {
+        server.route("/r/bench/hot", listingJSON(25));
+        int threads = 16;
+        int requests = 4000;
+        Map<String, RedditTransport> transports = new LinkedHashMap<>();
+        transports.put("URLConnectionTransport (legacy)", new URLConnectionTransport());
+        transports.put("HttpClientTransport (pooled)", new HttpClientTransport());
+        System.out.println("== transport: " + requests + " requests over " + threads + " threads");
+        for (Map.Entry<String, RedditTransport> entry : transports.entrySet()) {
+            RedditClient rc = createClient(server, entry.getValue());
+            throughput(threads, requests / 4, () -> rc.get("/r/bench/hot"));
+            double rate = throughput(threads, requests, () -> rc.get("/r/bench/hot"));
+            System.out.printf("%-48s %10.1f req/s%n", entry.getKey(), rate);
+        }
+    }
+
+    private static void benchAsync(StubServer server) throws Exception {
+        server.route("/r/bench/new", listingJSON(25));
+        RedditClient rc = createClient(server, new HttpClientTransport());
+        int requests = 4000;
+        System.out.println("== async: " + requests + " listings in flight at once");
+        List<CompletableFuture<Listing<Post>>> futures = new ArrayList<>(requests);
+        long start = System.nanoTime();
+        for (int i=0; i < requests; i++) futures.add(rc.getNewAsync("bench", ListingOptions.builder().build()));
+        long items = 0;
+        for (CompletableFuture<Listing<Post>> future : futures) items += future.get().size();
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("%-48s %10.1f req/s (%d items, %d threads alive)%n", "getNewAsync", requests / (elapsed / 1e9d), items, Thread.activeCount());
+
+        // A transport without an asynchronous send of its own must not block threads of the common pool
+        Set<Thread> senders = ConcurrentHashMap.newKeySet();
+        RedditTransport blocking = new URLConnectionTransport();
+        RedditTransport recording = (RedditRequest request) -> {
+            senders.add(Thread.currentThread());
+            return blocking.send(request);
+        };
+        RedditClient fallback = createClient(server, recording);
+        int blocked = 200;
+        server.latency(50L);
+        try {
+            futures.clear();
+            start = System.nanoTime();
+            for (int i=0; i < blocked; i++) futures.add(fallback.getNewAsync("bench", ListingOptions.builder().bypassCache(true).build()));
+            for (CompletableFuture<Listing<Post>> future : futures) future.get();
+            elapsed = System.nanoTime() - start;
+        } finally {
+            server.latency(0L);
+        }
+        if (senders.stream().anyMatch(ForkJoinWorkerThread.class::isInstance)) throw new IllegalStateException("A blocking send ran on a pool worker");
+        System.out.printf("%-48s %10.1f ms for %d requests at 50ms latency, %d sending threads%n", "getNewAsync, blocking transport", elapsed / 1e6d, blocked, senders.size());
+    }
+
+    private static void benchBulk(StubServer server) throws Exception {
+        int subreddits = 2000;
+        long latency = 50L;
+        List<String> names = new ArrayList<>(subreddits);
+        byte[] listing = listingJSON(10);
+        for (int i=0; i < subreddits; i++) {
+            names.add("bench" + i);
+            server.route("/r/bench" + i + "/new", listing);
+        }
+        server.latency(latency);
+        try {
+            System.out.println("== bulk: " + subreddits + " subreddits at " + latency + "ms latency (virtual threads: " + BulkExecutor.isVirtualThreadsSupported() + ")");
+            ListingOptions opts = ListingOptions.builder().limit(10).build();
+            for (int threads : new int[] { 64, 256 }) {
+                RedditClient rc = createClient(server, new HttpClientTransport());
+                double rate = throughputOver(names, threads, (String name) -> rc.getNew(name, opts));
+                System.out.printf("%-48s %10.1f req/s%n", "Fixed pool (" + threads + " threads)", rate);
+            }
+            for (int concurrency : new int[] { 64, 256, 2000 }) {
+                RedditClient rc = createClient(options(server, new HttpClientTransport()).bulkConcurrency(concurrency).build());
+                long start = System.nanoTime();
+                rc.getNewBulk(names, opts);
+                double rate = subreddits / ((System.nanoTime() - start) / 1e9d);
+                System.out.printf("%-48s %10.1f req/s%n", "getNewBulk (concurrency " + concurrency + ")", rate);
+            }
+            benchBulkFailure();
+        } finally {
+            server.latency(0L);
+        }
+    }
+
+    private static void benchBulkFailure() throws Exception {
+        // Calls that ignore interrupts, like blocking socket reads, and one that fails early
+        BulkExecutor executor = new BulkExecutor(8);
+        AtomicInteger started = new AtomicInteger();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        codes.wasabi.r4j.concurrent.IOFunction<Integer, Integer> call = (Integer key) -> {
+            started.incrementAndGet();
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                long until = System.nanoTime() + 100_000_000L;
+                while (System.nanoTime() < until) LockSupport.parkNanos(until - System.nanoTime());
+                if (key == 20) throw new IOException("Failed");
+                return key;
+            } finally {
+                running.decrementAndGet();
+            }
+        };
+        List<Integer> keys = new ArrayList<>();
+        for (int i=0; i < 1000; i++) keys.add(i);
+        long start = System.nanoTime();
+        try {
+            executor.map(keys, call);
+        } catch (IOException ignored) { }
+        long elapsed = (System.nanoTime() - start) / 1_000_000L;
+        int startedBeforeFailure = started.get();
+        executor.map(keys.subList(100, 164), call);
+        System.out.printf("%-48s %10d ms, %d of %d calls started, at most %d running at once (limit 8)%n", "map with a failing call", elapsed, startedBeforeFailure, keys.size(), peak.get());
+    }
+
+    private static <T> double throughputOver(List<T> keys, int threads, codes.wasabi.r4j.concurrent.IOFunction<T, ?> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Callable<Object>> tasks = new ArrayList<>(keys.size());
+            for (T key : keys) tasks.add(() -> task.apply(key));
+            long start = System.nanoTime();
+            for (Future<Object> future : executor.invokeAll(tasks)) future.get();
+            return keys.size() / ((System.nanoTime() - start) / 1e9d);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void benchCoalesce(StubServer server) throws Exception {
+        server.route("/r/news/hot", listingJSON(100));
+        server.latency(50L);
+        try {
+            int threads = 64;
+            int requests = 2000;
+            System.out.println("== coalesce: " + requests + " identical getHot calls over " + threads + " threads");
+            ListingOptions opts = ListingOptions.builder().build();
+            for (boolean coalescing : new boolean[] { false, true }) {
+                RedditClient rc = createClient(options(server, new HttpClientTransport()).coalescing(coalescing).build());
+                double rate = throughput(threads, requests, () -> rc.getHot("news", opts));
+                System.out.printf("%-48s %10.1f req/s %s%n", "coalescing " + (coalescing ? "on" : "off"), rate, coalescing ? rc.getCoalescingStats() : "");
+            }
+        } finally {
+            server.latency(0L);
+        }
+    }
+
+    private static void benchCache(StubServer server) throws Exception {
+        int subreddits = 50;
+        byte[] listing = listingJSON(25);
+        List<String> names = new ArrayList<>(subreddits);
+        for (int i=0; i < subreddits; i++) {
+            names.add("cached" + i);
+            server.route("/r/cached" + i + "/hot", listing);
+        }
+        server.latency(20L);
+        try {
+            int threads = 16;
+            int requests = 4000;
+            System.out.println("== cache: " + requests + " getHot calls spread over " + subreddits + " subreddits, " + threads + " threads");
+            ListingOptions opts = ListingOptions.builder().build();
+            for (boolean caching : new boolean[] { false, true }) {
+                ClientOptions.Builder builder = options(server, new HttpClientTransport());
+                if (caching) builder.cache(CacheOptions.builder().build());
+                RedditClient rc = createClient(builder.build());
+                double rate = throughput(threads, requests, () -> rc.getHot(names.get(ThreadLocalRandom.current().nextInt(subreddits)), opts));
+                System.out.printf("%-48s %10.1f req/s %s%n", "cache " + (caching ? "on" : "off"), rate, caching ? rc.getCacheStats() : "");
+            }
+        } finally {
+            server.latency(0L);
+        }
+    }
+
+    private static void benchConditional(StubServer server) throws Exception {
+        server.route("/r/polled/new", listingJSON(100));
+        server.validators(true);
+        try {
+            int threads = 4;
+            int requests = 2000;
+            System.out.println("== conditional: " + requests + " polls of an unchanged 100 item listing over " + threads + " threads");
+            ListingOptions opts = ListingOptions.builder().limit(100).build();
+            for (int capacity : new int[] { 0, 256 }) {
+                RedditClient rc = createClient(options(server, new HttpClientTransport()).revalidationCapacity(capacity).build());
+                long bytesBefore = server.bytesSent();
+                double rate = throughput(threads, requests, () -> rc.getNew("polled", opts));
+                long bytes = server.bytesSent() - bytesBefore;
+                System.out.printf("%-48s %10.1f req/s %,d body bytes %s%n", "revalidation " + (capacity > 0 ? "on" : "off"), rate, bytes, capacity > 0 ? rc.getValidatorStore().getStats() : "");
+            }
+            // Many distinct large listings: the store stays within its byte bound rather than its entry count
+            byte[] big = listingJSON(100);
+            for (int i=0; i < 256; i++) server.route("/r/polled" + i + "/new", big);
+            RedditClient rc = createClient(options(server, new HttpClientTransport()).revalidationCapacity(256).revalidationMaxBytes(4L * 1024L * 1024L).build());
+            for (int i=0; i < 256; i++) rc.getNew("polled" + i, opts);
+            System.out.printf("%-48s %s%n", "256 listings of " + big.length / 1024 + " KB, 4 MB bound", rc.getValidatorStore().getStats());
+        } finally {
+            server.validators(false);
+        }
+    }
+
+    private static void benchCompression(StubServer server) throws Exception {
+        byte[] thread = threadJSON(100, 4);
+        server.route("/r/bench/comments/big", thread);
+        int requests = 300;
+        System.out.println("== compression: " + requests + " sequential getComments of a 500 comment thread (" + thread.length + " bytes uncompressed)");
+        CommentViewOptions opts = CommentViewOptions.builder().limit(500).build();
+        for (boolean compression : new boolean[] { false, true }) {
+            RedditClient rc = createClient(options(server, new HttpClientTransport()).compression(compression).build());
+            for (int i=0; i < requests / 3; i++) rc.getComments("bench", "big", null, opts);
+            long bytesBefore = server.bytesSent();
+            long start = System.nanoTime();
+            for (int i=0; i < requests; i++) rc.getComments("bench", "big", null, opts);
+            long elapsed = System.nanoTime() - start;
+            long bytes = server.bytesSent() - bytesBefore;
+            System.out.printf("%-48s %,10d bytes/response %8.3f ms/response%n", "compression " + (compression ? "on" : "off"), bytes / requests, (elapsed / 1e6d) / requests);
+        }
+    }
+
+    /**
+     * Runs the task the given number of times over a pool of threads and counts how many runs succeeded
+     */
+    private static int successes(int threads, int requests, Callable<?> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Callable<Object>> tasks = new ArrayList<>(requests);
+            for (int i=0; i < requests; i++) tasks.add(task::call);
+            int ok = 0;
+            for (Future<Object> future : executor.invokeAll(tasks)) {
+                try {
+                    future.get();
+                    ok++;
+                } catch (ExecutionException ignored) { }
+            }
+            return ok;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void benchRetry(StubServer server) throws Exception {
+        server.route("/r/flaky/hot", listingJSON(25));
+        ListingOptions opts = ListingOptions.builder().build();
+        int threads = 16;
+        int requests = 2000;
+        try {
+            server.failureRate(0.2d);
+            System.out.println("== retry: " + requests + " getHot calls over " + threads + " threads, 20% of responses are 503");
+            RetryPolicy retrying = RetryPolicy.builder().maxAttempts(4).baseDelay(Duration.ofMillis(5L)).build();
+            for (RetryPolicy policy : new RetryPolicy[] { RetryPolicy.NONE, retrying }) {
+                RedditClient rc = createClient(options(server, new HttpClientTransport()).retryPolicy(policy).circuitBreaking(false).build());
+                long handledBefore = server.handled();
+                int ok = successes(threads, requests, () -> rc.getHot("flaky", opts));
+                System.out.printf("%-48s %10d succeeded, %d requests sent%n", "maxAttempts " + policy.maxAttempts(), ok, server.handled() - handledBefore);
+            }
+
+            server.failureRate(1d);
+            threads = 64;
+            System.out.println("== retry: " + requests + " getHot calls over " + threads + " threads during an outage");
+            for (boolean breaking : new boolean[] { false, true }) {
+                ClientOptions.Builder builder = options(server, new HttpClientTransport()).retryPolicy(retrying).circuitBreaking(breaking);
+                if (breaking) builder.circuitBreaker(new CircuitBreaker("stub", 10, Duration.ofSeconds(1L)));
+                RedditClient rc = createClient(builder.build());
+                long handledBefore = server.handled();
+                long start = System.nanoTime();
+                successes(threads, requests, () -> rc.getHot("flaky", opts));
+                long elapsed = System.nanoTime() - start;
+                System.out.printf("%-48s %10d requests sent in %d ms%n", "circuit breaker " + (breaking ? "on" : "off"), server.handled() - handledBefore, elapsed / 1000000L);
+            }
+
+            // A trial request that hangs: the request timeout fails it, and a trial whose outcome never arrives is taken over
+            System.out.println("== retry: a trial request to a host that stops answering");
+            CircuitBreaker breaker = new CircuitBreaker("stub", 1, Duration.ofMillis(300L));
+            RedditClient rc = createClient(options(server, new HttpClientTransport()).retryPolicy(RetryPolicy.NONE).circuitBreaker(breaker).requestTimeout(Duration.ofMillis(500L)).build());
+            successes(1, 1, () -> rc.getHot("flaky", opts));
+            server.failureRate(0d);
+            server.latency(5000L);
+            Thread.sleep(300L);
+            long start = System.nanoTime();
+            successes(1, 1, () -> rc.getHot("flaky", opts));
+            System.out.printf("%-48s %10d ms, breaker %s%n", "hanging trial, 500 ms request timeout", (System.nanoTime() - start) / 1000000L, breaker.getState());
+            server.latency(0L);
+            Thread.sleep(300L);
+            breaker.acquire();
+            boolean blocked = !succeeds(breaker);
+            Thread.sleep(300L);
+            System.out.printf("%-48s %10s while in flight, %s after the open duration%n", "trial never reported", blocked ? "blocked" : "allowed", succeeds(breaker) ? "taken over" : "still blocked");
+        } finally {
+            server.failureRate(0d);
+        }
+    }
+
+    private static boolean succeeds(CircuitBreaker breaker) {
+        try {
+            breaker.acquire();
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Answers /api/info with a post for every t3 fullname in the id parameter, and a subreddit for t3_sub, whose kind nothing is
+     * registered for
+     */
+    private static byte[] infoJSON(String query) {
+        String ids = "";
+        for (String pair : query.split("&")) {
+            if (pair.startsWith("id=")) ids = URLDecoder.decode(pair.substring(3), StandardCharsets.UTF_8);
+        }
+        StringBuilder sb = new StringBuilder("{\"kind\":\"Listing\",\"data\":{\"after\":null,\"before\":null,\"children\":[");
+        boolean first = true;
+        for (String id : ids.split(",")) {
+            if (!id.startsWith("t3_p") && !id.equals("t3_sub")) continue;
+            if (!first) sb.append(",");
+            first = false;
+            sb.append(id.equals("t3_sub") ? "{\"kind\":\"t5\",\"data\":{\"name\":\"t5_sub\",\"display_name\":\"sub\"}}" : postJSON(Integer.parseInt(id.substring(4), 36)));
+        }
+        sb.append("]}}");
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void benchInfo(StubServer server) throws Exception {
+        server.route("/api/info", R4JBenchmark::infoJSON);
+        server.latency(20L);
+        try {
+            int things = 5000;
+            int threads = 64;
+            List<String> fullnames = new ArrayList<>(things);
+            for (int i=0; i < things; i++) fullnames.add("t3_p" + Integer.toString(i, 36));
+            System.out.println("== info: refresh " + things + " post fullnames over " + threads + " threads at 20ms latency");
+
+            RedditClient single = createClient(server, new HttpClientTransport());
+            long handledBefore = server.handled();
+            double rate = throughputOver(fullnames, threads, (String name) -> single.get("/api/info", Map.of("id", name)));
+            System.out.printf("%-48s %10.1f things/s, %d requests%n", "get(\"/api/info\") per fullname", rate, server.handled() - handledBefore);
+
+            RedditClient batched = createClient(server, new HttpClientTransport());
+            handledBefore = server.handled();
+            rate = throughputOver(fullnames, threads, batched::getInfo);
+            System.out.printf("%-48s %10.1f things/s, %d requests %s%n", "getInfo (batched)", rate, server.handled() - handledBefore, batched.getInfoLoader().getStats());
+
+            RedditClient all = createClient(server, new HttpClientTransport());
+            handledBefore = server.handled();
+            long start = System.nanoTime();
+            Map<String, RedditEntity> map = all.getInfo(fullnames);
+            rate = things / ((System.nanoTime() - start) / 1e9d);
+            System.out.printf("%-48s %10.1f things/s, %d requests, %d posts %s%n", "getInfo(Collection)", rate, server.handled() - handledBefore, map.values().stream().filter(Post.class::isInstance).count(), all.getInfoLoader().getStats());
+
+            // A fullname of an unregistered kind, and a thing that cannot be wrapped, only fail or miss their own lookup
+            for (boolean retainJSON : new boolean[] { true, false }) {
+                RedditClient mixed = createClient(options(server, new HttpClientTransport()).retainJSON(retainJSON).build());
+                List<CompletableFuture<RedditEntity>> posts = new ArrayList<>();
+                for (int i=0; i < 50; i++) posts.add(mixed.getInfoAsync(fullnames.get(i)));
+                CompletableFuture<RedditEntity> unregistered = mixed.getInfoAsync("t5_sub");
+                CompletableFuture<RedditEntity> unwrappable = mixed.getInfoAsync("t3_sub");
+                for (CompletableFuture<RedditEntity> post : posts) {
+                    if (!(post.get() instanceof Post)) throw new IllegalStateException("A lookup sharing a batch with a bad fullname failed");
+                }
+                if (!unregistered.isCompletedExceptionally() || unwrappable.get() != null) throw new IllegalStateException("A bad fullname did not fail on its own");
+                System.out.printf("%-48s %d posts loaded, t5_sub refused, t3_sub loaded as null, %d batch%n", "getInfoAsync, 2 bad fullnames" + (retainJSON ? ", raw JSON" : ", decoded only"), posts.size(), mixed.getInfoLoader().getStats().batches());
+            }
+        } finally {
+            server.latency(0L);
+        }
+    }
+
+    /**
+     * Answers a listing endpoint with pages of posts t3_p0, t3_p1, ... up to the given total, following the after and limit parameters
+     */
+    private static byte[] pageJSON(String query, int total) {
+        int start = 0;
+        int limit = 25;
+        if (query != null) {
+            for (String pair : query.split("&")) {
+                if (pair.startsWith("after=")) start = Integer.parseInt(URLDecoder.decode(pair.substring(6), StandardCharsets.UTF_8).substring(4), 36) + 1;
+                if (pair.startsWith("limit=")) limit = Integer.parseInt(pair.substring(6));
+            }
+        }
+        int end = Math.min(total, start + limit);
+        String after = (end < total ? "\"t3_p" + Integer.toString(end - 1, 36) + "\"" : "null");
+        StringBuilder sb = new StringBuilder("{\"kind\":\"Listing\",\"data\":{\"after\":" + after + ",\"before\":null,\"dist\":" + (end - start) + ",\"children\":[");
+        for (int i=start; i < end; i++) {
+            if (i > start) sb.append(",");
+            sb.append(postJSON(i));
+        }
+        sb.append("]}}");
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A page of the posts among the first total whose index is accepted, in order of index and so newest first
+     */
+    private static byte[] subsetPageJSON(String query, IntPredicate member, int total) {
+        int start = 0;
+        int limit = 25;
+        if (query != null) {
+            for (String pair : query.split("&")) {
+                if (pair.startsWith("after=")) start = Integer.parseInt(URLDecoder.decode(pair.substring(6), StandardCharsets.UTF_8).substring(4), 36) + 1;
+                if (pair.startsWith("limit=")) limit = Integer.parseInt(pair.substring(6));
+            }
+        }
+        StringBuilder sb = new StringBuilder();
+        int count = 0;
+        int last = -1;
+        int i = start;
+        for (; i < total && count < limit; i++) {
+            if (!member.test(i)) continue;
+            if (count++ > 0) sb.append(",");
+            sb.append(postJSON(i));
+            last = i;
+        }
+        boolean more = false;
+        for (; i < total && !more; i++) more = member.test(i);
+        String after = (more ? "\"t3_p" + Integer.toString(last, 36) + "\"" : "null");
+        return ("{\"kind\":\"Listing\",\"data\":{\"after\":" + after + ",\"before\":null,\"dist\":" + count + ",\"children\":[" + sb + "]}}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Stands in for the work a caller does with each post
+     */
+    private static void process(Post post) {
+        long until = System.nanoTime() + 200000L;
+        while (System.nanoTime() < until) Thread.onSpinWait();
+    }
+
+    private static void benchPaginate(StubServer server) throws Exception {
+        int total = 2000;
+        server.route("/r/paged/new", (String query) -> pageJSON(query, total));
+        server.latency(20L);
+        try {
+            System.out.println("== paginate: walk " + total + " posts of /r/paged/new in pages of 100, 20ms latency, 0.2ms of work per post");
+            RedditClient rc = createClient(server, new HttpClientTransport());
+            ListingOptions first = ListingOptions.builder().limit(100).build();
+            try (Paginator<Post> warmup = rc.paginateNew("paged", first)) {
+                warmup.forEachRemaining(R4JBenchmark::process);
+            }
+
+            long handledBefore = server.handled();
+            long start = System.nanoTime();
+            int seen = 0;
+            String after = null;
+            do {
+                Listing<Post> page = rc.getNew("paged", ListingOptions.builder().limit(100).after(after).count(seen).build());
+                for (Post post : page) process(post);
+                seen += page.size();
+                after = page.getAfter();
+            } while (after != null);
+            System.out.printf("%-48s %10d ms, %d posts, %d requests%n", "getNew + getAfter by hand", (System.nanoTime() - start) / 1000000L, seen, server.handled() - handledBefore);
+
+            for (int prefetch : new int[] { 0, 1, 2 }) {
+                handledBefore = server.handled();
+                start = System.nanoTime();
+                long count;
+                try (Paginator<Post> paginator = rc.paginateNew("paged", first, PaginationOptions.builder().prefetch(prefetch).build())) {
+                    count = paginator.stream().peek(R4JBenchmark::process).count();
+                }
+                System.out.printf("%-48s %10d ms, %d posts, %d requests%n", "paginateNew, prefetch " + prefetch, (System.nanoTime() - start) / 1000000L, count, server.handled() - handledBefore);
+            }
+
+            handledBefore = server.handled();
+            long count;
+            try (Paginator<Post> paginator = rc.paginateNew("paged", first, PaginationOptions.builder().maxItems(250L).build())) {
+                count = paginator.stream().count();
+            }
+            Thread.sleep(100L);
+            System.out.printf("%-48s %10d posts, %d requests%n", "paginateNew, maxItems 250", count, server.handled() - handledBefore);
+        } finally {
+            server.latency(0L);
+        }
+    }
+
+    /**
+     * A subscriber that requests one item at a time and cancels after a number of items
+     */
+    private static class SlowSubscriber<T> implements Flow.Subscriber<T> {
+        private final long cancelAfter;
+        private final Consumer<T> work;
+        private final CountDownLatch done = new CountDownLatch(1);
+        private Flow.Subscription subscription;
+        private long received = 0L;
+        private volatile Throwable error;
+
+        SlowSubscriber(long cancelAfter, Consumer<T> work) {
+            this.cancelAfter = cancelAfter;
+            this.work = work;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1L);
+        }
+
+        @Override
+        public void onNext(T item) {
+            work.accept(item);
+            if (++received >= cancelAfter) {
+                subscription.cancel();
+                done.countDown();
+            } else {
+                subscription.request(1L);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            done.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            done.countDown();
+        }
+
+        long await() throws InterruptedException {
+            done.await();
+            if (error != null) throw new IllegalStateException(error);
+            return received;
+        }
+    }
+
+    private static void benchMulti(StubServer server) throws Exception {
+        int subs = 400;
+        int total = subs * 50;
+        int wanted = 500;
+        List<String> names = new ArrayList<>();
+        for (int n=0; n < subs; n++) {
+            int sub = n;
+            names.add("sub" + n);
+            server.route("/r/sub" + n + "/new", (String query) -> subsetPageJSON(query, (int i) -> i % subs == sub, total));
+        }
+        List<String> groups = MultiListing.group(names);
+        for (String group : groups) {
+            Set<Integer> members = new HashSet<>();
+            for (String name : group.split("\\+")) members.add(Integer.parseInt(name.substring(3)));
+            server.route("/r/" + group + "/new", (String query) -> subsetPageJSON(query, (int i) -> members.contains(i % subs), total));
+        }
+        server.latency(20L);
+        try {
+            System.out.println("== multi: the " + wanted + " newest posts across " + subs + " subreddits of 50 posts each, 20ms latency");
+            RedditClient rc = createClient(server, new HttpClientTransport());
+            ListingOptions options = ListingOptions.builder().limit(100).bypassCache(true).build();
+            rc.multiNew(names, options).close();
+
+            long handledBefore = server.handled();
+            long bytesBefore = server.bytesSent();
+            long start = System.nanoTime();
+            List<Post> bulk = new ArrayList<>();
+            for (Listing<Post> listing : rc.getNewBulk(names, options).values()) bulk.addAll(listing);
+            bulk.sort(MultiListing.NEWEST_FIRST);
+            List<Post> newest = bulk.subList(0, wanted);
+            double elapsed = (System.nanoTime() - start) / 1e6d;
+            System.out.printf("%-48s %10.1f ms, %d requests, %,d bytes%n", "getNewBulk of every subreddit + sort", elapsed, server.handled() - handledBefore, server.bytesSent() - bytesBefore);
+
+            handledBefore = server.handled();
+            bytesBefore = server.bytesSent();
+            start = System.nanoTime();
+            List<Post> merged = new ArrayList<>();
+            try (MultiListing<Post> multi = rc.multiNew(names, options)) {
+                while (merged.size() < wanted && multi.hasNext()) merged.add(multi.next());
+            }
+            elapsed = (System.nanoTime() - start) / 1e6d;
+            for (int i=0; i < wanted; i++) {
+                if (!merged.get(i).getID().equals(newest.get(i).getID())) throw new IllegalStateException("Merge differs at " + i);
+            }
+            System.out.printf("%-48s %10.1f ms, %d requests, %,d bytes, %d groups%n", "multiNew, k-way merge", elapsed, server.handled() - handledBefore, server.bytesSent() - bytesBefore, groups.size());
+        } finally {
+            server.latency(0L);
+        }
+    }
+
+    private static void benchCheckpoint(StubServer server) throws Exception {
+        int sources = 4;
+        int total = 2000;
+        for (int n=0; n < sources; n++) server.route("/r/crawl" + n + "/new", (String query) -> pageJSON(query, total));
+        Path dir = Files.createTempDirectory("r4j-bench");
+        try {
+            System.out.println("== checkpoint: cost of one checkpoint of 100 fullnames");
+            List<String> fullnames = new ArrayList<>();
+            for (int i=0; i < 100; i++) fullnames.add("t3_p" + Integer.toString(i, 36));
+            for (boolean sync : new boolean[] { false, true }) {
+                Path path = dir.resolve("cost-" + sync);
+                int count = 2000;
+                long start = System.nanoTime();
+                try (CrawlJournal journal = CrawlJournal.open(path, 1000, sync)) {
+                    for (int i=0; i < count; i++) journal.checkpoint("s" + (i % 4), "t3_p" + i, fullnames, false);
+                    double micros = (System.nanoTime() - start) / 1e3d / count;
+                    System.out.printf("%-48s %10.1f us/checkpoint, %,d bytes after %d compactions%n", (sync ? "fsync each checkpoint" : "no fsync"), micros, journal.getSize(), journal.getCompactions());
+                }
+            }
+
+            System.out.println("== checkpoint: " + sources + " sources of " + total + " posts, crash after 7 pages, torn write, resume");
+            server.latency(5L);
+            RedditClient rc = createClient(server, new HttpClientTransport());
+            Path path = dir.resolve("crawl.journal");
+            Map<String, Set<String>> handled = new ConcurrentHashMap<>();
+            LongAdder deliveries = new LongAdder();
+            LongAdder pages = new LongAdder();
+            long handledBefore = server.handled();
+            long start = System.nanoTime();
+            try (ResumableCrawler crawler = new ResumableCrawler(rc, path)) {
+                for (int n=0; n < sources; n++) {
+                    crawler.addNew("crawl" + n, (String source, List<Post> items) -> {
+                        if (source.equals("new:crawl0") && pages.sum() >= 7) throw new IOException("Simulated crash");
+                        pages.increment();
+                        deliveries.add(items.size());
+                        Set<String> ids = handled.computeIfAbsent(source, (String k) -> ConcurrentHashMap.newKeySet());
+                        for (Post post : items) ids.add(post.getFullname());
+                    });
+                }
+                crawler.run();
+                throw new IllegalStateException("Crawl should have failed");
+            } catch (IOException e) {
+                System.out.printf("%-48s %10.1f ms, %d requests, %d items handled%n", "first run, until the crash", (System.nanoTime() - start) / 1e6d, server.handled() - handledBefore, deliveries.sum());
+            }
+            // A checkpoint cut short by the crash
+            try (var out = Files.newOutputStream(path, StandardOpenOption.APPEND)) {
+                out.write(new byte[] { 0, 0, 4, 0, 12, 34, 56, 78, 0, 0, 9 });
+            }
+            long firstRun = deliveries.sum();
+            handledBefore = server.handled();
+            start = System.nanoTime();
+            try (ResumableCrawler crawler = new ResumableCrawler(rc, path)) {
+                for (int n=0; n < sources; n++) {
+                    crawler.addNew("crawl" + n, (String source, List<Post> items) -> {
+                        deliveries.add(items.size());
+                        Set<String> ids = handled.computeIfAbsent(source, (String k) -> ConcurrentHashMap.newKeySet());
+                        for (Post post : items) ids.add(post.getFullname());
+                    });
+                }
+                CrawlJournal journal = crawler.getJournal();
+                crawler.run();
+                System.out.printf("%-48s %10.1f ms, %d requests, %d items handled, %d records replayed, %d torn bytes dropped%n", "resumed run", (System.nanoTime() - start) / 1e6d, server.handled() - handledBefore, deliveries.sum() - firstRun, journal.getRecovered(), journal.getDiscardedBytes());
+                for (int n=0; n < sources; n++) {
+                    CrawlJournal.Checkpoint progress = crawler.getProgress("new:crawl" + n);
+                    if (progress == null || !progress.done() || progress.items() != total || handled.get("new:crawl" + n).size() != total) throw new IllegalStateException("Source " + n + " was not crawled exactly once: " + progress);
+                }
+            }
+            System.out.printf("%-48s %10d of %d items handled more than once%n", "across both runs", deliveries.sum() - (long) sources * total, (long) sources * total);
+            try (ResumableCrawler crawler = new ResumableCrawler(rc, path)) {
+                for (int n=0; n < sources; n++) crawler.addNew("crawl" + n, (String source, List<Post> items) -> { throw new IllegalStateException("Finished source crawled again"); });
+                handledBefore = server.handled();
+                crawler.run();
+                System.out.printf("%-48s %10d requests%n", "third run, every source already done", server.handled() - handledBefore);
+            }
+            // A checkpoint whose cursor points at a removed item gets an empty page, which must not end the source. The crawl carries
+            // on after the items delivered before it, even when the head of the source has left the dedupe window.
+            server.route("/r/gone/new", (String query) -> pageJSON(query, 3000));
+            String[][] cases = { { "the last delivered item", "p" }, { "the head", "x" } };
+            for (String[] gone : cases) {
+                Path journalPath = dir.resolve("gone-" + gone[1] + ".journal");
+                List<String> seen = new ArrayList<>();
+                for (int i=0; i < 1500; i++) seen.add("t3_" + gone[1] + Integer.toString(gone[1].equals("p") ? i : 10000 + i, 36));
+                try (CrawlJournal journal = CrawlJournal.open(journalPath, 1000, false)) {
+                    journal.checkpoint("new:gone", "t3_p" + Integer.toString(5000, 36), seen, false);
+                }
+                try (ResumableCrawler crawler = new ResumableCrawler(rc, journalPath)) {
+                    LongAdder resumed = new LongAdder();
+                    crawler.addNew("gone", (String source, List<Post> items) -> resumed.add(items.size()));
+                    handledBefore = server.handled();
+                    crawler.run();
+                    CrawlJournal.Checkpoint progress = crawler.getProgress("new:gone");
+                    long expected = (gone[1].equals("p") ? 1500 : 3000);
+                    if (progress == null || !progress.done() || resumed.sum() != expected) throw new IllegalStateException("Source with a removed cursor was not resumed: " + progress + ", " + resumed.sum() + " items");
+                    System.out.printf("%-48s %10d items handled, %d requests%n", "removed cursor, resumed from " + gone[0], resumed.sum(), server.handled() - handledBefore);
+                }
+            }
+            // A compaction that fails does not fail the checkpoint that set it off
+            Path stuck = dir.resolve("stuck.journal");
+            try (CrawlJournal journal = CrawlJournal.open(stuck, 1000, false)) {
+                Path blocker = Files.createDirectories(dir.resolve("stuck.journal.tmp"));
+                Files.writeString(blocker.resolve("file"), "blocks the snapshot");
+                for (int i=0; i < 2000; i++) journal.checkpoint("s", "t3_p" + i, fullnames, false);
+                if (journal.getFailedCompactions() == 0 || journal.getCheckpoint("s").pages() != 2000) throw new IllegalStateException("Compaction did not fail, or failed a checkpoint");
+                System.out.printf("%-48s %10d checkpoints written, %d compactions failed%n", "compaction blocked by a directory", journal.getWritten(), journal.getFailedCompactions());
+                Files.delete(blocker.resolve("file"));
+                Files.delete(blocker);
+            }
+        } finally {
+            server.latency(0L);
+            try (var files = Files.list(dir)) {
+                for (Path file : files.toList()) Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    private static void benchIdentity(StubServer server) throws Exception {
+        int size = 100;
+        int rounds = 50;
+        AtomicInteger fetches = new AtomicInteger();
+        Function<String, byte[]> listing = (String query) -> {
+            // Every fetch sees the scores a little higher
+            int bump = fetches.incrementAndGet();
+            StringBuilder sb = new StringBuilder("{\"kind\":\"Listing\",\"data\":{\"after\":null,\"before\":null,\"dist\":" + size + ",\"children\":[");
+            for (int i=0; i < size; i++) {
+                if (i > 0) sb.append(",");
+                sb.append(postJSON(i).replace("\"score\":" + (1000 - i) + ",", "\"score\":" + (1000 - i + bump) + ","));
+            }
+            return sb.append("]}}").toString().getBytes(StandardCharsets.UTF_8);
+        };
+        for (String sort : new String[] { "hot", "new", "top" }) server.route("/r/ident/" + sort, listing);
+        System.out.println("== identity: the same " + size + " posts in hot, new and top, fetched " + rounds + " times each and all kept");
+        for (boolean retainJSON : new boolean[] { true, false }) {
+            for (boolean canonical : new boolean[] { false, true }) {
+                RedditClient rc = createClient(options(server, new HttpClientTransport()).retainJSON(retainJSON).canonicalEntities(canonical).build());
+                measureIdentity(rc, (canonical ? "canonical" : "independent copies") + (retainJSON ? ", raw JSON" : ", decoded only"), size, rounds);
+                EntityIdentityMap map = rc.getIdentityMap();
+                if (map != null) {
+                    usedHeap();
+                    System.out.printf("%-48s %s, %d entries left once the listings are dropped%n", "", map.getStats(), map.size());
+                }
+            }
+        }
+        // A projected fetch refreshes the raw JSON of a canonical post without dropping the keys outside the projection
+        RedditClient rc = createClient(options(server, new HttpClientTransport()).retainJSON(true).canonicalEntities(true).build());
+        Listing<Post> full = rc.getHot("ident", ListingOptions.builder().limit(100).bypassCache(true).build());
+        Listing<Post> projected = rc.getHot("ident", ListingOptions.builder().limit(100).bypassCache(true).fields("score").build());
+        Post post = full.get(0);
+        if (projected.get(0) != post || !post.getJSON().has("title") || post.getJSON().get("score").getAsInt() != post.getScore()) throw new IllegalStateException("Projected refresh lost raw JSON: " + post.getJSON());
+        System.out.printf("%-48s %d keys of raw JSON kept, score %d%n", "canonical post refreshed by a projection", post.getJSON().size(), post.getScore());
+    }
+
+    private static void measureIdentity(RedditClient rc, String label, int size, int rounds) throws IOException {
+        ListingOptions options = ListingOptions.builder().limit(100).bypassCache(true).build();
+        // Warm up the client, and leave nothing behind for the measurement
+        rc.getHot("ident", options);
+        List<Listing<Post>> kept = new ArrayList<>();
+        long before = usedHeap();
+        for (int r=0; r < rounds; r++) {
+            kept.add(rc.getHot("ident", options));
+            kept.add(rc.getNew("ident", options));
+            kept.add(rc.getTop("ident", TimePeriod.DAY, options));
+        }
+        long heap = usedHeap() - before;
+        Set<Post> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Listing<Post> listing : kept) distinct.addAll(listing);
+        Post first = kept.get(0).get(0);
+        Post last = kept.get(kept.size() - 1).get(0);
+        System.out.printf("%-48s %,10d bytes retained, %5d Post objects, first fetch reads score %d (newest %d)%n", label, heap, distinct.size(), first.getScore(), last.getScore());
+        if (rc.getIdentityMap() != null && (first != last || distinct.size() != size)) throw new IllegalStateException("Posts were not canonicalized");
+    }
+
+    private static void benchPublisher(StubServer server) throws Exception {
+        int total = 2000;
+        server.route("/r/paged/new", (String query) -> pageJSON(query, total));
+        server.route("/r/bench/comments/big", threadJSON(100, 4));
+        server.latency(20L);
+        try {
+            RedditClient rc = createClient(server, new HttpClientTransport());
+            ListingOptions first = ListingOptions.builder().limit(100).build();
+            System.out.println("== publisher: a subscriber that requests one post at a time from /r/paged/new (" + total + " posts), 20ms latency, 0.2ms of work per post");
+            for (long wanted : new long[] { 250L, Long.MAX_VALUE }) {
+                long handledBefore = server.handled();
+                long start = System.nanoTime();
+                SlowSubscriber<Post> subscriber = new SlowSubscriber<>(wanted, R4JBenchmark::process);
+                rc.publishNew("paged", first).subscribe(subscriber);
+                long received = subscriber.await();
+                Thread.sleep(100L);
+                System.out.printf("%-48s %10d ms, %d posts, %d requests%n", "publishNew, cancel after " + (wanted == Long.MAX_VALUE ? "none" : wanted), (System.nanoTime() - start) / 1000000L, received, server.handled() - handledBefore);
+            }
+            long handledBefore = server.handled();
+            try (Paginator<Post> paginator = rc.paginateNew("paged", first, PaginationOptions.builder().prefetch(2).build())) {
+                for (int i=0; i < 250 && paginator.hasNext(); i++) process(paginator.next());
+            }
+            Thread.sleep(100L);
+            System.out.printf("%-48s %10s    %d posts, %d requests%n", "paginateNew (prefetch 2), close after 250", "", 250, server.handled() - handledBefore);
+
+            SlowSubscriber<CommentNode> comments = new SlowSubscriber<>(Long.MAX_VALUE, (CommentNode node) -> { });
+            rc.publishComments("bench", "big", CommentViewOptions.builder().build()).subscribe(comments);
+            System.out.printf("%-48s %10d nodes%n", "publishComments, 100 top level x 4 replies", comments.await());
+        } finally {
+            server.latency(0L);
+        }
+    }
+
+    /**
+     * A subreddit that gains new things at a steady rate, served newest first and honouring the before, after and limit parameters
+     */
+    private static final class LiveFeed {
+        private final String prefix;
+        private final double rate;
+        private final int history;
+        private final long startNanos = System.nanoTime();
+        private final long startSeconds = System.currentTimeMillis() / 1000L;
+
+        LiveFeed(String prefix, double rate, int history) {
+            this.prefix = prefix;
+            this.rate = rate;
+            this.history = history;
+        }
+
+        int newest() {
+            return history - 1 + (int) Math.floor(((System.nanoTime() - startNanos) / 1e9d) * rate);
+        }
+
+        /**
+         * Gets the time at which a thing appeared, in the terms of System.nanoTime()
+         */
+        long appeared(int index) {
+            return startNanos + (long) (((index - history + 1) / rate) * 1e9d);
+        }
+
+        long created(int index) {
+            return startSeconds + (long) Math.floor((index - history + 1) / rate);
+        }
+
+        String id(int index) {
+            return prefix + Integer.toString(index, 36);
+        }
+
+        int index(String fullname) {
+            return Integer.parseInt(fullname.substring(3 + prefix.length()), 36);
+        }
+
+        byte[] page(String query, String kind, IntFunction<String> thing) {
+            int limit = 25;
+            String before = null;
+            String after = null;
+            if (query != null) {
+                for (String pair : query.split("&")) {
+                    String value = URLDecoder.decode(pair.substring(pair.indexOf('=') + 1), StandardCharsets.UTF_8);
+                    if (pair.startsWith("limit=")) limit = Integer.parseInt(value);
+                    if (pair.startsWith("before=")) before = value;
+                    if (pair.startsWith("after=")) after = value;
+                }
+            }
+            int newest = newest();
+            int high;
+            int low;
+            if (before != null) {
+                low = index(before) + 1;
+                high = Math.min(newest, low + limit - 1);
+            } else {
+                high = (after != null ? index(after) - 1 : newest);
+                low = Math.max(0, high - limit + 1);
+            }
+            StringBuilder sb = new StringBuilder("{\"kind\":\"Listing\",\"data\":{");
+            sb.append("\"after\":").append(low > 0 && high >= low ? "\"" + kind + "_" + id(low) + "\"" : "null");
+            sb.append(",\"before\":").append(high >= low ? "\"" + kind + "_" + id(high) + "\"" : "null");
+            sb.append(",\"dist\":").append(Math.max(0, high - low + 1)).append(",\"children\":[");
+            for (int i=high; i >= low; i--) {
+                if (i < high) sb.append(",");
+                sb.append(thing.apply(i));
+            }
+            sb.append("]}}");
+            return sb.toString().getBytes(StandardCharsets.UTF_8);
+        }
+
+        String postJSON(int index) {
+            String id = id(index);
+            return "{\"kind\":\"t3\",\"data\":{\"id\":\"" + id + "\",\"name\":\"t3_" + id + "\",\"author\":\"user" + (index % 97) + "\"," +
+                    "\"title\":\"Live post " + index + "\",\"selftext\":\"" + "Lorem ipsum dolor sit amet. ".repeat(8) + "\"," +
+                    "\"subreddit\":\"live\",\"created\":" + created(index) + ",\"score\":1,\"num_comments\":0}}";
+        }
+
+        String commentJSON(int index) {
+            String id = id(index);
+            return "{\"kind\":\"t1\",\"data\":{\"id\":\"" + id + "\",\"name\":\"t1_" + id + "\",\"author\":\"user" + (index % 97) + "\"," +
+                    "\"link_id\":\"t3_p" + Integer.toString(index % 40, 36) + "\",\"parent_id\":\"t3_p" + Integer.toString(index % 40, 36) + "\"," +
+                    "\"body\":\"" + "Lorem ipsum dolor sit amet. ".repeat(4) + "\",\"subreddit\":\"live\",\"created\":" + created(index) + "," +
+                    "\"score\":1,\"replies\":\"\"}}";
+        }
+    }
+
+    private static String percentiles(List<Long> latencies) {
+        if (latencies.isEmpty()) return "n/a";
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        long p50 = sorted.get(sorted.size() / 2) / 1000000L;
+        long p95 = sorted.get(Math.min(sorted.size() - 1, (int) (sorted.size() * 0.95d))) / 1000000L;
+        return "p50 " + p50 + " ms, p95 " + p95 + " ms";
+    }
+
+    private static void benchWatch(StubServer server) throws Exception {
+        long seconds = 8L;
+        LiveFeed busy = new LiveFeed("b", 5d, 500);
+        LiveFeed quiet = new LiveFeed("q", 1d / 120d, 500);
+        server.route("/r/busy/new", (String query) -> busy.page(query, "t3", busy::postJSON));
+        server.route("/r/quiet/new", (String query) -> quiet.page(query, "t3", quiet::postJSON));
+        server.latency(20L);
+        try {
+            System.out.println("== watch: new posts of a busy (5/s) and a quiet (1 per 2 min) subreddit for " + seconds + "s, 20ms latency");
+            RedditClient rc = createClient(server, new HttpClientTransport());
+
+            Map<String, LiveFeed> feeds = Map.of("busy", busy, "quiet", quiet);
+            Map<String, Integer> latest = new HashMap<>();
+            Set<String> seen = new HashSet<>();
+            List<Long> latencies = new ArrayList<>();
+            int delivered = 0;
+            long handledBefore = server.handled();
+            long bytesBefore = server.bytesSent();
+            long end = System.nanoTime() + seconds * 1000000000L;
+            boolean first = true;
+            while (System.nanoTime() < end) {
+                for (Map.Entry<String, LiveFeed> entry : feeds.entrySet()) {
+                    Listing<Post> page = rc.getNew(entry.getKey(), ListingOptions.builder().limit(100).bypassCache(true).build());
+                    long now = System.nanoTime();
+                    for (Post post : page) {
+                        if (!seen.add(post.getFullname()) || first) continue;
+                        delivered++;
+                        latencies.add(now - entry.getValue().appeared(entry.getValue().index(post.getFullname())));
+                    }
+                    latest.put(entry.getKey(), page.size());
+                }
+                first = false;
+                Thread.sleep(1000L);
+            }
+            System.out.printf("%-48s %10d posts, %d requests, %,d bytes, %s%n", "getNew every 1s + HashSet dedupe", delivered, server.handled() - handledBefore, server.bytesSent() - bytesBefore, percentiles(latencies));
+
+            List<Long> watched = Collections.synchronizedList(new ArrayList<>());
+            Set<String> duplicates = ConcurrentHashMap.newKeySet();
+            LongAdder dupes = new LongAdder();
+            handledBefore = server.handled();
+            bytesBefore = server.bytesSent();
+            try (NewPostWatcher watcher = new NewPostWatcher(rc, WatchOptions.builder().build())) {
+                watcher.addListener((Post post) -> {
+                    if (!duplicates.add(post.getFullname())) dupes.increment();
+                    LiveFeed feed = (post.getFullname().startsWith("t3_b") ? busy : quiet);
+                    watched.add(System.nanoTime() - feed.appeared(feed.index(post.getFullname())));
+                });
+                watcher.watch("busy");
+                watcher.watch("quiet");
+                Thread.sleep(seconds * 1000L);
+                System.out.printf("%-48s %10d posts, %d requests, %,d bytes, %s%n", "NewPostWatcher", watched.size(), server.handled() - handledBefore, server.bytesSent() - bytesBefore, percentiles(watched));
+                System.out.printf("%-48s %s, busy every %d ms, quiet every %d s, %d delivered twice%n", "", watcher.getStats(), watcher.getInterval("busy").toMillis(), watcher.getInterval("quiet").toSeconds(), dupes.sum());
+            }
+        } finally {
+            server.latency(0L);
+        }
+    }
+
+    private static void benchCommentWatch(StubServer server) throws Exception {
+        long seconds = 6L;
+        LiveFeed flood = new LiveFeed("f", 250d, 1000);
+        server.route("/r/flood/comments", (String query) -> flood.page(query, "t1", flood::commentJSON));
+        server.route("/r/flood/new", listingJSON(25));
+        byte[] thread = threadJSON(8, 2);
+        for (int i=0; i < 25; i++) server.route("/r/flood/comments/p" + Integer.toString(i, 36), thread);
+        server.latency(20L);
+        try {
+            System.out.println("== commentwatch: comments of a subreddit receiving 250/s, polled every 1s for " + seconds + "s, 20ms latency");
+            RedditClient rc = createClient(server, new HttpClientTransport());
+
+            long handledBefore = server.handled();
+            long bytesBefore = server.bytesSent();
+            Set<String> walked = new HashSet<>();
+            long end = System.nanoTime() + seconds * 1000000000L;
+            while (System.nanoTime() < end) {
+                for (Post post : rc.getNew("flood", ListingOptions.builder().limit(25).bypassCache(true).build())) {
+                    Iterator<CommentNode> nodes = CommentNode.depthFirst(rc.getComments("flood", post.getID(), CommentViewOptions.builder().bypassCache(true).build()));
+                    while (nodes.hasNext()) walked.add(nodes.next().getFullname());
+                }
+                Thread.sleep(1000L);
+            }
+            System.out.printf("%-48s %d requests, %,d bytes, only covers the 25 newest posts%n", "getNew + getComments of each post every 1s", server.handled() - handledBefore, server.bytesSent() - bytesBefore);
+
+            handledBefore = server.handled();
+            bytesBefore = server.bytesSent();
+            Set<Integer> headOnly = new HashSet<>();
+            int firstIndex = -1;
+            int lastIndex = -1;
+            end = System.nanoTime() + seconds * 1000000000L;
+            while (System.nanoTime() < end) {
+                Listing<Comment> page = rc.getNewComments("flood", ListingOptions.builder().limit(100).bypassCache(true).build());
+                for (Comment comment : page) {
+                    int index = flood.index(comment.getFullname());
+                    if (firstIndex < 0) firstIndex = index;
+                    lastIndex = Math.max(lastIndex, index);
+                    if (index > firstIndex) headOnly.add(index);
+                }
+                Thread.sleep(1000L);
+            }
+            System.out.printf("%-48s %d requests, %,d bytes, %d comments, %d missed%n", "getNewComments every 1s, newest page only", server.handled() - handledBefore, server.bytesSent() - bytesBefore, headOnly.size(), (lastIndex - firstIndex) - headOnly.size());
+
+            handledBefore = server.handled();
+            bytesBefore = server.bytesSent();
+            Set<Integer> streamed = ConcurrentHashMap.newKeySet();
+            List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+            WatchOptions options = WatchOptions.builder().minInterval(Duration.ofSeconds(1L)).build();
+            CommentWatcher watcher = new CommentWatcher(rc, options);
+            try (watcher) {
+                watcher.addListener((Comment comment) -> {
+                    int index = flood.index(comment.getFullname());
+                    streamed.add(index);
+                    latencies.add(System.nanoTime() - flood.appeared(index));
+                });
+                watcher.watch("flood");
+                Thread.sleep(seconds * 1000L);
+            }
+            // Counted once the watcher has stopped polling
+            int low = streamed.stream().mapToInt(Integer::intValue).min().orElse(0);
+            int high = streamed.stream().mapToInt(Integer::intValue).max().orElse(0);
+            System.out.printf("%-48s %d requests, %,d bytes, %d comments, %d missed, %s%n", "CommentWatcher", server.handled() - handledBefore, server.bytesSent() - bytesBefore, streamed.size(), (high - low + 1) - streamed.size(), percentiles(latencies));
+            System.out.printf("%-48s %s, %d backfill pages, %d unfilled gaps%n", "", watcher.getStats(), watcher.getBackfills(), watcher.getGaps());
+        } finally {
+            server.latency(0L);
+        }
+    }
+
+    /**
+     * A thread with a fixed shape, served the way Reddit serves big threads: a few levels at a time, with "more" nodes listing the
+     * children below the cutoff. Comment j has the children 2j + top and 2j + top + 1. If continueEvery is set, cutoffs at depths that
+     * are a multiple of it hold a "continue this thread" node instead, whose thread is served when the comment parameter names it.
+     */
+    private static final class HugeThread {
+        private final int size;
+        private final int top;
+        private final int shown;
+        private final int levels;
+        private final int continueEvery;
+
+        HugeThread(int size, int top, int shown, int levels, int continueEvery) {
+            this.size = size;
+            this.top = top;
+            this.shown = shown;
+            this.levels = levels;
+            this.continueEvery = continueEvery;
+        }
+
+        HugeThread(int size, int top, int shown, int levels) {
+            this(size, top, shown, levels, 0);
+        }
+
+        /**
+         * The node that stands for the children of a comment at a cutoff
+         */
+        String cutoff(int j, int[] children) {
+            int depth = depth(j) + 1;
+            String parent = "t1_c" + Integer.toString(j, 36);
+            if (continueEvery > 0 && depth % continueEvery == 0) return more("_", parent, depth, new int[0]);
+            return more("m" + Integer.toString(j, 36), parent, depth, children);
+        }
+
+        int[] children(int j) {
+            int first = 2 * j + top;
+            if (first >= size) return new int[0];
+            if (first + 1 >= size) return new int[] { first };
+            return new int[] { first, first + 1 };
+        }
+
+        int depth(int j) {
+            int depth = 0;
+            while (j >= top) {
+                j = (j - top) / 2;
+                depth++;
+            }
+            return depth;
+        }
+
+        String parent(int j) {
+            return (j < top ? "t3_huge" : "t1_c" + Integer.toString((j - top) / 2, 36));
+        }
+
+        String more(String id, String parent, int depth, int[] ids) {
+            StringBuilder sb = new StringBuilder("{\"kind\":\"more\",\"data\":{\"id\":\"" + id + "\",\"name\":\"t1_" + id + "\",\"parent_id\":\"" + parent + "\",\"depth\":" + depth + ",\"count\":" + ids.length + ",\"children\":[");
+            for (int i=0; i < ids.length; i++) {
+                if (i > 0) sb.append(",");
+                sb.append("\"c").append(Integer.toString(ids[i], 36)).append("\"");
+            }
+            return sb.append("]}}").toString();
+        }
+
+        /**
+         * A comment with its replies nested, down to the given number of levels
+         */
+        String nested(int j, int levels) {
+            int[] children = children(j);
+            String replies = "\"\"";
+            if (children.length > 0) {
+                StringBuilder sb = new StringBuilder("{\"kind\":\"Listing\",\"data\":{\"after\":null,\"before\":null,\"children\":[");
+                if (levels > 1) {
+                    for (int i=0; i < children.length; i++) {
+                        if (i > 0) sb.append(",");
+                        sb.append(nested(children[i], levels - 1));
+                    }
+                } else {
+                    sb.append(cutoff(j, children));
+                }
+                replies = sb.append("]}}").toString();
+            }
+            return commentJSON(j, depth(j), parent(j), replies);
+        }
+
+        /**
+         * A comment and its replies flattened in tree order, down to the given number of levels
+         */
+        void flat(int j, int levels, StringJoiner out) {
+            out.add(commentJSON(j, depth(j), parent(j), "\"\""));
+            int[] children = children(j);
+            if (children.length == 0) return;
+            if (levels > 1) {
+                for (int child : children) flat(child, levels - 1, out);
+            } else {
+                out.add(cutoff(j, children));
+            }
+        }
+
+        byte[] thread(String query) {
+            StringBuilder sb = new StringBuilder("[{\"kind\":\"Listing\",\"data\":{\"after\":null,\"before\":null,\"children\":[" + postJSON(0) + "]}},");
+            sb.append("{\"kind\":\"Listing\",\"data\":{\"after\":null,\"before\":null,\"children\":[");
+            for (String pair : (query == null ? "" : query).split("&")) {
+                if (!pair.startsWith("comment=")) continue;
+                sb.append(nested(Integer.parseInt(pair.substring(9), 36), levels)).append("]}}]");
+                return sb.toString().getBytes(StandardCharsets.UTF_8);
+            }
+            for (int t=0; t < shown; t++) {
+                if (t > 0) sb.append(",");
+                sb.append(nested(t, levels));
+            }
+            int[] rest = new int[top - shown];
+            for (int t=shown; t < top; t++) rest[t - shown] = t;
+            if (rest.length > 0) sb.append(",").append(more("mtop", "t3_huge", 0, rest));
+            sb.append("]}}]");
+            return sb.toString().getBytes(StandardCharsets.UTF_8);
+        }
+
+        byte[] moreChildren(String query) {
+            String children = "";
+            for (String pair : query.split("&")) {
+                if (pair.startsWith("children=")) children = URLDecoder.decode(pair.substring(9), StandardCharsets.UTF_8);
+            }
+            StringJoiner things = new StringJoiner(",");
+            for (String id : children.split(",")) flat(Integer.parseInt(id.substring(1), 36), levels, things);
+            return ("{\"json\":{\"errors\":[],\"data\":{\"things\":[" + things + "]}}}").getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Counts the comments of a tree, checking that each names its parent in the tree and that no "more" node is left
+     */
+    private static int verifyTree(List<CommentNode> nodes, String parent) {
+        int count = 0;
+        for (CommentNode node : nodes) {
+            if (node instanceof MoreComments) throw new IllegalStateException("Unexpanded more node " + node.getID());
+            if (!parent.equals(node.getParentFullname())) throw new IllegalStateException(node.getFullname() + " is under " + parent + " but names " + node.getParentFullname());
+            count += 1 + verifyTree(node.asComment().getReplies(), node.getFullname());
+        }
+        return count;
+    }
+
+    private static int countNodes(List<CommentNode> tree) {
+        int count = 0;
+        Iterator<CommentNode> nodes = CommentNode.depthFirst(tree);
+        while (nodes.hasNext()) {
+            nodes.next();
+            count++;
+        }
+        return count;
+    }
+
+    private static void benchExpand(StubServer server) throws Exception {
+        HugeThread huge = new HugeThread(50000, 2000, 200, 3);
+        server.route("/r/huge/comments/huge", huge::thread);
+        server.route("/api/morechildren", huge::moreChildren);
+        server.latency(20L);
+        try {
+            System.out.println("== expand: loading every \"more\" node of a 50000 comment thread, 20ms latency");
+            RedditClient rc = createClient(server, new HttpClientTransport());
+            Listing<CommentNode> tree = rc.getComments("huge", "huge", CommentViewOptions.builder().bypassCache(true).build());
+            int shown = 0;
+            int more = 0;
+            Iterator<CommentNode> nodes = CommentNode.depthFirst(tree);
+            while (nodes.hasNext()) {
+                if (nodes.next() instanceof MoreComments) more++; else shown++;
+            }
+            System.out.printf("%-48s %d comments and %d \"more\" nodes%n", "getComments", shown, more);
+            for (int concurrency : new int[] { 1, 4, 16 }) {
+                ExpandOptions options = ExpandOptions.builder().concurrency(concurrency).build();
+                rc.expandComments("huge", "huge", tree, options);
+                long handledBefore = server.handled();
+                long start = System.nanoTime();
+                Listing<CommentNode> expanded = rc.expandComments("huge", "huge", tree, options);
+                long elapsed = System.nanoTime() - start;
+                int comments = verifyTree(expanded, "t3_huge");
+                System.out.printf("%-48s %10.1f ms, %d calls, %d comments%n", "expandComments, concurrency " + concurrency, elapsed / 1e6d, server.handled() - handledBefore, comments);
+            }
+            // A projection keeps the fields the tree is built from, so a projected tree still expands in full
+            Listing<CommentNode> projected = rc.getComments("huge", "huge", CommentViewOptions.builder().bypassCache(true).fields("score", "replies").build());
+            Listing<CommentNode> expanded = rc.expandComments("huge", "huge", projected, ExpandOptions.builder().concurrency(16).build());
+            System.out.printf("%-48s %d comments%n", "expandComments of a tree projected to score", verifyTree(expanded, "t3_huge"));
+            // A capped expansion leaves "more" nodes for only the IDs it did not load, so expanding again loads nothing twice
+            Listing<CommentNode> partial = rc.expandComments("huge", "huge", tree, ExpandOptions.builder().concurrency(4).maxCalls(5).build());
+            Listing<CommentNode> resumed = rc.expandComments("huge", "huge", partial, ExpandOptions.builder().concurrency(16).build());
+            System.out.printf("%-48s %d comments%n", "expandComments after 5 capped calls", verifyTree(resumed, "t3_huge"));
+            // With canonical entities, the "continue this thread" fetches must not reshape the tree being expanded
+            HugeThread deep = new HugeThread(4000, 100, 20, 3, 6);
+            server.route("/r/deep/comments/deep", deep::thread);
+            server.route("/api/morechildren", deep::moreChildren);
+            RedditClient canonical = createClient(options(server, new HttpClientTransport()).canonicalEntities(true).build());
+            Listing<CommentNode> original = canonical.getComments("deep", "deep", CommentViewOptions.builder().bypassCache(true).build());
+            int before = countNodes(original);
+            Listing<CommentNode> deepExpanded = canonical.expandComments("deep", "deep", original, ExpandOptions.builder().concurrency(4).build());
+            if (countNodes(original) != before) throw new IllegalStateException("Expanding reshaped the original tree");
+            System.out.printf("%-48s %d comments, original tree of %d nodes unchanged%n", "expandComments, canonical entities", verifyTree(deepExpanded, "t3_huge"), before);
+        } finally {
+            server.latency(0L);
+        }
+    }
+
+    private static void benchCrawl(StubServer server) throws Exception {
+        HugeThread deep = new HugeThread(4000, 100, 20, 3, 6);
+        server.route("/r/deep/comments/deep", deep::thread);
+        server.route("/api/morechildren", deep::moreChildren);
+        server.latency(20L);
+        try {
+            System.out.println("== crawl: a 4000 comment thread with a \"more\" or \"continue this thread\" node below every third level, 20ms latency");
+            RedditClient rc = createClient(server, new HttpClientTransport());
+            CommentViewOptions options = CommentViewOptions.builder().bypassCache(true).build();
+            try (ThreadCrawler warmup = new ThreadCrawler(rc, 16)) {
+                warmup.crawl("deep", "deep", options, Integer.MAX_VALUE);
+            }
+            double single = 0d;
+            for (int workers : new int[] { 1, 2, 4, 8, 16 }) {
+                try (ThreadCrawler crawler = new ThreadCrawler(rc, workers)) {
+                    long start = System.nanoTime();
+                    ThreadCrawler.Result result = crawler.crawl("deep", "deep", options, Integer.MAX_VALUE);
+                    double elapsed = (System.nanoTime() - start) / 1e6d;
+                    if (workers == 1) single = elapsed;
+                    int comments = verifyTree(result.tree(), "t3_huge");
+                    System.out.printf("%-48s %10.1f ms, %d calls, %d comments, %.1fx%n", "ThreadCrawler, " + workers + " workers", elapsed, result.calls(), comments, single / elapsed);
+                }
+            }
+            ThreadCrawler.Result capped;
+            try (ThreadCrawler crawler = new ThreadCrawler(rc, 8)) {
+                capped = crawler.crawl("deep", "deep", options, 50);
+            }
+            int left = 0;
+            Iterator<CommentNode> nodes = CommentNode.depthFirst(capped.tree());
+            while (nodes.hasNext()) {
+                if (nodes.next() instanceof MoreComments) left++;
+            }
+            System.out.printf("%-48s %d calls, complete=%b, %d \"more\" nodes left%n", "ThreadCrawler, 8 workers, at most 50 calls", capped.calls(), capped.complete(), left);
+            // A "more" node listing 1800 IDs, cut off after two of its chunks, leaves a node listing only the IDs that were not loaded
+            HugeThread wide = new HugeThread(50000, 2000, 200, 3);
+            server.route("/r/wide/comments/wide", wide::thread);
+            server.route("/api/morechildren", wide::moreChildren);
+            try (ThreadCrawler crawler = new ThreadCrawler(rc, 1)) {
+                capped = crawler.crawl("wide", "wide", options, 3);
+            }
+            Set<String> seen = new HashSet<>();
+            Set<String> listed = new HashSet<>();
+            nodes = CommentNode.depthFirst(capped.tree());
+            while (nodes.hasNext()) {
+                CommentNode node = nodes.next();
+                if (node instanceof MoreComments more) listed.addAll(List.of(more.getChildren())); else seen.add(node.getID());
+            }
+            listed.retainAll(seen);
+            if (!listed.isEmpty()) throw new IllegalStateException(listed.size() + " loaded comments are still listed by a \"more\" node");
+            System.out.printf("%-48s %d calls, %d comments%n", "ThreadCrawler, a wide thread, at most 3 calls", capped.calls(), seen.size());
+        } finally {
+            server.latency(0L);
+        }
+    }
+
+    // Decoding, measured in process rather than through the stub server
+
+    private interface Decoder {
+        Object decode(byte[] body) throws IOException;
+    }
+
+    /**
+     * Measures the latency (best of several rounds) and the bytes allocated by the current thread per decode, after a warmup. This stands in for
+     * JMH (with its GC profiler), which this build does not depend on.
+     */
+    private static void measure(String name, byte[] body, Decoder decoder) throws IOException {
+        com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) java.lang.management.ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        int warmup = 500;
+        int rounds = 5;
+        int runs = 200;
+        Object sink = null;
+        for (int i=0; i < warmup; i++) sink = decoder.decode(body);
+        long best = Long.MAX_VALUE;
+        long allocated = 0L;
+        for (int r=0; r < rounds; r++) {
+            long allocatedBefore = mx.getThreadAllocatedBytes(thread);
+            long start = System.nanoTime();
+            for (int i=0; i < runs; i++) sink = decoder.decode(body);
+            best = Math.min(best, System.nanoTime() - start);
+            allocated += mx.getThreadAllocatedBytes(thread) - allocatedBefore;
+        }
+        if (sink == null) throw new IllegalStateException();
+        System.out.printf("%-48s %10.1f us/op %,12d bytes/op%n", name, (best / 1e3d) / runs, allocated / ((long) rounds * runs));
+    }
+
+    private static JsonReader reader(byte[] body) {
+        return new JsonReader(new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8));
+    }
+
+    private static void benchDecode() throws IOException {
+        Gson gson = new Gson();
+        byte[] listing = listingJSON(100);
+        System.out.println("== decode: 100 post listing (" + listing.length + " bytes)");
+        measure("readAllBytes -> String -> tree -> Listing", listing, (byte[] body) -> {
+            String str = new String(new ByteArrayInputStream(body).readAllBytes(), StandardCharsets.UTF_8);
+            return new Listing<>(Post.class, gson.fromJson(str, JsonObject.class));
+        });
+        measure("JsonReader -> tree -> Listing", listing, (byte[] body) -> {
+            try (JsonReader reader = reader(body)) {
+                return new Listing<>(Post.class, gson.fromJson(reader, JsonObject.class));
+            }
+        });
+        measure("Listing.read (streaming)", listing, (byte[] body) -> {
+            try (JsonReader reader = reader(body)) {
+                return Listing.read(Post.class, reader);
+            }
+        });
+        measure("Listing.read (typed, raw JSON not retained)", listing, (byte[] body) -> {
+            try (JsonReader reader = reader(body)) {
+                return Listing.read(Post.class, reader, false);
+            }
+        });
+
+        byte[] thread = threadJSON(100, 4);
+        System.out.println("== decode: 500 comment thread (" + thread.length + " bytes)");
+        measure("readAllBytes -> String -> tree -> Listing", thread, (byte[] body) -> {
+            String str = new String(new ByteArrayInputStream(body).readAllBytes(), StandardCharsets.UTF_8);
+            return new Listing<>(CommentNode.class, gson.fromJson(str, JsonArray.class).get(1).getAsJsonObject());
+        });
+        measure("JsonReader -> tree -> Listing", thread, (byte[] body) -> {
+            try (JsonReader reader = reader(body)) {
+                return new Listing<>(CommentNode.class, gson.<JsonArray>fromJson(reader, JsonArray.class).get(1).getAsJsonObject());
+            }
+        });
+        measure("Listing.read (streaming, post skipped)", thread, (byte[] body) -> {
+            try (JsonReader reader = reader(body)) {
+                reader.beginArray();
+                reader.skipValue();
+                return Listing.read(CommentNode.class, reader);
+            }
+        });
+        measure("Listing.read (typed, raw JSON not retained)", thread, (byte[] body) -> {
+            try (JsonReader reader = reader(body)) {
+                reader.beginArray();
+                reader.skipValue();
+                return Listing.read(CommentNode.class, reader, false);
+            }
+        });
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i=0; i < 4; i++) System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static void benchModel() throws IOException {
+        byte[] body = listingJSON(100);
+        Listing<Post> retained;
+        try (JsonReader reader = reader(body)) {
+            retained = Listing.read(Post.class, reader, true);
+        }
+        int iterations = 20000;
+        System.out.println("== model: getScore() + getCreatedTime() over a 100 post listing, " + iterations + " times");
+        long sink = 0L;
+        for (int round=0; round < 2; round++) {
+            long start = System.nanoTime();
+            for (int i=0; i < iterations; i++) {
+                for (Post post : retained) sink += post.getJSON().get("score").getAsInt() + post.getJSON().get("created").getAsLong();
+            }
+            long treeNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int i=0; i < iterations; i++) {
+                for (Post post : retained) sink += post.getScore() + post.getCreatedTime();
+            }
+            long fieldNanos = System.nanoTime() - start;
+            if (round == 0) continue;
+            System.out.printf("%-48s %10.2f ns/post%n", "JsonObject lookups (previous accessors)", ((double) treeNanos) / (iterations * 100L));
+            System.out.printf("%-48s %10.2f ns/post%n", "decoded fields", ((double) fieldNanos) / (iterations * 100L));
+        }
+        if (sink == 0L) throw new IllegalStateException();
+
+        int listings = 500;
+        System.out.println("== model: heap retained by " + listings + " decoded 100 post listings");
+        for (boolean retainJSON : new boolean[] { true, false }) {
+            List<Listing<Post>> held = new ArrayList<>(listings);
+            long before = usedHeap();
+            for (int i=0; i < listings; i++) {
+                try (JsonReader reader = reader(body)) {
+                    held.add(Listing.read(Post.class, reader, retainJSON));
+                }
+            }
+            long after = usedHeap();
+            System.out.printf("%-48s %,12d bytes/listing%n", "retainJSON " + retainJSON, (after - before) / held.size());
+        }
+    }
+
+    private static void benchProjection() throws IOException {
+        byte[] body = wideListingJSON(100);
+        Set<String> fields = Set.of("id", "score", "created", "num_comments", "subreddit");
+        try (JsonReader reader = reader(body)) {
+            Post post = Listing.read(Post.class, reader, false, fields).get(7);
+            if (post.getScore() != 993 || post.getTitle() != null || !post.getFullname().equals("t3_p7")) throw new IllegalStateException("Projection decoded the wrong fields");
+        }
+        System.out.println("== projection: 100 post listing with ~100 fields per post (" + body.length + " bytes), reading " + fields.size() + " fields");
+        measure("full decode, raw JSON retained", body, (byte[] b) -> {
+            try (JsonReader reader = reader(b)) {
+                return Listing.read(Post.class, reader, true);
+            }
+        });
+        measure("full decode, raw JSON not retained", body, (byte[] b) -> {
+            try (JsonReader reader = reader(b)) {
+                return Listing.read(Post.class, reader, false);
+            }
+        });
+        measure("projected, raw JSON retained", body, (byte[] b) -> {
+            try (JsonReader reader = reader(b)) {
+                return Listing.read(Post.class, reader, true, fields);
+            }
+        });
+        measure("projected, raw JSON not retained", body, (byte[] b) -> {
+            try (JsonReader reader = reader(b)) {
+                return Listing.read(Post.class, reader, false, fields);
+            }
+        });
+
+        int listings = 200;
+        System.out.println("== projection: heap retained by " + listings + " decoded listings");
+        for (int mode=0; mode < 4; mode++) {
+            boolean retainJSON = (mode % 2 == 0);
+            Set<String> projection = (mode < 2 ? null : fields);
+            List<Listing<Post>> held = new ArrayList<>(listings);
+            long before = usedHeap();
+            for (int i=0; i < listings; i++) {
+                try (JsonReader reader = reader(body)) {
+                    held.add(Listing.read(Post.class, reader, retainJSON, projection));
+                }
+            }
+            long after = usedHeap();
+            String name = (projection == null ? "full decode" : "projected") + ", raw JSON " + (retainJSON ? "retained" : "not retained");
+            System.out.printf("%-48s %,12d bytes/listing%n", name, (after - before) / held.size());
+        }
+    }
+
+    /**
+     * A user defined subclass, which listings used to create through reflection
+     */
+    public static class RankedPost extends Post {
+        public RankedPost(JsonObject ob) {
+            super(ob);
+        }
+    }
+
+    /**
+     * A user defined entity that decodes nothing up front, so that the cost of creating it is mostly the cost of calling its constructor
+     */
+    public static class RawThing extends RedditEntity {
+        public RawThing(JsonObject ob) {
+            super(ob);
+        }
+
+        @Override
+        public String getFullname() {
+            return getJSON().get("name").getAsString();
+        }
+    }
+
+    private static void benchRegistry() throws IOException {
+        byte[] body = listingJSON(100);
+        JsonObject tree = new Gson().fromJson(new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8), JsonObject.class);
+        JsonArray children = tree.getAsJsonObject("data").getAsJsonArray("children");
+        System.out.println("== registry: wrapping the 100 children of a parsed listing as a user defined entity");
+        measure("Constructor#newInstance per child (previous)", body, (byte[] b) -> {
+            List<RawThing> list = new ArrayList<>(children.size());
+            for (com.google.gson.JsonElement child : children) {
+                try {
+                    list.add(RawThing.class.getConstructor(JsonObject.class).newInstance(child.getAsJsonObject().getAsJsonObject("data")));
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            return list;
+        });
+        measure("new Listing<>(RawThing.class, tree)", body, (byte[] b) -> new Listing<>(RawThing.class, tree));
+        EntityRegistry.Entry<?> previous = EntityRegistry.get("t3");
+        EntityRegistry.register("t3", RankedPost.class);
+        try {
+            measure("RankedPost registered for t3, Listing.read", body, (byte[] b) -> {
+                try (JsonReader reader = reader(b)) {
+                    Listing<Post> listing = Listing.read(Post.class, reader);
+                    if (!(listing.get(0) instanceof RankedPost)) throw new IllegalStateException("Registered class was not used");
+                    return listing;
+                }
+            });
+        } finally {
+            if (previous != null) EntityRegistry.register(previous);
+        }
+    }
+
+    private static void benchLazy() throws IOException {
+        byte[] body = listingJSON(100);
+        JsonObject tree = new Gson().fromJson(new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8), JsonObject.class);
+        System.out.println("== lazy: a parsed 100 post listing");
+        measure("new Listing, getAfter()", body, (byte[] b) -> new Listing<>(Post.class, tree).getAfter() + "");
+        measure("Listing.lazy, getAfter()", body, (byte[] b) -> Listing.lazy(Post.class, tree).getAfter() + "");
+        measure("new Listing, get(0)", body, (byte[] b) -> new Listing<>(Post.class, tree).get(0));
+        measure("Listing.lazy, get(0)", body, (byte[] b) -> Listing.lazy(Post.class, tree).get(0));
+        measure("new Listing, every child", body, (byte[] b) -> {
+            long sum = 0L;
+            for (Post post : new Listing<>(Post.class, tree)) sum += post.getScore();
+            return sum;
+        });
+        measure("Listing.lazy, every child", body, (byte[] b) -> {
+            long sum = 0L;
+            for (Post post : Listing.lazy(Post.class, tree)) sum += post.getScore();
+            return sum;
+        });
+        // Wrapping one comment of a tree must not wrap its replies until they are asked for
+        byte[] threadBody = new HugeThread(20000, 10, 10, 6).thread(null);
+        JsonObject comments = JsonParser.parseString(new String(threadBody, StandardCharsets.UTF_8)).getAsJsonArray().get(1).getAsJsonObject();
+        System.out.println("== lazy: a parsed comment tree of " + countNodes(Listing.lazy(CommentNode.class, comments)) + " nodes");
+        measure("Listing.lazy, get(0)", threadBody, (byte[] b) -> Listing.lazy(CommentNode.class, comments).get(0));
+        measure("Listing.lazy, every node", threadBody, (byte[] b) -> countNodes(Listing.lazy(CommentNode.class, comments)));
+        System.out.println("== lazy: reading only the cursors of a 100 post listing (" + body.length + " bytes)");
+        measure("Listing.read (eager, previous), getAfter()", body, (byte[] b) -> {
+            try (JsonReader reader = reader(b)) {
+                JsonObject ob = JsonParser.parseReader(reader).getAsJsonObject();
+                return new Listing<>(Post.class, ob).getAfter() + "";
+            }
+        });
+        measure("Listing.read, getAfter()", body, (byte[] b) -> {
+            try (JsonReader reader = reader(b)) {
+                return Listing.read(Post.class, reader).getAfter() + "";
+            }
+        });
+        measure("Listing.readCursors", body, (byte[] b) -> {
+            try (JsonReader reader = reader(b)) {
+                return Listing.readCursors(reader);
+            }
+        });
+    }
+
+    private static void measureIdSet(String label, String[] fullnames, String[] lookups, Function<String[], Predicate<String>> build) {
+        long before = usedHeap();
+        long start = System.nanoTime();
+        Predicate<String> contains = build.apply(fullnames);
+        double adding = (System.nanoTime() - start) / 1e6d;
+        long heap = usedHeap() - before;
+        start = System.nanoTime();
+        int hits = 0;
+        for (String lookup : lookups) if (contains.test(lookup)) hits++;
+        double probing = (System.nanoTime() - start) / 1e6d;
+        System.out.printf("%-48s %6.1f B/id, add %6.1f ms, contains %6.1f ms, %d hits%n", label, (double) heap / fullnames.length, adding, probing, hits);
+    }
+
+    private static void benchIds() {
+        int count = 1_000_000;
+        Random random = new Random(24L);
+        String[] fullnames = new String[count];
+        for (int i=0; i < count; i++) {
+            // Seven digit IDs, as Reddit hands out today
+            fullnames[i] = "t" + (random.nextBoolean() ? 1 : 3) + "_" + Long.toString(2176782336L + (random.nextLong() & Long.MAX_VALUE) % 75960984576L, 36);
+        }
+        for (String fullname : fullnames) {
+            if (!RedditId.toString(RedditId.parse(fullname)).equals(fullname)) throw new IllegalStateException("Round trip failed: " + fullname);
+        }
+        for (String bad : new String[] { "", "t3_", "T3_abc", "t3_ABC", "t0_abc", "t3_0abc", "t3_abc-", "abcdefghijkl" }) {
+            if (RedditId.tryParse(bad) != RedditId.NONE) throw new IllegalStateException("Accepted " + bad);
+        }
+
+        // Random adds and removes, checked against a HashSet
+        LongSet set = new LongSet();
+        LongObjectMap<Long> map = new LongObjectMap<>();
+        Set<Long> reference = new HashSet<>();
+        for (int i=0; i < 2_000_000; i++) {
+            long key = random.nextInt(50_000) - 100L;
+            boolean add = random.nextInt(3) != 0;
+            boolean expected = (add ? reference.add(key) : reference.remove(key));
+            if ((add ? set.add(key) : set.remove(key)) != expected) throw new IllegalStateException("LongSet disagrees at " + key);
+            if ((add ? map.put(key, key) == null : map.remove(key) != null) != expected) throw new IllegalStateException("LongObjectMap disagrees at " + key);
+        }
+        if (set.size() != reference.size() || map.size() != reference.size()) throw new IllegalStateException("Sizes differ");
+        for (long key=-100L; key < 50_000L; key++) {
+            boolean expected = reference.contains(key);
+            if (set.contains(key) != expected || (map.get(key) != null) != expected) throw new IllegalStateException("Lookup disagrees at " + key);
+        }
+
+        System.out.println("== ids: " + count + " fullnames kept for dedup");
+        String[] lookups = new String[count];
+        for (int i=0; i < count; i++) lookups[i] = new String(fullnames[random.nextInt(count)]);
+        measureIdSet("HashSet<String>", fullnames, lookups, (String[] all) -> {
+            Set<String> strings = new HashSet<>();
+            // Copies, as each string would be a fresh one decoded from a response
+            for (String fullname : all) strings.add(new String(fullname.toCharArray()));
+            return strings::contains;
+        });
+        measureIdSet("LongSet of RedditId", fullnames, lookups, (String[] all) -> {
+            LongSet ids = new LongSet();
+            for (String fullname : all) ids.add(RedditId.parse(fullname));
+            return (String fullname) -> ids.contains(RedditId.parse(fullname));
+        });
+        measureIdSet("FullnameSet (LongSet + ring, insertion order)", fullnames, lookups, (String[] all) -> {
+            FullnameSet recent = new FullnameSet(all.length);
+            for (String fullname : all) recent.add(fullname);
+            return recent::contains;
+        });
+    }
+
+}